@@ -0,0 +1,142 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.map.DeserializationConfig.Feature;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.codehaus.jackson.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the encode and decode cost of the JSON and Smile codecs, using the same Jackson configuration as
+ * {@link org.jboss.aerogear.controller.router.rest.JsonResponder} and
+ * {@link org.jboss.aerogear.controller.router.rest.SmileResponder}. The encoded payload sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final TypeReference<List<Car>> CARS = new TypeReference<List<Car>>() {};
+
+    @Param({ "1", "100" })
+    public int size;
+
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private List<Car> cars;
+    private byte[] jsonBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        json = new ObjectMapper();
+        json.configure(Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        smile = new ObjectMapper(new SmileFactory());
+        smile.configure(Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        cars = new ArrayList<Car>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car(i, i % 2 == 0 ? "red" : "blue", "brand-" + (i % 10)));
+        }
+        jsonBytes = json.writeValueAsBytes(cars);
+        smileBytes = smile.writeValueAsBytes(cars);
+        System.out.println("\nPayload size for " + size + " entities: json=" + jsonBytes.length + " bytes, smile="
+                + smileBytes.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return json.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws Exception {
+        return smile.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public List<Car> decodeJson() throws Exception {
+        return json.readValue(jsonBytes, CARS);
+    }
+
+    @Benchmark
+    public List<Car> decodeSmile() throws Exception {
+        return smile.readValue(smileBytes, CARS);
+    }
+
+    public static class Car {
+
+        private long id;
+        private String color;
+        private String brand;
+
+        public Car() {
+        }
+
+        public Car(final long id, final String color, final String brand) {
+            this.id = id;
+            this.color = color;
+            this.brand = brand;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public void setColor(final String color) {
+            this.color = color;
+        }
+
+        public String getBrand() {
+            return brand;
+        }
+
+        public void setBrand(final String brand) {
+            this.brand = brand;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.benchmark;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.mocks.FakeRequest;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.util.RequestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Optional;
+
+/**
+ * Measures parsing the 'Accept' header and selecting the media type a route responds with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentNegotiationBenchmark {
+
+    @Param({ "application/json", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8" })
+    public String accept;
+
+    private FakeRequest request;
+    private Set<String> acceptHeaders;
+    private Set<MediaType> produces;
+
+    @Setup
+    public void setup() {
+        request = new FakeRequest().header("Accept", accept);
+        acceptHeaders = RequestUtils.extractAcceptHeader(request);
+        produces = new LinkedHashSet<MediaType>();
+        produces.add(MediaType.HTML);
+        produces.add(MediaType.JSON);
+    }
+
+    @Benchmark
+    public Set<String> extractAcceptHeader() {
+        return RequestUtils.extractAcceptHeader(request);
+    }
+
+    @Benchmark
+    public Optional<MediaType> getAcceptedMediaType() {
+        return RequestUtils.getAcceptedMediaType(acceptHeaders, produces);
+    }
+
+}
@@ -0,0 +1,177 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.benchmark;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * A JMH profiler that finds the locks the benchmark threads contend on, by sampling the state of the JMH worker threads every
+ * {@value #INTERVAL_MILLIS} milliseconds. Enable it with {@code -prof org.jboss.aerogear.controller.benchmark.ContentionProfiler}.
+ * </p>
+ * A worker is counted as contended when it is blocked entering a monitor, or parked on a lock owned by another thread. Every
+ * contended sample is attributed to the class of the lock and the first frame outside of the JDK, which is the framework or
+ * library code that acquires it. Per iteration the percentage of contended samples is reported as {@code contention}, and
+ * every site with at least {@value #HOT_PERCENT}% of the samples as a hot monitor. Taking a sample needs a safepoint, so the
+ * throughput measured with this profiler is slightly lower.
+ */
+public class ContentionProfiler implements InternalProfiler {
+
+    static final String HOT_MONITOR_PREFIX = "hot monitor: ";
+
+    private static final long INTERVAL_MILLIS = 5;
+    private static final int HOT_PERCENT = 1;
+    private static final int MAX_HOT_MONITORS = 5;
+    private static final int STACK_DEPTH = 16;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private Sampler sampler;
+
+    @Override
+    public String getDescription() {
+        return "Contended monitors and locks of the benchmark threads, found by sampling";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        sampler = new Sampler();
+        sampler.start();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams,
+            final IterationParams iterationParams, final IterationResult result) {
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final List<Result> results = new ArrayList<Result>();
+        if (sampler.samples == 0) {
+            return results;
+        }
+        int contended = 0;
+        for (int count : sampler.sites.values()) {
+            contended += count;
+        }
+        results.add(new ScalarResult("contention", percent(contended, sampler.samples), "%", AggregationPolicy.AVG));
+        final List<Entry<String, Integer>> sites = new ArrayList<Entry<String, Integer>>(sampler.sites.entrySet());
+        Collections.sort(sites, new Comparator<Entry<String, Integer>>() {
+            @Override
+            public int compare(final Entry<String, Integer> o1, final Entry<String, Integer> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        for (Entry<String, Integer> site : sites.subList(0, Math.min(MAX_HOT_MONITORS, sites.size()))) {
+            final double percent = percent(site.getValue(), sampler.samples);
+            if (percent >= HOT_PERCENT) {
+                results.add(new ScalarResult(HOT_MONITOR_PREFIX + site.getKey(), percent, "%", AggregationPolicy.AVG));
+            }
+        }
+        return results;
+    }
+
+    private static double percent(final int count, final int total) {
+        return Math.round(count * 1000.0 / total) / 10.0;
+    }
+
+    private static boolean isContended(final ThreadInfo info) {
+        switch (info.getThreadState()) {
+            case BLOCKED:
+                return true;
+            case WAITING:
+            case TIMED_WAITING:
+                return info.getLockInfo() != null && info.getLockOwnerId() != -1;
+            default:
+                return false;
+        }
+    }
+
+    private static String site(final ThreadInfo info) {
+        final LockInfo lock = info.getLockInfo();
+        final StringBuilder site = new StringBuilder(lock == null ? "unknown" : lock.getClassName());
+        final StackTraceElement[] stack = info.getStackTrace();
+        for (StackTraceElement frame : stack) {
+            final String className = frame.getClassName();
+            if (!className.startsWith("java.") && !className.startsWith("sun.") && !className.startsWith("jdk.")) {
+                return site.append(" in ").append(className).append('.').append(frame.getMethodName()).toString();
+            }
+        }
+        if (stack.length > 0) {
+            site.append(" in ").append(stack[0].getClassName()).append('.').append(stack[0].getMethodName());
+        }
+        return site.toString();
+    }
+
+    private class Sampler extends Thread {
+
+        private final Map<String, Integer> sites = new HashMap<String, Integer>();
+        private int samples;
+
+        Sampler() {
+            super("aerogear-contention-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                sample();
+                try {
+                    Thread.sleep(INTERVAL_MILLIS);
+                } catch (final InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void sample() {
+            for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), STACK_DEPTH)) {
+                if (info == null || !info.getThreadName().contains("jmh-worker")) {
+                    continue;
+                }
+                samples++;
+                if (isContended(info)) {
+                    final String site = site(info);
+                    final Integer count = sites.get(site);
+                    sites.put(site, count == null ? 1 : count + 1);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.inject.Instance;
+import javax.servlet.FilterChain;
+
+import org.jboss.aerogear.controller.mocks.FakeRequest;
+import org.jboss.aerogear.controller.mocks.FakeResponse;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsConfig;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsConfiguration;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link CorsHandler} answering a preflight request with request headers, using the default configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorsPreflightBenchmark {
+
+    private CorsHandler corsHandler;
+    private FakeRequest request;
+    private FakeResponse response;
+    private FilterChain chain;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        final Instance<CorsConfiguration> config = mock(Instance.class);
+        when(config.isUnsatisfied()).thenReturn(false);
+        when(config.get()).thenReturn(CorsConfig.enableCorsSupport().anyOrigin().enableCookies().maxAge(3600)
+                .enableAllRequestMethods().validRequestHeaders("accept, content-type"));
+        corsHandler = new CorsHandler(mock(Router.class), config);
+        request = new FakeRequest().method(RequestMethod.OPTIONS).path("/cars")
+                .header("Origin", "http://example.com")
+                .header("Access-Control-Request-Method", "PUT")
+                .header("Access-Control-Request-Headers", "content-type");
+        response = new FakeResponse();
+        chain = mock(FilterChain.class);
+    }
+
+    @Benchmark
+    public long preflight() throws Exception {
+        corsHandler.dispatch(request, response, chain);
+        return response.clear();
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.benchmark;
+
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.FakeRequest;
+import org.jboss.aerogear.controller.mocks.FakeResponse;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JsonResponder#respond(Object, RouteContext)}, including the projection lookup, serializing to a response
+ * whose body is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonResponderBenchmark {
+
+    @Param({ "1", "100" })
+    public int size;
+
+    private JsonResponder responder;
+    private RouteContext routeContext;
+    private FakeResponse response;
+    private Object entity;
+
+    @Setup
+    public void setup() {
+        final Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).index();
+            }
+        }.build();
+        final FakeRequest request = new FakeRequest().path("/cars").header("Accept", MediaType.JSON.getType());
+        response = new FakeResponse();
+        routeContext = new RouteContext(routes.routeFor(RequestMethod.GET, "/cars",
+                Collections.singleton(MediaType.JSON.getType())), "/cars", request, response, routes);
+        final List<Car> cars = new ArrayList<Car>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car(i % 2 == 0 ? "red" : "blue", "brand-" + (i % 10)));
+        }
+        entity = size == 1 ? cars.get(0) : cars;
+        responder = new JsonResponder();
+    }
+
+    @Benchmark
+    public long respond() throws Exception {
+        responder.respond(entity, routeContext);
+        return response.clear();
+    }
+
+}
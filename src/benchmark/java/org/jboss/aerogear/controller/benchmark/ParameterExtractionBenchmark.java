@@ -0,0 +1,137 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.benchmark;
+
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.FakeRequest;
+import org.jboss.aerogear.controller.mocks.FakeResponse;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.router.rest.JsonConsumer;
+import org.jboss.aerogear.controller.util.ParameterExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ParameterExtractor#extractArguments(RouteContext, Map)} for a route using each {@link Parameter.Type}:
+ * <ul>
+ * <li>REQUEST: two query parameters</li>
+ * <li>ENTITY: a JSON request body</li>
+ * <li>CONSTANT: a single constant</li>
+ * <li>REPLACEMENT: a string with a path parameter and a query parameter placeholder</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterExtractionBenchmark {
+
+    @Param({ "REQUEST", "ENTITY", "CONSTANT", "REPLACEMENT" })
+    public Parameter.Type type;
+
+    private RouteContext routeContext;
+    private Map<String, Consumer> consumers;
+
+    @Setup
+    public void setup() throws Exception {
+        final Routes routes = new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/request")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).find(param("color"), param("brand"));
+                route()
+                        .from("/entity")
+                        .on(POST)
+                        .consumes(JSON)
+                        .produces(JSON)
+                        .to(SampleController.class).save(param(Car.class));
+                route()
+                        .from("/constant")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).client("constant");
+                route()
+                        .from("/replacement/{id}")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).processPath("{id}?title={title}");
+            }
+        }.build();
+        final FakeRequest request = new FakeRequest();
+        final String path;
+        switch (type) {
+            case REQUEST:
+                path = "/request";
+                request.param("color", "red").param("brand", "mini");
+                break;
+            case ENTITY:
+                path = "/entity";
+                request.method(RequestMethod.POST).body(MediaType.JSON.getType(),
+                        "{\"color\":\"red\",\"brand\":\"mini\"}".getBytes("UTF-8"));
+                break;
+            case CONSTANT:
+                path = "/constant";
+                break;
+            default:
+                path = "/replacement/10";
+                request.param("title", "Mr");
+                break;
+        }
+        request.path(path).header("Accept", MediaType.JSON.getType());
+        final Route route = routes.routeFor(RequestMethod.valueOf(request.getMethod()), path,
+                Collections.singleton(MediaType.JSON.getType()));
+        routeContext = new RouteContext(route, path, request, new FakeResponse(), routes);
+        final Consumer json = new JsonConsumer();
+        consumers = Collections.singletonMap(json.mediaType(), json);
+    }
+
+    @Benchmark
+    public Map<String, Object> extractArguments() throws Exception {
+        return ParameterExtractor.extractArguments(routeContext, consumers);
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.util.RequestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching a request path against a route path with placeholders, and extracting the path parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathMatchingBenchmark {
+
+    public String routePath = "/cars/{id}/wheels/{wheel}";
+    public String matchingPath = "/cars/12/wheels/3";
+    public String otherPath = "/cars/12/doors/3";
+
+    @Benchmark
+    public boolean segmentsMatch() {
+        return RequestUtils.segmentsMatch(routePath, matchingPath);
+    }
+
+    @Benchmark
+    public boolean segmentsMismatch() {
+        return RequestUtils.segmentsMatch(routePath, otherPath);
+    }
+
+    @Benchmark
+    public Map<String, String> mapPathParams() {
+        return RequestUtils.mapPathParams(matchingPath, routePath);
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.jboss.aerogear.controller.mocks.FakeRequest;
+import org.jboss.aerogear.controller.mocks.FakeResponse;
+import org.jboss.aerogear.controller.mocks.LoadHarness;
+import org.jboss.aerogear.controller.mocks.SyntheticRoutes;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.RoutingModule;
+import org.jboss.aerogear.controller.router.Routes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the startup cost of an application with a large {@link RoutingModule}: building its route table, which creates a
+ * cglib proxy for every route, and dispatching the first request once the router has been created.
+ * </p>
+ * Every fork measures a single cold invocation, so class generation and loading are included. Run with the
+ * {@link StartupProfiler} to also report the CPU time, the classes loaded and the metaspace growth. These cover the whole
+ * iteration including its setup, so for {@link #firstRequest} they include creating the router:
+ * 
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RouteTableBenchmark -prof org.jboss.aerogear.controller.benchmark.StartupProfiler"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class RouteTableBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = new FilterChain() {
+        @Override
+        public void doFilter(final ServletRequest request, final ServletResponse response) {
+        }
+    };
+
+    @Benchmark
+    public Routes build(final Module module) {
+        return module.routingModule.build();
+    }
+
+    @Benchmark
+    public long firstRequest(final Started started) throws Exception {
+        started.router.dispatch(started.request, started.response, NO_OP_CHAIN);
+        return started.response.clear();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Module {
+
+        @Param({ "100", "1000", "10000" })
+        public int routes;
+
+        RoutingModule routingModule;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            routingModule = SyntheticRoutes.mixedModule(routes);
+        }
+
+    }
+
+    /**
+     * A router that has been created, but has not dispatched any request yet.
+     */
+    @State(Scope.Benchmark)
+    public static class Started {
+
+        @Param({ "100", "1000", "10000" })
+        public int routes;
+
+        Router router;
+        FakeRequest request;
+        FakeResponse response;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            router = LoadHarness.from(SyntheticRoutes.mixedModule(routes)).router();
+            request = new FakeRequest().path(SyntheticRoutes.parameterizedPath(routes - 3))
+                    .header("Accept", MediaType.JSON.getType());
+            response = new FakeResponse();
+        }
+
+    }
+
+}
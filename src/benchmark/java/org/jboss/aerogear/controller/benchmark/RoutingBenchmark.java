@@ -0,0 +1,83 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.benchmark;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.mocks.SyntheticRoutes;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Routes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Routes#routeFor(RequestMethod, String, Set)} for route tables of increasing size. The first, middle and
+ * last route of the table are looked up in turn, so that the result does not depend on the position of a single route.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final Set<String> ACCEPT = Collections.singleton(MediaType.JSON.getType());
+
+    @Param({ "10", "100", "1000" })
+    public int routeCount;
+
+    @Param({ "static", "parameterized" })
+    public String kind;
+
+    private Routes routes;
+    private String[] paths;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final boolean parameterized = "parameterized".equals(kind);
+        routes = parameterized ? SyntheticRoutes.parameterizedRoutes(routeCount) : SyntheticRoutes.staticRoutes(routeCount);
+        paths = new String[3];
+        final int[] indexes = { 0, routeCount / 2, routeCount - 1 };
+        for (int i = 0; i < indexes.length; i++) {
+            paths[i] = parameterized ? SyntheticRoutes.parameterizedPath(indexes[i]) : SyntheticRoutes.staticPath(indexes[i]);
+        }
+    }
+
+    @Benchmark
+    public Route routeFor() {
+        final String path = paths[next];
+        next = next == paths.length - 1 ? 0 : next + 1;
+        return routes.routeFor(RequestMethod.GET, path, ACCEPT);
+    }
+
+}
@@ -0,0 +1,193 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.benchmark;
+
+import static org.jboss.aerogear.controller.router.MediaType.JSON;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.FakeRequest;
+import org.jboss.aerogear.controller.mocks.FakeResponse;
+import org.jboss.aerogear.controller.mocks.LoadHarness;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Router;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how the throughput of the dispatch path scales with the number of threads sharing a single {@link Router}, and
+ * therefore the framework state shared between requests, such as the route table, the {@code ObjectMapper}s and the loggers.
+ * Every thread replays a GET with a path parameter, a GET returning a JSON entity and a JSON POST.
+ * </p>
+ * {@link #main(String[])} runs the benchmark with 1, 2, 4 and so on up to the number of threads given with {@code -t}, which
+ * defaults to the number of processors, with the {@link ContentionProfiler} enabled. It prints the throughput per thread
+ * count, the scaling efficiency compared to a single thread, and the hot monitors found at every thread count. Other JMH
+ * options such as {@code -f} or {@code -i} are passed on:
+ * 
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.main=org.jboss.aerogear.controller.benchmark.ScalingBenchmark -Djmh.args="-t 32"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = new FilterChain() {
+        @Override
+        public void doFilter(final ServletRequest request, final ServletResponse response) {
+        }
+    };
+
+    @Benchmark
+    public long dispatch(final Shared shared, final PerThread perThread) throws Exception {
+        final FakeRequest request = perThread.next();
+        shared.router.dispatch(request, perThread.response, NO_OP_CHAIN);
+        return perThread.response.clear();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        Router router;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            router = LoadHarness.from(new AbstractRoutingModule() {
+                @Override
+                public void configuration() {
+                    route()
+                            .from("/cars/{id}")
+                            .on(GET)
+                            .produces(JSON)
+                            .to(SampleController.class).find(param("id"));
+                    route()
+                            .from("/cars")
+                            .on(GET)
+                            .produces(JSON)
+                            .to(SampleController.class).save(param("color"), param("brand"));
+                    route()
+                            .from("/cars")
+                            .on(POST)
+                            .consumes(JSON)
+                            .produces(JSON)
+                            .to(SampleController.class).save(param(Car.class));
+                }
+            }).router();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+
+        private final FakeRequest[] requests = new FakeRequest[3];
+        final FakeResponse response = new FakeResponse();
+        private int index;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            requests[0] = new FakeRequest().path("/cars/42").header("Accept", JSON.getType());
+            requests[1] = new FakeRequest().path("/cars").param("color", "red").param("brand", "Ferrari")
+                    .header("Accept", JSON.getType());
+            requests[2] = new FakeRequest().method(RequestMethod.POST).path("/cars").header("Accept", JSON.getType())
+                    .body(JSON.getType(), "{\"color\":\"red\",\"brand\":\"Ferrari\"}".getBytes(Charset.forName("UTF-8")));
+        }
+
+        FakeRequest next() {
+            final FakeRequest request = requests[index];
+            index = index == requests.length - 1 ? 0 : index + 1;
+            return request.reset();
+        }
+
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final CommandLineOptions options = new CommandLineOptions(args);
+        final int maxThreads = options.getThreads().orElse(Runtime.getRuntime().availableProcessors());
+        final Map<Integer, RunResult> results = new LinkedHashMap<Integer, RunResult>();
+        int threads = 1;
+        while (true) {
+            final Collection<RunResult> run = new Runner(new OptionsBuilder().parent(options)
+                    .include(ScalingBenchmark.class.getName() + ".dispatch")
+                    .threads(threads)
+                    .addProfiler(ContentionProfiler.class)
+                    .build()).run();
+            results.put(threads, run.iterator().next());
+            if (threads >= maxThreads) {
+                break;
+            }
+            threads = Math.min(threads * 2, maxThreads);
+        }
+        report(results);
+    }
+
+    private static void report(final Map<Integer, RunResult> results) {
+        final double single = results.get(1).getPrimaryResult().getScore();
+        System.out.println();
+        System.out.println("Dispatch throughput by thread count");
+        System.out.println(String.format("%8s %14s %14s %11s %11s", "threads", "ops/s", "ops/s/thread", "efficiency",
+                "contention"));
+        for (Entry<Integer, RunResult> entry : results.entrySet()) {
+            final int threads = entry.getKey();
+            final double score = entry.getValue().getPrimaryResult().getScore();
+            final Result<?> contention = entry.getValue().getSecondaryResults().get("contention");
+            System.out.println(String.format("%8d %14.0f %14.0f %10.0f%% %10.1f%%", threads, score, score / threads,
+                    100 * score / (single * threads), contention == null ? 0 : contention.getScore()));
+        }
+        for (Entry<Integer, RunResult> entry : results.entrySet()) {
+            for (Entry<String, Result> secondary : entry.getValue().getSecondaryResults().entrySet()) {
+                if (secondary.getKey().startsWith(ContentionProfiler.HOT_MONITOR_PREFIX)) {
+                    System.out.println(String.format("%2d threads, %5.1f%% of samples: %s", entry.getKey(),
+                            secondary.getValue().getScore(),
+                            secondary.getKey().substring(ContentionProfiler.HOT_MONITOR_PREFIX.length())));
+                }
+            }
+        }
+    }
+
+}
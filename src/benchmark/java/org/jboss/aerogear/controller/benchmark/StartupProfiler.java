@@ -0,0 +1,100 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.benchmark;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * A JMH profiler reporting, per iteration, the CPU time used by the process, the number of classes loaded and the growth of
+ * the memory used for class metadata. Unlike {@code @AuxCounters} it also works for single shot benchmarks, which makes it
+ * suited to measure startup costs. Enable it with {@code -prof org.jboss.aerogear.controller.benchmark.StartupProfiler}.
+ * </p>
+ * The CPU time includes the JIT compiler and GC threads, as these are part of the cost of starting up.
+ */
+public class StartupProfiler implements InternalProfiler {
+
+    private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private long cpuStart;
+    private long classesStart;
+    private long metaspaceStart;
+
+    @Override
+    public String getDescription() {
+        return "Process CPU time, classes loaded and metaspace growth per iteration";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        cpuStart = processCpuTime();
+        classesStart = classLoading.getTotalLoadedClassCount();
+        metaspaceStart = metaspaceUsed();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams,
+            final IterationParams iterationParams, final IterationResult result) {
+        final List<Result> results = new ArrayList<Result>();
+        final long cpu = processCpuTime();
+        if (cpu != -1) {
+            results.add(new ScalarResult("startup.cpu", TimeUnit.NANOSECONDS.toMicros(cpu - cpuStart) / 1000.0, "ms",
+                    AggregationPolicy.AVG));
+        }
+        results.add(new ScalarResult("startup.classes", classLoading.getTotalLoadedClassCount() - classesStart, "classes",
+                AggregationPolicy.AVG));
+        results.add(new ScalarResult("startup.metaspace", (metaspaceUsed() - metaspaceStart) / 1024.0, "KB",
+                AggregationPolicy.AVG));
+        return results;
+    }
+
+    private long processCpuTime() {
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the memory used for class metadata, which is the metaspace on Java 8 and the permanent generation before.
+     */
+    private static long metaspaceUsed() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            final String name = pool.getName();
+            if (name.contains("Metaspace") || name.contains("Perm Gen") || name.contains("Class Space")) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+}
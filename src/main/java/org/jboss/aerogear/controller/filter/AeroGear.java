@@ -17,9 +17,24 @@
 
 package org.jboss.aerogear.controller.filter;
 
+import org.jboss.aerogear.controller.filter.accesslog.AccessLog;
+import org.jboss.aerogear.controller.filter.accesslog.AccessLogConfiguration;
+import org.jboss.aerogear.controller.filter.limit.AdaptiveLimiter;
+import org.jboss.aerogear.controller.filter.limit.LimiterConfiguration;
 import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.Priority;
+import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.BulkheadHandler;
+import org.jboss.aerogear.controller.router.decorators.metrics.MeteredHttpServletResponse;
+import org.jboss.aerogear.controller.util.RequestUtils;
+import org.jboss.aerogear.controller.util.SharedExecutor;
 
+import com.google.common.base.Optional;
+
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.servlet.*;
 import javax.servlet.annotation.WebFilter;
@@ -29,6 +44,17 @@ import java.io.IOException;
 
 /**
  * A Servlet Filter that intercept all request for the current web application and delegates to an instance of {@link Router}.
+ * </p>
+ * When a {@link LimiterConfiguration} enabling it is produced using CDI, requests are admitted by an {@link AdaptiveLimiter}
+ * before they are dispatched. Requests that are not admitted are rejected with a '503 Service Unavailable' response before
+ * the request body has been read.
+ * </p>
+ * When an {@link AccessLogConfiguration} enabling it is produced using CDI, every dispatched request, including rejected ones,
+ * is recorded in an {@link AccessLog}.
+ * </p>
+ * When the filter is destroyed, as the application is undeployed, the access log is closed, the Flight Recorder events are
+ * unregistered and the shared pools of the library are shut down, so that no thread or JVM wide registration keeps the
+ * class loader of the application from being collected.
  */
 @WebFilter(filterName = "aerogear-controller", urlPatterns = "/*")
 public class AeroGear implements Filter {
@@ -36,8 +62,45 @@ public class AeroGear implements Filter {
     @Inject
     private Router router;
 
+    @Inject
+    private Instance<LimiterConfiguration> limiterConfig;
+
+    @Inject
+    private Instance<AccessLogConfiguration> accessLogConfig;
+
+    private AdaptiveLimiter limiter;
+    private AccessLog accessLog;
+    private final RouteCounters limiterCounters = RouteCounters.forName(AdaptiveLimiter.LIMITER_COUNTERS);
+
+    public AeroGear() {
+    }
+
+    AeroGear(final Router router, final AdaptiveLimiter limiter) {
+        this(router, limiter, null);
+    }
+
+    AeroGear(final Router router, final AdaptiveLimiter limiter, final AccessLog accessLog) {
+        this.router = router;
+        this.limiter = limiter;
+        this.accessLog = accessLog;
+    }
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+        if (limiter == null && limiterConfig != null && !limiterConfig.isUnsatisfied()
+                && limiterConfig.get().isLimiterEnabled()) {
+            limiter = new AdaptiveLimiter(limiterConfig.get());
+        }
+        if (accessLog == null && accessLogConfig != null && !accessLogConfig.isUnsatisfied()
+                && accessLogConfig.get().isAccessLogEnabled()) {
+            final AccessLog log = new AccessLog(accessLogConfig.get());
+            try {
+                log.start();
+            } catch (final IOException e) {
+                throw new ServletException(e.getMessage(), e);
+            }
+            accessLog = log;
+        }
     }
 
     @Override
@@ -49,18 +112,70 @@ public class AeroGear implements Filter {
         HttpServletRequest httpServletRequest = (HttpServletRequest) request;
         HttpServletResponse httpServletResponse = (HttpServletResponse) response;
         if (router.hasRouteFor(httpServletRequest)) {
-            router.dispatch(httpServletRequest, httpServletResponse, chain);
+            if (limiter == null && accessLog == null) {
+                router.dispatch(httpServletRequest, httpServletResponse, chain);
+            } else {
+                final Optional<Route> route = router.routeFor(httpServletRequest);
+                if (accessLog == null) {
+                    dispatchLimited(httpServletRequest, httpServletResponse, chain, route);
+                } else {
+                    dispatchLogged(httpServletRequest, httpServletResponse, chain, route);
+                }
+            }
             return;
         }
         chain.doFilter(request, response);
     }
 
+    private void dispatchLogged(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            Optional<Route> route) throws IOException, ServletException {
+        final MeteredHttpServletResponse metered = new MeteredHttpServletResponse(response);
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            if (limiter == null) {
+                router.dispatch(request, metered, chain);
+            } else {
+                dispatchLimited(request, metered, chain, route);
+            }
+            failed = false;
+        } finally {
+            metered.flushWriter();
+            final String template = route.isPresent() ? route.get().getPath() : null;
+            accessLog.log(request.getMethod(), template, template != null ? template : RequestUtils.extractPath(request),
+                    failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : metered.getStatus(),
+                    metered.getBytesWritten(), System.nanoTime() - start);
+        }
+    }
+
+    private void dispatchLimited(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            Optional<Route> route) throws IOException, ServletException {
+        final Priority priority = route.isPresent() ? route.get().getPriority() : Priority.NORMAL;
+        if (!limiter.tryAcquire(priority)) {
+            limiterCounters.increment(route.isPresent() ? route.get().getPath() : RouteCounters.UNMATCHED,
+                    AdaptiveLimiter.REJECTED);
+            response.setHeader(BulkheadHandler.RETRY_AFTER_HEADER, String.valueOf(BulkheadHandler.RETRY_AFTER_SECONDS));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            router.dispatch(request, response, chain);
+        } finally {
+            limiter.release(start);
+        }
+    }
+
     private boolean isHttpServletContainer(ServletRequest request, ServletResponse response) {
         return !(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse);
     }
 
     @Override
     public void destroy() {
-
+        if (accessLog != null) {
+            accessLog.close();
+        }
+        FlightRecorder.unregister();
+        SharedExecutor.shutdownAll();
     }
 }
@@ -0,0 +1,280 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.filter.accesslog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+
+/**
+ * An access log that records the method, route template, status, response size and latency of requests.
+ * </p>
+ * Request threads add records to a preallocated, lock free ring buffer. A single background thread drains the buffer in
+ * batches and appends them to a {@link RotatingFileWriter}, so request threads never perform I/O and never wait. When the
+ * buffer is full records are dropped according to the {@link OverflowPolicy}; dropped records are counted, per route, in
+ * the {@code access-log} {@link RouteCounters}, with requests that matched no route counted under
+ * {@link RouteCounters#UNMATCHED}, and a line stating how many were dropped is written to the log.
+ * </p>
+ * Each record is written as a single line:
+ * <pre>
+ * 2013-03-14T10:15:30.123+0000 GET /cars/{id} 200 512 3217
+ * </pre>
+ * holding the time the request completed, the method, the route template (the request path if no route matched), the status,
+ * the number of bytes of the response body and the latency in microseconds.
+ */
+public final class AccessLog implements Closeable {
+
+    public static final String ACCESS_LOG_COUNTERS = "access-log";
+    public static final String DROPPED = "dropped";
+
+    private static final int MAX_BATCH = 1024;
+    private static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private final AccessLogConfiguration config;
+    private final Record[] records;
+    private final int mask;
+    private final int errorReserve;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final RouteCounters counters = RouteCounters.forName(ACCESS_LOG_COUNTERS);
+    private final Thread writer;
+    private RotatingFileWriter output;
+    private volatile boolean running;
+
+    public AccessLog(final AccessLogConfiguration config) {
+        this.config = config;
+        this.records = new Record[config.getBufferSize()];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new Record();
+        }
+        this.mask = records.length - 1;
+        this.errorReserve = config.getOverflowPolicy() == OverflowPolicy.PRESERVE_ERRORS ? records.length / 4 : 0;
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                write();
+            }
+        }, "aerogear-access-log");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens the access log file and starts the writer thread.
+     * 
+     * @throws IOException if the access log file cannot be opened.
+     */
+    public void start() throws IOException {
+        output = new RotatingFileWriter(new File(config.getFile()), config.getMaxFileSize(), config.getMaxFiles());
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Adds a record for a request that matched a route to the log. This method never blocks.
+     * 
+     * @param method the HTTP method of the request.
+     * @param route the route template.
+     * @param status the status of the response.
+     * @param bytes the number of bytes of the response body.
+     * @param nanos the latency of the request in nanoseconds.
+     * @return {@code true} if the record was added, {@code false} if it was dropped.
+     */
+    public boolean log(final String method, final String route, final int status, final long bytes, final long nanos) {
+        return log(method, route, route, status, bytes, nanos);
+    }
+
+    /**
+     * Adds a record to the log. This method never blocks.
+     * 
+     * @param method the HTTP method of the request.
+     * @param route the route template, or {@code null} if no route matched.
+     * @param path the request path, which is written instead of the route template if no route matched.
+     * @param status the status of the response.
+     * @param bytes the number of bytes of the response body.
+     * @param nanos the latency of the request in nanoseconds.
+     * @return {@code true} if the record was added, {@code false} if it was dropped.
+     */
+    public boolean log(final String method, final String route, final String path, final int status, final long bytes,
+            final long nanos) {
+        final int capacity = status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR ? records.length : records.length
+                - errorReserve;
+        long claim;
+        do {
+            claim = tail.get();
+            if (claim - head.get() >= capacity) {
+                dropped.incrementAndGet();
+                counters.increment(route != null ? route : RouteCounters.UNMATCHED, DROPPED);
+                return false;
+            }
+        } while (!tail.compareAndSet(claim, claim + 1));
+        final Record record = records[(int) (claim & mask)];
+        record.timestamp = System.currentTimeMillis();
+        record.method = method;
+        record.route = route != null ? route : path;
+        record.status = status;
+        record.bytes = bytes;
+        record.micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        record.sequence = claim;
+        return true;
+    }
+
+    /**
+     * Returns the number of records dropped since this log was created.
+     * 
+     * @return {@code long} the number of dropped records.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the writer thread, after it has written the records already in the buffer, and closes the access log file.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(CLOSE_TIMEOUT);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AccessLog[config=" + config + ", buffered=" + (tail.get() - head.get()) + ", dropped=" + dropped.get() + "]";
+    }
+
+    private void write() {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+        final Date date = new Date();
+        final Batch batch = new Batch();
+        final Writer text = newWriter(batch);
+        final long flushInterval = TimeUnit.MILLISECONDS.toNanos(config.getFlushInterval());
+        long reportedDrops = 0;
+        try {
+            while (true) {
+                final boolean stopping = !running;
+                int count = 0;
+                long next = head.get();
+                while (count < MAX_BATCH) {
+                    final Record record = records[(int) (next & mask)];
+                    if (record.sequence != next) {
+                        break;
+                    }
+                    date.setTime(record.timestamp);
+                    text.append(format.format(date)).append(' ').append(record.method).append(' ').append(record.route)
+                            .append(' ').append(String.valueOf(record.status)).append(' ')
+                            .append(String.valueOf(record.bytes)).append(' ').append(String.valueOf(record.micros))
+                            .append('\n');
+                    record.method = null;
+                    record.route = null;
+                    next++;
+                    count++;
+                }
+                head.set(next);
+                final long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    text.append("# dropped ").append(String.valueOf(drops - reportedDrops)).append(" records\n");
+                    reportedDrops = drops;
+                }
+                text.flush();
+                if (batch.size() > 0) {
+                    writeBatch(batch);
+                }
+                if (count == MAX_BATCH) {
+                    continue;
+                }
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(this, flushInterval);
+            }
+        } catch (final IOException e) {
+            AeroGearLogger.THROTTLED.accessLogWriteFailed(config.getFile(), e);
+        } finally {
+            try {
+                output.close();
+            } catch (final IOException e) {
+                AeroGearLogger.THROTTLED.accessLogWriteFailed(config.getFile(), e);
+            }
+        }
+    }
+
+    private void writeBatch(final Batch batch) {
+        try {
+            output.write(batch.buffer(), batch.size());
+        } catch (final IOException e) {
+            AeroGearLogger.THROTTLED.accessLogWriteFailed(config.getFile(), e);
+        }
+        batch.reset();
+    }
+
+    private static Writer newWriter(final ByteArrayOutputStream out) {
+        try {
+            return new OutputStreamWriter(out, "UTF-8");
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The encoded records of a batch, whose buffer is reused for all batches.
+     */
+    private static final class Batch extends ByteArrayOutputStream {
+        Batch() {
+            super(MAX_BATCH * 64);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    /**
+     * A preallocated slot of the ring buffer. A record is published by writing its sequence, after all other fields.
+     */
+    private static final class Record {
+        private volatile long sequence = -1;
+        private long timestamp;
+        private String method;
+        private String route;
+        private int status;
+        private long bytes;
+        private long micros;
+    }
+
+}
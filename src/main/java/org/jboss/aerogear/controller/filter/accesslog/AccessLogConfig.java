@@ -0,0 +1,181 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.filter.accesslog;
+
+/**
+ * Concrete implementation of {@link AccessLogConfiguration}.
+ * </p>
+ * The access log is disabled by default. To enable it produce an {@link AccessLogConfiguration} using CDI:
+ * <pre>
+ * &#64;Produces
+ * public AccessLogConfiguration accessLogConfig() {
+ *     return AccessLogConfig.enableAccessLog("/var/log/app/access.log").bufferSize(16384)
+ *             .overflowPolicy(OverflowPolicy.PRESERVE_ERRORS).build();
+ * }
+ * </pre>
+ * 
+ * @see AccessLog
+ */
+public class AccessLogConfig implements AccessLogConfiguration {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    public static final long DEFAULT_FLUSH_INTERVAL = 200;
+
+    private final boolean accessLogEnabled;
+    private final String file;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final long flushInterval;
+
+    private AccessLogConfig(final Builder builder) {
+        this.accessLogEnabled = builder.accessLogEnabled;
+        this.file = builder.file;
+        this.bufferSize = builder.bufferSize;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.maxFileSize = builder.maxFileSize;
+        this.maxFiles = builder.maxFiles;
+        this.flushInterval = builder.flushInterval;
+    }
+
+    /**
+     * Returns a {@link Builder} which can be used to configure and build an {@link AccessLogConfiguration} instance.
+     * 
+     * @param file the path of the file the access log is written to.
+     * @return {@link Builder} with the access log enabled and default values for all other properties.
+     */
+    public static Builder enableAccessLog(final String file) {
+        return new Builder(true, file);
+    }
+
+    public static AccessLogConfiguration disableAccessLog() {
+        return new Builder(false, null).build();
+    }
+
+    /**
+     * Returns the default {@link AccessLogConfiguration}, which has the access log disabled.
+     * 
+     * @return {@link AccessLogConfiguration} with the access log disabled.
+     */
+    public static AccessLogConfiguration defaultConfig() {
+        return disableAccessLog();
+    }
+
+    @Override
+    public boolean isAccessLogEnabled() {
+        return accessLogEnabled;
+    }
+
+    @Override
+    public String getFile() {
+        return file;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    @Override
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    @Override
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "AccessLogConfig[accessLogEnabled=" + accessLogEnabled + ", file=" + file + ", bufferSize=" + bufferSize
+                + ", overflowPolicy=" + overflowPolicy + ", maxFileSize=" + maxFileSize + ", maxFiles=" + maxFiles
+                + ", flushInterval=" + flushInterval + "]";
+    }
+
+    public static class Builder {
+        private final boolean accessLogEnabled;
+        private final String file;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        private int maxFiles = DEFAULT_MAX_FILES;
+        private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+        private Builder(final boolean accessLogEnabled, final String file) {
+            this.accessLogEnabled = accessLogEnabled;
+            this.file = file;
+        }
+
+        /**
+         * Sets the number of records that can be buffered, which is rounded up to a power of two.
+         * 
+         * @param bufferSize the size of the buffer.
+         * @return {@link Builder} to allow method chaining.
+         */
+        public Builder bufferSize(final int bufferSize) {
+            if (bufferSize < 1 || bufferSize > 1 << 30) {
+                throw new IllegalArgumentException("bufferSize must be between 1 and 2^30, was " + bufferSize);
+            }
+            this.bufferSize = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+            return this;
+        }
+
+        public Builder overflowPolicy(final OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public Builder maxFileSize(final long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        public Builder maxFiles(final int maxFiles) {
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        public Builder flushInterval(final long flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public AccessLogConfiguration build() {
+            if (accessLogEnabled && (file == null || maxFileSize < 1 || maxFiles < 0 || flushInterval < 1)) {
+                throw new IllegalArgumentException("An enabled access log requires a file, a positive maxFileSize and "
+                        + "flushInterval and a non negative maxFiles");
+            }
+            return new AccessLogConfig(this);
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.filter.accesslog;
+
+/**
+ * Configuration for the access log, which records every request handled by AeroGear Controller.
+ * 
+ * @see AccessLog
+ */
+public interface AccessLogConfiguration {
+
+    /**
+     * Determines if the access log is enabled.
+     * 
+     * @return {@code true} if the access log is enabled.
+     */
+    boolean isAccessLogEnabled();
+
+    /**
+     * Returns the path of the file the access log is written to.
+     * 
+     * @return {@code String} the path of the access log file.
+     */
+    String getFile();
+
+    /**
+     * Returns the number of records that can be buffered before the {@link OverflowPolicy} applies.
+     * 
+     * @return {@code int} the size of the buffer, a power of two.
+     */
+    int getBufferSize();
+
+    /**
+     * Returns the policy applied when the buffer fills up.
+     * 
+     * @return {@link OverflowPolicy} the overflow policy.
+     */
+    OverflowPolicy getOverflowPolicy();
+
+    /**
+     * Returns the size at which the access log file is rotated.
+     * 
+     * @return {@code long} the maximum size of the file in bytes.
+     */
+    long getMaxFileSize();
+
+    /**
+     * Returns the number of rotated files kept, in addition to the current file.
+     * 
+     * @return {@code int} the number of rotated files kept.
+     */
+    int getMaxFiles();
+
+    /**
+     * Returns how long the writer waits for new records when the buffer is empty.
+     * 
+     * @return {@code long} the flush interval in milliseconds.
+     */
+    long getFlushInterval();
+
+}
@@ -0,0 +1,37 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.filter.accesslog;
+
+/**
+ * Determines which records an {@link AccessLog} drops when its buffer fills up because the writer cannot keep up. Request
+ * threads never wait for the writer.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Records are dropped only when the buffer is full.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Once the buffer is three quarters full, records of requests that did not fail with a server error are dropped, keeping
+     * the remaining space for the records of failed requests.
+     */
+    PRESERVE_ERRORS
+
+}
@@ -0,0 +1,107 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.filter.accesslog;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Appends to a file, rotating it once it reaches a maximum size. On rotation 'file' is renamed to 'file.1', 'file.1' to
+ * 'file.2' and so on, and the oldest file is deleted.
+ * </p>
+ * Only used by the writer thread of an {@link AccessLog}, and so is not thread safe.
+ */
+class RotatingFileWriter implements Closeable {
+
+    private final File file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private OutputStream out;
+    private long size;
+
+    RotatingFileWriter(final File file, final long maxFileSize, final int maxFiles) throws IOException {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        open();
+    }
+
+    /**
+     * Writes a batch of records, rotating the file first if the batch would not fit. A batch is never split across files.
+     * 
+     * @param batch the encoded records.
+     * @param length the number of bytes of {@code batch} to write.
+     * @throws IOException if writing or rotating fails.
+     */
+    void write(final byte[] batch, final int length) throws IOException {
+        if (size > 0 && size + length > maxFileSize) {
+            rotate();
+        }
+        out.write(batch, 0, length);
+        out.flush();
+        size += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        out = new FileOutputStream(file, true);
+        size = file.length();
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        if (maxFiles == 0) {
+            delete(file);
+        } else {
+            delete(rotated(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                rename(rotated(i), rotated(i + 1));
+            }
+            rename(file, rotated(1));
+        }
+        open();
+    }
+
+    private File rotated(final int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    private static void delete(final File file) throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not delete " + file);
+        }
+    }
+
+    private static void rename(final File from, final File to) throws IOException {
+        if (from.exists() && !from.renameTo(to)) {
+            throw new IOException("Could not rename " + from + " to " + to);
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.filter.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.aerogear.controller.router.Priority;
+
+/**
+ * An adaptive concurrency limiter which continuously measures request latency and adjusts the number of requests allowed to
+ * be in flight, shedding the excess.
+ * </p>
+ * The limit is adjusted using a gradient algorithm. Latency samples are aggregated into windows of at least 100 ms, and at
+ * the end of each window the average latency of the window is compared with a long term average:
+ * <pre>
+ *     gradient = max(0.5, min(1.0, 1.5 * longTermLatency / windowLatency))
+ *     newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * So while latency is stable the limit grows, leaving some room for queueing, and once requests start to queue up and latency
+ * rises the limit shrinks, at most halving per window. The new limit is smoothed and kept within the configured bounds. The
+ * limit does not grow while less than half of it is used, so that an idle application does not end up with an unbounded
+ * limit.
+ * </p>
+ * Admission is lock free. A {@link Priority#HIGH} request is admitted while fewer than the limit requests are in flight,
+ * while {@link Priority#NORMAL} and {@link Priority#LOW} requests are only admitted up to 90% and 70% of the limit, so that
+ * lower priority traffic is shed first.
+ */
+public class AdaptiveLimiter {
+
+    public static final String LIMITER_COUNTERS = "adaptive-limiter";
+    public static final String REJECTED = "rejected";
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_TERM_ALPHA = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong windowLatency = new AtomicLong();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private volatile long windowStart;
+    private volatile int limit;
+
+    // only accessed by the thread that closes a window, guarded by 'updating'
+    private double estimatedLimit;
+    private double longTermLatency;
+
+    public AdaptiveLimiter(final LimiterConfiguration config) {
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.estimatedLimit = config.getInitialLimit();
+        this.limit = config.getInitialLimit();
+        this.windowStart = System.nanoTime();
+    }
+
+    /**
+     * Tries to admit a request.
+     * 
+     * @param priority the {@link Priority} of the request.
+     * @return {@code true} if the request was admitted, in which case {@link #release(long)} must be called once it has
+     *         completed, or {@code false} if it should be rejected.
+     */
+    public boolean tryAcquire(final Priority priority) {
+        final int allowed = allowed(priority);
+        for (;;) {
+            final int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                updateMaxInFlight(current + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and records its latency.
+     * 
+     * @param startNanos the value of {@link System#nanoTime()} when the request was admitted.
+     */
+    public void release(final long startNanos) {
+        final long now = System.nanoTime();
+        inFlight.decrementAndGet();
+        sample(now - startNanos, now);
+    }
+
+    /**
+     * Returns the current limit.
+     * 
+     * @return {@code int} the number of requests currently allowed to be in flight.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     * 
+     * @return {@code int} the number of admitted requests which have not been released.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void sample(final long latencyNanos, final long now) {
+        windowLatency.addAndGet(latencyNanos);
+        final int samples = windowSamples.incrementAndGet();
+        if (samples >= MIN_WINDOW_SAMPLES && now - windowStart >= WINDOW_NANOS && updating.compareAndSet(false, true)) {
+            try {
+                closeWindow(now);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    private void closeWindow(final long now) {
+        final int samples = windowSamples.getAndSet(0);
+        final long latency = windowLatency.getAndSet(0);
+        final int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        windowStart = now;
+        if (samples == 0 || latency <= 0) {
+            return;
+        }
+        final double windowAverage = (double) latency / samples;
+        if (longTermLatency == 0) {
+            longTermLatency = windowAverage;
+        } else {
+            longTermLatency = longTermLatency * (1 - LONG_TERM_ALPHA) + windowAverage * LONG_TERM_ALPHA;
+        }
+        if (longTermLatency / windowAverage > 2) {
+            // latency has dropped considerably, let the long term average catch up quickly
+            longTermLatency *= 0.95;
+        }
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longTermLatency / windowAverage));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+
+    private int allowed(final Priority priority) {
+        switch (priority) {
+            case HIGH:
+                return limit;
+            case LOW:
+                return Math.max(1, (int) (limit * 0.7));
+            default:
+                return Math.max(1, (int) (limit * 0.9));
+        }
+    }
+
+    private void updateMaxInFlight(final int current) {
+        for (;;) {
+            final int max = windowMaxInFlight.get();
+            if (current <= max || windowMaxInFlight.compareAndSet(max, current)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveLimiter[limit=" + limit + ", inFlight=" + inFlight.get() + ", minLimit=" + minLimit + ", maxLimit="
+                + maxLimit + "]";
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.filter.limit;
+
+/**
+ * Concrete implementation of {@link LimiterConfiguration}.
+ * </p>
+ * The limiter is disabled by default. To enable it produce a {@link LimiterConfiguration} using CDI:
+ * <pre>
+ * &#64;Produces
+ * public LimiterConfiguration limiterConfig() {
+ *     return LimiterConfig.enableLimiter().initialLimit(20).minLimit(4).maxLimit(200).build();
+ * }
+ * </pre>
+ * 
+ * @see AdaptiveLimiter
+ */
+public class LimiterConfig implements LimiterConfiguration {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 4;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    private final boolean limiterEnabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private LimiterConfig(final Builder builder) {
+        this.limiterEnabled = builder.limiterEnabled;
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+    }
+
+    /**
+     * Returns a {@link Builder} which can be used to configure and build a {@link LimiterConfiguration} instance.
+     * 
+     * @return {@link Builder} with the limiter enabled and default values for all other properties.
+     */
+    public static Builder enableLimiter() {
+        return new Builder(true);
+    }
+
+    public static LimiterConfiguration disableLimiter() {
+        return new Builder(false).build();
+    }
+
+    /**
+     * Returns the default {@link LimiterConfiguration}, which has the limiter disabled.
+     * 
+     * @return {@link LimiterConfiguration} with the limiter disabled.
+     */
+    public static LimiterConfiguration defaultConfig() {
+        return disableLimiter();
+    }
+
+    @Override
+    public boolean isLimiterEnabled() {
+        return limiterEnabled;
+    }
+
+    @Override
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    @Override
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "LimiterConfig[limiterEnabled=" + limiterEnabled + ", initialLimit=" + initialLimit + ", minLimit=" + minLimit
+                + ", maxLimit=" + maxLimit + "]";
+    }
+
+    public static class Builder {
+        private final boolean limiterEnabled;
+        private int initialLimit = DEFAULT_INITIAL_LIMIT;
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        private int maxLimit = DEFAULT_MAX_LIMIT;
+
+        private Builder(final boolean limiterEnabled) {
+            this.limiterEnabled = limiterEnabled;
+        }
+
+        public Builder initialLimit(final int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(final int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(final int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public LimiterConfiguration build() {
+            if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit, were "
+                        + minLimit + ", " + initialLimit + ", " + maxLimit);
+            }
+            return new LimiterConfig(this);
+        }
+    }
+
+}
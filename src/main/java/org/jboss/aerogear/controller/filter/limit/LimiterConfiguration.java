@@ -0,0 +1,56 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.filter.limit;
+
+/**
+ * Configuration for the adaptive concurrency limiter which sheds requests when the application is overloaded.
+ * 
+ * @see AdaptiveLimiter
+ */
+public interface LimiterConfiguration {
+
+    /**
+     * Determines if the adaptive concurrency limiter is enabled.
+     * 
+     * @return {@code true} if the limiter is enabled.
+     */
+    boolean isLimiterEnabled();
+
+    /**
+     * Returns the number of concurrent requests allowed before any latency has been measured.
+     * 
+     * @return {@code int} the initial limit.
+     */
+    int getInitialLimit();
+
+    /**
+     * Returns the lower bound of the limit, the limiter always allows at least this number of concurrent requests.
+     * 
+     * @return {@code int} the minimum limit.
+     */
+    int getMinLimit();
+
+    /**
+     * Returns the upper bound of the limit.
+     * 
+     * @return {@code int} the maximum limit.
+     */
+    int getMaxLimit();
+
+}
@@ -31,10 +31,14 @@ import org.jboss.logging.MessageLogger;
 
 /**
  * A JBoss-Logging typed logger for AeroGear.
+ * </p>
+ * Messages that may be logged for every request, and so flood the log when a client misbehaves or during an outage, should be
+ * logged using {@link #THROTTLED}, which logs the first occurrence of a message and a periodic summary of the suppressed ones.
  */
 @MessageLogger(projectCode = "AG_CONTROLLER")
 public interface AeroGearLogger extends BasicLogger {
     AeroGearLogger LOGGER = Logger.getMessageLogger(AeroGearLogger.class, AeroGearLogger.class.getPackage().getName());
+    AeroGearLogger THROTTLED = ThrottledLogger.throttle(LOGGER);
 
     @LogMessage(level = Logger.Level.ERROR)
     @Message(id = 2, value = "oops, multivalued params not supported yet")
@@ -60,4 +64,24 @@ public interface AeroGearLogger extends BasicLogger {
     @Message(id = 8, value = "CORS Bad Request Method: Received '%s', allowed: '%s'")
     void badCorsRequestMethod(String actualMethod, Set<String> allowedMethods);
 
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 18, value = "Registered generated JSON codecs for: '%s'")
+    void generatedJsonCodecs(Set<Class<?>> types);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 22, value = "Counting the total number of items for a paginated request failed")
+    void totalCountFailed(@Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 25, value = "Optional part '%s' of the composite route failed or timed out, its result will be null")
+    void optionalPartFailed(String part, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 29, value = "Writing the access log '%s' failed")
+    void accessLogWriteFailed(String file, @Cause Throwable cause);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(id = 30, value = "Suppressed %s occurrences of %s for '%s' in the last %s seconds")
+    void suppressedMessages(long count, String message, String key, long windowSeconds);
+
 }
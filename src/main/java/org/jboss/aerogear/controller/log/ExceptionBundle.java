@@ -22,12 +22,21 @@ import java.util.Set;
 
 import javax.servlet.ServletException;
 
+import org.jboss.aerogear.controller.router.CompositePartRejectedException;
+import org.jboss.aerogear.controller.router.CompositePartTimeoutException;
 import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Responders;
+import org.jboss.aerogear.controller.router.decorators.batch.InvalidBatchRequestException;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.BulkheadFullException;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineExceededException;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimitExceededException;
 import org.jboss.aerogear.controller.router.parameter.MissingRequestParameterException;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
+import org.jboss.aerogear.controller.router.rest.encoding.RequestBodyTooLargeException;
+import org.jboss.aerogear.controller.router.rest.encoding.UnsupportedContentEncodingException;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationRequestException;
+import org.jboss.aerogear.controller.router.rest.projection.InvalidProjectionException;
 import org.jboss.logging.LogMessage;
 import org.jboss.logging.Logger;
 import org.jboss.logging.Message;
@@ -80,4 +89,52 @@ public interface ExceptionBundle {
     @Message(id = 15, value = "No routes were found in the deployment. Please verify that you have implemented RoutingModule, and that the deployment has a beans.xml file in WEB-INF")
     RuntimeException noRoutesAvailable();
 
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 16, value = "Unsupported Content-Encoding: '%s'. The supported encodings are: '%s'")
+    UnsupportedContentEncodingException unsupportedContentEncoding(String encoding, Set<String> supportedEncodings);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 17, value = "The decoded request body exceeded the maximum allowed size of '%s' bytes")
+    RequestBodyTooLargeException requestBodyTooLarge(long maxSize);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 19, value = "Invalid fields selection: '%s', %s")
+    InvalidProjectionException invalidProjection(String fields, String reason);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 20, value = "Invalid Paging Request: limit '%s' must be between 1 and %s")
+    PaginationRequestException invalidPageLimit(String limit, int maxLimit);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 21, value = "Invalid Paging Request: malformed cursor '%s'")
+    PaginationRequestException invalidCursor(String cursor);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 23, value = "Invalid batch request: %s")
+    InvalidBatchRequestException invalidBatchRequest(String reason);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 24, value = "Part '%s' of the composite route did not complete within %s ms")
+    CompositePartTimeoutException compositePartTimedOut(String part, long timeout);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 26, value = "Bulkhead '%s' is full, at most %s requests may be processed concurrently")
+    BulkheadFullException bulkheadFull(String bulkhead, int maxConcurrent);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 27, value = "Rate limit exceeded for route '%s'")
+    RateLimitExceededException rateLimitExceeded(String route);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 28, value = "Deadline of %sms exceeded")
+    DeadlineExceededException deadlineExceeded(long timeout);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 31, value = "Cursor key '%s' of '%s' is null, items of a cursor paginated endpoint must all have a key")
+    IllegalStateException nullCursorKey(String property, Object item);
+
+    @LogMessage(level = Logger.Level.ERROR)
+    @Message(id = 32, value = "Part '%s' of the composite route was rejected, at most %s parts may be queued")
+    CompositePartRejectedException compositePartRejected(String part, int maxQueued);
+
 }
@@ -0,0 +1,273 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.aerogear.controller.util.SharedExecutor;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Suppresses repeated log messages, so that the volume of logging stays bounded during error storms.
+ * </p>
+ * A message is identified by its logger method, each of which logs a single message id, and a key of low cardinality: the
+ * configured name passed to the methods in {@link #KEYED_BY_NAME}, otherwise the class of the cause, if any. Values taken from
+ * requests, such as exception messages or CORS headers, are never part of the key, so that clients cannot create an unbounded
+ * number of distinct messages. The first occurrence of a message is logged, further occurrences within the window are counted
+ * and suppressed. At most {@link #MAX_LINES_PER_METHOD} lines are logged per method and window; lines beyond that are
+ * counted and summarized once per method. At most {@link #MAX_MESSAGES} distinct messages are tracked, the least recently
+ * used being summarized and dropped first.
+ * </p>
+ * Summaries of the suppressed occurrences are logged once the window has passed, either when the next throttled message is
+ * logged or, at the latest, when the logger is flushed, which a background thread does every window.
+ * </p>
+ * Methods inherited from {@link org.jboss.logging.BasicLogger} are passed through unchanged. The jboss-logging annotations are
+ * not retained at runtime, so the message methods are recognized by being declared by {@link AeroGearLogger}.
+ */
+final class ThrottledLogger implements InvocationHandler {
+
+    static final long DEFAULT_WINDOW_SECONDS = 60;
+    static final int MAX_MESSAGES = 1024;
+    static final int MAX_LINES_PER_METHOD = 32;
+
+    /**
+     * The key of a message summarizing the lines of a method that exceeded {@link #MAX_LINES_PER_METHOD}.
+     */
+    static final String OVERFLOW_KEY = "*";
+
+    /**
+     * Methods whose first argument is the name of a configured part of the application, rather than a value taken from a
+     * request, and so is used as the key.
+     */
+    static final Set<String> KEYED_BY_NAME = ImmutableSet.of("optionalPartFailed", "accessLogWriteFailed");
+
+    /**
+     * The loggers that are flushed every {@link #DEFAULT_WINDOW_SECONDS} by the {@link #FLUSHER}.
+     */
+    private static final List<ThrottledLogger> FLUSHED = new CopyOnWriteArrayList<ThrottledLogger>();
+
+    private static final SharedExecutor<ScheduledExecutorService> FLUSHER = new SharedExecutor<ScheduledExecutorService>() {
+        @Override
+        protected ScheduledExecutorService create() {
+            final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("aerogear-log-flush-%d").setDaemon(true).build());
+            flusher.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    for (ThrottledLogger logger : FLUSHED) {
+                        logger.flush();
+                    }
+                }
+            }, DEFAULT_WINDOW_SECONDS, DEFAULT_WINDOW_SECONDS, TimeUnit.SECONDS);
+            return flusher;
+        }
+    };
+
+    private final AeroGearLogger delegate;
+    private final long windowSeconds;
+    private final boolean flushed;
+    private final Cache<MessageKey, AtomicLong> occurrences;
+    private final Cache<String, MethodWindow> methods;
+
+    private ThrottledLogger(final AeroGearLogger delegate, final long windowSeconds, final Ticker ticker,
+            final boolean flushed) {
+        this.delegate = delegate;
+        this.windowSeconds = windowSeconds;
+        this.flushed = flushed;
+        this.occurrences = CacheBuilder.newBuilder()
+                .maximumSize(MAX_MESSAGES)
+                .expireAfterWrite(windowSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .removalListener(new RemovalListener<MessageKey, AtomicLong>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<MessageKey, AtomicLong> notification) {
+                        summarize(notification.getKey(), notification.getValue().get() - 1);
+                    }
+                })
+                .build(new CacheLoader<MessageKey, AtomicLong>() {
+                    @Override
+                    public AtomicLong load(final MessageKey key) {
+                        return new AtomicLong();
+                    }
+                });
+        this.methods = CacheBuilder.newBuilder()
+                .expireAfterWrite(windowSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .removalListener(new RemovalListener<String, MethodWindow>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<String, MethodWindow> notification) {
+                        final long overflow = notification.getValue().overflow.get();
+                        if (overflow > 0) {
+                            delegate.suppressedMessages(overflow, notification.getKey(), OVERFLOW_KEY, windowSeconds);
+                        }
+                    }
+                })
+                .build(new CacheLoader<String, MethodWindow>() {
+                    @Override
+                    public MethodWindow load(final String method) {
+                        return new MethodWindow();
+                    }
+                });
+    }
+
+    /**
+     * Returns an {@link AeroGearLogger} that suppresses repeated messages of the passed-in logger, and which is flushed every
+     * {@link #DEFAULT_WINDOW_SECONDS} by a shared background thread. The thread is started when the logger is first used,
+     * and again when it is used after the thread has been shut down by {@link SharedExecutor#shutdownAll()}.
+     * 
+     * @param delegate the {@link AeroGearLogger} that messages are logged to.
+     * @return {@code AeroGearLogger} the throttled logger.
+     */
+    static AeroGearLogger throttle(final AeroGearLogger delegate) {
+        final ThrottledLogger handler = new ThrottledLogger(delegate, DEFAULT_WINDOW_SECONDS, Ticker.systemTicker(), true);
+        FLUSHED.add(handler);
+        return proxy(handler);
+    }
+
+    static AeroGearLogger throttle(final AeroGearLogger delegate, final long windowSeconds, final Ticker ticker) {
+        return proxy(new ThrottledLogger(delegate, windowSeconds, ticker, false));
+    }
+
+    /**
+     * Logs the summaries of the messages whose window has passed.
+     * 
+     * @param throttled a logger returned by one of the {@code throttle} methods.
+     */
+    static void flush(final AeroGearLogger throttled) {
+        ((ThrottledLogger) Proxy.getInvocationHandler(throttled)).flush();
+    }
+
+    private static AeroGearLogger proxy(final ThrottledLogger handler) {
+        return (AeroGearLogger) Proxy.newProxyInstance(AeroGearLogger.class.getClassLoader(),
+                new Class<?>[] { AeroGearLogger.class }, handler);
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == AeroGearLogger.class) {
+            if (flushed) {
+                FLUSHER.get();
+            }
+            if (!admit(method.getName(), args)) {
+                return null;
+            }
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private boolean admit(final String method, final Object[] args) {
+        if (occurrences.getUnchecked(new MessageKey(method, keyOf(method, args))).getAndIncrement() > 0) {
+            return false;
+        }
+        return methods.getUnchecked(method).tryLog(1);
+    }
+
+    private void flush() {
+        occurrences.cleanUp();
+        methods.cleanUp();
+    }
+
+    private void summarize(final MessageKey key, final long suppressed) {
+        if (suppressed > 0 && methods.getUnchecked(key.method).tryLog(suppressed)) {
+            delegate.suppressedMessages(suppressed, key.method, key.argument, windowSeconds);
+        }
+    }
+
+    private static String keyOf(final String method, final Object[] args) {
+        if (args == null) {
+            return "";
+        }
+        if (KEYED_BY_NAME.contains(method) && !(args[0] instanceof Throwable)) {
+            return String.valueOf(args[0]);
+        }
+        for (Object arg : args) {
+            if (arg instanceof Throwable) {
+                return arg.getClass().getName();
+            }
+        }
+        return "";
+    }
+
+    /*
+     * The lines logged for a method within a window, and the number of occurrences that were not logged because the
+     * method had reached MAX_LINES_PER_METHOD.
+     */
+    private static final class MethodWindow {
+        private final AtomicInteger lines = new AtomicInteger();
+        private final AtomicLong overflow = new AtomicLong();
+
+        boolean tryLog(final long occurrences) {
+            if (lines.incrementAndGet() <= MAX_LINES_PER_METHOD) {
+                return true;
+            }
+            overflow.addAndGet(occurrences);
+            return false;
+        }
+    }
+
+    private static final class MessageKey {
+        private final String method;
+        private final String argument;
+
+        MessageKey(final String method, final String argument) {
+            this.method = method;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MessageKey)) {
+                return false;
+            }
+            final MessageKey other = (MessageKey) o;
+            return method.equals(other.method) && argument.equals(other.argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + argument.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.metrics;
+
+/**
+ * The custom Java Flight Recorder events emitted by AeroGear Controller, see {@link FlightRecorder}.
+ * </p>
+ * Each event has a duration and carries the route path, the HTTP method and the negotiated media type of the request.
+ */
+public enum FlightEvent {
+
+    /**
+     * Finding the route matching the request.
+     */
+    ROUTE_RESOLUTION("RouteResolution", "Route Resolution"),
+
+    /**
+     * Extracting the arguments of the target endpoint from the request, including deserializing the request body.
+     */
+    ARGUMENT_BINDING("ArgumentBinding", "Argument Binding"),
+
+    /**
+     * Invoking the target endpoint.
+     */
+    ENDPOINT_INVOCATION("EndpointInvocation", "Endpoint Invocation"),
+
+    /**
+     * Responding with the result of the target endpoint, including serializing it.
+     */
+    RESPONSE_WRITING("ResponseWriting", "Response Writing"),
+
+    /**
+     * Answering a CORS preflight request.
+     */
+    CORS_PREFLIGHT("CorsPreflight", "CORS Preflight"),
+
+    /**
+     * Routing an exception to an error route and invoking it.
+     */
+    ERROR_ROUTING("ErrorRouting", "Error Routing");
+
+    /**
+     * The prefix of the names of all events, which can be used to enable them in a JFR settings file.
+     */
+    public static final String NAME_PREFIX = "org.jboss.aerogear.controller.";
+
+    private final String name;
+    private final String label;
+
+    private FlightEvent(final String name, final String label) {
+        this.name = NAME_PREFIX + name;
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of this event in a recording.
+     * 
+     * @return {@code String} the name of this event, for example {@code org.jboss.aerogear.controller.RouteResolution}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the human readable name of this event.
+     * 
+     * @return {@code String} the label of this event.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+}
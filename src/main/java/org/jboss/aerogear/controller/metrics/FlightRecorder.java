@@ -0,0 +1,374 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Emits {@link FlightEvent}s to the Java Flight Recorder (JFR), so that recordings attribute time and allocations to the
+ * stages of processing a request and to its route.
+ * </p>
+ * AeroGear Controller targets Java 6, so the events cannot extend {@code jdk.jfr.Event}. Instead they are defined at runtime,
+ * using {@code jdk.jfr.EventFactory}, when the JVM provides the JFR API (JDK 11 and later, and JDK 8u272 and later). On other
+ * JVMs, or if defining the events fails, {@link #begin(FlightEvent)} always returns {@link #DISABLED}.
+ * </p>
+ * The events are disabled unless a recording enables them, for example with a settings file containing:
+ * <pre>
+ * {@code
+ *     <event name="org.jboss.aerogear.controller.EndpointInvocation">
+ *         <setting name="enabled">true</setting>
+ *         <setting name="threshold">0 ms</setting>
+ *     </event>
+ * }
+ * </pre>
+ * Whether an event is enabled is cached, and refreshed by a {@code jdk.jfr.FlightRecorderListener} whenever a recording
+ * starts, stops or is closed. While an event is disabled, beginning it therefore costs two volatile reads, and neither
+ * allocates nor calls the JFR API:
+ * <pre>
+ * {@code
+ *     final FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.ENDPOINT_INVOCATION);
+ *     ...
+ *     if (event.isEnabled()) {
+ *         event.commit(route.getPath(), request.getMethod(), mediaType);
+ *     }
+ * }
+ * </pre>
+ * The event types and the listener are registered with the JVM wide recorder when first used, so {@link #unregister()}
+ * must be called when the application is undeployed, which the {@link org.jboss.aerogear.controller.filter.AeroGear} filter
+ * does when it is destroyed.
+ */
+public final class FlightRecorder {
+
+    /**
+     * An event that is never recorded.
+     */
+    public static final Event DISABLED = new Event(null, null);
+
+    private static final String[] CATEGORY = { "AeroGear Controller" };
+    private static final String[] FIELDS = { "path", "method", "mediaType" };
+    private static final String[] FIELD_LABELS = { "Route Path", "HTTP Method", "Media Type" };
+
+    private static final Object[] NO_ARGS = {};
+
+    private static final Registration UNAVAILABLE = new Registration(null, null);
+
+    private static volatile Registration registration;
+
+    private FlightRecorder() {
+    }
+
+    /**
+     * Returns {@code true} if the JVM provides the JFR API and the events have been defined.
+     * 
+     * @return {@code true} if events can be recorded.
+     */
+    public static boolean isAvailable() {
+        return registration().types != null;
+    }
+
+    /**
+     * Removes the listener and unregisters the event types from the recorder, so that the recorder no longer references
+     * the class loader of this library. The events are registered again if they are used afterwards.
+     */
+    public static void unregister() {
+        final Registration previous;
+        synchronized (FlightRecorder.class) {
+            previous = registration;
+            registration = null;
+        }
+        if (previous != null) {
+            previous.unregister();
+        }
+    }
+
+    /**
+     * Begins timing an event.
+     * 
+     * @param type the {@link FlightEvent} to begin.
+     * @return {@link Event} to commit once the timed work is done, or {@link #DISABLED} if the event is not being recorded.
+     */
+    public static Event begin(final FlightEvent type) {
+        final Registration current = registration();
+        if (current.types == null) {
+            return DISABLED;
+        }
+        final EventType eventType = current.types[type.ordinal()];
+        if (current.listener != null ? !eventType.enabled : !eventType.isEnabled()) {
+            return DISABLED;
+        }
+        final Object event = eventType.newEvent();
+        if (event == null) {
+            return DISABLED;
+        }
+        eventType.invoke(eventType.begin, event, NO_ARGS);
+        return new Event(eventType, event);
+    }
+
+    private static Registration registration() {
+        final Registration current = registration;
+        return current != null ? current : register();
+    }
+
+    private static synchronized Registration register() {
+        if (registration == null) {
+            final EventType[] types = defineTypes();
+            registration = types == null ? UNAVAILABLE : new Registration(types, listen(types));
+        }
+        return registration;
+    }
+
+    /**
+     * An event that has begun, and is recorded when committed.
+     */
+    public static final class Event {
+
+        private final EventType type;
+        private final Object event;
+
+        private Event(final EventType type, final Object event) {
+            this.type = type;
+            this.event = event;
+        }
+
+        /**
+         * Returns {@code true} if this event will be recorded when committed. Callers should check this before computing the
+         * values passed to {@link #commit(String, String, String)}.
+         * 
+         * @return {@code true} if this event is being recorded.
+         */
+        public boolean isEnabled() {
+            return event != null;
+        }
+
+        /**
+         * Ends and commits this event.
+         * 
+         * @param path the path of the route, or the request path if no route was found.
+         * @param method the HTTP method of the request.
+         * @param mediaType the media type negotiated for the response, may be {@code null}.
+         */
+        public void commit(final String path, final String method, final String mediaType) {
+            if (event == null) {
+                return;
+            }
+            type.invoke(type.end, event, NO_ARGS);
+            if (Boolean.TRUE.equals(type.invoke(type.shouldCommit, event, NO_ARGS))) {
+                type.invoke(type.set, event, new Object[] { 0, path });
+                type.invoke(type.set, event, new Object[] { 1, method });
+                type.invoke(type.set, event, new Object[] { 2, mediaType });
+                type.invoke(type.commit, event, NO_ARGS);
+            }
+        }
+
+    }
+
+    private static EventType[] defineTypes() {
+        try {
+            final ClassLoader loader = FlightRecorder.class.getClassLoader();
+            final Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory", true, loader);
+            final Class<?> eventClass = Class.forName("jdk.jfr.Event", true, loader);
+            final Class<?> annotationClass = Class.forName("jdk.jfr.AnnotationElement", true, loader);
+            final Class<?> descriptorClass = Class.forName("jdk.jfr.ValueDescriptor", true, loader);
+            final Constructor<?> annotation = annotationClass.getConstructor(Class.class, Object.class);
+            final Constructor<?> descriptor = descriptorClass.getConstructor(Class.class, String.class, List.class);
+            final Method create = factoryClass.getMethod("create", List.class, List.class);
+            final Method register = factoryClass.getMethod("register");
+            final Method newEvent = factoryClass.getMethod("newEvent");
+            final Method unregister = factoryClass.getMethod("unregister");
+
+            final List<Object> fields = new ArrayList<Object>();
+            for (int i = 0; i < FIELDS.length; i++) {
+                final Object label = annotation.newInstance(annotationType("jdk.jfr.Label", loader), FIELD_LABELS[i]);
+                fields.add(descriptor.newInstance(String.class, FIELDS[i], Collections.singletonList(label)));
+            }
+            final Object[] category = (Object[]) Array.newInstance(String.class, CATEGORY.length);
+            System.arraycopy(CATEGORY, 0, category, 0, CATEGORY.length);
+
+            final FlightEvent[] events = FlightEvent.values();
+            final EventType[] types = new EventType[events.length];
+            for (FlightEvent event : events) {
+                final List<Object> annotations = Arrays.asList(
+                        annotation.newInstance(annotationType("jdk.jfr.Name", loader), event.getName()),
+                        annotation.newInstance(annotationType("jdk.jfr.Label", loader), event.getLabel()),
+                        annotation.newInstance(annotationType("jdk.jfr.Category", loader), category));
+                final Object factory = create.invoke(null, annotations, fields);
+                register.invoke(factory);
+                types[event.ordinal()] = new EventType(factory, newEvent, unregister, eventClass);
+            }
+            return types;
+        } catch (final Exception e) {
+            return null;
+        } catch (final LinkageError e) {
+            return null;
+        }
+    }
+
+    /*
+     * Registers a FlightRecorderListener, implemented by a proxy as the listener interface is not available to Java 6 code,
+     * which refreshes the cached state of the types whenever the recorder is initialized or a recording changes state. If
+     * the listener cannot be registered, for example when a security manager denies access to the recorder, the state is
+     * checked on every call to begin instead.
+     */
+    private static Object listen(final EventType[] types) {
+        try {
+            final ClassLoader loader = FlightRecorder.class.getClassLoader();
+            final Class<?> recorderClass = Class.forName("jdk.jfr.FlightRecorder", true, loader);
+            final Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener", true, loader);
+            final Object listener = Proxy.newProxyInstance(loader, new Class<?>[] { listenerClass }, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("toString".equals(method.getName())) {
+                        return FlightRecorder.class.getName() + "$Listener";
+                    }
+                    refresh(types);
+                    return null;
+                }
+            });
+            recorderClass.getMethod("addListener", listenerClass).invoke(null, listener);
+            refresh(types);
+            return listener;
+        } catch (final Exception e) {
+            return null;
+        } catch (final LinkageError e) {
+            return null;
+        }
+    }
+
+    private static void unlisten(final Object listener) {
+        try {
+            final ClassLoader loader = FlightRecorder.class.getClassLoader();
+            final Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener", true, loader);
+            Class.forName("jdk.jfr.FlightRecorder", true, loader).getMethod("removeListener", listenerClass)
+                    .invoke(null, listener);
+        } catch (final Exception e) {
+            // the listener cannot be removed, the event types are still unregistered
+        }
+    }
+
+    private static void refresh(final EventType[] types) {
+        for (EventType type : types) {
+            type.enabled = type.isEnabled();
+        }
+    }
+
+    private static Class<? extends Annotation> annotationType(final String name, final ClassLoader loader)
+            throws ClassNotFoundException {
+        return Class.forName(name, true, loader).asSubclass(Annotation.class);
+    }
+
+    /**
+     * The event types registered with the recorder, and the listener refreshing their state, or {@code null} if the state is
+     * checked on every call to begin.
+     */
+    private static final class Registration {
+
+        private final EventType[] types;
+        private final Object listener;
+
+        Registration(final EventType[] types, final Object listener) {
+            this.types = types;
+            this.listener = listener;
+        }
+
+        void unregister() {
+            if (listener != null) {
+                unlisten(listener);
+            }
+            if (types != null) {
+                for (EventType type : types) {
+                    type.unregister();
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A defined event type. A single instance of the event is kept to check whether the type is enabled, which is a property
+     * of the type rather than of the instance. The result of the last check is cached in 'enabled', an unregistered type is
+     * never enabled.
+     */
+    private static final class EventType {
+
+        private final Object factory;
+        private final Method newEvent;
+        private final Method unregister;
+        private final Method isEnabled;
+        private final Method begin;
+        private final Method end;
+        private final Method shouldCommit;
+        private final Method set;
+        private final Method commit;
+        private final Object probe;
+        private volatile boolean enabled;
+        private volatile boolean unregistered;
+
+        EventType(final Object factory, final Method newEvent, final Method unregister, final Class<?> eventClass)
+                throws Exception {
+            this.factory = factory;
+            this.newEvent = newEvent;
+            this.unregister = unregister;
+            this.isEnabled = eventClass.getMethod("isEnabled");
+            this.begin = eventClass.getMethod("begin");
+            this.end = eventClass.getMethod("end");
+            this.shouldCommit = eventClass.getMethod("shouldCommit");
+            this.set = eventClass.getMethod("set", int.class, Object.class);
+            this.commit = eventClass.getMethod("commit");
+            this.probe = newEvent.invoke(factory);
+        }
+
+        boolean isEnabled() {
+            return !unregistered && Boolean.TRUE.equals(invoke(isEnabled, probe, NO_ARGS));
+        }
+
+        void unregister() {
+            unregistered = true;
+            enabled = false;
+            invoke(unregister, factory, NO_ARGS);
+        }
+
+        Object newEvent() {
+            return invoke(newEvent, factory, NO_ARGS);
+        }
+
+        Object invoke(final Method method, final Object target, final Object[] args) {
+            try {
+                return method.invoke(target, args);
+            } catch (final Exception e) {
+                return null;
+            }
+        }
+
+    }
+
+}
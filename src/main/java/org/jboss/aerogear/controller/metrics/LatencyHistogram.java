@@ -0,0 +1,161 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of latencies, in microseconds, with log-linear buckets in the style of HdrHistogram.
+ * </p>
+ * Each power of two is split into 16 linear sub-buckets, so any recorded value is known with a relative precision of 1/16,
+ * while the whole range, from one microsecond up to {@link #MAX_VALUE}, is covered by a fixed array of 528 counters. Recording
+ * a value increments one bucket and updates the count, sum and maximum, without locking or allocating. Reads are not
+ * synchronized with concurrent recording, so a snapshot may be off by the values being recorded at that moment.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The largest value that can be recorded, which is roughly 19 hours in microseconds. Larger values are recorded as this
+     * value.
+     */
+    public static final long MAX_VALUE = (1L << 36) - 1;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     * 
+     * @param micros the value to record, in microseconds. Negative values are recorded as zero.
+     */
+    public void record(final long micros) {
+        final long value = micros < 0 ? 0 : Math.min(micros, MAX_VALUE);
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     * 
+     * @return {@code long} the sum in microseconds.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * 
+     * @return {@code long} the largest value in microseconds, zero if no value has been recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of all recorded values.
+     * 
+     * @return {@code long} the mean in microseconds, zero if no value has been recorded.
+     */
+    public long getMean() {
+        final long n = count.get();
+        return n == 0 ? 0 : sum.get() / n;
+    }
+
+    /**
+     * Returns the value below which the passed-in percentage of the recorded values fall.
+     * 
+     * @param percentile the percentile, between 0 and 100.
+     * @return {@code long} the highest value equivalent, within the precision of this histogram, to the value at the
+     *         percentile, in microseconds. Zero if no value has been recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(lowerBound(i + 1) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the number of recorded values that are less than or equal to the passed-in value. Values recorded in the bucket
+     * that contains the passed-in value are only counted if the bucket does not extend beyond it, so the result may be lower
+     * than the exact count by the values recorded within the precision of this histogram.
+     * 
+     * @param micros the value, in microseconds.
+     * @return {@code long} the number of values less than or equal to the passed-in value.
+     */
+    public long getCountAtOrBelow(final long micros) {
+        if (micros >= MAX_VALUE) {
+            return count.get();
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKETS && lowerBound(i + 1) - 1 <= micros; i++) {
+            total += buckets.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + getCount() + ", mean=" + getMean() + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax() + "]";
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long lowerBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+    }
+
+}
@@ -0,0 +1,126 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+
+import org.jboss.aerogear.controller.metrics.RouteMetrics.RouteStatistics;
+
+import com.google.common.base.Optional;
+
+/**
+ * Writes {@link RouteMetrics} in the Prometheus text exposition format, version 0.0.4.
+ * </p>
+ * Latencies are written as a histogram with fixed bucket boundaries, in seconds, so that they can be aggregated across
+ * instances. A request whose latency falls within the precision of the {@link LatencyHistogram} of a boundary may be
+ * counted in the next bucket. Stage timings are written as summaries without quantiles.
+ */
+public final class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] BOUNDARIES = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    private PrometheusWriter() {
+    }
+
+    /**
+     * Writes the metrics of all routes.
+     * 
+     * @param metrics the {@link RouteMetrics} to write.
+     * @param writer the {@link Writer} to write to, which is not closed.
+     * @throws IOException if an error occurs while writing.
+     */
+    public static void write(final RouteMetrics metrics, final Writer writer) throws IOException {
+        final SortedMap<String, RouteStatistics> routes = metrics.getRoutes();
+        header(writer, "aerogear_request_duration_seconds", "histogram", "Time taken to process requests, per route.");
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            final String label = "route=\"" + escape(route.getKey()) + "\"";
+            final LatencyHistogram latency = route.getValue().getLatency();
+            final long count = latency.getCount();
+            for (double boundary : BOUNDARIES) {
+                final long micros = (long) (boundary * 1000000);
+                sample(writer, "aerogear_request_duration_seconds_bucket", label + ",le=\"" + format(boundary) + "\"",
+                        String.valueOf(Math.min(latency.getCountAtOrBelow(micros), count)));
+            }
+            sample(writer, "aerogear_request_duration_seconds_bucket", label + ",le=\"+Inf\"", String.valueOf(count));
+            sample(writer, "aerogear_request_duration_seconds_sum", label, format(latency.getSum() / 1000000.0));
+            sample(writer, "aerogear_request_duration_seconds_count", label, String.valueOf(count));
+        }
+        header(writer, "aerogear_request_stage_seconds", "summary", "Time spent in each stage of requests, per route.");
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            for (Stage stage : Stage.values()) {
+                final Optional<LatencyHistogram> histogram = route.getValue().getStage(stage);
+                if (histogram.isPresent()) {
+                    final String labels = "route=\"" + escape(route.getKey()) + "\",stage=\"" + stage.getMetricName()
+                            + "\"";
+                    sample(writer, "aerogear_request_stage_seconds_sum", labels,
+                            format(histogram.get().getSum() / 1000000.0));
+                    sample(writer, "aerogear_request_stage_seconds_count", labels,
+                            String.valueOf(histogram.get().getCount()));
+                }
+            }
+        }
+        header(writer, "aerogear_requests_total", "counter", "Number of requests, per route.");
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            counter(writer, "aerogear_requests_total", route.getKey(), route.getValue().getRequests());
+        }
+        header(writer, "aerogear_request_errors_total", "counter", "Number of requests that failed, per route.");
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            counter(writer, "aerogear_request_errors_total", route.getKey(), route.getValue().getErrors());
+        }
+        header(writer, "aerogear_request_bytes_total", "counter", "Number of request body bytes received, per route.");
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            counter(writer, "aerogear_request_bytes_total", route.getKey(), route.getValue().getBytesIn());
+        }
+        header(writer, "aerogear_response_bytes_total", "counter", "Number of response body bytes sent, per route.");
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            counter(writer, "aerogear_response_bytes_total", route.getKey(), route.getValue().getBytesOut());
+        }
+        writer.flush();
+    }
+
+    private static void header(final Writer writer, final String name, final String type, final String help)
+            throws IOException {
+        writer.write("# HELP " + name + " " + help + "\n");
+        writer.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static void counter(final Writer writer, final String name, final String route, final long value)
+            throws IOException {
+        sample(writer, name, "route=\"" + escape(route) + "\"", String.valueOf(value));
+    }
+
+    private static void sample(final Writer writer, final String name, final String labels, final String value)
+            throws IOException {
+        writer.write(name + "{" + labels + "} " + value + "\n");
+    }
+
+    private static String format(final double value) {
+        return String.valueOf(value);
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A named group of per-route counters, for example the hits and misses of a cache, which is exposed through JMX as
+ * {@code org.jboss.aerogear.controller:type=RouteCounters,name=<name>}.
+ * </p>
+ * Incrementing a counter is lock free, the map lookups are only contended when a counter is used for the first time.
+ */
+public final class RouteCounters implements RouteCountersMXBean {
+
+    public static final String JMX_DOMAIN = "org.jboss.aerogear.controller";
+
+    /**
+     * The route under which requests that did not match any route are counted, so that client controlled paths never
+     * become counter keys.
+     */
+    public static final String UNMATCHED = "<unmatched>";
+
+    private static final ConcurrentMap<String, RouteCounters> GROUPS = new ConcurrentHashMap<String, RouteCounters>();
+
+    private final String name;
+    private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong>> routes = new ConcurrentHashMap<String, ConcurrentMap<String, AtomicLong>>();
+
+    private RouteCounters(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the counter group with the passed-in name, creating and registering it with the platform MBeanServer the
+     * first time it is requested.
+     * 
+     * @param name the name of the counter group.
+     * @return {@code RouteCounters} the counter group.
+     */
+    public static RouteCounters forName(final String name) {
+        final RouteCounters counters = GROUPS.get(name);
+        if (counters != null) {
+            return counters;
+        }
+        final RouteCounters created = new RouteCounters(name);
+        final RouteCounters existing = GROUPS.putIfAbsent(name, created);
+        if (existing != null) {
+            return existing;
+        }
+        register(created);
+        return created;
+    }
+
+    /**
+     * Increments a counter.
+     * 
+     * @param route the path of the route.
+     * @param counter the name of the counter.
+     */
+    public void increment(final String route, final String counter) {
+        add(route, counter, 1);
+    }
+
+    /**
+     * Adds the passed-in value to a counter.
+     * 
+     * @param route the path of the route.
+     * @param counter the name of the counter.
+     * @param value the value to add.
+     */
+    public void add(final String route, final String counter, final long value) {
+        counter(route, counter).addAndGet(value);
+    }
+
+    /**
+     * Returns the current value of a counter.
+     * 
+     * @param route the path of the route.
+     * @param counter the name of the counter.
+     * @return {@code long} the value of the counter, zero if it has never been incremented.
+     */
+    public long get(final String route, final String counter) {
+        final ConcurrentMap<String, AtomicLong> counters = routes.get(route);
+        if (counters == null) {
+            return 0;
+        }
+        final AtomicLong value = counters.get(counter);
+        return value == null ? 0 : value.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getCounters() {
+        final Map<String, Map<String, Long>> snapshot = new TreeMap<String, Map<String, Long>>();
+        for (Entry<String, ConcurrentMap<String, AtomicLong>> route : routes.entrySet()) {
+            final Map<String, Long> values = new TreeMap<String, Long>();
+            for (Entry<String, AtomicLong> counter : route.getValue().entrySet()) {
+                values.put(counter.getKey(), counter.getValue().get());
+            }
+            snapshot.put(route.getKey(), Collections.unmodifiableMap(values));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    @Override
+    public void reset() {
+        routes.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCounters[name=" + name + ", counters=" + getCounters() + "]";
+    }
+
+    private AtomicLong counter(final String route, final String counter) {
+        ConcurrentMap<String, AtomicLong> counters = routes.get(route);
+        if (counters == null) {
+            final ConcurrentMap<String, AtomicLong> created = new ConcurrentHashMap<String, AtomicLong>();
+            counters = routes.putIfAbsent(route, created);
+            if (counters == null) {
+                counters = created;
+            }
+        }
+        AtomicLong value = counters.get(counter);
+        if (value == null) {
+            final AtomicLong created = new AtomicLong();
+            value = counters.putIfAbsent(counter, created);
+            if (value == null) {
+                value = created;
+            }
+        }
+        return value;
+    }
+
+    private static void register(final RouteCounters counters) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=RouteCounters,name="
+                    + ObjectName.quote(counters.name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(counters, objectName);
+        } catch (final JMException e) {
+            // JMX is optional, the counters remain available programmatically
+        } catch (final SecurityException e) {
+            // JMX is optional, the counters remain available programmatically
+        }
+    }
+
+}
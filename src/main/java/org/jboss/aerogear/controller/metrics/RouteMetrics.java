@@ -0,0 +1,238 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.base.Optional;
+
+/**
+ * The latency histogram and the request, error and byte counters of every route, which are exposed through JMX as
+ * {@code org.jboss.aerogear.controller:type=RouteMetrics}.
+ * </p>
+ * Like {@link RouteCounters}, recording is lock free and the map lookup is only contended when a route is recorded for the
+ * first time.
+ */
+public final class RouteMetrics implements RouteMetricsMXBean {
+
+    private static final RouteMetrics INSTANCE = register(new RouteMetrics());
+
+    private final ConcurrentMap<String, RouteStatistics> routes = new ConcurrentHashMap<String, RouteStatistics>();
+
+    private RouteMetrics() {
+    }
+
+    /**
+     * Returns the metrics of all routes of the application.
+     * 
+     * @return {@code RouteMetrics} the metrics registry.
+     */
+    public static RouteMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a request.
+     * 
+     * @param route the path of the route.
+     * @param nanos the time taken to process the request, in nanoseconds.
+     * @param error {@code true} if processing the request failed.
+     * @param bytesIn the number of bytes in the request body.
+     * @param bytesOut the number of bytes in the response body.
+     */
+    public void record(final String route, final long nanos, final boolean error, final long bytesIn, final long bytesOut) {
+        final RouteStatistics statistics = statistics(route);
+        statistics.latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        statistics.requests.incrementAndGet();
+        if (error) {
+            statistics.errors.incrementAndGet();
+        }
+        if (bytesIn > 0) {
+            statistics.bytesIn.addAndGet(bytesIn);
+        }
+        if (bytesOut > 0) {
+            statistics.bytesOut.addAndGet(bytesOut);
+        }
+    }
+
+    /**
+     * Records the stage timings of a request.
+     * 
+     * @param route the path of the route.
+     * @param timer the {@link StageTimer} of the request.
+     */
+    public void recordStages(final String route, final StageTimer timer) {
+        if (!timer.isEnabled()) {
+            return;
+        }
+        final LatencyHistogram[] stages = statistics(route).stages();
+        for (Stage stage : Stage.values()) {
+            stages[stage.ordinal()].record(TimeUnit.NANOSECONDS.toMicros(timer.get(stage)));
+        }
+    }
+
+    /**
+     * Returns the statistics of all routes that have been recorded.
+     * 
+     * @return {@code SortedMap} of route path to {@link RouteStatistics}, ordered by path.
+     */
+    public SortedMap<String, RouteStatistics> getRoutes() {
+        return Collections.unmodifiableSortedMap(new TreeMap<String, RouteStatistics>(routes));
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getMetrics() {
+        final Map<String, Map<String, Long>> snapshot = new TreeMap<String, Map<String, Long>>();
+        for (Entry<String, RouteStatistics> route : routes.entrySet()) {
+            final RouteStatistics statistics = route.getValue();
+            final LatencyHistogram latency = statistics.getLatency();
+            final Map<String, Long> values = new TreeMap<String, Long>();
+            values.put("requests", statistics.getRequests());
+            values.put("errors", statistics.getErrors());
+            values.put("bytesIn", statistics.getBytesIn());
+            values.put("bytesOut", statistics.getBytesOut());
+            values.put("latencyMean", latency.getMean());
+            values.put("latencyP50", latency.getValueAtPercentile(50));
+            values.put("latencyP90", latency.getValueAtPercentile(90));
+            values.put("latencyP99", latency.getValueAtPercentile(99));
+            values.put("latencyMax", latency.getMax());
+            for (Stage stage : Stage.values()) {
+                final Optional<LatencyHistogram> histogram = statistics.getStage(stage);
+                if (histogram.isPresent()) {
+                    values.put(stage.getMetricName() + "Mean", histogram.get().getMean());
+                    values.put(stage.getMetricName() + "P99", histogram.get().getValueAtPercentile(99));
+                }
+            }
+            snapshot.put(route.getKey(), Collections.unmodifiableMap(values));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    @Override
+    public void reset() {
+        routes.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMetrics[routes=" + routes.keySet() + "]";
+    }
+
+    private RouteStatistics statistics(final String route) {
+        final RouteStatistics statistics = routes.get(route);
+        if (statistics != null) {
+            return statistics;
+        }
+        final RouteStatistics created = new RouteStatistics();
+        final RouteStatistics existing = routes.putIfAbsent(route, created);
+        return existing == null ? created : existing;
+    }
+
+    private static RouteMetrics register(final RouteMetrics metrics) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(RouteCounters.JMX_DOMAIN + ":type=RouteMetrics");
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(metrics, objectName);
+        } catch (final JMException e) {
+            // JMX is optional, the metrics remain available programmatically
+        } catch (final SecurityException e) {
+            // JMX is optional, the metrics remain available programmatically
+        }
+        return metrics;
+    }
+
+    /**
+     * The metrics of a single route.
+     */
+    public static final class RouteStatistics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong bytesIn = new AtomicLong();
+        private final AtomicLong bytesOut = new AtomicLong();
+        private final AtomicReference<LatencyHistogram[]> stages = new AtomicReference<LatencyHistogram[]>();
+
+        private RouteStatistics() {
+        }
+
+        /*
+         * The stage histograms are only created once stage timing has been recorded for the route.
+         */
+        private LatencyHistogram[] stages() {
+            final LatencyHistogram[] current = stages.get();
+            if (current != null) {
+                return current;
+            }
+            final LatencyHistogram[] created = new LatencyHistogram[Stage.values().length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new LatencyHistogram();
+            }
+            return stages.compareAndSet(null, created) ? created : stages.get();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getBytesIn() {
+            return bytesIn.get();
+        }
+
+        public long getBytesOut() {
+            return bytesOut.get();
+        }
+
+        /**
+         * Returns the histogram of the time spent in a stage.
+         * 
+         * @param stage the {@link Stage}.
+         * @return {@code Optional<LatencyHistogram>} the histogram, absent if stage timing has not been recorded.
+         */
+        public Optional<LatencyHistogram> getStage(final Stage stage) {
+            final LatencyHistogram[] current = stages.get();
+            return current == null ? Optional.<LatencyHistogram> absent() : Optional.of(current[stage.ordinal()]);
+        }
+    }
+
+}
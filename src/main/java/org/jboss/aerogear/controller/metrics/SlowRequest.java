@@ -0,0 +1,135 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A request recorded in the {@link SlowRequestLog}.
+ * </p>
+ * Only the shape of a request is recorded, never its values: the route path rather than the request path, and the names and
+ * sizes of the arguments bound to the target endpoint.
+ */
+public final class SlowRequest {
+
+    private final Date timestamp;
+    private final String reason;
+    private final String method;
+    private final String route;
+    private final int status;
+    private final long durationMicros;
+    private final long cpuMicros;
+    private final String threadName;
+    private final long responseBytes;
+    private final Map<String, Long> stageMicros;
+    private final Map<String, String> arguments;
+
+    public SlowRequest(final Date timestamp, final String reason, final String method, final String route, final int status,
+            final long durationMicros, final long cpuMicros, final String threadName, final long responseBytes,
+            final Map<String, Long> stageMicros, final Map<String, String> arguments) {
+        this.timestamp = new Date(timestamp.getTime());
+        this.reason = reason;
+        this.method = method;
+        this.route = route;
+        this.status = status;
+        this.durationMicros = durationMicros;
+        this.cpuMicros = cpuMicros;
+        this.threadName = threadName;
+        this.responseBytes = responseBytes;
+        this.stageMicros = Collections.unmodifiableMap(new LinkedHashMap<String, Long>(stageMicros));
+        this.arguments = Collections.unmodifiableMap(new LinkedHashMap<String, String>(arguments));
+    }
+
+    public Date getTimestamp() {
+        return new Date(timestamp.getTime());
+    }
+
+    /**
+     * Returns why the request was recorded.
+     * 
+     * @return {@code String} 'threshold' if the request exceeded its threshold, otherwise 'sampled'.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    /**
+     * Returns the CPU time used by the thread processing the request. Comparing it to the duration shows how long the thread
+     * was runnable rather than blocked or waiting.
+     * 
+     * @return {@code long} the CPU time in microseconds, -1 if thread CPU time measurement is not supported.
+     */
+    public long getCpuMicros() {
+        return cpuMicros;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * Returns the time spent in each {@link Stage} of processing the request.
+     * 
+     * @return {@code Map} of stage name to time in microseconds.
+     */
+    public Map<String, Long> getStageMicros() {
+        return stageMicros;
+    }
+
+    /**
+     * Returns the shape of the arguments bound to the target endpoint.
+     * 
+     * @return {@code Map} of argument name to its type and size, for example {@code String(12)}.
+     */
+    public Map<String, String> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowRequest[timestamp=" + timestamp.getTime() + ", reason=" + reason + ", method=" + method + ", route="
+                + route + ", status=" + status + ", durationMicros=" + durationMicros + ", cpuMicros=" + cpuMicros
+                + ", threadName=" + threadName + ", responseBytes=" + responseBytes + ", stageMicros=" + stageMicros
+                + ", arguments=" + arguments + "]";
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A bounded, lock free, in-memory ring buffer of {@link SlowRequest}s, which is exposed through JMX as
+ * {@code org.jboss.aerogear.controller:type=SlowRequestLog}.
+ * </p>
+ * Once full, each added request overwrites the oldest one.
+ */
+public final class SlowRequestLog implements SlowRequestLogMXBean {
+
+    private final AtomicReferenceArray<SlowRequest> requests;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowRequestLog(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        }
+        this.requests = new AtomicReferenceArray<SlowRequest>(capacity);
+    }
+
+    /**
+     * Creates a SlowRequestLog and registers it with the platform MBeanServer, replacing any previously registered log.
+     * 
+     * @param capacity the maximum number of requests kept.
+     * @return {@code SlowRequestLog} the registered log.
+     */
+    public static SlowRequestLog register(final int capacity) {
+        final SlowRequestLog log = new SlowRequestLog(capacity);
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(RouteCounters.JMX_DOMAIN + ":type=SlowRequestLog");
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(log, objectName);
+        } catch (final JMException e) {
+            // JMX is optional, the log remains available programmatically
+        } catch (final SecurityException e) {
+            // JMX is optional, the log remains available programmatically
+        }
+        return log;
+    }
+
+    /**
+     * Adds a request, overwriting the oldest request if the log is full.
+     * 
+     * @param request the {@link SlowRequest} to add.
+     */
+    public void add(final SlowRequest request) {
+        requests.set((int) (next.getAndIncrement() % requests.length()), request);
+    }
+
+    /**
+     * Returns the recorded requests.
+     * 
+     * @return {@code List} of the recorded {@link SlowRequest}s, newest first.
+     */
+    public List<SlowRequest> getRequests() {
+        final int capacity = requests.length();
+        final long last = next.get();
+        final List<SlowRequest> snapshot = new ArrayList<SlowRequest>(capacity);
+        for (long i = last - 1; i >= 0 && i >= last - capacity; i--) {
+            final SlowRequest request = requests.get((int) (i % capacity));
+            if (request != null) {
+                snapshot.add(request);
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public List<String> getSlowRequests() {
+        final List<String> snapshot = new ArrayList<String>();
+        for (SlowRequest request : getRequests()) {
+            snapshot.add(request.toString());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public int getCapacity() {
+        return requests.length();
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < requests.length(); i++) {
+            requests.set(i, null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SlowRequestLog[capacity=" + requests.length() + ", recorded=" + next.get() + "]";
+    }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.util.List;
+
+/**
+ * JMX management interface for {@link SlowRequestLog}.
+ */
+public interface SlowRequestLogMXBean {
+
+    /**
+     * Returns the recorded requests.
+     * 
+     * @return {@code List} of the recorded requests, newest first.
+     */
+    List<String> getSlowRequests();
+
+    /**
+     * Returns the maximum number of requests kept.
+     * 
+     * @return {@code int} the capacity of the log.
+     */
+    int getCapacity();
+
+    /**
+     * Discards all recorded requests.
+     */
+    void clear();
+
+}
@@ -0,0 +1,61 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+/**
+ * The stages that processing a request goes through, which are timed by a {@link StageTimer}.
+ */
+public enum Stage {
+
+    /**
+     * Finding the route matching the request.
+     */
+    ROUTE("route"),
+
+    /**
+     * Extracting the arguments of the target endpoint from the request, including deserializing the request body.
+     */
+    BIND("bind"),
+
+    /**
+     * Invoking the target endpoint.
+     */
+    INVOKE("invoke"),
+
+    /**
+     * Responding with the result of the target endpoint, including serializing it.
+     */
+    RESPOND("respond");
+
+    private final String metricName;
+
+    private Stage(final String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Returns the name used for this stage in exported metrics and in the 'Server-Timing' header.
+     * 
+     * @return {@code String} the name of this stage.
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+}
@@ -0,0 +1,204 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Accumulates the time, in nanoseconds, spent in each {@link Stage} of processing a single request, and the shape of the
+ * arguments bound to the target endpoint.
+ * </p>
+ * The router, the route processor and the responders time their stage using the timer of the
+ * {@link org.jboss.aerogear.controller.router.RouteContext}:
+ * <pre>
+ * {@code
+ *     final long start = timer.start();
+ *     ...
+ *     timer.stop(Stage.BIND, start);
+ * }
+ * </pre>
+ * Unless stage timing is enabled, requests use {@link #DISABLED}, whose methods neither read the clock nor record anything.
+ * A timer is only used by the thread processing its request, and so is not thread safe.
+ */
+public final class StageTimer {
+
+    /**
+     * The name of the request attribute holding the timer of a request.
+     */
+    public static final String ATTRIBUTE = StageTimer.class.getName();
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /**
+     * A timer that does not time anything.
+     */
+    public static final StageTimer DISABLED = new StageTimer(false, false);
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final boolean enabled;
+    private final boolean serverTiming;
+    private final long[] durations;
+    private Map<String, String> arguments = Collections.emptyMap();
+
+    private StageTimer(final boolean enabled, final boolean serverTiming) {
+        this.enabled = enabled;
+        this.serverTiming = serverTiming;
+        this.durations = new long[enabled ? STAGES.length : 0];
+    }
+
+    /**
+     * Creates a timer for a request.
+     * 
+     * @param serverTiming {@code true} if the stage timings should be sent to the client in a 'Server-Timing' header.
+     * @return {@link StageTimer} the new timer.
+     */
+    public static StageTimer create(final boolean serverTiming) {
+        return new StageTimer(true, serverTiming);
+    }
+
+    /**
+     * Returns the timer of the passed-in request.
+     * 
+     * @param request the {@link HttpServletRequest}.
+     * @return {@link StageTimer} stored in the request's {@link #ATTRIBUTE} attribute, or {@link #DISABLED} if there is none.
+     */
+    public static StageTimer forRequest(final HttpServletRequest request) {
+        final Object timer = request.getAttribute(ATTRIBUTE);
+        return timer instanceof StageTimer ? (StageTimer) timer : DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServerTimingEnabled() {
+        return serverTiming;
+    }
+
+    /**
+     * Starts timing a stage.
+     * 
+     * @return {@code long} the start time to pass to {@link #stop(Stage, long)}.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stops timing a stage, adding the time elapsed since the passed-in start time to the stage. A stage can be timed several
+     * times for a single request, for example when an error route is invoked after the target endpoint failed.
+     * 
+     * @param stage the {@link Stage} that was timed.
+     * @param start the start time returned by {@link #start()}.
+     */
+    public void stop(final Stage stage, final long start) {
+        if (enabled) {
+            durations[stage.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the time spent in a stage.
+     * 
+     * @param stage the {@link Stage}.
+     * @return {@code long} the time in nanoseconds.
+     */
+    public long get(final Stage stage) {
+        return enabled ? durations[stage.ordinal()] : 0;
+    }
+
+    /**
+     * Records the names, types and sizes, but not the values, of the arguments bound to the target endpoint.
+     * 
+     * @param prefix the prefix of the argument names, for example the name of a composite part.
+     * @param arguments {@code Map} of argument name to value.
+     */
+    public void recordArguments(final String prefix, final Map<String, ?> arguments) {
+        if (!enabled) {
+            return;
+        }
+        if (this.arguments.isEmpty()) {
+            this.arguments = new LinkedHashMap<String, String>();
+        }
+        for (Entry<String, ?> argument : arguments.entrySet()) {
+            this.arguments.put(prefix + argument.getKey(), shapeOf(argument.getValue()));
+        }
+    }
+
+    /**
+     * Returns the shape of the arguments bound to the target endpoint.
+     * 
+     * @return {@code Map} of argument name to its type and size, for example {@code String(12)}.
+     */
+    public Map<String, String> getArguments() {
+        return Collections.unmodifiableMap(arguments);
+    }
+
+    /**
+     * Returns the value of the 'Server-Timing' header for the stages timed so far, with durations in milliseconds.
+     * 
+     * @return {@code String} the header value, for example {@code route;dur=0.012, bind;dur=0.140, invoke;dur=3.517}.
+     */
+    public String toServerTiming() {
+        final StringBuilder sb = new StringBuilder();
+        for (Stage stage : STAGES) {
+            if (get(stage) > 0) {
+                sb.append(sb.length() > 0 ? ", " : "").append(stage.getMetricName()).append(";dur=")
+                        .append(String.format(Locale.ENGLISH, "%.3f", get(stage) / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+            }
+        }
+        return sb.toString();
+    }
+
+    static String shapeOf(final Object value) {
+        if (value == null) {
+            return "null";
+        }
+        final String type = value.getClass().getSimpleName();
+        if (value instanceof CharSequence) {
+            return type + "(" + ((CharSequence) value).length() + ")";
+        }
+        if (value instanceof Collection) {
+            return type + "(" + ((Collection<?>) value).size() + ")";
+        }
+        if (value instanceof Map) {
+            return type + "(" + ((Map<?, ?>) value).size() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return type + "(" + Array.getLength(value) + ")";
+        }
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "StageTimer[" + (enabled ? toServerTiming() : "disabled") + "]";
+    }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.decorators.deadline.Deadline;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineContext;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineExceededException;
+
+/**
+ * Coalesces concurrent invocations of the same route by the same caller with the same arguments into a single invocation,
+ * also known as single-flight.
+ * </p>
+ * The first request becomes the leader and performs the invocation on its own thread, any identical request arriving while
+ * the invocation is in flight waits for, and shares, its result or exception. Once the invocation completes the next
+ * identical request performs a new invocation, so results are never cached. Arguments are compared using
+ * {@link Arrays#deepEquals(Object[], Object[])}. A waiting request never waits beyond its own {@link Deadline}.
+ */
+final class Coalescer {
+
+    private final ConcurrentMap<Key, FutureTask<Object>> inFlight = new ConcurrentHashMap<Key, FutureTask<Object>>();
+    private final RouteCounters counters;
+
+    Coalescer(final RouteCounters counters) {
+        this.counters = counters;
+    }
+
+    /**
+     * Performs the passed-in invocation, unless an identical invocation is already in flight in which case its outcome is
+     * shared.
+     * 
+     * @param route the {@link Route} being invoked.
+     * @param caller the caller of the invocation, see {@link org.jboss.aerogear.controller.util.RequestUtils#extractCaller},
+     *        or {@code null} for anonymous callers.
+     * @param arguments the arguments of the invocation.
+     * @param invocation the {@link Callable} performing the invocation.
+     * @return {@code Object} the result of the invocation.
+     * @throws Exception the exception thrown by the invocation.
+     * @throws DeadlineExceededException if the deadline of the current request expired while waiting for an identical
+     *         invocation.
+     */
+    Object invoke(final Route route, final String caller, final Object[] arguments, final Callable<Object> invocation)
+            throws Exception {
+        final Key key = new Key(route, caller, arguments);
+        final FutureTask<Object> task = new FutureTask<Object>(invocation);
+        final FutureTask<Object> existing = inFlight.putIfAbsent(key, task);
+        if (existing != null) {
+            counters.increment(route.getPath(), DefaultRouteProcessor.COALESCED);
+            return await(existing, DeadlineContext.current());
+        }
+        counters.increment(route.getPath(), DefaultRouteProcessor.INVOCATIONS);
+        try {
+            task.run();
+        } finally {
+            inFlight.remove(key, task);
+        }
+        return get(task);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static Object await(final FutureTask<Object> task, final Deadline deadline) throws Exception {
+        try {
+            return task.get(deadline.remaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            throw ExceptionBundle.MESSAGES.deadlineExceeded(deadline.getTimeout());
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Object get(final FutureTask<Object> task) throws Exception {
+        try {
+            return task.get();
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Exception unwrap(final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    private static class Key {
+        private final Route route;
+        private final String caller;
+        private final Object[] arguments;
+        private final int hashCode;
+
+        Key(final Route route, final String caller, final Object[] arguments) {
+            this.route = route;
+            this.caller = caller;
+            this.arguments = arguments;
+            this.hashCode = 31 * (31 * System.identityHashCode(route) + (caller == null ? 0 : caller.hashCode()))
+                    + Arrays.deepHashCode(arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return route == other.route && (caller == null ? other.caller == null : caller.equals(other.caller))
+                    && Arrays.deepEquals(arguments, other.arguments);
+        }
+    }
+
+}
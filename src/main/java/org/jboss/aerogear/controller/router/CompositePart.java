@@ -0,0 +1,84 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router;
+
+/**
+ * A single part of a composite {@link Route}.
+ * </p>
+ * Each part has its own target endpoint, described by a {@link Route} which shares the path, request methods, roles and
+ * media types of the composite route, and its result is stored under the part's name in the entity of the composite route.
+ * 
+ * @see RouteBuilder.TargetEndpoint#compose()
+ */
+public class CompositePart {
+
+    private final String name;
+    private final Route route;
+    private final long timeout;
+    private final boolean optional;
+
+    public CompositePart(final String name, final Route route, final long timeout, final boolean optional) {
+        this.name = name;
+        this.route = route;
+        this.timeout = timeout;
+        this.optional = optional;
+    }
+
+    /**
+     * Returns the name of this part, which is the key of the part's result in the entity of the composite route.
+     * 
+     * @return {@code String} the name of this part.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the {@link Route} describing the target endpoint of this part.
+     * 
+     * @return {@link Route} for the target endpoint of this part.
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Returns the number of milliseconds that this part is allowed to take.
+     * 
+     * @return {@code long} the timeout in milliseconds.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Determines whether the composite route should still succeed when this part fails or times out.
+     * 
+     * @return {@code true} if this part is optional.
+     */
+    public boolean isOptional() {
+        return optional;
+    }
+
+    @Override
+    public String toString() {
+        return "CompositePart[name=" + name + ", timeout=" + timeout + ", optional=" + optional + ", route=" + route + "]";
+    }
+
+}
@@ -20,6 +20,7 @@ package org.jboss.aerogear.controller.router;
 import static com.google.common.base.Objects.firstNonNull;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -27,9 +28,13 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.aerogear.controller.router.decorators.bulkhead.Bulkhead;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimit;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
+import com.google.common.base.Optional;
+
 /**
  * An immutable implementation of {@link Route}.
  */
@@ -43,6 +48,13 @@ public class DefaultRoute implements Route {
     private final Set<MediaType> produces;
     private final Set<Class<? extends Throwable>> throwables;
     private final List<Parameter<?>> parameters;
+    private final Optional<String> fields;
+    private final List<CompositePart> parts;
+    private final boolean coalesced;
+    private final Optional<Bulkhead> bulkhead;
+    private final Optional<RateLimit> rateLimit;
+    private final Optional<Long> deadline;
+    private final Priority priority;
 
     /**
      * Constructs a Route with the specified {@code RouteDescriptor} configuration options.
@@ -59,6 +71,13 @@ public class DefaultRoute implements Route {
         parameters = firstNonNull(descriptor.getParameters(), Collections.<Parameter<?>> emptyList());
         produces = asSet(firstNonNull(descriptor.getProduces(), defaultMediaTypes()));
         throwables = firstNonNull(descriptor.getThrowables(), emptyThrowableSet());
+        fields = Optional.fromNullable(descriptor.getFields());
+        parts = asParts(descriptor.getParts());
+        coalesced = descriptor.isCoalesced();
+        bulkhead = Optional.fromNullable(descriptor.getBulkhead());
+        rateLimit = Optional.fromNullable(descriptor.getRateLimit());
+        deadline = Optional.fromNullable(descriptor.getDeadline());
+        priority = firstNonNull(descriptor.getPriority(), Priority.NORMAL);
     }
 
     @Override
@@ -128,6 +147,46 @@ public class DefaultRoute implements Route {
         return Collections.unmodifiableSet(consumes);
     }
 
+    @Override
+    public Optional<String> getFields() {
+        return fields;
+    }
+
+    @Override
+    public Priority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public Optional<Long> getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public Optional<RateLimit> getRateLimit() {
+        return rateLimit;
+    }
+
+    @Override
+    public Optional<Bulkhead> getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public boolean isComposite() {
+        return !parts.isEmpty();
+    }
+
+    @Override
+    public List<CompositePart> getParts() {
+        return parts;
+    }
+
     @Override
     public boolean canHandle(final Throwable throwable) {
         for (Class<? extends Throwable> t : throwables) {
@@ -166,6 +225,21 @@ public class DefaultRoute implements Route {
         return strings.isEmpty() ? new HashSet<String>(Arrays.asList(defaultValue)) : new LinkedHashSet<String>(strings);
     }
 
+    private static List<CompositePart> asParts(final List<RouteDescriptor.PartDescriptor> descriptors) {
+        if (descriptors == null) {
+            return Collections.emptyList();
+        }
+        if (descriptors.isEmpty()) {
+            throw new IllegalStateException("A composite route must have at least one part");
+        }
+        final List<CompositePart> parts = new ArrayList<CompositePart>(descriptors.size());
+        for (RouteDescriptor.PartDescriptor part : descriptors) {
+            parts.add(new CompositePart(part.getName(), new DefaultRoute(part.getRouteDescriptor()), part.getTimeout(),
+                    part.isOptional()));
+        }
+        return Collections.unmodifiableList(parts);
+    }
+
     private static Set<Class<? extends Throwable>> emptyThrowableSet() {
         return Collections.emptySet();
     }
@@ -19,18 +19,35 @@ package org.jboss.aerogear.controller.router;
 
 import static org.jboss.aerogear.controller.util.ParameterExtractor.extractArguments;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import org.jboss.aerogear.controller.metrics.FlightEvent;
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.metrics.Stage;
+import org.jboss.aerogear.controller.metrics.StageTimer;
+import org.jboss.aerogear.controller.router.rest.projection.Projections;
+import org.jboss.aerogear.controller.util.RequestUtils;
+
 /**
  * Default implementation of {@link RouteProcessor} that is the target of a processing chain of CDI decorators. 
  * </p> 
  */
 public class DefaultRouteProcessor implements RouteProcessor {
 
+    public static final String COALESCING_COUNTERS = "coalescing";
+    public static final String INVOCATIONS = "invocations";
+    public static final String COALESCED = "coalesced";
+
+    private static final Coalescer COALESCER = new Coalescer(RouteCounters.forName(COALESCING_COUNTERS));
+
     private EndpointInvoker endpointInvoker;
     private final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
 
@@ -49,9 +66,71 @@ public class DefaultRouteProcessor implements RouteProcessor {
     }
 
     @Override
-    public InvocationResult process(RouteContext routeContext) throws Exception {
-        final Map<String, Object> arguments = extractArguments(routeContext, consumers);
-        return new InvocationResult(endpointInvoker.invoke(routeContext, arguments.values().toArray()), routeContext);
+    public InvocationResult process(final RouteContext routeContext) throws Exception {
+        // an invalid 'fields' parameter must fail before the endpoint is invoked, so that it results in a 400
+        Projections.forRequest(routeContext);
+        final StageTimer timer = routeContext.getTimer();
+        final FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.ARGUMENT_BINDING);
+        final long start = timer.start();
+        if (routeContext.getRoute().isComposite()) {
+            final List<Object[]> partArguments = extractPartArguments(routeContext);
+            timer.stop(Stage.BIND, start);
+            routeContext.commit(event);
+            return invoke(routeContext, partArguments.toArray(), new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return endpointInvoker.invokeParts(routeContext, partArguments);
+                }
+            });
+        }
+        final Map<String, Object> extracted = extractArguments(routeContext, consumers);
+        timer.stop(Stage.BIND, start);
+        routeContext.commit(event);
+        timer.recordArguments("", extracted);
+        final Object[] arguments = extracted.values().toArray();
+        return invoke(routeContext, arguments, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return endpointInvoker.invoke(routeContext, arguments);
+            }
+        });
+    }
+
+    private InvocationResult invoke(final RouteContext routeContext, final Object[] arguments,
+            final Callable<Object> invocation) throws Exception {
+        final StageTimer timer = routeContext.getTimer();
+        final FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.ENDPOINT_INVOCATION);
+        final long start = timer.start();
+        try {
+            final Object result = isCoalesced(routeContext) ? COALESCER.invoke(routeContext.getRoute(),
+                    RequestUtils.extractCaller(routeContext.getRequest()), arguments, invocation) : invocation.call();
+            return new InvocationResult(result, routeContext);
+        } finally {
+            timer.stop(Stage.INVOKE, start);
+            routeContext.commit(event);
+        }
+    }
+
+    private static boolean isCoalesced(final RouteContext routeContext) {
+        final String method = routeContext.getRequest().getMethod();
+        return routeContext.getRoute().isCoalesced()
+                && (RequestMethod.GET.toString().equals(method) || RequestMethod.HEAD.toString().equals(method));
+    }
+
+    /*
+     * The arguments of all parts are extracted on the calling thread, as the request must not be accessed concurrently.
+     */
+    private List<Object[]> extractPartArguments(final RouteContext routeContext) throws Exception {
+        final List<Object[]> args = new ArrayList<Object[]>();
+        for (CompositePart part : routeContext.getRoute().getParts()) {
+            final RouteContext partContext = new RouteContext(part.getRoute(), routeContext.getRequestPath(),
+                    routeContext.getRequest(), routeContext.getResponse(), routeContext.getRoutes(),
+                    routeContext.getTimer());
+            final Map<String, Object> extracted = extractArguments(partContext, consumers);
+            routeContext.getTimer().recordArguments(part.getName() + ".", extracted);
+            args.add(extracted.values().toArray());
+        }
+        return args;
     }
 
 }
@@ -21,8 +21,6 @@ import static org.jboss.aerogear.controller.util.RequestUtils.extractMethod;
 import static org.jboss.aerogear.controller.util.RequestUtils.extractPath;
 import static org.jboss.aerogear.controller.util.RequestUtils.extractAcceptHeader;
 
-import java.util.Collections;
-
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.servlet.FilterChain;
@@ -30,9 +28,16 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.log.AeroGearLogger;
 import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.metrics.FlightEvent;
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
+import org.jboss.aerogear.controller.metrics.Stage;
+import org.jboss.aerogear.controller.metrics.StageTimer;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
+import com.google.common.base.Optional;
+
 /**
  * Default implementation of {@link Router}. 
  * </p> 
@@ -46,6 +51,12 @@ import org.jboss.aerogear.controller.util.RequestUtils;
  */
 public class DefaultRouter implements Router {
 
+    /**
+     * The name of the request attribute holding the {@link Route} resolved for a request, so that the route is only
+     * resolved once when {@link #hasRouteFor}, {@link #routeFor} and {@link #dispatch} are called for the same request.
+     */
+    public static final String ROUTE_ATTRIBUTE = DefaultRouter.class.getName() + ".route";
+
     private Routes routes;
     private RouteProcessor routeProcessor;
 
@@ -63,18 +74,60 @@ public class DefaultRouter implements Router {
 
     @Override
     public boolean hasRouteFor(HttpServletRequest request) {
-        return routes.hasRouteFor(extractMethod(request), extractPath(request), extractAcceptHeader(request));
+        return resolve(request, extractPath(request)).isPresent();
+    }
+
+    @Override
+    public Optional<Route> routeFor(HttpServletRequest request) {
+        return resolve(request, extractPath(request));
     }
 
     @Override
     public void dispatch(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException {
         try {
+            StageTimer timer = StageTimer.forRequest(request);
+            FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.ROUTE_RESOLUTION);
+            long start = timer.start();
             String requestPath = RequestUtils.extractPath(request);
-            Route route = routes.routeFor(extractMethod(request), requestPath, extractAcceptHeader(request));
-            routeProcessor.process(new RouteContext(route, requestPath, request, response, routes));
+            Optional<Route> route = resolve(request, requestPath);
+            if (!route.isPresent()) {
+                throw ExceptionBundle.MESSAGES.routeNotFound(extractMethod(request), requestPath,
+                        extractAcceptHeader(request));
+            }
+            timer.stop(Stage.ROUTE, start);
+            RouteContext routeContext = new RouteContext(route.get(), requestPath, request, response, routes, timer);
+            routeContext.commit(event);
+            routeProcessor.process(routeContext);
         } catch (Exception e) {
             throw new ServletException(e.getMessage(), e);
         }
     }
 
+    private Optional<Route> resolve(HttpServletRequest request, String requestPath) {
+        Object resolved = request.getAttribute(ROUTE_ATTRIBUTE);
+        if (resolved instanceof ResolvedRoute && ((ResolvedRoute) resolved).path.equals(requestPath)) {
+            return Optional.of(((ResolvedRoute) resolved).route);
+        }
+        RequestMethod method = extractMethod(request);
+        AeroGearLogger.LOGGER.requestedRoute(method, requestPath);
+        Optional<Route> route = routes.findRoute(method, requestPath, extractAcceptHeader(request));
+        if (route.isPresent()) {
+            request.setAttribute(ROUTE_ATTRIBUTE, new ResolvedRoute(requestPath, route.get()));
+        }
+        return route;
+    }
+
+    /*
+     * The path is kept with the route so that a request forwarded to another path is resolved again.
+     */
+    private static final class ResolvedRoute {
+        private final String path;
+        private final Route route;
+
+        private ResolvedRoute(String path, Route route) {
+            this.path = path;
+            this.route = route;
+        }
+    }
+
 }
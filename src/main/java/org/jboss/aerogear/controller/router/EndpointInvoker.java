@@ -16,9 +16,33 @@
  */
 package org.jboss.aerogear.controller.router;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.decorators.deadline.Deadline;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineContext;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineExceededException;
+import org.jboss.aerogear.controller.util.SharedExecutor;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * EndpointInvoker is responsible for invoking target endpoint methods in AeroGear Controller.
  */
@@ -26,11 +50,18 @@ public class EndpointInvoker {
 
     private final BeanManager beanManager;
     private final ControllerFactory controllerFactory;
+    private final ExecutorService partExecutor;
 
     @Inject
     public EndpointInvoker(final ControllerFactory controllerFactory, final BeanManager beanManager) {
+        this(controllerFactory, beanManager, null);
+    }
+
+    EndpointInvoker(final ControllerFactory controllerFactory, final BeanManager beanManager,
+            final ExecutorService partExecutor) {
         this.controllerFactory = controllerFactory;
         this.beanManager = beanManager;
+        this.partExecutor = partExecutor;
     }
 
     /**
@@ -46,8 +77,111 @@ public class EndpointInvoker {
         return route.getTargetMethod().invoke(getController(route), args);
     }
 
+    /**
+     * Invokes the target endpoint methods of the parts of a composite route in parallel.
+     * </p>
+     * The controllers are created on the calling thread, but the endpoint methods are invoked on a shared pool of daemon
+     * threads, which do not have an active CDI request scope but see the {@link Deadline} of the request. The calling thread
+     * waits for each part for at most the part's timeout, measured from the time the parts were started, and never beyond the
+     * deadline of the request. A part that cannot be queued because the pool is saturated fails immediately.
+     * 
+     * @param routeContext the {@link RouteContext} for the composite route to be invoked.
+     * @param args the arguments for the target endpoint method of each part, in the same order as {@link Route#getParts()}.
+     * @return {@code Map} of the results of the parts keyed by part name, in the order the parts were declared.
+     * @throws CompositePartTimeoutException if a part, which is not optional, did not complete within its timeout.
+     * @throws CompositePartRejectedException if a part, which is not optional, could not be queued.
+     * @throws DeadlineExceededException if a part, which is not optional, did not complete before the deadline of the request.
+     * @throws Exception if an error occurs while invoking the target method of a part which is not optional.
+     */
+    public Map<String, Object> invokeParts(final RouteContext routeContext, final List<Object[]> args) throws Exception {
+        final List<CompositePart> parts = routeContext.getRoute().getParts();
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>(parts.size());
+        final Deadline deadline = DeadlineContext.current();
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                final Route route = parts.get(i).getRoute();
+                final Object controller = getController(route);
+                final Object[] partArgs = args.get(i);
+                try {
+                    futures.add(partExecutor().submit(new Callable<Object>() {
+                        @Override
+                        public Object call() throws Exception {
+                            final Deadline previous = DeadlineContext.attach(deadline);
+                            try {
+                                return route.getTargetMethod().invoke(controller, partArgs);
+                            } finally {
+                                DeadlineContext.detach(previous);
+                            }
+                        }
+                    }));
+                } catch (final RejectedExecutionException e) {
+                    futures.add(Futures.<Object> immediateFailedFuture(ExceptionBundle.MESSAGES.compositePartRejected(
+                            parts.get(i).getName(), PartExecutor.MAX_QUEUED_PARTS)));
+                }
+            }
+            final long start = System.nanoTime();
+            final Map<String, Object> results = new LinkedHashMap<String, Object>();
+            for (int i = 0; i < parts.size(); i++) {
+                final CompositePart part = parts.get(i);
+                final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                final long timeout = Math.min(part.getTimeout() - elapsed, deadline.remaining(TimeUnit.MILLISECONDS));
+                results.put(part.getName(), await(part, futures.get(i), Math.max(0, timeout), deadline));
+            }
+            return results;
+        } finally {
+            for (Future<Object> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private ExecutorService partExecutor() {
+        return partExecutor != null ? partExecutor : PartExecutor.INSTANCE.get();
+    }
+
+    private static Object await(final CompositePart part, final Future<Object> future, final long timeout,
+            final Deadline deadline) throws Exception {
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            if (part.isOptional()) {
+                AeroGearLogger.THROTTLED.optionalPartFailed(part.getName(), e);
+                return null;
+            }
+            deadline.check();
+            throw ExceptionBundle.MESSAGES.compositePartTimedOut(part.getName(), part.getTimeout());
+        } catch (final ExecutionException e) {
+            if (part.isOptional()) {
+                AeroGearLogger.THROTTLED.optionalPartFailed(part.getName(), e.getCause());
+                return null;
+            }
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
     private Object getController(Route route) {
         return controllerFactory.createController(route.getTargetClass(), beanManager);
     }
 
+    /*
+     * Lazily created pool shared by all composite routes. Parts are typically bound by I/O so the pool is larger than the
+     * number of processors, and idle threads are discarded. The queue is bounded so that a slow backend cannot pile up
+     * parts without limit; a part that cannot be queued fails immediately. The pool is shut down when the application is
+     * undeployed.
+     */
+    private static class PartExecutor {
+        private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+        static final int MAX_QUEUED_PARTS = THREADS * 8;
+        static final SharedExecutor<ExecutorService> INSTANCE = new SharedExecutor<ExecutorService>() {
+            @Override
+            protected ExecutorService create() {
+                final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<Runnable>(MAX_QUEUED_PARTS),
+                        new ThreadFactoryBuilder().setNameFormat("aerogear-composite-%d").setDaemon(true).build());
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+            }
+        };
+    }
+
 }
@@ -25,6 +25,10 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.metrics.FlightEvent;
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
+import org.jboss.aerogear.controller.metrics.Stage;
+import org.jboss.aerogear.controller.metrics.StageTimer;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
 import com.google.common.base.Optional;
@@ -53,11 +57,30 @@ public class Responders {
      * If no match is found for the values in the Accept header, or if the Accept header was empty or "*&#47;*" then any
      * Responder that accepts "*&#47;*" will be used to respond.
      * 
+     * </p>
+     * When enabled, the 'Server-Timing' header is set before responding, so it holds the stages up to, but not including,
+     * responding.
+     * 
      * @param routeContext the current route context
      * @param result the result from invoking the Route's target endpoint method.
      * @throws Exception if an exception is thrown while trying to respond.
      */
     public void respond(final RouteContext routeContext, final Object result) throws Exception {
+        final StageTimer timer = routeContext.getTimer();
+        if (timer.isServerTimingEnabled()) {
+            routeContext.getResponse().setHeader(StageTimer.SERVER_TIMING_HEADER, timer.toServerTiming());
+        }
+        final FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.RESPONSE_WRITING);
+        final long start = timer.start();
+        try {
+            respondWith(routeContext, result);
+        } finally {
+            timer.stop(Stage.RESPOND, start);
+            routeContext.commit(event);
+        }
+    }
+
+    private void respondWith(final RouteContext routeContext, final Object result) throws Exception {
         final Set<String> acceptHeaders = RequestUtils.extractAcceptHeader(routeContext.getRequest());
         final Set<MediaType> routeMediaTypes = routeContext.getRoute().produces();
         final Optional<MediaType> optionalMediaType = RequestUtils.getAcceptedMediaType(acceptHeaders, routeMediaTypes);
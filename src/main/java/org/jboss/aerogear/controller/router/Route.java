@@ -21,8 +21,12 @@ import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Set;
 
+import org.jboss.aerogear.controller.router.decorators.bulkhead.Bulkhead;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimit;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 
+import com.google.common.base.Optional;
+
 /**
  * An object that contains information required to route HTTP requests to a target class's method.
  */
@@ -123,4 +127,63 @@ public interface Route {
      */
     Set<String> consumes();
 
+    /**
+     * Returns the default projection of the entity returned by this route.
+     * 
+     * @return {@code Optional<String>} the properties to be serialized when the request does not specify a 'fields' parameter.
+     */
+    Optional<String> getFields();
+
+    /**
+     * Returns the priority of this route, which determines which requests are shed first when the application is overloaded.
+     * 
+     * @return {@link Priority} the priority of this route.
+     */
+    Priority getPriority();
+
+    /**
+     * Returns the deadline of requests to this route.
+     * 
+     * @return {@code Optional<Long>} the number of milliseconds that processing a request is allowed to take, absent if the
+     *         route has no deadline.
+     */
+    Optional<Long> getDeadline();
+
+    /**
+     * Returns the {@link RateLimit} limiting the rate at which each client can send requests to this route.
+     * 
+     * @return {@code Optional<RateLimit>} the rate limit of this route, absent if requests to this route are not rate limited.
+     */
+    Optional<RateLimit> getRateLimit();
+
+    /**
+     * Returns the {@link Bulkhead} limiting the number of requests that this route processes concurrently.
+     * 
+     * @return {@code Optional<Bulkhead>} the bulkhead of this route, absent if the concurrency of this route is not limited.
+     */
+    Optional<Bulkhead> getBulkhead();
+
+    /**
+     * Determines whether concurrent identical GET and HEAD requests to this route share a single invocation of the target
+     * endpoint.
+     * 
+     * @return {@code true} if requests to this route are coalesced.
+     */
+    boolean isCoalesced();
+
+    /**
+     * Determines whether this route is a composite route, in which case {@link #getTargetClass()} and
+     * {@link #getTargetMethod()} return {@code null} and the target endpoints are those of its parts.
+     * 
+     * @return {@code true} if this route is a composite route.
+     */
+    boolean isComposite();
+
+    /**
+     * Returns the parts of this route.
+     * 
+     * @return {@code List} of the {@link CompositePart}s of this route, which is empty if this is not a composite route.
+     */
+    List<CompositePart> getParts();
+
 }
@@ -17,6 +17,11 @@
 
 package org.jboss.aerogear.controller.router;
 
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.router.decorators.bulkhead.Bulkhead;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimit;
+
 /**
  * RouteBuilder builds a {@link Route} using a fluent API. 
  * </p> 
@@ -104,6 +109,88 @@ public interface RouteBuilder {
          */
         TargetEndpoint produces(MediaType... mediaTypes);
 
+        /**
+         * Specifies the default projection of the entity returned by this endpoint, which is used when the request does not
+         * contain a 'fields' parameter. Only the selected properties of the entity will be serialized.
+         * 
+         * @param fields the properties to include, for example "id", "name", "owner(name)".
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint fields(String... fields);
+
+        /**
+         * Specifies the priority of this route. When the application is overloaded requests to lower priority routes are
+         * shed first. Routes have {@link Priority#NORMAL} priority unless specified otherwise.
+         * 
+         * @param priority the {@link Priority} of this route.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint priority(Priority priority);
+
+        /**
+         * Specifies the deadline of requests to this route. Requests still being processed when the deadline expires fail with
+         * a '504 Gateway Timeout' response, and their result is not serialized. A shorter timeout can be requested by the
+         * client in the 'X-Request-Timeout' header.
+         * 
+         * @param millis the number of milliseconds that processing a request is allowed to take.
+         * @return {@link TargetEndpoint} to support method chaining.
+         * @see org.jboss.aerogear.controller.router.decorators.deadline.Deadline
+         */
+        TargetEndpoint deadline(long millis);
+
+        /**
+         * Limits the rate at which each client, identified by its remote address, can send requests to this route. Requests
+         * exceeding the limit are rejected with a '429 Too Many Requests' response.
+         * 
+         * @param requests the number of requests allowed per period.
+         * @param period the length of the period.
+         * @param unit the {@link TimeUnit} of the period.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint rateLimit(int requests, long period, TimeUnit unit);
+
+        /**
+         * Assigns a {@link RateLimit} to this route. Requests to all the routes sharing the same rate limit count towards the
+         * same limit.
+         * 
+         * @param rateLimit the {@link RateLimit} to assign to this route.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint rateLimit(RateLimit rateLimit);
+
+        /**
+         * Limits the number of requests that this route processes concurrently. Requests exceeding the limit are rejected
+         * immediately with a '503 Service Unavailable' response.
+         * 
+         * @param maxConcurrent the maximum number of concurrent requests.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint bulkhead(int maxConcurrent);
+
+        /**
+         * Assigns a {@link Bulkhead} to this route, which limits the number of requests processed concurrently by all the
+         * routes sharing the same bulkhead.
+         * 
+         * @param bulkhead the {@link Bulkhead} to assign to this route.
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint bulkhead(Bulkhead bulkhead);
+
+        /**
+         * Specifies that concurrent GET and HEAD requests to this route which have the same arguments share a single
+         * invocation of the target endpoint. Every coalesced request receives the result, or exception, of the shared
+         * invocation, which is then serialized independently for each request.
+         * </p>
+         * Invocations are only shared between requests of the same caller, that is the same principal, or the same session
+         * for unauthenticated requests. Anonymous requests without a session all share invocations, so only coalesce routes
+         * whose result depends solely on the arguments of the target endpoint, and never mutate the returned entity as it
+         * may be shared between requests. A request waiting for a shared invocation fails with a
+         * {@code DeadlineExceededException} once its deadline expires.
+         * 
+         * @return {@link TargetEndpoint} to support method chaining.
+         */
+        TargetEndpoint coalesce();
+
         /**
          * Specifies the target Class for the {@link Route}.
          * 
@@ -111,6 +198,78 @@ public interface RouteBuilder {
          * @return T the type of the class.
          */
         <T> T to(Class<T> clazz);
+
+        /**
+         * Specifies that the {@link Route} is a composite route made of several target endpoints, its parts. The parts are
+         * invoked in parallel and their results are merged into a single {@code Map} entity, keyed by part name, so that the
+         * latency of the route is that of its slowest part.
+         * </p>
+         * Sample Usage:
+         * <pre>
+         * {@code
+         *     final CompositeEndpoint dashboard = route().from("/dashboard").on(RequestMethod.GET).produces(JSON).compose();
+         *     dashboard.part("cars").to(CarController.class).findAll();
+         *     dashboard.part("owners").timeout(500).to(OwnerController.class).findByName(param("name"));
+         * }
+         * </pre>
+         * A composite route produces JSON unless specified otherwise, and cannot produce views such as JSP or HTML. The target
+         * endpoints of the parts are not paginated.
+         * 
+         * @return {@link CompositeEndpoint} which is a builder for the parts of the composite {@link Route}.
+         */
+        CompositeEndpoint compose();
+    }
+
+    /**
+     * Describes the parts of a composite {@link Route}.
+     */
+    public static interface CompositeEndpoint {
+
+        /**
+         * Specifies the default timeout of the parts of this composite route.
+         * 
+         * @param millis the number of milliseconds that a part is allowed to take.
+         * @return {@link CompositeEndpoint} to support method chaining.
+         */
+        CompositeEndpoint timeout(long millis);
+
+        /**
+         * Adds a part to this composite route.
+         * 
+         * @param name the name of the part, which is the key of the part's result in the merged entity.
+         * @return {@link PartEndpoint} which is a builder for the target endpoint of the part.
+         */
+        PartEndpoint part(String name);
+    }
+
+    /**
+     * Describes the target endpoint of a single part of a composite {@link Route}.
+     */
+    public static interface PartEndpoint {
+
+        /**
+         * Specifies the timeout of this part, overriding the default timeout of the composite route.
+         * 
+         * @param millis the number of milliseconds that this part is allowed to take.
+         * @return {@link PartEndpoint} to support method chaining.
+         */
+        PartEndpoint timeout(long millis);
+
+        /**
+         * Specifies that this part is optional. If an optional part fails or times out its result will be {@code null}
+         * instead of failing the complete route.
+         * 
+         * @return {@link PartEndpoint} to support method chaining.
+         */
+        PartEndpoint optional();
+
+        /**
+         * Specifies the target Class for this part.
+         * 
+         * @param clazz The class that will be the used as the target endpoint of this part.
+         * @return T the type of the class.
+         */
+        <T> T to(Class<T> clazz);
     }
 
     /**
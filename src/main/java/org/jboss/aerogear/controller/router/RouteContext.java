@@ -20,6 +20,8 @@ package org.jboss.aerogear.controller.router;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
+import org.jboss.aerogear.controller.metrics.StageTimer;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
 /**
@@ -32,6 +34,7 @@ public class RouteContext {
     private final HttpServletRequest request;
     private final HttpServletResponse response;
     private final Routes routes;
+    private final StageTimer timer;
 
     /**
      * Constructor.
@@ -48,11 +51,17 @@ public class RouteContext {
 
     public RouteContext(final Route route, final String requestPath, final HttpServletRequest request,
             final HttpServletResponse response, final Routes routes) {
+        this(route, requestPath, request, response, routes, StageTimer.DISABLED);
+    }
+
+    public RouteContext(final Route route, final String requestPath, final HttpServletRequest request,
+            final HttpServletResponse response, final Routes routes, final StageTimer timer) {
         this.route = route;
         this.requestPath = requestPath;
         this.request = request;
         this.response = response;
         this.routes = routes;
+        this.timer = timer;
     }
 
     /**
@@ -100,4 +109,26 @@ public class RouteContext {
         return routes;
     }
 
+    /**
+     * Returns the {@link StageTimer} of the current request.
+     * 
+     * @return {@link StageTimer} which times the stages of processing the current request, {@link StageTimer#DISABLED} if
+     *         stage timing is not enabled.
+     */
+    public StageTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Commits a flight recorder event with the route path, the HTTP method and the negotiated media type of this context.
+     * 
+     * @param event the {@link FlightRecorder.Event} to commit, which is ignored if it is not enabled.
+     */
+    public void commit(final FlightRecorder.Event event) {
+        if (event.isEnabled()) {
+            event.commit(route.getPath(), request.getMethod(),
+                    RequestUtils.getNegotiatedMediaType(request, route.produces()));
+        }
+    }
+
 }
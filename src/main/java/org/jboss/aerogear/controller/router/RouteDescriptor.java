@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.CallbackFilter;
@@ -34,14 +35,25 @@ import net.sf.cglib.proxy.MethodProxy;
 import net.sf.cglib.proxy.NoOp;
 
 import org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.Bulkhead;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimit;
 import org.jboss.aerogear.controller.router.parameter.Parameter;
 import org.jboss.aerogear.controller.router.rest.pagination.Paginated;
+import org.jboss.aerogear.controller.router.rest.projection.Projections;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
+import com.google.common.base.Joiner;
+
 /**
  * Describes/configures a single route in AeroGear controller.
  */
-public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.TargetEndpoint {
+public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.TargetEndpoint, RouteBuilder.CompositeEndpoint {
+
+    /**
+     * The default number of milliseconds that a part of a composite route is allowed to take.
+     */
+    public static final long DEFAULT_PART_TIMEOUT = 10000;
+
     private String path;
     private Method targetMethod;
     private Object[] args;
@@ -51,7 +63,15 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
     private final List<String> consumes = new LinkedList<String>();
     private final List<Parameter<?>> parameters = new LinkedList<Parameter<?>>();
     private MediaType[] produces;
+    private String fields;
+    private boolean coalesced;
+    private Bulkhead bulkhead;
+    private RateLimit rateLimit;
+    private Long deadline;
+    private Priority priority;
     private Set<Class<? extends Throwable>> throwables;
+    private List<PartDescriptor> parts;
+    private long partTimeout = DEFAULT_PART_TIMEOUT;
     private final static FinalizeFilter FINALIZE_FILTER = new FinalizeFilter();
 
     public RouteDescriptor() {
@@ -82,8 +102,49 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
     @Override
     public <T> T to(Class<T> clazz) {
         this.targetClass = clazz;
+        return proxy(clazz, this, this);
+    }
+
+    @Override
+    public RouteBuilder.CompositeEndpoint compose() {
+        if (throwables != null) {
+            throw new IllegalStateException("An error route cannot be a composite route");
+        }
+        if (produces == null) {
+            produces = new MediaType[] { MediaType.JSON };
+        } else if (Arrays.asList(produces).contains(MediaType.JSP) || Arrays.asList(produces).contains(MediaType.HTML)) {
+            throw new IllegalStateException("A composite route has no view and cannot produce " + Arrays.asList(produces));
+        }
+        parts = new LinkedList<PartDescriptor>();
+        return this;
+    }
+
+    @Override
+    public RouteBuilder.CompositeEndpoint timeout(long millis) {
+        this.partTimeout = millis;
+        return this;
+    }
+
+    @Override
+    public RouteBuilder.PartEndpoint part(String name) {
+        for (PartDescriptor part : parts) {
+            if (part.getName().equals(name)) {
+                throw new IllegalArgumentException("Part '" + name + "' has already been added to route '" + path + "'");
+            }
+        }
+        final PartDescriptor part = new PartDescriptor(name, this);
+        parts.add(part);
+        return part;
+    }
+
+    /*
+     * Creates a proxy of the target class which records the invoked method, and its arguments, as the target method of the
+     * target descriptor. The parameters specified using param(...) are collected by the source descriptor.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> clazz, final RouteDescriptor target, final RouteDescriptor source) {
         try {
-            Object o = Enhancer.create(clazz, null, FINALIZE_FILTER, new Callback[] { new MyMethodInterceptor(this),
+            Object o = Enhancer.create(clazz, null, FINALIZE_FILTER, new Callback[] { new MyMethodInterceptor(target, source),
                     NoOp.INSTANCE });
             return (T) o;
         } catch (Exception e) {
@@ -111,11 +172,22 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
         return roles;
     }
 
+    /**
+     * Returns the parts of this route if it is a composite route.
+     * 
+     * @return {@code List} of the {@link PartDescriptor}s of this route, or {@code null} if this is not a composite route.
+     */
+    public List<PartDescriptor> getParts() {
+        return parts;
+    }
+
     private static class MyMethodInterceptor implements MethodInterceptor {
         private final RouteDescriptor routeDescriptor;
+        private final RouteDescriptor paramsDescriptor;
 
-        public MyMethodInterceptor(RouteDescriptor routeDescriptor) {
+        public MyMethodInterceptor(RouteDescriptor routeDescriptor, RouteDescriptor paramsDescriptor) {
             this.routeDescriptor = routeDescriptor;
+            this.paramsDescriptor = paramsDescriptor;
         }
 
         @Override
@@ -131,7 +203,7 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
         
         /*
          * If the target method has been annotated with Paginated, this method will extract the
-         * values for the offset/limit, and add these as normal method parameters. By doing this they 
+         * values for the offset (or cursor)/limit, and add these as normal method parameters. By doing this they 
          * will processed in the same manner as they would have if they had been explicitely specified
          * as method parameter to the target method. They will be extracted from the request just
          * as any other parameter. Later, these values will be available to the PaginationStrategy in use.
@@ -139,7 +211,11 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
         private void processPaginatedAnnotation(Method method, List<Parameter<?>> methodParams) {
             if (method.getAnnotation(Paginated.class) != null) {
                 final Paginated paginated = method.getAnnotation(Paginated.class);
-                methodParams.add(param(paginated.offsetParamName(), String.valueOf(paginated.defaultOffset()), String.class));
+                if (paginated.cursorKey().length() > 0) {
+                    methodParams.add(param(paginated.cursorParamName(), "", String.class));
+                } else {
+                    methodParams.add(param(paginated.offsetParamName(), String.valueOf(paginated.defaultOffset()), String.class));
+                }
                 methodParams.add(param(paginated.limitParamName(), String.valueOf(paginated.defaultLimit()), String.class));
             }
         }
@@ -149,9 +225,11 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
          * method. Those methods are called prior to this interceptor method since they are parameters
          * to the target method. So those parameters have already been added to the underlying route descriptors
          * parameter list. Below, we are combining those params with any constant parameter that were supplied.
+         * For a part of a composite route the params are added to the route descriptor of the composite route, and 
+         * are moved to the part's descriptor.
          */
         private void mergeRequestParamsWithConstants(Object[] args, List<Parameter<?>> destination) {
-            final List<Parameter<?>> requestParams = routeDescriptor.getParameters();
+            final List<Parameter<?>> requestParams = paramsDescriptor.getParameters();
             final boolean hasRequestParams = !requestParams.isEmpty();
             for (int i = 0, requestParam = 0; i < args.length; i++ ) {
                 final Object arg = args[i];
@@ -170,7 +248,8 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
                 }
             }
             requestParams.clear();
-            requestParams.addAll(destination);
+            routeDescriptor.getParameters().clear();
+            routeDescriptor.getParameters().addAll(destination);
         }
     }
 
@@ -203,6 +282,80 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
         return produces;
     }
 
+    @Override
+    public TargetEndpoint fields(String... fields) {
+        this.fields = Joiner.on(',').join(fields);
+        Projections.parse(this.fields);
+        return this;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    @Override
+    public TargetEndpoint coalesce() {
+        this.coalesced = true;
+        return this;
+    }
+
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public TargetEndpoint priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public TargetEndpoint deadline(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("deadline must be positive, was " + millis);
+        }
+        this.deadline = millis;
+        return this;
+    }
+
+    public Long getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public TargetEndpoint rateLimit(int requests, long period, TimeUnit unit) {
+        return rateLimit(RateLimit.of(requests, period, unit).build());
+    }
+
+    @Override
+    public TargetEndpoint rateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    @Override
+    public TargetEndpoint bulkhead(int maxConcurrent) {
+        return bulkhead(new Bulkhead(path, maxConcurrent));
+    }
+
+    @Override
+    public TargetEndpoint bulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+        return this;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
     @Override
     public TargetEndpoint consumes(String... consumes) {
         this.consumes.addAll(Arrays.asList(consumes));
@@ -231,6 +384,73 @@ public class RouteDescriptor implements RouteBuilder.OnMethods, RouteBuilder.Tar
         parameters.add(parameter);
     }
 
+    /**
+     * Describes/configures a single part of a composite route.
+     */
+    public static class PartDescriptor implements RouteBuilder.PartEndpoint {
+        private final String name;
+        private final RouteDescriptor composite;
+        private final RouteDescriptor descriptor = new RouteDescriptor();
+        private Long timeout;
+        private boolean optional;
+
+        private PartDescriptor(final String name, final RouteDescriptor composite) {
+            this.name = name;
+            this.composite = composite;
+        }
+
+        @Override
+        public RouteBuilder.PartEndpoint timeout(long millis) {
+            this.timeout = millis;
+            return this;
+        }
+
+        @Override
+        public RouteBuilder.PartEndpoint optional() {
+            this.optional = true;
+            return this;
+        }
+
+        @Override
+        public <T> T to(Class<T> clazz) {
+            descriptor.targetClass = clazz;
+            return proxy(clazz, descriptor, composite);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getTimeout() {
+            return timeout == null ? composite.partTimeout : timeout;
+        }
+
+        public boolean isOptional() {
+            return optional;
+        }
+
+        /**
+         * Returns the descriptor of the target endpoint of this part, which shares the path, request methods, roles and media
+         * types of the composite route.
+         * 
+         * @return {@link RouteDescriptor} for this part.
+         */
+        public RouteDescriptor getRouteDescriptor() {
+            descriptor.path = composite.path;
+            descriptor.methods = composite.methods;
+            descriptor.roles = composite.roles;
+            descriptor.produces = composite.produces;
+            descriptor.consumes.clear();
+            descriptor.consumes.addAll(composite.consumes);
+            return descriptor;
+        }
+
+        @Override
+        public String toString() {
+            return "PartDescriptor{" + "name='" + name + '\'' + ", descriptor=" + descriptor + '}';
+        }
+    }
+
     private static class FinalizeFilter implements CallbackFilter {
 
         /* Indexes into the callback array */
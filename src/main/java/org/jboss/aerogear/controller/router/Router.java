@@ -22,6 +22,8 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import com.google.common.base.Optional;
+
 /**
  * Router is the component that knows how to route/dispatch requests to target endpoints.
  */
@@ -35,6 +37,15 @@ public interface Router {
      */
     boolean hasRouteFor(HttpServletRequest httpServletRequest);
 
+    /**
+     * Returns the {@link Route} for the passed-in {@link HttpServletRequest}.
+     * 
+     * @param httpServletRequest the {@link HttpServletRequest}.
+     * @return {@code Optional<Route>} the {@link Route} that the request would be dispatched to, absent if there is no such
+     *         route or if the request is handled by the Router itself, for example a CORS preflight request.
+     */
+    Optional<Route> routeFor(HttpServletRequest httpServletRequest);
+
     /**
      * Dispatches to an appropriate {@link Route}.
      * 
@@ -25,6 +25,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import com.google.common.base.Optional;
+
 /**
  * Routes is a collection of {@link Route} instances that are able to handle certain {@link RequestMethod}/requestURI
  * combinations. 
@@ -94,12 +96,29 @@ public class Routes {
      *         the specified RequestMethod/URI combination is not supported by this Routes instance.
      */
     public Route routeFor(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
+        final Optional<Route> route = findRoute(method, requestURI, acceptHeaders);
+        if (!route.isPresent()) {
+            throw ExceptionBundle.MESSAGES.routeNotFound(method, requestURI, acceptHeaders);
+        }
+        return route.get();
+    }
+
+    /**
+     * Finds the {@link Route} for the specified {@link RequestMethod}/URI combination.
+     * 
+     * @param method the HTTP {@link RequestMethod}.
+     * @param requestURI the URI.
+     * @param acceptHeaders the accept headers provided, or an empty set if none were provided.
+     * @return {@code Optional<Route>} the {@link Route} configured to serve the {@link RequestMethod}/URI combination, absent
+     *         if this Routes instance has no such route.
+     */
+    public Optional<Route> findRoute(RequestMethod method, String requestURI, Set<String> acceptHeaders) {
         for (Route route : routes) {
             if (route.matches(method, requestURI, acceptHeaders)) {
-                return route;
+                return Optional.of(route);
             }
         }
-        throw ExceptionBundle.MESSAGES.routeNotFound(method, requestURI, acceptHeaders);
+        return Optional.absent();
     }
 
     /**
@@ -25,6 +25,8 @@ import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
+import org.jboss.aerogear.controller.metrics.FlightEvent;
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
 import org.jboss.aerogear.controller.router.EndpointInvoker;
 import org.jboss.aerogear.controller.router.InvocationResult;
 import org.jboss.aerogear.controller.router.MediaType;
@@ -63,9 +65,15 @@ public class ErrorHandler implements RouteProcessor {
             if (t instanceof HttpStatusAwareException) {
                 routeContext.getResponse().setStatus(((HttpStatusAwareException) t).getStatus());
             }
+            final FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.ERROR_ROUTING);
             final Throwable rootCause = Throwables.getRootCause(t);
             final RouteContext errorContext = errorContext(rootCause, routeContext);
-            final Object result = invokeErrorMethod(errorContext, rootCause);
+            final Object result;
+            try {
+                result = invokeErrorMethod(errorContext, rootCause);
+            } finally {
+                errorContext.commit(event);
+            }
             routeContext.getRequest().setAttribute(ErrorRoute.DEFAULT.getExceptionAttrName(), rootCause);
             return new InvocationResult(result, errorContext);
         }
@@ -82,7 +90,8 @@ public class ErrorHandler implements RouteProcessor {
 
     private RouteContext errorContext(final Throwable rootCause, final RouteContext orgContext) {
         final Route errorRoute = orgContext.getRoutes().routeFor(rootCause);
-        return new RouteContext(errorRoute, wrapRequest(orgContext), orgContext.getResponse(), orgContext.getRoutes());
+        return new RouteContext(errorRoute, orgContext.getRequestPath(), wrapRequest(orgContext), orgContext.getResponse(),
+                orgContext.getRoutes(), orgContext.getTimer());
     }
     
     private HttpServletRequest wrapRequest(final RouteContext routeContext) {
@@ -0,0 +1,130 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.batch;
+
+/**
+ * Concrete implementation of {@link BatchConfiguration}.
+ * </p>
+ * The batch route is disabled by default. To enable it produce a {@link BatchConfiguration} using CDI:
+ * <pre>
+ * &#64;Produces
+ * public BatchConfiguration batchConfig() {
+ *     return BatchConfig.enableBatching().path("/batch").maxRequests(20).build();
+ * }
+ * </pre>
+ * 
+ * @see BatchHandler
+ */
+public class BatchConfig implements BatchConfiguration {
+
+    public static final String DEFAULT_PATH = "/batch";
+    public static final int DEFAULT_MAX_REQUESTS = 20;
+    public static final int DEFAULT_MAX_THREADS = 1;
+
+    private final boolean batchEnabled;
+    private final String path;
+    private final int maxRequests;
+    private final int maxThreads;
+
+    private BatchConfig(final Builder builder) {
+        this.batchEnabled = builder.batchEnabled;
+        this.path = builder.path;
+        this.maxRequests = builder.maxRequests;
+        this.maxThreads = builder.maxThreads;
+    }
+
+    /**
+     * Returns a {@link Builder} which can be used to configure and build a {@link BatchConfiguration} instance.
+     * 
+     * @return {@link Builder} with batching enabled and default values for all other properties.
+     */
+    public static Builder enableBatching() {
+        return new Builder(true);
+    }
+
+    public static BatchConfiguration disableBatching() {
+        return new Builder(false).build();
+    }
+
+    /**
+     * Returns the default {@link BatchConfiguration}, which has batching disabled.
+     * 
+     * @return {@link BatchConfiguration} with batching disabled.
+     */
+    public static BatchConfiguration defaultConfig() {
+        return disableBatching();
+    }
+
+    @Override
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    @Override
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchConfig[batchEnabled=" + batchEnabled + ", path=" + path + ", maxRequests=" + maxRequests
+                + ", maxThreads=" + maxThreads + "]";
+    }
+
+    public static class Builder {
+        private final boolean batchEnabled;
+        private String path = DEFAULT_PATH;
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+        private int maxThreads = DEFAULT_MAX_THREADS;
+
+        private Builder(final boolean batchEnabled) {
+            this.batchEnabled = batchEnabled;
+        }
+
+        public Builder path(final String path) {
+            this.path = path;
+            return this;
+        }
+
+        public Builder maxRequests(final int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        public Builder maxThreads(final int maxThreads) {
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        public BatchConfiguration build() {
+            return new BatchConfig(this);
+        }
+    }
+
+}
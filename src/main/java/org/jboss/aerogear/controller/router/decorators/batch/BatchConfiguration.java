@@ -0,0 +1,61 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.batch;
+
+/**
+ * Configuration for the built-in batch route which enables clients to send several requests in a single HTTP request.
+ * 
+ * @see BatchHandler
+ */
+public interface BatchConfiguration {
+
+    /**
+     * Determines if the batch route is enabled.
+     * 
+     * @return {@code true} if the batch route is enabled.
+     */
+    boolean isBatchEnabled();
+
+    /**
+     * Returns the path, relative to the context path, that batch requests are POSTed to.
+     * 
+     * @return {@code String} the path of the batch route.
+     */
+    String getPath();
+
+    /**
+     * Returns the maximum number of sub-requests allowed in a single batch.
+     * 
+     * @return {@code int} the maximum number of sub-requests.
+     */
+    int getMaxRequests();
+
+    /**
+     * Returns the maximum number of threads used to process independent sub-requests in parallel.
+     * </p>
+     * A value of 1, the default, processes all sub-requests on the request thread. Larger values are opt-in: sub-requests
+     * processed on another thread do not have an active CDI request context, and share the batch request, its session and
+     * its security context with the other sub-requests running concurrently. Only use parallel processing when none of the
+     * batched endpoints, nor the security provider, depend on request scoped beans.
+     * 
+     * @return {@code int} the maximum number of threads.
+     */
+    int getMaxThreads();
+
+}
@@ -0,0 +1,353 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.JsonProcessingException;
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.rest.AbstractRestConsumer;
+import org.jboss.aerogear.controller.router.rest.ObjectMappers;
+import org.jboss.aerogear.controller.router.rest.encoding.ContentEncoding;
+import org.jboss.aerogear.controller.router.rest.encoding.RequestBodyTooLargeException;
+import org.jboss.aerogear.controller.util.RequestUtils;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * BatchHandler is a CDI Decorator that decorates a {@link Router} and provides a built-in batch route, which enables a client
+ * to send many requests in a single HTTP request.
+ * </p>
+ * A batch request is a POST to the configured batch path with a JSON array of sub-requests as its body:
+ * <pre>
+ * [
+ *   {"id": "cars", "method": "GET", "path": "/cars?color=red", "headers": {"Accept": "application/json"}},
+ *   {"method": "POST", "path": "/cars", "body": {"color": "blue", "brand": "Audi"}}
+ * ]
+ * </pre>
+ * Only 'path' is required and 'method' defaults to GET. A 'body' that is a JSON string is sent as is, any other JSON value is
+ * sent as JSON. Each sub-request is resolved and processed by the decorated {@link Router}, and so goes through route
+ * matching and the complete {@code RouteProcessor} chain. The response is a JSON array holding the 'id' (if specified),
+ * 'status', 'headers' and 'body' of each sub-request, in the same order as the sub-requests, where JSON bodies are embedded as
+ * JSON and other bodies as strings.
+ * </p>
+ * By default the sub-requests are processed one after the other on the request thread. When
+ * {@link BatchConfiguration#getMaxThreads()} is greater than one, consecutive GET, HEAD and OPTIONS sub-requests are
+ * independent and are processed in parallel on a pool owned by this decorator, while any other sub-request is processed only
+ * after all previous sub-requests have completed, and before any following one is started. Sub-requests processed on the
+ * pool have no active CDI request context and read the headers, attributes of the batch request's session and security
+ * context concurrently, so parallel processing is only suitable for endpoints that use neither request scoped beans nor
+ * request scoped security. The batch request body is limited to
+ * {@link AbstractRestConsumer#DEFAULT_MAX_DECODED_BODY_SIZE} bytes.
+ * 
+ * @see BatchConfiguration
+ */
+@Decorator
+public class BatchHandler implements Router {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Router delegate;
+    private final BatchConfiguration config;
+    private final ExecutorService executor;
+
+    /**
+     * Sole contructor which will have its parameters injected by CDI.
+     * 
+     * @param delegate the {@link Router} that this class decorates.
+     * @param batchConfigInstance a CDI {@link Instance} of {@link BatchConfiguration} enabling batching to be configured.
+     */
+    @Inject
+    public BatchHandler(final @Delegate Router delegate, final Instance<BatchConfiguration> batchConfigInstance) {
+        this.delegate = delegate;
+        this.config = batchConfigInstance.isUnsatisfied() ? BatchConfig.defaultConfig() : batchConfigInstance.get();
+        this.executor = config.isBatchEnabled() && config.getMaxThreads() > 1 ? createExecutor(config) : null;
+    }
+
+    /**
+     * Shuts down the pool processing sub-requests in parallel, if any, when this decorator is destroyed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean hasRouteFor(final HttpServletRequest request) {
+        return isBatchRequest(request) || delegate.hasRouteFor(request);
+    }
+
+    @Override
+    public Optional<Route> routeFor(final HttpServletRequest request) {
+        return delegate.routeFor(request);
+    }
+
+    @Override
+    public void dispatch(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+            throws ServletException {
+        if (!isBatchRequest(request)) {
+            delegate.dispatch(request, response, chain);
+            return;
+        }
+        try {
+            final List<BatchHttpServletRequest> subRequests = parse(request);
+            writeResponses(subRequests, process(subRequests, response, chain), response);
+        } catch (final InvalidBatchRequestException e) {
+            sendError(response, e.getStatus(), e.getMessage());
+        } catch (final RequestBodyTooLargeException e) {
+            sendError(response, e.getStatus(), e.getMessage());
+        } catch (final JsonProcessingException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST,
+                    ExceptionBundle.MESSAGES.invalidBatchRequest(e.getMessage()).getMessage());
+        } catch (final IOException e) {
+            throw new ServletException(e.getMessage(), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e.getMessage(), e);
+        }
+    }
+
+    private boolean isBatchRequest(final HttpServletRequest request) {
+        return config.isBatchEnabled() && RequestMethod.POST.toString().equals(request.getMethod())
+                && config.getPath().equals(RequestUtils.extractPath(request));
+    }
+
+    private List<BatchHttpServletRequest> parse(final HttpServletRequest request) throws IOException {
+        final long maxSize = AbstractRestConsumer.DEFAULT_MAX_DECODED_BODY_SIZE;
+        final InputStream body = ContentEncoding.decode(request.getHeader(ContentEncoding.CONTENT_ENCODING_HEADER),
+                ContentEncoding.bounded(request.getInputStream(), maxSize), maxSize);
+        final JsonNode root = ObjectMappers.json().readTree(body);
+        if (root == null || !root.isArray()) {
+            throw ExceptionBundle.MESSAGES.invalidBatchRequest("the request body must be a JSON array");
+        }
+        if (root.size() > config.getMaxRequests()) {
+            throw ExceptionBundle.MESSAGES.invalidBatchRequest("a batch can contain at most " + config.getMaxRequests()
+                    + " requests");
+        }
+        final List<BatchHttpServletRequest> subRequests = new ArrayList<BatchHttpServletRequest>(root.size());
+        for (JsonNode item : root) {
+            subRequests.add(parseItem(request, item));
+        }
+        return subRequests;
+    }
+
+    private BatchHttpServletRequest parseItem(final HttpServletRequest request, final JsonNode item) throws IOException {
+        final JsonNode path = item.get("path");
+        if (path == null || !path.isTextual() || !path.getTextValue().startsWith("/")) {
+            throw ExceptionBundle.MESSAGES.invalidBatchRequest("each request must have a 'path' starting with '/'");
+        }
+        final String method = item.has("method") ? item.get("method").asText().toUpperCase() : RequestMethod.GET.toString();
+        try {
+            RequestMethod.valueOf(method);
+        } catch (final IllegalArgumentException e) {
+            throw ExceptionBundle.MESSAGES.invalidBatchRequest("unsupported method '" + method + "'");
+        }
+        final Map<String, String> headers = new LinkedHashMap<String, String>();
+        final JsonNode headersNode = item.get("headers");
+        if (headersNode != null) {
+            for (Iterator<Entry<String, JsonNode>> it = headersNode.getFields(); it.hasNext();) {
+                final Entry<String, JsonNode> header = it.next();
+                headers.put(header.getKey(), header.getValue().asText());
+            }
+        }
+        final JsonNode bodyNode = item.get("body");
+        final byte[] body;
+        if (bodyNode == null || bodyNode.isNull()) {
+            body = new byte[0];
+        } else if (bodyNode.isTextual()) {
+            body = bodyNode.getTextValue().getBytes(UTF_8);
+        } else {
+            body = ObjectMappers.json().writeValueAsBytes(bodyNode);
+        }
+        final String id = item.has("id") ? item.get("id").asText() : null;
+        return new BatchHttpServletRequest(request, id, method, path.getTextValue(), headers, body);
+    }
+
+    private List<BatchHttpServletResponse> process(final List<BatchHttpServletRequest> subRequests,
+            final HttpServletResponse response, final FilterChain chain) throws InterruptedException {
+        final List<Future<BatchHttpServletResponse>> results = new ArrayList<Future<BatchHttpServletResponse>>();
+        final List<Future<BatchHttpServletResponse>> inFlight = new ArrayList<Future<BatchHttpServletResponse>>();
+        for (final BatchHttpServletRequest subRequest : subRequests) {
+            final FutureTask<BatchHttpServletResponse> task = new FutureTask<BatchHttpServletResponse>(
+                    new Callable<BatchHttpServletResponse>() {
+                        @Override
+                        public BatchHttpServletResponse call() {
+                            return execute(subRequest, response, chain);
+                        }
+                    });
+            results.add(task);
+            if (executor != null && isIndependent(subRequest)) {
+                executor.execute(task);
+                inFlight.add(task);
+            } else {
+                await(inFlight);
+                inFlight.clear();
+                task.run();
+            }
+        }
+        await(inFlight);
+        final List<BatchHttpServletResponse> responses = new ArrayList<BatchHttpServletResponse>(results.size());
+        for (Future<BatchHttpServletResponse> result : results) {
+            responses.add(get(result));
+        }
+        return responses;
+    }
+
+    private BatchHttpServletResponse execute(final BatchHttpServletRequest subRequest, final HttpServletResponse response,
+            final FilterChain chain) {
+        final BatchHttpServletResponse subResponse = new BatchHttpServletResponse(response);
+        try {
+            if (delegate.hasRouteFor(subRequest)) {
+                delegate.dispatch(subRequest, subResponse, chain);
+            } else {
+                subResponse.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+        } catch (final Exception e) {
+            AeroGearLogger.THROTTLED.routeCatchAllException(e, e.getMessage());
+            subResponse.reset();
+            subResponse.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+        return subResponse;
+    }
+
+    private static boolean isIndependent(final HttpServletRequest subRequest) {
+        final RequestMethod method = RequestMethod.valueOf(subRequest.getMethod());
+        return method == RequestMethod.GET || method == RequestMethod.HEAD || method == RequestMethod.OPTIONS;
+    }
+
+    private static void await(final List<Future<BatchHttpServletResponse>> inFlight) throws InterruptedException {
+        for (Future<BatchHttpServletResponse> future : inFlight) {
+            get(future);
+        }
+    }
+
+    private static BatchHttpServletResponse get(final Future<BatchHttpServletResponse> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void writeResponses(final List<BatchHttpServletRequest> subRequests,
+            final List<BatchHttpServletResponse> responses, final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.JSON.getType());
+        response.setCharacterEncoding(UTF_8.name());
+        final JsonGenerator jgen = ObjectMappers.json().getJsonFactory()
+                .createJsonGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        jgen.writeStartArray();
+        for (int i = 0; i < responses.size(); i++) {
+            writeResponse(subRequests.get(i), responses.get(i), jgen);
+        }
+        jgen.writeEndArray();
+        jgen.close();
+    }
+
+    private void writeResponse(final BatchHttpServletRequest subRequest, final BatchHttpServletResponse subResponse,
+            final JsonGenerator jgen) throws IOException {
+        jgen.writeStartObject();
+        if (subRequest.getId() != null) {
+            jgen.writeStringField("id", subRequest.getId());
+        }
+        jgen.writeNumberField("status", subResponse.getStatus());
+        jgen.writeObjectFieldStart("headers");
+        for (String name : subResponse.getHeaderNames()) {
+            jgen.writeStringField(name, join(subResponse.getHeaders(name)));
+        }
+        jgen.writeEndObject();
+        final byte[] body = subResponse.getBody();
+        if (body.length > 0) {
+            jgen.writeFieldName("body");
+            final String contentType = subResponse.getContentType() == null ? "" : subResponse.getContentType();
+            if (contentType.startsWith(MediaType.SMILE.getType())) {
+                jgen.writeBinary(body);
+            } else if (contentType.contains("json")) {
+                jgen.writeRawValue(new String(body, subResponse.getCharacterEncoding()));
+            } else {
+                jgen.writeString(new String(body, subResponse.getCharacterEncoding()));
+            }
+        }
+        jgen.writeEndObject();
+    }
+
+    private static String join(final Iterable<String> values) {
+        final StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            sb.append(sb.length() > 0 ? ", " : "").append(value);
+        }
+        return sb.toString();
+    }
+
+    private static void sendError(final HttpServletResponse response, final int status, final String message)
+            throws ServletException {
+        try {
+            response.sendError(status, message);
+        } catch (final IOException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+    }
+
+    private static ExecutorService createExecutor(final BatchConfiguration config) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(config.getMaxThreads(), config.getMaxThreads(), 60,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(config.getMaxThreads() * config.getMaxRequests()),
+                new ThreadFactoryBuilder().setNameFormat("aerogear-batch-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
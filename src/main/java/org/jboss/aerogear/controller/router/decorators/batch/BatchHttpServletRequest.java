@@ -0,0 +1,296 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.batch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * A sub-request of a batch, which presents the method, path, headers and body of one entry in the batch as an
+ * {@link HttpServletRequest}.
+ * </p>
+ * Headers of the enclosing batch request, for example 'Authorization' or 'Cookie', are inherited unless the sub-request
+ * specifies them, with the exception of the headers describing the batch request body. Request attributes are local to the
+ * sub-request, everything else is delegated to the enclosing request.
+ */
+class BatchHttpServletRequest extends HttpServletRequestWrapper {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Set<String> NOT_INHERITED = new HashSet<String>(Arrays.asList("content-type", "content-length",
+            "content-encoding", "transfer-encoding"));
+
+    private final String id;
+    private final String method;
+    private final String requestURI;
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final Map<String, List<String>> headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+    private final byte[] body;
+
+    BatchHttpServletRequest(final HttpServletRequest batchRequest, final String id, final String method, final String path,
+            final Map<String, String> headers, final byte[] body) {
+        super(batchRequest);
+        this.id = id;
+        this.method = method;
+        final int queryIdx = path.indexOf('?');
+        this.requestURI = batchRequest.getServletContext().getContextPath() + (queryIdx == -1 ? path : path.substring(0, queryIdx));
+        this.queryString = queryIdx == -1 ? null : path.substring(queryIdx + 1);
+        this.parameters = Collections.unmodifiableMap(parseQueryString(queryString));
+        this.body = body;
+        inheritHeaders(batchRequest);
+        for (Entry<String, String> header : headers.entrySet()) {
+            this.headers.put(header.getKey(), Collections.singletonList(header.getValue()));
+        }
+        if (body.length > 0 && !this.headers.containsKey("Content-Type")) {
+            this.headers.put("Content-Type", Collections.singletonList("application/json"));
+        }
+    }
+
+    /**
+     * Returns the client supplied identifier of this sub-request, which is echoed in the batch response.
+     * 
+     * @return {@code String} the identifier, or {@code null} if none was specified.
+     */
+    String getId() {
+        return id;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        final String batchURL = super.getRequestURL().toString();
+        final String batchURI = super.getRequestURI();
+        final String base = batchURL.endsWith(batchURI) ? batchURL.substring(0, batchURL.length() - batchURI.length()) : "";
+        return new StringBuffer(base).append(requestURI);
+    }
+
+    @Override
+    public String getServletPath() {
+        return "";
+    }
+
+    @Override
+    public String getPathInfo() {
+        return requestURI.substring(getServletContext().getContextPath().length());
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(final String name) {
+        final String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(final String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(final String name) {
+        final List<String> values = headers.get(name);
+        return Collections.enumeration(values == null ? Collections.<String> emptyList() : values);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(final String name) {
+        final String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(final String name) {
+        final String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US).parse(value).getTime();
+        } catch (final ParseException e) {
+            throw new IllegalArgumentException(value, e);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return UTF_8.name();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                return in.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inheritHeaders(final HttpServletRequest batchRequest) {
+        final Enumeration<String> names = batchRequest.getHeaderNames();
+        if (names == null) {
+            return;
+        }
+        while (names.hasMoreElements()) {
+            final String name = names.nextElement();
+            if (!NOT_INHERITED.contains(name.toLowerCase(Locale.ENGLISH))) {
+                headers.put(name, Collections.list(batchRequest.getHeaders(name)));
+            }
+        }
+    }
+
+    private static Map<String, String[]> parseQueryString(final String queryString) {
+        final Map<String, List<String>> params = new LinkedHashMap<String, List<String>>();
+        if (queryString != null) {
+            for (String pair : queryString.split("&")) {
+                if (pair.length() == 0) {
+                    continue;
+                }
+                final int eq = pair.indexOf('=');
+                final String name = decode(eq == -1 ? pair : pair.substring(0, eq));
+                final String value = eq == -1 ? "" : decode(pair.substring(eq + 1));
+                List<String> values = params.get(name);
+                if (values == null) {
+                    values = new ArrayList<String>(1);
+                    params.put(name, values);
+                }
+                values.add(value);
+            }
+        }
+        final Map<String, String[]> parameters = new LinkedHashMap<String, String[]>();
+        for (Entry<String, List<String>> param : params.entrySet()) {
+            parameters.put(param.getKey(), param.getValue().toArray(new String[param.getValue().size()]));
+        }
+        return parameters;
+    }
+
+    private static String decode(final String value) {
+        try {
+            return URLDecoder.decode(value, UTF_8.name());
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Bulkhead limits the number of requests that are processed concurrently by the routes it has been assigned to, so that
+ * slow routes cannot take all of the container's worker threads and starve the other routes.
+ * </p>
+ * A single Bulkhead instance can be shared by several routes to limit them as a group:
+ * <pre>
+ * {@code
+ *     final Bulkhead reports = new Bulkhead("reports", 4, 100);
+ *     route().from("/reports/daily").on(GET).bulkhead(reports).to(Reports.class).daily();
+ *     route().from("/reports/monthly").on(GET).bulkhead(reports).to(Reports.class).monthly();
+ * }
+ * </pre>
+ * Permits are taken from a non-fair {@link Semaphore}, which acquires free permits with a single compare-and-set, and
+ * requests only wait when the bulkhead is full and a maximum wait time has been specified.
+ * 
+ * @see BulkheadHandler
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWait;
+    private final Semaphore permits;
+
+    /**
+     * Creates a Bulkhead which immediately rejects requests when it is full.
+     * 
+     * @param name the name of this bulkhead.
+     * @param maxConcurrent the maximum number of requests that may be processed concurrently.
+     */
+    public Bulkhead(final String name, final int maxConcurrent) {
+        this(name, maxConcurrent, 0);
+    }
+
+    /**
+     * Creates a Bulkhead which lets requests wait for a permit when it is full.
+     * 
+     * @param name the name of this bulkhead.
+     * @param maxConcurrent the maximum number of requests that may be processed concurrently.
+     * @param maxWait the maximum number of milliseconds that a request waits for a permit before it is rejected.
+     */
+    public Bulkhead(final String name, final int maxConcurrent, final long maxWait) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1, was " + maxConcurrent);
+        }
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("maxWait must not be negative, was " + maxWait);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    boolean tryAcquire() throws InterruptedException {
+        return permits.tryAcquire() || maxWait > 0 && permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Returns the number of requests that can currently be admitted by this bulkhead.
+     * 
+     * @return {@code int} the number of free permits.
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead[name=" + name + ", maxConcurrent=" + maxConcurrent + ", maxWait=" + maxWait + ", available="
+                + permits.availablePermits() + "]";
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.bulkhead;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+
+import com.google.common.base.Optional;
+
+/**
+ * BulkheadHandler is a CDI Decorator that decorates a {@link RouteProcessor} and enforces the {@link Bulkhead} of a route.
+ * </p>
+ * A permit is taken before the request arguments are bound and the target endpoint is invoked, and is returned once the
+ * invocation has completed. When no permit can be taken the request is rejected with a {@link BulkheadFullException}, which
+ * results in a '503 Service Unavailable' response with a 'Retry-After' header.
+ */
+@Decorator
+public class BulkheadHandler implements RouteProcessor {
+
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final int RETRY_AFTER_SECONDS = 1;
+    public static final String BULKHEAD_COUNTERS = "bulkhead";
+    public static final String REJECTED = "rejected";
+
+    private final RouteProcessor delegate;
+    private final RouteCounters counters = RouteCounters.forName(BULKHEAD_COUNTERS);
+
+    @Inject
+    public BulkheadHandler(final @Delegate RouteProcessor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InvocationResult process(final RouteContext routeContext) throws Exception {
+        final Route route = routeContext.getRoute();
+        final Optional<Bulkhead> bulkhead = route.getBulkhead();
+        if (!bulkhead.isPresent()) {
+            return delegate.process(routeContext);
+        }
+        if (!bulkhead.get().tryAcquire()) {
+            counters.increment(route.getPath(), REJECTED);
+            routeContext.getResponse().setHeader(RETRY_AFTER_HEADER, String.valueOf(RETRY_AFTER_SECONDS));
+            throw ExceptionBundle.MESSAGES.bulkheadFull(bulkhead.get().getName(), bulkhead.get().getMaxConcurrent());
+        }
+        try {
+            return delegate.process(routeContext);
+        } finally {
+            bulkhead.get().release();
+        }
+    }
+
+}
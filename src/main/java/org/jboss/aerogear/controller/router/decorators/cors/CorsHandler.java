@@ -27,10 +27,15 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.metrics.FlightEvent;
+import org.jboss.aerogear.controller.metrics.FlightRecorder;
 import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.Router;
 import org.jboss.aerogear.controller.util.RequestUtils;
 
+import com.google.common.base.Optional;
+
 /**
  * CorsHandler is a CDI decorator that decorates {@link Router} adding <a href="http://www.w3.org/TR/cors/">CORS</a> support.
  * 
@@ -57,13 +62,22 @@ public class CorsHandler implements Router {
         return delegate.hasRouteFor(request);
     }
 
+    @Override
+    public Optional<Route> routeFor(final HttpServletRequest request) {
+        return delegate.routeFor(request);
+    }
+
     @Override
     public void dispatch(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
             throws ServletException {
         final Cors cors = new Cors(corsConfig, request);
         if (cors.canHandleRequest()) {
             if (cors.isPreflightRequest()) {
+                final FlightRecorder.Event event = FlightRecorder.begin(FlightEvent.CORS_PREFLIGHT);
                 handlePreflight(cors, response);
+                if (event.isEnabled()) {
+                    event.commit(RequestUtils.extractPath(request), request.getMethod(), null);
+                }
                 return;
             } else {
                 handleSimpleRequest(cors, response);
@@ -79,13 +93,13 @@ public class CorsHandler implements Router {
     private void handlePreflight(final Cors cors, final HttpServletResponse response) {
         response.setStatus(HttpServletResponse.SC_OK);
         if (!cors.isRequestMethodValid()) {
-            AeroGearLogger.LOGGER.badCorsRequestMethod(cors.getRequestMethod(), cors.getAllowedRequestMethods());
+            AeroGearLogger.THROTTLED.badCorsRequestMethod(cors.getRequestMethod(), cors.getAllowedRequestMethods());
             return;
         }
 
         if (cors.hasRequestHeaders()) {
             if (!cors.areRequestHeadersValid()) {
-                AeroGearLogger.LOGGER.badCorsRequestHeaders(cors.getRequestHeaders(), cors.getAllowedRequestHeaders());
+                AeroGearLogger.THROTTLED.badCorsRequestHeaders(cors.getRequestHeaders(), cors.getAllowedRequestHeaders());
                 return;
             } else {
                 cors.setAllowHeaders(response);
@@ -0,0 +1,136 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+
+/**
+ * A Deadline is the point in time by which the processing of a request must have completed.
+ * </p>
+ * Endpoints can obtain the deadline of the current request by injecting it, or from {@link DeadlineContext#current()}, and
+ * should use it to abort work, and to bound the timeouts of their own downstream calls, once the client is no longer waiting
+ * for the response:
+ * <pre>
+ * {@code
+ *     &#64;Inject
+ *     private Deadline deadline;
+ * 
+ *     public Car find(final String id) {
+ *         deadline.check();
+ *         return carService.find(id, deadline.remaining(TimeUnit.MILLISECONDS));
+ *     }
+ * }
+ * </pre>
+ * Requests without a deadline see {@link #NONE}, which never expires.
+ * 
+ * @see DeadlineHandler
+ */
+public class Deadline {
+
+    /**
+     * A Deadline that never expires.
+     */
+    public static final Deadline NONE = new Deadline(0, 0) {
+        @Override
+        public boolean isExpired() {
+            return false;
+        }
+
+        @Override
+        public long remaining(final TimeUnit unit) {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "Deadline[none]";
+        }
+    };
+
+    private final long timeout;
+    private final long expiry;
+
+    private Deadline(final long timeout, final long expiry) {
+        this.timeout = timeout;
+        this.expiry = expiry;
+    }
+
+    /**
+     * Creates a Deadline which expires after the passed-in timeout.
+     * 
+     * @param timeout the timeout, measured from now.
+     * @param unit the {@link TimeUnit} of the timeout.
+     * @return {@link Deadline} expiring after the timeout.
+     */
+    public static Deadline after(final long timeout, final TimeUnit unit) {
+        return new Deadline(unit.toMillis(timeout), System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Returns whichever of this and the passed-in deadline expires first.
+     * 
+     * @param other the {@link Deadline} to compare with.
+     * @return {@link Deadline} the earliest of both deadlines.
+     */
+    public Deadline earliest(final Deadline other) {
+        return other.remaining(TimeUnit.NANOSECONDS) < remaining(TimeUnit.NANOSECONDS) ? other : this;
+    }
+
+    public boolean isExpired() {
+        return expiry - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the time left until this deadline expires.
+     * 
+     * @param unit the {@link TimeUnit} of the returned time.
+     * @return {@code long} the time left, zero if this deadline has expired.
+     */
+    public long remaining(final TimeUnit unit) {
+        return unit.convert(Math.max(0, expiry - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cooperatively cancels the current work by throwing a {@link DeadlineExceededException} if this deadline has expired.
+     * 
+     * @throws DeadlineExceededException if this deadline has expired.
+     */
+    public void check() {
+        if (isExpired()) {
+            throw ExceptionBundle.MESSAGES.deadlineExceeded(timeout);
+        }
+    }
+
+    /**
+     * Returns the timeout that this deadline was created with.
+     * 
+     * @return {@code long} the timeout in milliseconds.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[timeout=" + timeout + "ms, remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms]";
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.deadline;
+
+import javax.enterprise.inject.Produces;
+
+/**
+ * DeadlineContext holds the {@link Deadline} of the request being processed by the current thread, and makes it available
+ * for injection.
+ * </p>
+ * The injected deadline is resolved when the injecting bean is created, so it should be injected into request scoped or
+ * dependent endpoints only. Endpoints of other scopes, and code invoked from worker threads, should use {@link #current()}.
+ * The deadline is propagated to the threads invoking the parts of composite routes.
+ */
+public class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+    /**
+     * Returns the deadline of the request being processed by the current thread.
+     * 
+     * @return {@link Deadline} of the current request, {@link Deadline#NONE} if there is none.
+     */
+    @Produces
+    public static Deadline current() {
+        final Deadline deadline = CURRENT.get();
+        return deadline == null ? Deadline.NONE : deadline;
+    }
+
+    /**
+     * Makes the passed-in deadline the deadline of the current thread.
+     * 
+     * @param deadline the {@link Deadline} to attach.
+     * @return {@link Deadline} the previous deadline of the current thread, which must be passed to {@link #detach(Deadline)}.
+     */
+    public static Deadline attach(final Deadline deadline) {
+        final Deadline previous = current();
+        CURRENT.set(deadline);
+        return previous;
+    }
+
+    /**
+     * Restores the deadline that the current thread had before {@link #attach(Deadline)} was called.
+     * 
+     * @param previous the {@link Deadline} returned by {@link #attach(Deadline)}.
+     */
+    public static void detach(final Deadline previous) {
+        if (previous == Deadline.NONE) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.deadline;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.router.AeroGearException;
+import org.jboss.aerogear.controller.spi.HttpStatusAwareException;
+
+/**
+ * Thrown when the {@link Deadline} of a request has expired before its processing completed.
+ */
+public class DeadlineExceededException extends AeroGearException implements HttpStatusAwareException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(final String message) {
+        super(message);
+    }
+
+    @Override
+    public int getStatus() {
+        return HttpServletResponse.SC_GATEWAY_TIMEOUT;
+    }
+
+}
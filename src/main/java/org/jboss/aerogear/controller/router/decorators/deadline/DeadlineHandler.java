@@ -0,0 +1,111 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.inject.Inject;
+
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+
+/**
+ * DeadlineHandler is a CDI Decorator that decorates a {@link RouteProcessor} and enforces the {@link Deadline} of a request.
+ * </p>
+ * The deadline is the earliest of the route's deadline and of the timeout sent by the client in the 'X-Request-Timeout'
+ * header, in milliseconds. While the request is processed the deadline is available from the {@link DeadlineContext}. A
+ * request whose deadline has expired before the target endpoint is invoked, or by the time the endpoint returns, fails with
+ * a {@link DeadlineExceededException}, so the result is never serialized and a '504 Gateway Timeout' is returned instead.
+ */
+@Decorator
+public class DeadlineHandler implements RouteProcessor {
+
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+    public static final String DEADLINE_COUNTERS = "deadline";
+    public static final String EXCEEDED = "exceeded";
+
+    private final RouteProcessor delegate;
+    private final RouteCounters counters = RouteCounters.forName(DEADLINE_COUNTERS);
+
+    @Inject
+    public DeadlineHandler(final @Delegate RouteProcessor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InvocationResult process(final RouteContext routeContext) throws Exception {
+        final Optional<Deadline> deadline = deadlineFor(routeContext);
+        if (!deadline.isPresent()) {
+            return delegate.process(routeContext);
+        }
+        final Route route = routeContext.getRoute();
+        final Deadline previous = DeadlineContext.attach(deadline.get());
+        try {
+            deadline.get().check();
+            final InvocationResult result = delegate.process(routeContext);
+            deadline.get().check();
+            return result;
+        } catch (final Exception e) {
+            final Throwable rootCause = Throwables.getRootCause(e);
+            if (rootCause instanceof DeadlineExceededException) {
+                counters.increment(route.getPath(), EXCEEDED);
+                throw (DeadlineExceededException) rootCause;
+            }
+            throw e;
+        } finally {
+            DeadlineContext.detach(previous);
+        }
+    }
+
+    private static Optional<Deadline> deadlineFor(final RouteContext routeContext) {
+        final Optional<Long> routeDeadline = routeContext.getRoute().getDeadline();
+        final Optional<Long> requestTimeout = requestTimeout(routeContext.getRequest().getHeader(REQUEST_TIMEOUT_HEADER));
+        if (routeDeadline.isPresent()) {
+            final Deadline deadline = Deadline.after(routeDeadline.get(), TimeUnit.MILLISECONDS);
+            return Optional.of(requestTimeout.isPresent() ? deadline.earliest(Deadline.after(requestTimeout.get(),
+                    TimeUnit.MILLISECONDS)) : deadline);
+        }
+        return requestTimeout.isPresent() ? Optional.of(Deadline.after(requestTimeout.get(), TimeUnit.MILLISECONDS))
+                : Optional.<Deadline> absent();
+    }
+
+    /*
+     * A malformed header is ignored rather than failing the request, as it only ever shortens the processing time.
+     */
+    private static Optional<Long> requestTimeout(final String header) {
+        if (header == null) {
+            return Optional.absent();
+        }
+        try {
+            final long timeout = Long.parseLong(header.trim());
+            return timeout < 0 ? Optional.<Long> absent() : Optional.of(timeout);
+        } catch (final NumberFormatException e) {
+            return Optional.absent();
+        }
+    }
+
+}
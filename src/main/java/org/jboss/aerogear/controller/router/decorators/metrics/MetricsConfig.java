@@ -0,0 +1,150 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+/**
+ * Concrete implementation of {@link MetricsConfiguration}.
+ * </p>
+ * Metrics are disabled by default. To enable them produce a {@link MetricsConfiguration} using CDI:
+ * <pre>
+ * &#64;Produces
+ * public MetricsConfiguration metricsConfig() {
+ *     return MetricsConfig.enableMetrics().stageTiming().exportPath("/metrics").build();
+ * }
+ * </pre>
+ * The export route is only enabled when an export path is specified. It is not secured by AeroGear Controller, so access to
+ * it should be restricted, for example using a security constraint of the web application.
+ * 
+ * @see MetricsHandler
+ */
+public class MetricsConfig implements MetricsConfiguration {
+
+    private final boolean metricsEnabled;
+    private final boolean stageTimingEnabled;
+    private final boolean serverTimingEnabled;
+    private final String exportPath;
+
+    private MetricsConfig(final Builder builder) {
+        this.metricsEnabled = builder.metricsEnabled;
+        this.stageTimingEnabled = builder.stageTimingEnabled;
+        this.serverTimingEnabled = builder.serverTimingEnabled;
+        this.exportPath = builder.exportPath;
+    }
+
+    /**
+     * Returns a {@link Builder} which can be used to configure and build a {@link MetricsConfiguration} instance.
+     * 
+     * @return {@link Builder} with metrics enabled, and stage timing and the export route disabled.
+     */
+    public static Builder enableMetrics() {
+        return new Builder(true);
+    }
+
+    public static MetricsConfiguration disableMetrics() {
+        return new Builder(false).build();
+    }
+
+    /**
+     * Returns the default {@link MetricsConfiguration}, which has metrics disabled.
+     * 
+     * @return {@link MetricsConfiguration} with metrics disabled.
+     */
+    public static MetricsConfiguration defaultConfig() {
+        return disableMetrics();
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    @Override
+    public boolean isStageTimingEnabled() {
+        return metricsEnabled && stageTimingEnabled;
+    }
+
+    @Override
+    public boolean isServerTimingEnabled() {
+        return isStageTimingEnabled() && serverTimingEnabled;
+    }
+
+    @Override
+    public boolean isExportEnabled() {
+        return metricsEnabled && exportPath != null;
+    }
+
+    @Override
+    public String getExportPath() {
+        return exportPath;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsConfig[metricsEnabled=" + metricsEnabled + ", stageTimingEnabled=" + stageTimingEnabled
+                + ", serverTimingEnabled=" + serverTimingEnabled + ", exportPath=" + exportPath + "]";
+    }
+
+    public static class Builder {
+        private final boolean metricsEnabled;
+        private boolean stageTimingEnabled;
+        private boolean serverTimingEnabled;
+        private String exportPath;
+
+        private Builder(final boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+        }
+
+        /**
+         * Enables recording the time spent in each stage of processing a request.
+         * 
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder stageTiming() {
+            this.stageTimingEnabled = true;
+            return this;
+        }
+
+        /**
+         * Enables stage timing and sending the stage timings to the client in a 'Server-Timing' response header.
+         * 
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder serverTiming() {
+            this.stageTimingEnabled = true;
+            this.serverTimingEnabled = true;
+            return this;
+        }
+
+        /**
+         * Enables the export route.
+         * 
+         * @param exportPath the path, relative to the context path, of the export route.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder exportPath(final String exportPath) {
+            this.exportPath = exportPath;
+            return this;
+        }
+
+        public MetricsConfiguration build() {
+            return new MetricsConfig(this);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+/**
+ * Configuration for the built-in per-route metrics.
+ * 
+ * @see MetricsHandler
+ */
+public interface MetricsConfiguration {
+
+    /**
+     * Determines if requests are instrumented.
+     * 
+     * @return {@code true} if the latency, requests, errors and bytes of each route are recorded.
+     */
+    boolean isMetricsEnabled();
+
+    /**
+     * Determines if the time spent in each {@link org.jboss.aerogear.controller.metrics.Stage} of processing a request is
+     * recorded. Only applies when metrics are enabled.
+     * 
+     * @return {@code true} if stage timing is enabled.
+     */
+    boolean isStageTimingEnabled();
+
+    /**
+     * Determines if the stage timings of a request are sent to the client in a 'Server-Timing' response header. Only applies
+     * when stage timing is enabled.
+     * 
+     * @return {@code true} if the 'Server-Timing' header is enabled.
+     */
+    boolean isServerTimingEnabled();
+
+    /**
+     * Determines if the built-in route exporting the metrics in the Prometheus text format is enabled. The route is served
+     * whether or not metrics are enabled, and is not authenticated, see {@link MetricsHandler}.
+     * 
+     * @return {@code true} if the export route is enabled.
+     */
+    boolean isExportEnabled();
+
+    /**
+     * Returns the path, relative to the context path, of the export route.
+     * 
+     * @return {@code String} the path of the export route.
+     */
+    String getExportPath();
+
+}
@@ -0,0 +1,187 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+import java.io.IOException;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.metrics.PrometheusWriter;
+import org.jboss.aerogear.controller.metrics.RouteMetrics;
+import org.jboss.aerogear.controller.metrics.SlowRequestLog;
+import org.jboss.aerogear.controller.metrics.StageTimer;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.rest.ObjectMappers;
+import org.jboss.aerogear.controller.util.RequestUtils;
+
+import com.google.common.base.Optional;
+
+/**
+ * MetricsHandler is a CDI Decorator that decorates a {@link Router} and records the latency, request, error and byte counts of
+ * every route in {@link RouteMetrics}, and provides a built-in route exporting them in the Prometheus text format.
+ * </p>
+ * A request is counted as an error if dispatching it throws an exception or results in a 5xx status. The sub-requests of a
+ * batch request are recorded individually, against their own routes. When stage timing is enabled a {@link StageTimer} is
+ * stored in the request, which the router, route processor and responders use to time their stages.
+ * </p>
+ * When the slow request log is enabled, requests exceeding the threshold of their route, and a sample of all requests, are
+ * recorded in a {@link SlowRequestLog} together with their stage timings, the shape of their arguments, their response size
+ * and the CPU time of their thread. The log can be read through JMX or, if enabled, from a built-in diagnostic route.
+ * </p>
+ * The export route and the diagnostic route are served by this decorator before the request reaches the route processor,
+ * so they bypass the {@link org.jboss.aerogear.controller.router.decorators.SecurityHandler} and are not authenticated.
+ * Access to their paths must be restricted by other means, for example with a security constraint in 'web.xml', when the
+ * route names, latencies or argument shapes they expose are sensitive.
+ * </p>
+ * When metrics and the slow request log are disabled, which is the default, the only cost is checking the configuration.
+ * 
+ * @see MetricsConfiguration
+ * @see SlowRequestConfiguration
+ */
+@Decorator
+public class MetricsHandler implements Router {
+
+    static final String UNMATCHED = "unmatched";
+
+    private final Router delegate;
+    private final MetricsConfiguration config;
+    private final SlowRequestConfiguration slowRequestConfig;
+    private final SlowRequestRecorder recorder;
+    private final boolean instrumented;
+    private final RouteMetrics metrics = RouteMetrics.getInstance();
+
+    /**
+     * Sole contructor which will have its parameters injected by CDI.
+     * 
+     * @param delegate the {@link Router} that this class decorates.
+     * @param metricsConfigInstance a CDI {@link Instance} of {@link MetricsConfiguration} enabling metrics to be configured.
+     * @param slowRequestConfigInstance a CDI {@link Instance} of {@link SlowRequestConfiguration} enabling the slow request
+     *        log to be configured.
+     */
+    @Inject
+    public MetricsHandler(final @Delegate Router delegate, final Instance<MetricsConfiguration> metricsConfigInstance,
+            final Instance<SlowRequestConfiguration> slowRequestConfigInstance) {
+        this.delegate = delegate;
+        this.config = metricsConfigInstance.isUnsatisfied() ? MetricsConfig.defaultConfig() : metricsConfigInstance.get();
+        this.slowRequestConfig = slowRequestConfigInstance.isUnsatisfied() ? SlowRequestConfig.defaultConfig()
+                : slowRequestConfigInstance.get();
+        this.recorder = slowRequestConfig.isSlowRequestLogEnabled() ? new SlowRequestRecorder(slowRequestConfig,
+                SlowRequestLog.register(slowRequestConfig.getCapacity())) : null;
+        this.instrumented = config.isMetricsEnabled() || recorder != null;
+    }
+
+    @Override
+    public boolean hasRouteFor(final HttpServletRequest request) {
+        return isExportRequest(request) || isSlowRequestLogRequest(request) || delegate.hasRouteFor(request);
+    }
+
+    @Override
+    public Optional<Route> routeFor(final HttpServletRequest request) {
+        return delegate.routeFor(request);
+    }
+
+    @Override
+    public void dispatch(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+            throws ServletException {
+        if (isExportRequest(request)) {
+            export(response);
+            return;
+        }
+        if (!instrumented) {
+            delegate.dispatch(request, response, chain);
+            return;
+        }
+        if (isSlowRequestLogRequest(request)) {
+            writeSlowRequests(response);
+            return;
+        }
+        final Optional<Route> route = delegate.routeFor(request);
+        final StageTimer timer = config.isStageTimingEnabled() || recorder != null ? StageTimer.create(config
+                .isServerTimingEnabled()) : StageTimer.DISABLED;
+        if (timer.isEnabled()) {
+            request.setAttribute(StageTimer.ATTRIBUTE, timer);
+        }
+        final MeteredHttpServletResponse metered = new MeteredHttpServletResponse(response);
+        final long cpuStart = recorder == null ? -1 : recorder.threadCpuTime();
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            delegate.dispatch(request, metered, chain);
+            failed = false;
+        } finally {
+            metered.flushWriter();
+            final long nanos = System.nanoTime() - start;
+            final String path = route.isPresent() ? route.get().getPath() : UNMATCHED;
+            final int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : metered.getStatus();
+            if (config.isMetricsEnabled()) {
+                metrics.record(path, nanos, status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                        request.getContentLength(), metered.getBytesWritten());
+                if (config.isStageTimingEnabled()) {
+                    metrics.recordStages(path, timer);
+                }
+            }
+            if (recorder != null) {
+                recorder.record(request.getMethod(), path, status, nanos, cpuStart, timer, metered.getBytesWritten());
+            }
+        }
+    }
+
+    private boolean isExportRequest(final HttpServletRequest request) {
+        return config.isExportEnabled() && RequestMethod.GET.toString().equals(request.getMethod())
+                && config.getExportPath().equals(RequestUtils.extractPath(request));
+    }
+
+    private boolean isSlowRequestLogRequest(final HttpServletRequest request) {
+        return recorder != null && slowRequestConfig.getPath() != null
+                && RequestMethod.GET.toString().equals(request.getMethod())
+                && slowRequestConfig.getPath().equals(RequestUtils.extractPath(request));
+    }
+
+    private void writeSlowRequests(final HttpServletResponse response) throws ServletException {
+        try {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.JSON.getType());
+            response.setCharacterEncoding("UTF-8");
+            ObjectMappers.json().writeValue(response.getOutputStream(), recorder.getLog().getRequests());
+        } catch (final IOException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+    }
+
+    private void export(final HttpServletResponse response) throws ServletException {
+        try {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(PrometheusWriter.CONTENT_TYPE);
+            PrometheusWriter.write(metrics, response.getWriter());
+        } catch (final IOException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Concrete implementation of {@link SlowRequestConfiguration}.
+ * </p>
+ * The slow request log is disabled by default. To enable it produce a {@link SlowRequestConfiguration} using CDI:
+ * <pre>
+ * &#64;Produces
+ * public SlowRequestConfiguration slowRequestConfig() {
+ *     return SlowRequestConfig.enableSlowRequestLog().threshold(500).threshold("/reports", 5000).samplingRate(0.001)
+ *             .path("/diagnostics/slow-requests").build();
+ * }
+ * </pre>
+ * The diagnostic route is only enabled when a path is specified. It is not secured by AeroGear Controller, so access to it
+ * should be restricted, for example using a security constraint of the web application.
+ * 
+ * @see MetricsHandler
+ */
+public class SlowRequestConfig implements SlowRequestConfiguration {
+
+    public static final long DEFAULT_THRESHOLD = 1000;
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final boolean slowRequestLogEnabled;
+    private final long threshold;
+    private final Map<String, Long> routeThresholds;
+    private final double samplingRate;
+    private final int capacity;
+    private final String path;
+
+    private SlowRequestConfig(final Builder builder) {
+        this.slowRequestLogEnabled = builder.slowRequestLogEnabled;
+        this.threshold = builder.threshold;
+        this.routeThresholds = Collections.unmodifiableMap(new HashMap<String, Long>(builder.routeThresholds));
+        this.samplingRate = builder.samplingRate;
+        this.capacity = builder.capacity;
+        this.path = builder.path;
+    }
+
+    /**
+     * Returns a {@link Builder} which can be used to configure and build a {@link SlowRequestConfiguration} instance.
+     * 
+     * @return {@link Builder} with the slow request log enabled and default values for all other properties.
+     */
+    public static Builder enableSlowRequestLog() {
+        return new Builder(true);
+    }
+
+    public static SlowRequestConfiguration disableSlowRequestLog() {
+        return new Builder(false).build();
+    }
+
+    /**
+     * Returns the default {@link SlowRequestConfiguration}, which has the slow request log disabled.
+     * 
+     * @return {@link SlowRequestConfiguration} with the slow request log disabled.
+     */
+    public static SlowRequestConfiguration defaultConfig() {
+        return disableSlowRequestLog();
+    }
+
+    @Override
+    public boolean isSlowRequestLogEnabled() {
+        return slowRequestLogEnabled;
+    }
+
+    @Override
+    public long getThreshold(final String route) {
+        final Long routeThreshold = routeThresholds.get(route);
+        return routeThreshold == null ? threshold : routeThreshold;
+    }
+
+    @Override
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowRequestConfig[slowRequestLogEnabled=" + slowRequestLogEnabled + ", threshold=" + threshold
+                + ", routeThresholds=" + routeThresholds + ", samplingRate=" + samplingRate + ", capacity=" + capacity
+                + ", path=" + path + "]";
+    }
+
+    public static class Builder {
+        private final boolean slowRequestLogEnabled;
+        private long threshold = DEFAULT_THRESHOLD;
+        private final Map<String, Long> routeThresholds = new HashMap<String, Long>();
+        private double samplingRate;
+        private int capacity = DEFAULT_CAPACITY;
+        private String path;
+
+        private Builder(final boolean slowRequestLogEnabled) {
+            this.slowRequestLogEnabled = slowRequestLogEnabled;
+        }
+
+        /**
+         * Specifies the threshold above which requests are recorded, for routes without their own threshold.
+         * 
+         * @param millis the threshold in milliseconds.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder threshold(final long millis) {
+            this.threshold = millis;
+            return this;
+        }
+
+        /**
+         * Specifies the threshold above which requests to a route are recorded.
+         * 
+         * @param route the path of the route, as it was declared, for example '/cars/{id}'.
+         * @param millis the threshold in milliseconds.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder threshold(final String route, final long millis) {
+            routeThresholds.put(route, millis);
+            return this;
+        }
+
+        /**
+         * Specifies the fraction of all requests that are recorded regardless of their latency.
+         * 
+         * @param samplingRate the sampling rate, between 0 and 1.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder samplingRate(final double samplingRate) {
+            if (samplingRate < 0 || samplingRate > 1) {
+                throw new IllegalArgumentException("samplingRate must be between 0 and 1, was " + samplingRate);
+            }
+            this.samplingRate = samplingRate;
+            return this;
+        }
+
+        public Builder capacity(final int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Enables the diagnostic route.
+         * 
+         * @param path the path, relative to the context path, of the diagnostic route.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder path(final String path) {
+            this.path = path;
+            return this;
+        }
+
+        public SlowRequestConfiguration build() {
+            return new SlowRequestConfig(this);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+/**
+ * Configuration for the slow request log, which records requests exceeding a latency threshold, and a sample of all
+ * requests, in a bounded in-memory log.
+ * 
+ * @see MetricsHandler
+ * @see org.jboss.aerogear.controller.metrics.SlowRequestLog
+ */
+public interface SlowRequestConfiguration {
+
+    /**
+     * Determines if the slow request log is enabled.
+     * 
+     * @return {@code true} if slow requests are recorded.
+     */
+    boolean isSlowRequestLogEnabled();
+
+    /**
+     * Returns the threshold above which requests to the passed-in route are recorded.
+     * 
+     * @param route the path of the route.
+     * @return {@code long} the threshold in milliseconds, which is the threshold of the route if one was configured and the
+     *         global threshold otherwise.
+     */
+    long getThreshold(String route);
+
+    /**
+     * Returns the fraction of all requests that are recorded regardless of their latency.
+     * 
+     * @return {@code double} the sampling rate, between 0 and 1.
+     */
+    double getSamplingRate();
+
+    /**
+     * Returns the maximum number of requests kept in the log, once reached the oldest requests are discarded.
+     * 
+     * @return {@code int} the capacity of the log.
+     */
+    int getCapacity();
+
+    /**
+     * Returns the path, relative to the context path, of the built-in diagnostic route which returns the log as JSON. The
+     * route is not authenticated, see {@link MetricsHandler}.
+     * 
+     * @return {@code String} the path of the diagnostic route, {@code null} if the route is disabled.
+     */
+    String getPath();
+
+}
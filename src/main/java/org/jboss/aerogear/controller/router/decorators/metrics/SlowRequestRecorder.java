@@ -0,0 +1,99 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.metrics.SlowRequest;
+import org.jboss.aerogear.controller.metrics.SlowRequestLog;
+import org.jboss.aerogear.controller.metrics.Stage;
+import org.jboss.aerogear.controller.metrics.StageTimer;
+
+/**
+ * Decides which requests are slow, or sampled, and records them in a {@link SlowRequestLog}.
+ */
+class SlowRequestRecorder {
+
+    static final String THRESHOLD = "threshold";
+    static final String SAMPLED = "sampled";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            return new Random();
+        }
+    };
+
+    private final SlowRequestConfiguration config;
+    private final SlowRequestLog log;
+    private final boolean cpuTimeSupported;
+
+    SlowRequestRecorder(final SlowRequestConfiguration config, final SlowRequestLog log) {
+        this.config = config;
+        this.log = log;
+        this.cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+    }
+
+    /**
+     * Returns the CPU time of the current thread, to be passed to {@link #record}.
+     * 
+     * @return {@code long} the CPU time in nanoseconds, -1 if not supported.
+     */
+    long threadCpuTime() {
+        return cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    void record(final String method, final String route, final int status, final long nanos, final long cpuStart,
+            final StageTimer timer, final long responseBytes) {
+        final String reason = reason(route, nanos);
+        if (reason == null) {
+            return;
+        }
+        final Map<String, Long> stages = new LinkedHashMap<String, Long>();
+        for (Stage stage : Stage.values()) {
+            stages.put(stage.getMetricName(), TimeUnit.NANOSECONDS.toMicros(timer.get(stage)));
+        }
+        final long cpuMicros = cpuStart < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(threadCpuTime() - cpuStart);
+        log.add(new SlowRequest(new Date(), reason, method, route, status, TimeUnit.NANOSECONDS.toMicros(nanos), cpuMicros,
+                Thread.currentThread().getName(), responseBytes, stages, timer.getArguments()));
+    }
+
+    SlowRequestLog getLog() {
+        return log;
+    }
+
+    private String reason(final String route, final long nanos) {
+        if (nanos > TimeUnit.MILLISECONDS.toNanos(config.getThreshold(route))) {
+            return THRESHOLD;
+        }
+        final double samplingRate = config.getSamplingRate();
+        if (samplingRate > 0 && RANDOM.get().nextDouble() < samplingRate) {
+            return SAMPLED;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,269 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * A RateLimit allows each client a number of requests per period, with bursts of up to a maximum number of requests.
+ * </p>
+ * Clients are identified by a key taken from a request header or cookie, or by their remote address. A single RateLimit
+ * instance can be shared by several routes, in which case requests to all of them count towards the same limit:
+ * <pre>
+ * {@code
+ *     final RateLimit search = RateLimit.of(100, 1, TimeUnit.MINUTES).burst(20).keyedBy("X-Api-Key").build();
+ *     route().from("/cars").on(GET).rateLimit(search).to(Cars.class).search(param("q"));
+ *     route().from("/owners").on(GET).rateLimit(search).to(Owners.class).search(param("q"));
+ * }
+ * </pre>
+ * Each client has a token bucket which is implemented using the generic cell rate algorithm (GCRA). It is equivalent to a
+ * token bucket but its complete state is a single timestamp, so a bucket is updated lock free with a compare-and-set. The
+ * buckets are kept in a map bounded to a maximum number of clients, and a bucket is evicted once it has not been used for
+ * long enough to have been refilled completely.
+ * 
+ * @see RateLimitHandler
+ */
+public class RateLimit {
+
+    public static final int DEFAULT_MAX_CLIENTS = 10000;
+
+    private final int requests;
+    private final long period;
+    private final int burst;
+    private final Optional<String> keyName;
+    private final int maxClients;
+    private final long interval;
+    private final long tolerance;
+    private final Cache<String, AtomicLong> buckets;
+
+    private RateLimit(final Builder builder) {
+        this.requests = builder.requests;
+        this.period = builder.period;
+        this.burst = builder.burst == 0 ? builder.requests : builder.burst;
+        this.keyName = Optional.fromNullable(builder.keyName);
+        this.maxClients = builder.maxClients;
+        this.interval = Math.max(1, period / requests);
+        this.tolerance = interval * burst;
+        this.buckets = CacheBuilder.newBuilder().maximumSize(maxClients)
+                .expireAfterAccess(Math.max(tolerance, period), TimeUnit.NANOSECONDS)
+                .build(new CacheLoader<String, AtomicLong>() {
+                    @Override
+                    public AtomicLong load(final String key) {
+                        // any arrival time not after now means a full bucket
+                        return new AtomicLong(System.nanoTime() - tolerance);
+                    }
+                });
+    }
+
+    /**
+     * Returns a {@link Builder} for a RateLimit allowing a number of requests per period.
+     * 
+     * @param requests the number of requests allowed per period.
+     * @param period the length of the period.
+     * @param unit the {@link TimeUnit} of the period.
+     * @return {@link Builder} which can be used to further configure the RateLimit.
+     */
+    public static Builder of(final int requests, final long period, final TimeUnit unit) {
+        return new Builder(requests, unit.toNanos(period));
+    }
+
+    /**
+     * Takes a token from the bucket of a client.
+     * 
+     * @param clientKey the key identifying the client.
+     * @return {@link Decision} whether the request is allowed.
+     */
+    public Decision tryAcquire(final String clientKey) {
+        return tryAcquire(clientKey, System.nanoTime());
+    }
+
+    Decision tryAcquire(final String clientKey, final long now) {
+        final AtomicLong bucket = buckets.getUnchecked(clientKey);
+        for (;;) {
+            final long current = bucket.get();
+            final long base = current - now > 0 ? current : now;
+            final long next = base + interval;
+            final long wait = next - now - tolerance;
+            if (wait > 0) {
+                return new Decision(false, 0, base - now, wait);
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return new Decision(true, (int) ((tolerance - (next - now)) / interval), next - now, 0);
+            }
+        }
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the length of the period.
+     * 
+     * @return {@code long} the length of the period in nanoseconds.
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the maximum number of requests a client can make in a burst, which is the size of its token bucket.
+     * 
+     * @return {@code int} the maximum burst.
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the name of the header, or cookie, identifying clients.
+     * 
+     * @return {@code Optional<String>} the name of the key, absent if clients are identified by their remote address.
+     */
+    public Optional<String> getKeyName() {
+        return keyName;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit[requests=" + requests + ", period=" + TimeUnit.NANOSECONDS.toMillis(period) + "ms, burst=" + burst
+                + ", keyName=" + keyName.orNull() + ", maxClients=" + maxClients + "]";
+    }
+
+    /**
+     * The outcome of taking a token from a client's bucket.
+     */
+    public static class Decision {
+        private final boolean allowed;
+        private final int remaining;
+        private final long reset;
+        private final long retryAfter;
+
+        Decision(final boolean allowed, final int remaining, final long reset, final long retryAfter) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.reset = reset;
+            this.retryAfter = retryAfter;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * Returns the number of requests the client can still make without waiting.
+         * 
+         * @return {@code int} the number of tokens left in the bucket.
+         */
+        public int getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * Returns the number of seconds until the client's bucket is full again.
+         * 
+         * @return {@code long} the number of seconds, rounded up.
+         */
+        public long getResetSeconds() {
+            return toSeconds(reset);
+        }
+
+        /**
+         * Returns the number of seconds the client has to wait before a request will be allowed.
+         * 
+         * @return {@code long} the number of seconds, rounded up, zero if the request was allowed.
+         */
+        public long getRetryAfterSeconds() {
+            return toSeconds(retryAfter);
+        }
+
+        private static long toSeconds(final long nanos) {
+            return nanos <= 0 ? 0 : (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        }
+    }
+
+    public static class Builder {
+        private final int requests;
+        private final long period;
+        private int burst;
+        private String keyName;
+        private int maxClients = DEFAULT_MAX_CLIENTS;
+
+        private Builder(final int requests, final long period) {
+            if (requests < 1 || period < 1) {
+                throw new IllegalArgumentException("requests and period must be positive, were " + requests + ", " + period);
+            }
+            this.requests = requests;
+            this.period = period;
+        }
+
+        /**
+         * Specifies the maximum number of requests a client can make in a burst, which defaults to the number of requests
+         * allowed per period.
+         * 
+         * @param burst the maximum burst.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder burst(final int burst) {
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be positive, was " + burst);
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Specifies the name of the request header, or cookie, identifying clients. Requests without the header or cookie
+         * are identified by their remote address, which is also the default.
+         * 
+         * @param keyName the name of the header or cookie.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder keyedBy(final String keyName) {
+            this.keyName = keyName;
+            return this;
+        }
+
+        /**
+         * Specifies the maximum number of clients tracked, once reached the least recently seen clients are forgotten.
+         * 
+         * @param maxClients the maximum number of clients.
+         * @return {@link Builder} to support method chaining.
+         */
+        public Builder maxClients(final int maxClients) {
+            this.maxClients = maxClients;
+            return this;
+        }
+
+        public RateLimit build() {
+            return new RateLimit(this);
+        }
+    }
+
+}
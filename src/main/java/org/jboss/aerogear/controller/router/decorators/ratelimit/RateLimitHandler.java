@@ -0,0 +1,94 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.ratelimit;
+
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.BulkheadHandler;
+import org.jboss.aerogear.controller.util.ParameterExtractor;
+
+import com.google.common.base.Optional;
+
+/**
+ * RateLimitHandler is a CDI Decorator that decorates a {@link RouteProcessor} and enforces the {@link RateLimit} of a route.
+ * </p>
+ * The client key is taken from the request header, or cookie, named by the rate limit, using the same lookup order as for
+ * request parameters, and otherwise is the client's remote address. Every response of a rate limited route carries the
+ * 'RateLimit-Limit', 'RateLimit-Remaining' and 'RateLimit-Reset' headers. Requests exceeding the limit are rejected with a
+ * {@link RateLimitExceededException}, which results in a '429 Too Many Requests' response with a 'Retry-After' header, before
+ * the request body is read or the target endpoint is invoked.
+ */
+@Decorator
+public class RateLimitHandler implements RouteProcessor {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+    public static final String RATE_LIMIT_COUNTERS = "rate-limit";
+    public static final String REJECTED = "rejected";
+
+    private final RouteProcessor delegate;
+    private final RouteCounters counters = RouteCounters.forName(RATE_LIMIT_COUNTERS);
+
+    @Inject
+    public RateLimitHandler(final @Delegate RouteProcessor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InvocationResult process(final RouteContext routeContext) throws Exception {
+        final Route route = routeContext.getRoute();
+        final Optional<RateLimit> rateLimit = route.getRateLimit();
+        if (!rateLimit.isPresent()) {
+            return delegate.process(routeContext);
+        }
+        final RateLimit.Decision decision = rateLimit.get().tryAcquire(clientKey(routeContext, rateLimit.get()));
+        final HttpServletResponse response = routeContext.getResponse();
+        response.setHeader(LIMIT_HEADER, String.valueOf(rateLimit.get().getBurst()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.getRemaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(decision.getResetSeconds()));
+        if (!decision.isAllowed()) {
+            counters.increment(route.getPath(), REJECTED);
+            response.setHeader(BulkheadHandler.RETRY_AFTER_HEADER, String.valueOf(decision.getRetryAfterSeconds()));
+            throw ExceptionBundle.MESSAGES.rateLimitExceeded(route.getPath());
+        }
+        return delegate.process(routeContext);
+    }
+
+    private static String clientKey(final RouteContext routeContext, final RateLimit rateLimit) throws Exception {
+        if (rateLimit.getKeyName().isPresent()) {
+            final Optional<String> key = ParameterExtractor.extractHeaderOrCookieParam(routeContext, rateLimit.getKeyName()
+                    .get());
+            if (key.isPresent()) {
+                return key.get();
+            }
+        }
+        return routeContext.getRequest().getRemoteAddr();
+    }
+
+}
@@ -32,7 +32,7 @@ public class ErrorTarget {
      * @return {@code Throwable} simply passes through throwable instance passed in.
      */
     public Throwable error(final Throwable throwable) {
-        AeroGearLogger.LOGGER.routeCatchAllException(throwable, throwable.getMessage());
+        AeroGearLogger.THROTTLED.routeCatchAllException(throwable, throwable.getMessage());
         return throwable;
     }
 
@@ -0,0 +1,96 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jboss.aerogear.controller.router.AeroGearException;
+import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.rest.encoding.ContentEncoding;
+import org.jboss.aerogear.controller.router.rest.encoding.RequestBodyTooLargeException;
+import org.jboss.aerogear.controller.router.rest.encoding.UnsupportedContentEncodingException;
+
+import com.google.common.base.Throwables;
+
+/**
+ * AbstractRestConsumer is a Consumer that handles common tasks related to reading a HTTP request body. 
+ * </p> 
+ * Request bodies that were compressed by the client, as indicated by the 'Content-Encoding' request header, are decoded as a
+ * stream by {@link #inputStream(HttpServletRequest)}. The number of decoded bytes is limited to guard against payloads that 
+ * decompress to a much larger size than they were sent with.
+ * 
+ * @see ContentEncoding
+ */
+public abstract class AbstractRestConsumer implements Consumer {
+
+    public static final long DEFAULT_MAX_DECODED_BODY_SIZE = 10 * 1024 * 1024;
+
+    private final long maxDecodedBodySize;
+
+    public AbstractRestConsumer() {
+        this(DEFAULT_MAX_DECODED_BODY_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param maxDecodedBodySize the maximum size, in bytes, of an encoded request body after it has been decoded.
+     */
+    public AbstractRestConsumer(final long maxDecodedBodySize) {
+        this.maxDecodedBodySize = maxDecodedBodySize;
+    }
+
+    /**
+     * Returns the body of the passed-in request, decoded according to the 'Content-Encoding' request header.
+     * 
+     * @param request the {@link HttpServletRequest}.
+     * @return {@code InputStream} from which the decoded request body can be read.
+     * @throws IOException if an error occurs while opening the request body.
+     */
+    protected InputStream inputStream(final HttpServletRequest request) throws IOException {
+        return ContentEncoding.decode(request.getHeader(ContentEncoding.CONTENT_ENCODING_HEADER), request.getInputStream(),
+                maxDecodedBodySize);
+    }
+
+    /**
+     * Returns the exception to be thrown when reading the request body failed. 
+     * </p> 
+     * Unmarshalling libraries commonly wrap exceptions thrown by the underlying stream, this method makes sure that the 
+     * exceptions related to the decoding of the request body reach the caller so that the correct HTTP status is returned.
+     * 
+     * @param e the {@link IOException} that occurred while unmarshalling.
+     * @return {@code RuntimeException} to be thrown by the caller.
+     */
+    protected RuntimeException unmarshallingFailed(final IOException e) {
+        for (Throwable cause : Throwables.getCausalChain(e)) {
+            if (cause instanceof RequestBodyTooLargeException || cause instanceof UnsupportedContentEncodingException) {
+                return (RuntimeException) cause;
+            }
+        }
+        return new AeroGearException(e);
+    }
+
+    public long getMaxDecodedBodySize() {
+        return maxDecodedBodySize;
+    }
+
+}
@@ -47,6 +47,17 @@ public abstract class AbstractRestResponder implements Responder {
      */
     public abstract void writeResponse(final Object entity, final RouteContext routeContext) throws Exception;
 
+    /**
+     * Returns the character encoding to be set on the {@link HttpServletResponse}. 
+     * </p> 
+     * Responders writing binary content should return {@code null} so that no charset is added to the 'Content-Type' header.
+     * 
+     * @return {@code String} the character encoding of the response, or {@code null} if the response is not textual.
+     */
+    protected String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
     @Override
     public boolean accepts(final String mediaType) {
         return getMediaType().getType().equals(mediaType);
@@ -56,7 +67,10 @@ public abstract class AbstractRestResponder implements Responder {
     public void respond(final Object entity, final RouteContext routeContext) throws Exception {
         final HttpServletResponse response = routeContext.getResponse();
         response.setContentType(getMediaType().getType());
-        response.setCharacterEncoding("UTF-8");
+        final String characterEncoding = getCharacterEncoding();
+        if (characterEncoding != null) {
+            response.setCharacterEncoding(characterEncoding);
+        }
         if (entity instanceof ResponseHeaders) {
             final ResponseHeaders responseHeaders = (ResponseHeaders) entity;
             final Map<String, String> headers = responseHeaders.headers();
@@ -0,0 +1,50 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.router.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.map.BeanDescription;
+import org.codehaus.jackson.map.BeanProperty;
+import org.codehaus.jackson.map.JsonSerializer;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.map.Serializers;
+import org.codehaus.jackson.type.JavaType;
+
+/**
+ * {@link Serializers} that only use a registered serializer for exactly the type it was registered for.
+ * </p>
+ * Jackson's {@link org.codehaus.jackson.map.module.SimpleSerializers} also use a serializer for the subclasses of its type,
+ * which for a generated codec would silently drop the properties a subclass adds. Subclasses are left to Jackson's bean
+ * serializer instead.
+ */
+class ExactTypeSerializers extends Serializers.Base {
+
+    private final Map<Class<?>, JsonSerializer<?>> serializers = new HashMap<Class<?>, JsonSerializer<?>>();
+
+    <T> void add(final Class<T> type, final JsonSerializer<T> serializer) {
+        serializers.put(type, serializer);
+    }
+
+    @Override
+    public JsonSerializer<?> findSerializer(final SerializationConfig config, final JavaType type,
+            final BeanDescription beanDesc, final BeanProperty property) {
+        return serializers.get(type.getRawClass());
+    }
+
+}
@@ -21,17 +21,25 @@ import java.io.IOException;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.codehaus.jackson.map.DeserializationConfig.Feature;
 import org.codehaus.jackson.map.ObjectMapper;
-import org.jboss.aerogear.controller.router.AeroGearException;
-import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.MediaType;
 
 /**
  * Concrete Consumer that is able to unmarshall a Http request body into a Java representation. </p> JSON support is provided by
- * Jackson.
+ * Jackson. Compressed request bodies are supported as described in {@link AbstractRestConsumer}.
  */
-public class JsonConsumer implements Consumer {
+public class JsonConsumer extends AbstractRestConsumer {
+
+    private final ObjectMapper mapper;
+
+    public JsonConsumer() {
+        this(DEFAULT_MAX_DECODED_BODY_SIZE);
+    }
+
+    public JsonConsumer(final long maxDecodedBodySize) {
+        super(maxDecodedBodySize);
+        mapper = ObjectMappers.json();
+    }
 
     @Override
     public String mediaType() {
@@ -41,11 +49,9 @@ public class JsonConsumer implements Consumer {
     @Override
     public <T> T unmarshall(final HttpServletRequest request, final Class<T> type) {
         try {
-            final ObjectMapper om = new ObjectMapper();
-            om.configure(Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            return om.readValue(request.getInputStream(), type);
+            return mapper.readValue(inputStream(request), type);
         } catch (final IOException e) {
-            throw new AeroGearException(e);
+            throw unmarshallingFailed(e);
         }
     }
 
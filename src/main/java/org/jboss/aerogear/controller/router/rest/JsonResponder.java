@@ -18,21 +18,24 @@
 package org.jboss.aerogear.controller.router.rest;
 
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.RequestMethod;
 import org.jboss.aerogear.controller.router.Responder;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.error.ErrorResponse;
+import org.jboss.aerogear.controller.router.rest.projection.Projections;
 
 /**
- * A RESTFul {@link Responder} that is able to return JSON responses. </p> This implementation uses Jackson for JSON support.
+ * A RESTFul {@link Responder} that is able to return JSON responses. </p> This implementation uses Jackson for JSON support,
+ * through the mapper shared in {@link ObjectMappers}.
  */
 public class JsonResponder extends AbstractRestResponder {
 
     private final ObjectMapper mapper;
 
     public JsonResponder() {
-        mapper = new ObjectMapper();
+        mapper = ObjectMappers.json();
     }
 
     @Override
@@ -40,18 +43,19 @@ public class JsonResponder extends AbstractRestResponder {
         if (entity instanceof ErrorResponse) {
             final ErrorResponse errorResponse = (ErrorResponse) entity;
             routeContext.getResponse().setStatus(errorResponse.statusCode());
-            writeJsonResponse(errorResponse.content(), routeContext);
+            writeJsonResponse(mapper.writer(), errorResponse.content(), routeContext);
         } else {
             if (entity != null) {
-                writeJsonResponse(entity, routeContext);
+                writeJsonResponse(Projections.writer(mapper, routeContext), entity, routeContext);
             }
         }
     }
 
-    private void writeJsonResponse(final Object entity, final RouteContext routeContext) throws Exception {
+    private void writeJsonResponse(final ObjectWriter writer, final Object entity, final RouteContext routeContext)
+            throws Exception {
         String requestMethod = routeContext.getRequest().getMethod() ;
         if (requestMethod != null && !requestMethod.equalsIgnoreCase(RequestMethod.OPTIONS.toString())) {
-            mapper.writeValue(routeContext.getResponse().getWriter(), entity);
+            writer.writeValue(routeContext.getResponse().getWriter(), entity);
         }
     }
 
@@ -0,0 +1,153 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import org.codehaus.jackson.Version;
+import org.codehaus.jackson.map.DeserializationConfig.Feature;
+import org.codehaus.jackson.map.JsonDeserializer;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.module.SimpleModule;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.router.rest.codec.GeneratedJsonCodec;
+import org.jboss.aerogear.controller.router.rest.projection.ProjectionFilter;
+import org.jboss.aerogear.controller.router.rest.projection.ProjectionIntrospector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * Holds the Jackson {@link ObjectMapper}s shared by the JSON and Smile {@link org.jboss.aerogear.controller.router.Consumer}s
+ * and {@link org.jboss.aerogear.controller.router.Responder}s. 
+ * </p> 
+ * An {@link ObjectMapper} is thread safe once configured and caches the serializers it creates, so sharing a single instance
+ * avoids repeating the reflective introspection of entity types. Any {@link GeneratedJsonCodec}s found on the class path, as
+ * produced by the {@link org.jboss.aerogear.controller.router.rest.codec.JsonCodecProcessor}, are registered with both
+ * mappers. They are only used for exactly their entity type, not for its subclasses.
+ * </p>
+ * Codecs are looked up with the thread context class loader, and a separate pair of mappers is kept per class loader, so
+ * that codecs generated into each deployment are found when this library is on a shared class loader. The class loaders are
+ * weakly referenced and their mappers softly referenced, as the mappers hold classes of their class loader, so that the
+ * mappers of an undeployed application do not keep its class loader from being collected. Both mappers support applying a {@link org.jboss.aerogear.controller.router.rest.projection.Projection} using
+ * {@link org.jboss.aerogear.controller.router.rest.projection.Projections#writer}.
+ */
+public final class ObjectMappers {
+
+    private static final Cache<ClassLoader, Mappers> MAPPERS = CacheBuilder.newBuilder().weakKeys().softValues()
+            .build(new CacheLoader<ClassLoader, Mappers>() {
+                @Override
+                public Mappers load(final ClassLoader classLoader) {
+                    return new Mappers(classLoader);
+                }
+            });
+
+    private ObjectMappers() {
+    }
+
+    /**
+     * Returns the shared {@link ObjectMapper} for JSON.
+     * 
+     * @return {@code ObjectMapper} which must not be reconfigured by callers.
+     */
+    public static ObjectMapper json() {
+        return mappers().json;
+    }
+
+    /**
+     * Returns the shared {@link ObjectMapper} for Smile.
+     * 
+     * @return {@code ObjectMapper} which must not be reconfigured by callers.
+     */
+    public static ObjectMapper smile() {
+        return mappers().smile;
+    }
+
+    /**
+     * Returns the entity types for which a {@link GeneratedJsonCodec} has been registered with the mappers of the thread
+     * context class loader.
+     * 
+     * @return {@code Set} of the entity types, never {@code null}.
+     */
+    public static Set<Class<?>> generatedCodecTypes() {
+        return Collections.unmodifiableSet(mappers().codecTypes);
+    }
+
+    private static Mappers mappers() {
+        return MAPPERS.getUnchecked(classLoader());
+    }
+
+    private static ObjectMapper configure(final ObjectMapper mapper, final SimpleModule codecs) {
+        mapper.configure(Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.setAnnotationIntrospector(new ProjectionIntrospector());
+        mapper.setFilters(ProjectionFilter.ALL);
+        mapper.registerModule(codecs);
+        return mapper;
+    }
+
+    private static SimpleModule loadGeneratedCodecs(final ClassLoader classLoader, final Set<Class<?>> codecTypes) {
+        final ExactTypeSerializers serializers = new ExactTypeSerializers();
+        final SimpleModule module = new SimpleModule("aerogear-generated-codecs", new Version(1, 0, 0, null)) {
+            @Override
+            public void setupModule(final SetupContext context) {
+                super.setupModule(context);
+                context.addSerializers(serializers);
+            }
+        };
+        for (GeneratedJsonCodec<?> codec : ServiceLoader.load(GeneratedJsonCodec.class, classLoader)) {
+            register(module, serializers, codec);
+            codecTypes.add(codec.type());
+        }
+        if (!codecTypes.isEmpty()) {
+            AeroGearLogger.LOGGER.generatedJsonCodecs(codecTypes);
+        }
+        return module;
+    }
+
+    private static ClassLoader classLoader() {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : ObjectMappers.class.getClassLoader();
+    }
+
+    private static <T> void register(final SimpleModule module, final ExactTypeSerializers serializers,
+            final GeneratedJsonCodec<T> codec) {
+        serializers.add(codec.type(), codec.serializer());
+        final JsonDeserializer<T> deserializer = codec.deserializer();
+        if (deserializer != null) {
+            module.addDeserializer(codec.type(), deserializer);
+        }
+    }
+
+    private static final class Mappers {
+        private final Set<Class<?>> codecTypes = new LinkedHashSet<Class<?>>();
+        private final ObjectMapper json;
+        private final ObjectMapper smile;
+
+        Mappers(final ClassLoader classLoader) {
+            final SimpleModule codecs = loadGeneratedCodecs(classLoader, codecTypes);
+            this.json = configure(new ObjectMapper(), codecs);
+            this.smile = configure(new ObjectMapper(new SmileFactory()), codecs);
+        }
+    }
+
+}
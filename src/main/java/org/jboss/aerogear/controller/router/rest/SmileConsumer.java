@@ -0,0 +1,65 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.jboss.aerogear.controller.router.MediaType;
+
+/**
+ * Concrete Consumer that is able to unmarshall a Smile encoded Http request body into a Java representation. </p> Smile is the
+ * binary counterpart of JSON and support is provided by Jackson. Compressed request bodies are supported as described in
+ * {@link AbstractRestConsumer}.
+ */
+public class SmileConsumer extends AbstractRestConsumer {
+
+    private final ObjectMapper mapper;
+
+    public SmileConsumer() {
+        this(DEFAULT_MAX_DECODED_BODY_SIZE);
+    }
+
+    public SmileConsumer(final long maxDecodedBodySize) {
+        super(maxDecodedBodySize);
+        mapper = ObjectMappers.smile();
+    }
+
+    @Override
+    public String mediaType() {
+        return MediaType.SMILE.getType();
+    }
+
+    @Override
+    public <T> T unmarshall(final HttpServletRequest request, final Class<T> type) {
+        try {
+            return mapper.readValue(inputStream(request), type);
+        } catch (final IOException e) {
+            throw unmarshallingFailed(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SmileConsumer[mediaType=" + mediaType() + "]";
+    }
+
+}
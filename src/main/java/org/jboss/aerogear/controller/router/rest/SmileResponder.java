@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Responder;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.error.ErrorResponse;
+import org.jboss.aerogear.controller.router.rest.projection.Projections;
+
+/**
+ * A RESTFul {@link Responder} that is able to return Smile responses. </p> Smile is a binary format that is data model
+ * compatible with JSON, which makes it cheaper to produce and parse and smaller on the wire. Any route that produces
+ * {@link MediaType#JSON} also responds with Smile when the 'Accept' header names {@link MediaType#SMILE} explicitly, while
+ * wildcard 'Accept' headers keep selecting JSON. This implementation uses Jackson for Smile support.
+ */
+public class SmileResponder extends AbstractRestResponder {
+
+    private final ObjectMapper mapper;
+
+    public SmileResponder() {
+        mapper = ObjectMappers.smile();
+    }
+
+    @Override
+    public void writeResponse(final Object entity, final RouteContext routeContext) throws Exception {
+        if (entity instanceof ErrorResponse) {
+            final ErrorResponse errorResponse = (ErrorResponse) entity;
+            routeContext.getResponse().setStatus(errorResponse.statusCode());
+            writeSmileResponse(mapper.writer(), errorResponse.content(), routeContext);
+        } else {
+            if (entity != null) {
+                writeSmileResponse(Projections.writer(mapper, routeContext), entity, routeContext);
+            }
+        }
+    }
+
+    private void writeSmileResponse(final ObjectWriter writer, final Object entity, final RouteContext routeContext)
+            throws Exception {
+        final String requestMethod = routeContext.getRequest().getMethod();
+        if (requestMethod != null && !requestMethod.equalsIgnoreCase(RequestMethod.OPTIONS.toString())) {
+            writer.writeValue(routeContext.getResponse().getOutputStream(), entity);
+        }
+    }
+
+    @Override
+    protected String getCharacterEncoding() {
+        return null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jboss.aerogear.controller.router.Responder#getMediaType()
+     */
+    @Override
+    public MediaType getMediaType() {
+        return MediaType.SMILE;
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.codec;
+
+import org.codehaus.jackson.map.JsonDeserializer;
+import org.codehaus.jackson.map.JsonSerializer;
+
+/**
+ * A GeneratedJsonCodec is generated by the {@link JsonCodecProcessor} for each type annotated with {@link JsonEntity}, and
+ * is discovered at runtime using {@link java.util.ServiceLoader}.
+ * 
+ * @param <T> the entity type that this codec handles.
+ */
+public interface GeneratedJsonCodec<T> {
+
+    /**
+     * Returns the entity type handled by this codec.
+     * 
+     * @return {@code Class} the entity type.
+     */
+    Class<T> type();
+
+    /**
+     * Returns the serializer for the entity type.
+     * 
+     * @return {@code JsonSerializer} which writes the entity using the streaming API.
+     */
+    JsonSerializer<T> serializer();
+
+    /**
+     * Returns the deserializer for the entity type.
+     * 
+     * @return {@code JsonDeserializer} which reads the entity using the streaming API, or {@code null} if the entity type does
+     *         not have a public no-args constructor.
+     */
+    JsonDeserializer<T> deserializer();
+
+}
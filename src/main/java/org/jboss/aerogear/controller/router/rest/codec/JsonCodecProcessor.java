@@ -0,0 +1,611 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.codec;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.codehaus.jackson.annotate.JsonIgnore;
+import org.codehaus.jackson.annotate.JsonProperty;
+
+/**
+ * An annotation processor that generates a {@link GeneratedJsonCodec} for every class annotated with {@link JsonEntity}, and
+ * lists them in 'META-INF/services' so that they are picked up by {@link org.jboss.aerogear.controller.router.rest.ObjectMappers}.
+ * </p> 
+ * The processor is not registered automatically, it has to be enabled in the build of the application containing the
+ * entities, for example with the Maven compiler plugin:
+ * 
+ * <pre>
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;org.jboss.aerogear.controller.router.rest.codec.JsonCodecProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * </pre>
+ * 
+ * The generated serializers write the properties in declaration order, superclass properties first, and write {@code null}
+ * values. They apply the {@link org.jboss.aerogear.controller.router.rest.projection.Projection} in use, if any. The generated
+ * deserializers ignore unknown properties.
+ * </p>
+ * Only public getters and setters, optionally annotated with {@link JsonIgnore} or {@link JsonProperty}, are supported.
+ * Compilation fails for entities, or superclasses, that have public fields, that use Jackson annotations anywhere else or
+ * any other Jackson annotation, such as {@code JsonIgnoreProperties}, {@code JsonAutoDetect} or {@code JsonSerialize}, or
+ * whose property types can not be resolved, so that a generated codec never silently differs from Jackson's reflective
+ * serialization.
+ */
+@SupportedAnnotationTypes("org.jboss.aerogear.controller.router.rest.codec.JsonEntity")
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String CODEC_SUFFIX = "_JsonCodec";
+    private static final String SERVICE_FILE = "META-INF/services/" + GeneratedJsonCodec.class.getName();
+    private static final String JACKSON_ANNOTATIONS = "org.codehaus.jackson.";
+    private static final Set<String> ACCESSOR_ANNOTATIONS = new TreeSet<String>(Arrays.asList(
+            JsonIgnore.class.getName(), JsonProperty.class.getName()));
+
+    private final Set<String> codecs = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonEntity.class)) {
+            if (isSupported(element)) {
+                generateCodec((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !codecs.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private boolean isSupported(final Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return error(element, "@JsonEntity can only be used on classes");
+        }
+        final TypeElement type = (TypeElement) element;
+        if (!type.getTypeParameters().isEmpty()) {
+            return error(element, "@JsonEntity can not be used on generic classes");
+        }
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return error(element, "@JsonEntity classes, and their enclosing classes, must be public");
+            }
+            if (((TypeElement) e).getNestingKind() == NestingKind.MEMBER && !e.getModifiers().contains(Modifier.STATIC)) {
+                return error(element, "@JsonEntity can not be used on inner classes, make the class static");
+            }
+        }
+        return true;
+    }
+
+    private boolean error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private void generateCodec(final TypeElement type) {
+        final List<Property> properties = properties(type);
+        if (properties == null) {
+            return;
+        }
+        final String packageName = packageOf(type).getQualifiedName().toString();
+        final String codecName = flatName(type) + CODEC_SUFFIX;
+        final String qualifiedCodecName = packageName.length() == 0 ? codecName : packageName + "." + codecName;
+        try {
+            final Writer writer = processingEnv.getFiler().createSourceFile(qualifiedCodecName, type).openWriter();
+            try {
+                new CodecWriter(new PrintWriter(writer), type, properties, packageName, codecName).write();
+            } finally {
+                writer.close();
+            }
+            codecs.add(qualifiedCodecName);
+        } catch (final IOException e) {
+            error(type, "Could not generate " + qualifiedCodecName + ": " + e.getMessage());
+        }
+    }
+
+    private void writeServiceFile() {
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            final PrintWriter writer = new PrintWriter(file.openWriter());
+            try {
+                for (String codec : codecs) {
+                    writer.println(codec);
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + SERVICE_FILE + ": " + e);
+        }
+    }
+
+    private static PackageElement packageOf(final Element element) {
+        Element e = element;
+        while (e.getKind() != ElementKind.PACKAGE) {
+            e = e.getEnclosingElement();
+        }
+        return (PackageElement) e;
+    }
+
+    private static String flatName(final TypeElement type) {
+        final Element enclosing = type.getEnclosingElement();
+        if (enclosing.getKind() == ElementKind.PACKAGE) {
+            return type.getSimpleName().toString();
+        }
+        return flatName((TypeElement) enclosing) + "_" + type.getSimpleName();
+    }
+
+    /**
+     * Returns the properties of the passed-in type, superclass properties first, or {@code null} if the type uses a
+     * construct that the generated codecs do not support, in which case an error has been reported.
+     */
+    private List<Property> properties(final TypeElement type) {
+        final List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+        for (TypeElement t = type; t != null && !t.getQualifiedName().contentEquals(Object.class.getName()); t = superclass(t)) {
+            hierarchy.add(t);
+        }
+        Collections.reverse(hierarchy);
+        final DeclaredType declaredType = (DeclaredType) type.asType();
+        final Map<String, Property> properties = new LinkedHashMap<String, Property>();
+        boolean supported = true;
+        for (TypeElement t : hierarchy) {
+            supported &= checkAnnotations(type, t, Collections.<String> emptySet());
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                supported &= checkField(type, field);
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+                supported &= addAccessor(type, declaredType, properties, method);
+            }
+        }
+        if (!supported) {
+            return null;
+        }
+        final List<Property> result = new ArrayList<Property>();
+        for (Property property : properties.values()) {
+            if (!property.ignored) {
+                result.add(property);
+            }
+        }
+        return result;
+    }
+
+    private static TypeElement superclass(final TypeElement t) {
+        final TypeMirror superclass = t.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    private boolean checkAnnotations(final TypeElement entity, final Element element, final Set<String> supported) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final String name = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (name.startsWith(JACKSON_ANNOTATIONS) && !supported.contains(name)) {
+                return error(entity, "@JsonEntity does not support @" + name + " on " + describe(element)
+                        + ", remove @JsonEntity to use reflective serialization");
+            }
+        }
+        return true;
+    }
+
+    private boolean checkField(final TypeElement entity, final VariableElement field) {
+        final Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC)
+                && !modifiers.contains(Modifier.TRANSIENT)) {
+            return error(entity, "@JsonEntity does not support public fields, found " + describe(field)
+                    + ", use a getter and setter instead");
+        }
+        return checkAnnotations(entity, field, Collections.<String> emptySet());
+    }
+
+    private boolean addAccessor(final TypeElement entity, final DeclaredType declaredType,
+            final Map<String, Property> properties, final ExecutableElement method) {
+        final Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+            return true;
+        }
+        final String methodName = method.getSimpleName().toString();
+        final ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+        final TypeMirror returnType = methodType.getReturnType();
+        final boolean getter;
+        final String name;
+        if (method.getParameters().isEmpty() && returnType.getKind() != TypeKind.VOID) {
+            if (methodName.startsWith("get") && methodName.length() > 3) {
+                name = propertyName(methodName.substring(3));
+            } else if (methodName.startsWith("is") && methodName.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+                name = propertyName(methodName.substring(2));
+            } else {
+                return checkAnnotations(entity, method, Collections.<String> emptySet());
+            }
+            getter = true;
+        } else if (method.getParameters().size() == 1 && methodName.startsWith("set") && methodName.length() > 3) {
+            name = propertyName(methodName.substring(3));
+            getter = false;
+        } else {
+            return checkAnnotations(entity, method, Collections.<String> emptySet());
+        }
+        if (!checkAnnotations(entity, method, ACCESSOR_ANNOTATIONS)) {
+            return false;
+        }
+        final TypeMirror propertyType = getter ? returnType : methodType.getParameterTypes().get(0);
+        if (hasTypeVariable(propertyType)) {
+            return error(entity, "@JsonEntity can not resolve the type " + propertyType + " of " + describe(method)
+                    + ", declare the type arguments of the superclass");
+        }
+        Property property = properties.get(name);
+        if (property == null) {
+            property = new Property();
+            property.jsonName = name;
+            properties.put(name, property);
+        }
+        if (method.getAnnotation(JsonIgnore.class) != null && method.getAnnotation(JsonIgnore.class).value()) {
+            property.ignored = true;
+        }
+        final JsonProperty jsonProperty = method.getAnnotation(JsonProperty.class);
+        if (jsonProperty != null && jsonProperty.value().length() > 0) {
+            property.jsonName = jsonProperty.value();
+        }
+        if (getter) {
+            property.getter = methodName;
+            property.type = propertyType;
+        } else if (property.type == null || processingEnv.getTypeUtils().isSameType(property.type, propertyType)) {
+            property.setter = methodName;
+            property.type = propertyType;
+        }
+        return true;
+    }
+
+    private static boolean hasTypeVariable(final TypeMirror t) {
+        switch (t.getKind()) {
+            case TYPEVAR:
+                return true;
+            case ARRAY:
+                return hasTypeVariable(((ArrayType) t).getComponentType());
+            case WILDCARD:
+                final WildcardType wildcard = (WildcardType) t;
+                return (wildcard.getExtendsBound() != null && hasTypeVariable(wildcard.getExtendsBound()))
+                        || (wildcard.getSuperBound() != null && hasTypeVariable(wildcard.getSuperBound()));
+            case DECLARED:
+                for (TypeMirror argument : ((DeclaredType) t).getTypeArguments()) {
+                    if (hasTypeVariable(argument)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private static String describe(final Element element) {
+        if (element.getKind() == ElementKind.CLASS) {
+            return ((TypeElement) element).getQualifiedName().toString();
+        }
+        return ((TypeElement) element.getEnclosingElement()).getQualifiedName() + "." + element.getSimpleName();
+    }
+
+    /**
+     * Derives a property name from the name of a getter or setter, without its prefix, the same way that Jackson does: all
+     * leading upper case characters are lower cased.
+     */
+    static String propertyName(final String name) {
+        final StringBuilder sb = new StringBuilder(name);
+        for (int i = 0; i < sb.length(); i++) {
+            final char c = sb.charAt(i);
+            final char lower = Character.toLowerCase(c);
+            if (c == lower) {
+                break;
+            }
+            sb.setCharAt(i, lower);
+        }
+        return sb.toString();
+    }
+
+    private static class Property {
+        private String jsonName;
+        private String getter;
+        private String setter;
+        private TypeMirror type;
+        private boolean ignored;
+    }
+
+    private class CodecWriter {
+
+        private final PrintWriter out;
+        private final TypeElement type;
+        private final String packageName;
+        private final String codecName;
+        private final String typeName;
+        private final List<Property> properties;
+        private final Map<Property, String> typeReferences = new LinkedHashMap<Property, String>();
+
+        CodecWriter(final PrintWriter out, final TypeElement type, final List<Property> properties, final String packageName,
+                final String codecName) {
+            this.out = out;
+            this.type = type;
+            this.properties = properties;
+            this.packageName = packageName;
+            this.codecName = codecName;
+            this.typeName = type.getQualifiedName().toString();
+        }
+
+        void write() {
+            if (packageName.length() > 0) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("import java.io.IOException;");
+            out.println();
+            out.println("import org.codehaus.jackson.JsonGenerator;");
+            out.println("import org.codehaus.jackson.JsonParser;");
+            out.println("import org.codehaus.jackson.JsonProcessingException;");
+            out.println("import org.codehaus.jackson.JsonToken;");
+            out.println("import org.codehaus.jackson.map.DeserializationContext;");
+            out.println("import org.codehaus.jackson.map.JsonDeserializer;");
+            out.println("import org.codehaus.jackson.map.JsonSerializer;");
+            out.println("import org.codehaus.jackson.map.SerializerProvider;");
+            out.println("import org.codehaus.jackson.type.TypeReference;");
+            out.println("import org.jboss.aerogear.controller.router.rest.codec.GeneratedJsonCodec;");
+            out.println("import org.jboss.aerogear.controller.router.rest.codec.JsonCodecSupport;");
+            out.println("import org.jboss.aerogear.controller.router.rest.projection.ProjectionFilter;");
+            out.println();
+            out.println("/**");
+            out.println(" * Streaming JSON codec for {@link " + typeName + "}, generated by " + JsonCodecProcessor.class.getName() + ".");
+            out.println(" */");
+            out.println("@javax.annotation.Generated(\"" + JsonCodecProcessor.class.getName() + "\")");
+            out.println("public final class " + codecName + " implements GeneratedJsonCodec<" + typeName + "> {");
+            out.println();
+            writeTypeReferences();
+            out.println("    @Override");
+            out.println("    public Class<" + typeName + "> type() {");
+            out.println("        return " + typeName + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public JsonSerializer<" + typeName + "> serializer() {");
+            out.println("        return new Serializer();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public JsonDeserializer<" + typeName + "> deserializer() {");
+            out.println("        return " + (isInstantiable() ? "new Deserializer()" : "null") + ";");
+            out.println("    }");
+            out.println();
+            writeSerializer();
+            if (isInstantiable()) {
+                out.println();
+                writeDeserializer();
+            }
+            out.println();
+            out.println("}");
+            out.flush();
+        }
+
+        private void writeTypeReferences() {
+            for (Property property : properties) {
+                if (property.setter != null && isComplex(property.type) && property.type.toString().contains("<")) {
+                    final String name = "TYPE_" + typeReferences.size();
+                    typeReferences.put(property, name);
+                    out.println("    private static final TypeReference<" + property.type + "> " + name + " = new TypeReference<"
+                            + property.type + ">() {};");
+                    out.println();
+                }
+            }
+        }
+
+        private void writeSerializer() {
+            out.println("    private static final class Serializer extends JsonSerializer<" + typeName + "> {");
+            out.println();
+            out.println("        @Override");
+            out.println("        public void serialize(final " + typeName + " value, final JsonGenerator jgen, final SerializerProvider provider)");
+            out.println("                throws IOException, JsonProcessingException {");
+            out.println("            final ProjectionFilter filter = ProjectionFilter.from(provider);");
+            out.println("            jgen.writeStartObject();");
+            for (Property property : properties) {
+                if (property.getter != null) {
+                    writeField(property);
+                }
+            }
+            out.println("            jgen.writeEndObject();");
+            out.println("        }");
+            out.println();
+            out.println("    }");
+        }
+
+        private void writeField(final Property property) {
+            final String name = quote(property.jsonName);
+            final String value = "value." + property.getter + "()";
+            out.println("            if (filter.includes(" + name + ")) {");
+            switch (property.type.getKind()) {
+                case BOOLEAN:
+                    out.println("                jgen.writeBooleanField(" + name + ", " + value + ");");
+                    break;
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                case FLOAT:
+                case DOUBLE:
+                    out.println("                jgen.writeNumberField(" + name + ", " + value + ");");
+                    break;
+                case CHAR:
+                    out.println("                jgen.writeStringField(" + name + ", String.valueOf(" + value + "));");
+                    break;
+                default:
+                    if (isString(property.type)) {
+                        out.println("                jgen.writeStringField(" + name + ", " + value + ");");
+                    } else {
+                        out.println("                filter.serializeField(" + name + ", " + value + ", jgen, provider);");
+                    }
+            }
+            out.println("            }");
+        }
+
+        private void writeDeserializer() {
+            out.println("    private static final class Deserializer extends JsonDeserializer<" + typeName + "> {");
+            out.println();
+            out.println("        @Override");
+            out.println("        public " + typeName + " deserialize(final JsonParser jp, final DeserializationContext ctxt)");
+            out.println("                throws IOException, JsonProcessingException {");
+            out.println("            JsonToken token = jp.getCurrentToken();");
+            out.println("            if (token == JsonToken.START_OBJECT) {");
+            out.println("                token = jp.nextToken();");
+            out.println("            }");
+            out.println("            if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {");
+            out.println("                throw ctxt.mappingException(" + typeName + ".class);");
+            out.println("            }");
+            out.println("            final " + typeName + " value = new " + typeName + "();");
+            out.println("            for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {");
+            out.println("                final String name = jp.getCurrentName();");
+            out.println("                jp.nextToken();");
+            String keyword = "if";
+            for (Property property : properties) {
+                if (property.setter != null) {
+                    out.println("                " + keyword + " (" + quote(property.jsonName) + ".equals(name)) {");
+                    out.println("                    value." + property.setter + "(" + readExpression(property) + ");");
+                    keyword = "} else if";
+                }
+            }
+            if (keyword.equals("if")) {
+                out.println("                jp.skipChildren();");
+            } else {
+                out.println("                } else {");
+                out.println("                    jp.skipChildren();");
+                out.println("                }");
+            }
+            out.println("            }");
+            out.println("            return value;");
+            out.println("        }");
+            out.println();
+            out.println("    }");
+        }
+
+        private String readExpression(final Property property) {
+            final TypeMirror t = property.type;
+            switch (t.getKind()) {
+                case BOOLEAN:
+                    return "JsonCodecSupport.readBoolean(jp)";
+                case BYTE:
+                    return "JsonCodecSupport.readByte(jp)";
+                case SHORT:
+                    return "JsonCodecSupport.readShort(jp)";
+                case INT:
+                    return "JsonCodecSupport.readInt(jp)";
+                case LONG:
+                    return "JsonCodecSupport.readLong(jp)";
+                case FLOAT:
+                    return "JsonCodecSupport.readFloat(jp)";
+                case DOUBLE:
+                    return "JsonCodecSupport.readDouble(jp)";
+                case CHAR:
+                    return "JsonCodecSupport.readChar(jp)";
+                default:
+                    final String boxed = boxedReadMethod(t);
+                    if (boxed != null) {
+                        return "JsonCodecSupport." + boxed + "(jp)";
+                    }
+                    if (typeReferences.containsKey(property)) {
+                        return "JsonCodecSupport.readValue(jp, ctxt, " + typeReferences.get(property) + ")";
+                    }
+                    return "JsonCodecSupport.readValue(jp, ctxt, " + processingEnv.getTypeUtils().erasure(t) + ".class)";
+            }
+        }
+
+        private String boxedReadMethod(final TypeMirror t) {
+            final String name = t.toString();
+            if (name.equals(String.class.getName())) {
+                return "readString";
+            } else if (name.equals(Boolean.class.getName())) {
+                return "readBooleanObject";
+            } else if (name.equals(Character.class.getName())) {
+                return "readCharacter";
+            } else if (name.equals(Byte.class.getName())) {
+                return "readByteObject";
+            } else if (name.equals(Short.class.getName())) {
+                return "readShortObject";
+            } else if (name.equals(Integer.class.getName())) {
+                return "readInteger";
+            } else if (name.equals(Long.class.getName())) {
+                return "readLongObject";
+            } else if (name.equals(Float.class.getName())) {
+                return "readFloatObject";
+            } else if (name.equals(Double.class.getName())) {
+                return "readDoubleObject";
+            }
+            return null;
+        }
+
+        private boolean isComplex(final TypeMirror t) {
+            return !t.getKind().isPrimitive() && boxedReadMethod(t) == null;
+        }
+
+        private boolean isString(final TypeMirror t) {
+            return t.toString().equals(String.class.getName());
+        }
+
+        private boolean isInstantiable() {
+            if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+                return false;
+            }
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String quote(final String s) {
+            return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+
+    }
+
+}
@@ -0,0 +1,233 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.codec;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.DeserializationContext;
+import org.codehaus.jackson.map.JsonDeserializer;
+import org.codehaus.jackson.map.JsonMappingException;
+import org.codehaus.jackson.type.JavaType;
+import org.codehaus.jackson.type.TypeReference;
+
+/**
+ * Scalar read operations used by the deserializers generated by {@link JsonCodecProcessor}. 
+ * </p> 
+ * The coercions mirror the ones Jackson performs when binding using reflection: numbers may be sent as JSON strings, and a
+ * JSON null becomes the default value for primitive types.
+ */
+public final class JsonCodecSupport {
+
+    private JsonCodecSupport() {
+    }
+
+    public static String readString(final JsonParser jp) throws IOException {
+        final JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return jp.getText();
+        }
+        throw unexpected(jp, String.class);
+    }
+
+    public static boolean readBoolean(final JsonParser jp) throws IOException {
+        switch (jp.getCurrentToken()) {
+            case VALUE_TRUE:
+                return true;
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                return false;
+            case VALUE_NUMBER_INT:
+                return jp.getIntValue() != 0;
+            case VALUE_STRING:
+                final String text = jp.getText().trim();
+                if ("true".equals(text)) {
+                    return true;
+                }
+                if ("false".equals(text) || text.length() == 0) {
+                    return false;
+                }
+                throw invalid(jp, text, Boolean.TYPE);
+            default:
+                throw unexpected(jp, Boolean.TYPE);
+        }
+    }
+
+    public static Boolean readBooleanObject(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Boolean.valueOf(readBoolean(jp));
+    }
+
+    public static char readChar(final JsonParser jp) throws IOException {
+        switch (jp.getCurrentToken()) {
+            case VALUE_STRING:
+                final String text = jp.getText();
+                if (text.length() == 1) {
+                    return text.charAt(0);
+                }
+                if (text.length() == 0) {
+                    return '\0';
+                }
+                throw invalid(jp, text, Character.TYPE);
+            case VALUE_NUMBER_INT:
+                return (char) jp.getIntValue();
+            case VALUE_NULL:
+                return '\0';
+            default:
+                throw unexpected(jp, Character.TYPE);
+        }
+    }
+
+    public static Character readCharacter(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Character.valueOf(readChar(jp));
+    }
+
+    public static byte readByte(final JsonParser jp) throws IOException {
+        return (byte) readInt(jp);
+    }
+
+    public static Byte readByteObject(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Byte.valueOf(readByte(jp));
+    }
+
+    public static short readShort(final JsonParser jp) throws IOException {
+        return (short) readInt(jp);
+    }
+
+    public static Short readShortObject(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Short.valueOf(readShort(jp));
+    }
+
+    public static int readInt(final JsonParser jp) throws IOException {
+        switch (jp.getCurrentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return jp.getIntValue();
+            case VALUE_NULL:
+                return 0;
+            case VALUE_STRING:
+                final String text = jp.getText().trim();
+                try {
+                    return text.length() == 0 ? 0 : Integer.parseInt(text);
+                } catch (final NumberFormatException e) {
+                    throw invalid(jp, text, Integer.TYPE);
+                }
+            default:
+                throw unexpected(jp, Integer.TYPE);
+        }
+    }
+
+    public static Integer readInteger(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Integer.valueOf(readInt(jp));
+    }
+
+    public static long readLong(final JsonParser jp) throws IOException {
+        switch (jp.getCurrentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return jp.getLongValue();
+            case VALUE_NULL:
+                return 0L;
+            case VALUE_STRING:
+                final String text = jp.getText().trim();
+                try {
+                    return text.length() == 0 ? 0L : Long.parseLong(text);
+                } catch (final NumberFormatException e) {
+                    throw invalid(jp, text, Long.TYPE);
+                }
+            default:
+                throw unexpected(jp, Long.TYPE);
+        }
+    }
+
+    public static Long readLongObject(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Long.valueOf(readLong(jp));
+    }
+
+    public static float readFloat(final JsonParser jp) throws IOException {
+        return (float) readDouble(jp);
+    }
+
+    public static Float readFloatObject(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Float.valueOf(readFloat(jp));
+    }
+
+    public static double readDouble(final JsonParser jp) throws IOException {
+        switch (jp.getCurrentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return jp.getDoubleValue();
+            case VALUE_NULL:
+                return 0.0;
+            case VALUE_STRING:
+                final String text = jp.getText().trim();
+                try {
+                    return text.length() == 0 ? 0.0 : Double.parseDouble(text);
+                } catch (final NumberFormatException e) {
+                    throw invalid(jp, text, Double.TYPE);
+                }
+            default:
+                throw unexpected(jp, Double.TYPE);
+        }
+    }
+
+    public static Double readDoubleObject(final JsonParser jp) throws IOException {
+        return jp.getCurrentToken() == JsonToken.VALUE_NULL ? null : Double.valueOf(readDouble(jp));
+    }
+
+    /**
+     * Reads a non scalar value using the deserializer that the {@link DeserializationContext} provides for the type. Unlike
+     * {@link JsonParser#readValueAs(Class)} this does not require an {@link org.codehaus.jackson.ObjectCodec} to be set on the
+     * parser.
+     */
+    public static <T> T readValue(final JsonParser jp, final DeserializationContext ctxt, final Class<T> type)
+            throws IOException {
+        return type.cast(readValue(jp, ctxt, ctxt.constructType(type)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T readValue(final JsonParser jp, final DeserializationContext ctxt, final TypeReference<T> type)
+            throws IOException {
+        return (T) readValue(jp, ctxt, ctxt.getConfig().getTypeFactory().constructType(type));
+    }
+
+    private static Object readValue(final JsonParser jp, final DeserializationContext ctxt, final JavaType type)
+            throws IOException {
+        final JsonDeserializer<Object> deserializer = ctxt.getDeserializerProvider().findTypedValueDeserializer(
+                ctxt.getConfig(), type, null);
+        if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return deserializer.getNullValue();
+        }
+        return deserializer.deserialize(jp, ctxt);
+    }
+
+    private static JsonMappingException invalid(final JsonParser jp, final String text, final Class<?> type) {
+        return new JsonMappingException("Can not construct a " + type.getName() + " from String value '" + text + "'",
+                jp.getCurrentLocation());
+    }
+
+    private static JsonMappingException unexpected(final JsonParser jp, final Class<?> type) {
+        return new JsonMappingException("Can not deserialize a " + type.getName() + " out of " + jp.getCurrentToken()
+                + " token", jp.getCurrentLocation());
+    }
+
+}
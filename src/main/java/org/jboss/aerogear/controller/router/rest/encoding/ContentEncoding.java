@@ -0,0 +1,150 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.encoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+
+/**
+ * The HTTP content codings, as sent in a 'Content-Encoding' request header, that AeroGear Controller is able to decode.
+ * </p>
+ * Decoding is performed as a stream, the compressed payload is never buffered, and the {@link java.util.zip.Inflater}s used
+ * are taken from an {@link InflaterPool}.
+ */
+public enum ContentEncoding {
+
+    IDENTITY("identity"),
+    GZIP("gzip", "x-gzip"),
+    DEFLATE("deflate");
+
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+    private final Set<String> names;
+
+    private ContentEncoding(final String... names) {
+        this.names = new LinkedHashSet<String>(Arrays.asList(names));
+    }
+
+    /**
+     * Wraps the passed-in {@link InputStream} so that reading from it returns the decoded content.
+     *
+     * @param in the raw {@link InputStream} which is encoded using this content coding.
+     * @return {@code InputStream} that returns the decoded content.
+     * @throws IOException if the stream does not start with a valid header for this content coding.
+     */
+    public InputStream decode(final InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new PooledInflaterInputStream(in, InflaterPool.NOWRAP, true);
+            case DEFLATE:
+                return new PooledInflaterInputStream(in, InflaterPool.ZLIB, false);
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * Parses the value of a 'Content-Encoding' header.
+     *
+     * @param header the value of the 'Content-Encoding' header, may be {@code null}.
+     * @return {@code List} of the {@link ContentEncoding}s in the order they were applied by the sender. Identity codings are
+     *         not included, so for a missing header or an 'identity' header an empty list is returned.
+     * @throws UnsupportedContentEncodingException if one of the codings is not supported.
+     */
+    public static List<ContentEncoding> parse(final String header) {
+        if (header == null) {
+            return Collections.emptyList();
+        }
+        final List<ContentEncoding> encodings = new LinkedList<ContentEncoding>();
+        for (String name : header.split(",")) {
+            final String trimmed = name.trim().toLowerCase();
+            if (trimmed.length() == 0) {
+                continue;
+            }
+            final ContentEncoding encoding = forName(trimmed);
+            if (encoding != IDENTITY) {
+                encodings.add(encoding);
+            }
+        }
+        return encodings;
+    }
+
+    /**
+     * Decodes the passed-in {@link InputStream} according to the value of the 'Content-Encoding' header.
+     * </p>
+     * When the content is encoded the returned stream will fail with a {@link RequestBodyTooLargeException} as soon as more than
+     * {@code maxDecodedSize} bytes have been decoded, protecting against highly compressed payloads (zip bombs).
+     *
+     * @param header the value of the 'Content-Encoding' header, may be {@code null}.
+     * @param in the raw request body.
+     * @param maxDecodedSize the maximum number of decoded bytes that may be read from the returned stream.
+     * @return {@code InputStream} the decoded request body, or the passed-in stream if no decoding was required.
+     * @throws IOException if an error occurs while reading the headers of the encoded content.
+     */
+    public static InputStream decode(final String header, final InputStream in, final long maxDecodedSize)
+            throws IOException {
+        final List<ContentEncoding> encodings = parse(header);
+        if (encodings.isEmpty()) {
+            return in;
+        }
+        InputStream decoded = in;
+        for (int i = encodings.size() - 1; i >= 0; i--) {
+            decoded = encodings.get(i).decode(decoded);
+        }
+        return new BoundedInputStream(decoded, maxDecodedSize);
+    }
+
+    /**
+     * Limits the number of bytes that may be read from the passed-in {@link InputStream}, for request bodies that are read in
+     * full whether or not they are encoded.
+     * 
+     * @param in the request body.
+     * @param maxSize the maximum number of bytes that may be read from the returned stream.
+     * @return {@code InputStream} that fails with a {@link RequestBodyTooLargeException} as soon as more than {@code maxSize}
+     *         bytes have been read.
+     */
+    public static InputStream bounded(final InputStream in, final long maxSize) {
+        return new BoundedInputStream(in, maxSize);
+    }
+
+    private static ContentEncoding forName(final String name) {
+        for (ContentEncoding encoding : values()) {
+            if (encoding.names.contains(name)) {
+                return encoding;
+            }
+        }
+        throw ExceptionBundle.MESSAGES.unsupportedContentEncoding(name, supportedNames());
+    }
+
+    private static Set<String> supportedNames() {
+        final Set<String> names = new LinkedHashSet<String>();
+        for (ContentEncoding encoding : values()) {
+            names.addAll(encoding.names);
+        }
+        return names;
+    }
+
+}
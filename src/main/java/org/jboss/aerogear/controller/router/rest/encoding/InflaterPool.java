@@ -0,0 +1,98 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.encoding;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+
+/**
+ * A bounded pool of {@link Inflater}s.
+ * </p>
+ * An {@link Inflater} holds native zlib memory which is only released by {@link Inflater#end()} or by finalization, so creating
+ * one per request is expensive. Inflaters are reset when returned to the pool, and ended if the pool is already full.
+ */
+public class InflaterPool {
+
+    public static final int DEFAULT_MAX_IDLE = 32;
+
+    /**
+     * Pool of inflaters for raw deflate data, as found inside a gzip member.
+     */
+    public static final InflaterPool NOWRAP = new InflaterPool(true, DEFAULT_MAX_IDLE);
+
+    /**
+     * Pool of inflaters for zlib wrapped deflate data, as sent with 'Content-Encoding: deflate'.
+     */
+    public static final InflaterPool ZLIB = new InflaterPool(false, DEFAULT_MAX_IDLE);
+
+    private final boolean nowrap;
+    private final int maxIdle;
+    private final Queue<Inflater> idle = new ConcurrentLinkedQueue<Inflater>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public InflaterPool(final boolean nowrap, final int maxIdle) {
+        this.nowrap = nowrap;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Takes an {@link Inflater} from this pool, creating a new one if the pool is empty.
+     *
+     * @return {@code Inflater} ready to be used.
+     */
+    public Inflater acquire() {
+        final Inflater inflater = idle.poll();
+        if (inflater == null) {
+            return new Inflater(nowrap);
+        }
+        idleCount.decrementAndGet();
+        return inflater;
+    }
+
+    /**
+     * Returns an {@link Inflater} to this pool. The inflater must not be used by the caller after it has been released.
+     *
+     * @param inflater the {@link Inflater} to return.
+     */
+    public void release(final Inflater inflater) {
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            inflater.end();
+            return;
+        }
+        inflater.reset();
+        idle.offer(inflater);
+    }
+
+    /**
+     * Returns the number of inflaters currently available for reuse.
+     *
+     * @return {@code int} the number of idle inflaters.
+     */
+    public int idle() {
+        return idleCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "InflaterPool[nowrap=" + nowrap + ", maxIdle=" + maxIdle + ", idle=" + idleCount.get() + "]";
+    }
+
+}
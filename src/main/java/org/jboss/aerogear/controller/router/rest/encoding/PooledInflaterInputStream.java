@@ -0,0 +1,166 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.encoding;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * An {@link InflaterInputStream} that borrows its {@link java.util.zip.Inflater} from an {@link InflaterPool} and returns it
+ * when the stream is closed.
+ * </p>
+ * When created for gzip content the gzip member header is consumed up front and the trailer (CRC-32 and size) is verified once
+ * the deflate data has been fully read. {@link java.util.zip.GZIPInputStream} cannot be used for this as it always creates,
+ * and ends, its own inflater.
+ */
+class PooledInflaterInputStream extends InflaterInputStream {
+
+    private static final int BUFFER_SIZE = 4096;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final InflaterPool pool;
+    private final CRC32 crc;
+    private boolean released;
+    private boolean eos;
+
+    PooledInflaterInputStream(final InputStream in, final InflaterPool pool, final boolean gzip) throws IOException {
+        super(in, pool.acquire(), BUFFER_SIZE);
+        this.pool = pool;
+        this.crc = gzip ? new CRC32() : null;
+        if (gzip) {
+            try {
+                readHeader();
+            } catch (final IOException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int length) throws IOException {
+        if (eos) {
+            return -1;
+        }
+        final int n = super.read(b, off, length);
+        if (n == -1) {
+            eos = true;
+            if (crc != null) {
+                readTrailer();
+            }
+        } else if (crc != null) {
+            crc.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            release();
+        }
+    }
+
+    private void release() {
+        if (!released) {
+            released = true;
+            pool.release(inf);
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (readUShort() != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        final int flags = readUByte();
+        skipBytes(6);
+        if ((flags & FEXTRA) == FEXTRA) {
+            skipBytes(readUShort());
+        }
+        if ((flags & FNAME) == FNAME) {
+            skipZeroTerminated();
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            skipZeroTerminated();
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            skipBytes(2);
+        }
+    }
+
+    private void readTrailer() throws IOException {
+        final byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+        final int remaining = inf.getRemaining();
+        int read = Math.min(remaining, GZIP_TRAILER_SIZE);
+        System.arraycopy(buf, len - remaining, trailer, 0, read);
+        while (read < GZIP_TRAILER_SIZE) {
+            final int n = in.read(trailer, read, GZIP_TRAILER_SIZE - read);
+            if (n == -1) {
+                throw new EOFException("Unexpected end of GZIP trailer");
+            }
+            read += n;
+        }
+        if (littleEndianInt(trailer, 0) != crc.getValue()
+                || littleEndianInt(trailer, 4) != (inf.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+    }
+
+    private static long littleEndianInt(final byte[] b, final int off) {
+        return ((b[off] & 0xffL)) | ((b[off + 1] & 0xffL) << 8) | ((b[off + 2] & 0xffL) << 16) | ((b[off + 3] & 0xffL) << 24);
+    }
+
+    private int readUShort() throws IOException {
+        return readUByte() | (readUByte() << 8);
+    }
+
+    private int readUByte() throws IOException {
+        final int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of GZIP header");
+        }
+        return b;
+    }
+
+    private void skipBytes(final int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readUByte();
+        }
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (readUByte() != 0) {
+            continue;
+        }
+    }
+
+}
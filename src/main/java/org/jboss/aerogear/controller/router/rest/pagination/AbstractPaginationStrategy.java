@@ -24,6 +24,7 @@ import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.log.ExceptionBundle;
 import org.jboss.aerogear.controller.router.RouteContext;
 
 /**
@@ -40,8 +41,12 @@ public abstract class AbstractPaginationStrategy implements PaginationStrategy {
     @Override
     public PaginationInfo createPaginationInfo(final RouteContext routeContext, final Map<String, Object> args) {
         final Paginated paginated = routeContext.getRoute().getTargetMethod().getAnnotation(Paginated.class);
+        final int limit = argAsInt(args, paginated.limitParamName());
+        if (limit > paginated.maxLimit()) {
+            throw ExceptionBundle.MESSAGES.invalidPageLimit(String.valueOf(limit), paginated.maxLimit());
+        }
         return PaginationInfo.offset(paginated.offsetParamName(), argAsInt(args, paginated.offsetParamName()))
-                .limit(paginated.limitParamName(), argAsInt(args, paginated.limitParamName()))
+                .limit(paginated.limitParamName(), limit)
                 .customHeadersPrefix(paginated.customHeadersPrefix())
                 .webLinking(paginated.webLinking())
                 .build();
@@ -70,7 +75,9 @@ public abstract class AbstractPaginationStrategy implements PaginationStrategy {
 
     private PaginationMetadata createMetadata(final RouteContext routeContext, final PaginationInfo pagingInfo) {
         final RequestPathParser requestPathParser = new RequestPathParser(pagingInfo, getResourcePath(routeContext));
-        final PaginationProperties pagingProperties = new PaginationProperties(pagingInfo.getOffset(), pagingInfo.getLimit());
+        final PaginationProperties pagingProperties = pagingInfo.getTotal().isPresent() ? new PaginationProperties(
+                pagingInfo.getOffset(), pagingInfo.getLimit(), pagingInfo.getTotal().get()) : new PaginationProperties(
+                pagingInfo.getOffset(), pagingInfo.getLimit());
         if (pagingInfo.webLinking()) {
             return new PaginationMetadata(pagingProperties, requestPathParser);
         } else {
@@ -0,0 +1,40 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+/**
+ * A CountProvider returns the total number of items of a paginated query, enabling the 'last' link and a total count
+ * header to be returned.
+ * </p>
+ * Count providers are CDI beans referenced by {@link Paginated#countProvider()}. They are invoked on a separate thread, in
+ * parallel with the target endpoint method, and their results are cached per query for {@link Paginated#countCacheSeconds()}
+ * so that paging through a result set does not count the whole table for every page.
+ */
+public interface CountProvider {
+
+    /**
+     * Counts the total number of items.
+     * 
+     * @param arguments the arguments passed to the paginated target endpoint method, excluding the {@link PaginationInfo}.
+     * @return {@code int} the total number of items the query would return without pagination.
+     * @throws Exception if an error occurs while counting, in which case no total is returned to the client.
+     */
+    int count(Object... arguments) throws Exception;
+
+}
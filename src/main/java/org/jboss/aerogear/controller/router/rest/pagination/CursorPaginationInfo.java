@@ -0,0 +1,102 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import com.google.common.base.Optional;
+
+/**
+ * Holds information related to keyset, or cursor, pagination in AeroGear Controller.
+ * </p>
+ * Instead of an offset the target endpoint is given the key of the item that the requested page starts after, or ends
+ * before, and is expected to query its data using that key, for example {@code WHERE id > ? ORDER BY id LIMIT ?}. The key is
+ * taken from the opaque cursor sent by the client, which in turn was created from the 'next' or 'previous' link of a previous
+ * response. On the first page neither {@link #getAfter()} nor {@link #getBefore()} is present.
+ * </p>
+ * Regardless of the direction, the endpoint should return the items in ascending key order.
+ * 
+ * @see Paginated#cursorKey()
+ */
+public class CursorPaginationInfo extends PaginationInfo {
+
+    /**
+     * The direction in which a page is read relative to the key of the cursor.
+     */
+    public enum Direction {
+        AFTER, BEFORE
+    }
+
+    private final String cursorParamName;
+    private final Direction direction;
+    private final Optional<String> key;
+
+    public CursorPaginationInfo(final String cursorParamName, final Direction direction, final String key,
+            final String limitParamName, final int limit) {
+        super(DEFAULT_OFFSET_PARAM_NAME, 0, limitParamName, limit);
+        this.cursorParamName = cursorParamName;
+        this.direction = direction;
+        this.key = Optional.fromNullable(key);
+    }
+
+    public CursorPaginationInfo(final String cursorParamName, final Direction direction, final String key,
+            final String limitParamName, final int limit, final String headerPrefix) {
+        super(DEFAULT_OFFSET_PARAM_NAME, 0, limitParamName, limit, headerPrefix);
+        this.cursorParamName = cursorParamName;
+        this.direction = direction;
+        this.key = Optional.fromNullable(key);
+    }
+
+    public String getCursorParamName() {
+        return cursorParamName;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the key that the items of the requested page must follow.
+     * 
+     * @return {@code Optional} the key, or absent if this is not a forward page request.
+     */
+    public Optional<String> getAfter() {
+        return direction == Direction.AFTER ? key : Optional.<String> absent();
+    }
+
+    /**
+     * Returns the key that the items of the requested page must precede. The endpoint should return the {@code limit} items
+     * immediately before this key.
+     * 
+     * @return {@code Optional} the key, or absent if this is not a backward page request.
+     */
+    public Optional<String> getBefore() {
+        return direction == Direction.BEFORE ? key : Optional.<String> absent();
+    }
+
+    public boolean isFirstPage() {
+        return !key.isPresent();
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPaginationInfo[cursorParamName=" + cursorParamName + ", direction=" + direction + ", key=" + key
+                + ", limitParamName=" + getLimitParamName() + ", limit=" + getLimit() + ", webLinking=" + webLinking()
+                + ", headerPrefix=" + getHeaderPrefix() + "]";
+    }
+
+}
@@ -0,0 +1,267 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.xml.bind.DatatypeConverter;
+
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.rest.pagination.CursorPaginationInfo.Direction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+
+/**
+ * A {@link PaginationStrategy} for keyset, or cursor, pagination.
+ * </p>
+ * Used for endpoints annotated with a {@link Paginated#cursorKey()}. The cursor query parameter is an opaque, url safe, token
+ * that encodes a key and a direction. It is decoded into a {@link CursorPaginationInfo} which is passed to the target
+ * endpoint. After the invocation the 'next' link is created from the key of the last item returned and the 'previous' link
+ * from the key of the first item, and these are returned either as Web Linking or as custom HTTP response headers.
+ */
+public class CursorPaginationStrategy implements PaginationStrategy {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char AFTER = 'a';
+    private static final char BEFORE = 'b';
+    private static final int MAX_CACHED_GETTERS = 256;
+
+    // Keyed weakly by item type, and holding the getters softly, so that the types of undeployed applications can be unloaded.
+    private static final Cache<Class<?>, ConcurrentMap<String, Method>> GETTERS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_GETTERS).weakKeys().softValues()
+            .build(new CacheLoader<Class<?>, ConcurrentMap<String, Method>>() {
+                @Override
+                public ConcurrentMap<String, Method> load(final Class<?> type) {
+                    return new ConcurrentHashMap<String, Method>();
+                }
+            });
+
+    @Override
+    public PaginationInfo createPaginationInfo(final RouteContext routeContext, final Map<String, Object> args) {
+        final Paginated paginated = routeContext.getRoute().getTargetMethod().getAnnotation(Paginated.class);
+        final int limit = limit((String) args.get(paginated.limitParamName()), paginated.maxLimit());
+        final String cursor = (String) args.get(paginated.cursorParamName());
+        Direction direction = Direction.AFTER;
+        String key = null;
+        if (cursor != null && cursor.length() > 0) {
+            final String decoded = decode(cursor);
+            direction = decoded.charAt(0) == BEFORE ? Direction.BEFORE : Direction.AFTER;
+            key = decoded.substring(2);
+        }
+        if (paginated.webLinking()) {
+            return new CursorPaginationInfo(paginated.cursorParamName(), direction, key, paginated.limitParamName(), limit);
+        }
+        return new CursorPaginationInfo(paginated.cursorParamName(), direction, key, paginated.limitParamName(), limit,
+                paginated.customHeadersPrefix());
+    }
+
+    @Override
+    public Object[] preInvocation(final PaginationInfo paginationInfo, final Map<String, Object> arguments) {
+        final List<Object> methodArguments = new ArrayList<Object>();
+        arguments.remove(((CursorPaginationInfo) paginationInfo).getCursorParamName());
+        arguments.remove(paginationInfo.getLimitParamName());
+        methodArguments.add(paginationInfo);
+        methodArguments.addAll(arguments.values());
+        return methodArguments.toArray();
+    }
+
+    @Override
+    public Object postInvocation(final Collection<?> results, final RouteContext routeContext, final PaginationInfo pagingInfo) {
+        final CursorPaginationInfo info = (CursorPaginationInfo) pagingInfo;
+        final String cursorKey = routeContext.getRoute().getTargetMethod().getAnnotation(Paginated.class).cursorKey();
+        final Links links = createLinks(results, info, cursorKey, new RequestPathParser(info, getResourcePath(routeContext)));
+        setResponseHeaders(links, info, routeContext.getResponse());
+        return results;
+    }
+
+    private Links createLinks(final Collection<?> results, final CursorPaginationInfo info, final String cursorKey,
+            final RequestPathParser parser) {
+        final String cursorParam = info.getCursorParamName();
+        final int limit = info.getLimit();
+        final String first = parser.replaceCursor(cursorParam, "", limit);
+        if (results.isEmpty()) {
+            return new Links(first, null, null);
+        }
+        final boolean backwards = info.getDirection() == Direction.BEFORE;
+        final boolean fullpage = results.size() >= limit;
+        String previous = null;
+        if (!info.isFirstPage() && (fullpage || !backwards)) {
+            previous = parser.replaceCursor(cursorParam, encode(BEFORE, keyOf(first(results), cursorKey)), limit);
+        }
+        String next = null;
+        if (fullpage || backwards) {
+            next = parser.replaceCursor(cursorParam, encode(AFTER, keyOf(last(results), cursorKey)), limit);
+        }
+        return new Links(first, previous, next);
+    }
+
+    private void setResponseHeaders(final Links links, final CursorPaginationInfo info, final HttpServletResponse response) {
+        final boolean hasPrevious = links.getPrevious() != null;
+        final boolean hasNext = links.getNext() != null;
+        if (info.getHeaderPrefix().isPresent()) {
+            final String prefix = info.getHeaderPrefix().get();
+            if (hasPrevious) {
+                response.setHeader(prefix + "Links-Previous", links.getPrevious());
+            }
+            if (hasNext) {
+                response.setHeader(prefix + "Links-Next", links.getNext());
+            }
+            if (info.getTotal().isPresent()) {
+                response.setHeader(prefix + PaginationMetadata.TOTAL_COUNT_HEADER, info.getTotal().get().toString());
+            }
+        } else {
+            final WebLinking webLinking = new WebLinking(links);
+            if (hasPrevious && hasNext) {
+                response.setHeader(webLinking.getLinkHeaderName(), webLinking.getLinkHeaders());
+            } else if (hasNext) {
+                response.setHeader(webLinking.getLinkHeaderName(), webLinking.getNext());
+            } else if (hasPrevious) {
+                response.setHeader(webLinking.getLinkHeaderName(), webLinking.getPrevious());
+            }
+            if (info.getTotal().isPresent()) {
+                response.setHeader(PaginationMetadata.WEB_LINKING_TOTAL_COUNT_HEADER, info.getTotal().get().toString());
+            }
+        }
+    }
+
+    private static int limit(final String value, final int maxLimit) {
+        try {
+            final int limit = Integer.parseInt(value);
+            if (limit > 0 && limit <= maxLimit) {
+                return limit;
+            }
+        } catch (final NumberFormatException ignored) {
+            // reported below
+        }
+        throw ExceptionBundle.MESSAGES.invalidPageLimit(value, maxLimit);
+    }
+
+    static String encode(final char direction, final String key) {
+        final String base64 = DatatypeConverter.printBase64Binary((direction + ":" + key).getBytes(UTF_8));
+        final StringBuilder sb = new StringBuilder(base64.length());
+        for (int i = 0; i < base64.length(); i++) {
+            final char c = base64.charAt(i);
+            if (c == '+') {
+                sb.append('-');
+            } else if (c == '/') {
+                sb.append('_');
+            } else if (c != '=') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String decode(final String cursor) {
+        final StringBuilder sb = new StringBuilder(cursor.length() + 2);
+        for (int i = 0; i < cursor.length(); i++) {
+            final char c = cursor.charAt(i);
+            if (c == '-') {
+                sb.append('+');
+            } else if (c == '_') {
+                sb.append('/');
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            } else {
+                throw ExceptionBundle.MESSAGES.invalidCursor(cursor);
+            }
+        }
+        while (sb.length() % 4 != 0) {
+            sb.append('=');
+        }
+        final String decoded;
+        try {
+            decoded = new String(DatatypeConverter.parseBase64Binary(sb.toString()), UTF_8);
+        } catch (final IllegalArgumentException e) {
+            throw ExceptionBundle.MESSAGES.invalidCursor(cursor);
+        }
+        if (decoded.length() < 2 || decoded.charAt(1) != ':' || (decoded.charAt(0) != AFTER && decoded.charAt(0) != BEFORE)) {
+            throw ExceptionBundle.MESSAGES.invalidCursor(cursor);
+        }
+        return decoded;
+    }
+
+    static String keyOf(final Object item, final String property) {
+        final Object key;
+        if (item instanceof Map) {
+            key = ((Map<?, ?>) item).get(property);
+        } else {
+            try {
+                key = getter(item.getClass(), property).invoke(item);
+            } catch (final Exception e) {
+                throw new IllegalStateException("Could not read cursor key '" + property + "' from " + item, e);
+            }
+        }
+        if (key == null) {
+            throw ExceptionBundle.MESSAGES.nullCursorKey(property, item);
+        }
+        return key.toString();
+    }
+
+    private static Method getter(final Class<?> type, final String property) throws NoSuchMethodException {
+        final ConcurrentMap<String, Method> getters = GETTERS.getUnchecked(type);
+        Method getter = getters.get(property);
+        if (getter == null) {
+            final String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            try {
+                getter = type.getMethod("get" + suffix);
+            } catch (final NoSuchMethodException e) {
+                getter = type.getMethod("is" + suffix);
+            }
+            getters.putIfAbsent(property, getter);
+        }
+        return getter;
+    }
+
+    private static Object first(final Collection<?> results) {
+        return results.iterator().next();
+    }
+
+    private static Object last(final Collection<?> results) {
+        if (results instanceof List) {
+            final List<?> list = (List<?>) results;
+            return list.get(list.size() - 1);
+        }
+        Object last = null;
+        for (Iterator<?> it = results.iterator(); it.hasNext();) {
+            last = it.next();
+        }
+        return last;
+    }
+
+    private String getResourcePath(final RouteContext routeContext) {
+        final HttpServletRequest request = routeContext.getRequest();
+        final String queryString = request.getQueryString();
+        return queryString == null ? request.getRequestURL().toString() : request.getRequestURL() + "?" + queryString;
+    }
+
+}
@@ -34,8 +34,23 @@ public class Links {
         first = requestPathParser.replace(0, paging.limit());
         next = requestPathParser.replace(paging.nextOffset(), paging.limit());
         previous = requestPathParser.replace(paging.previousOffset(), paging.limit());
-        last = paging.total().isPresent() ? Optional.of(requestPathParser.replace(paging.total().get() - paging.limit(),
-                paging.limit())) : Optional.<String> absent();
+        last = paging.total().isPresent() ? Optional.of(requestPathParser.replace(
+                Math.max(0, paging.total().get() - paging.limit()), paging.limit())) : Optional.<String> absent();
+    }
+
+    /**
+     * Creates Links from already assembled urls, for strategies where the links cannot be derived from
+     * {@link PaginationProperties}, for example keyset (cursor) pagination.
+     * 
+     * @param first the url of the first page.
+     * @param previous the url of the previous page, or {@code null} if there is no previous page.
+     * @param next the url of the next page, or {@code null} if there is no next page.
+     */
+    public Links(final String first, final String previous, final String next) {
+        this.first = first;
+        this.previous = previous;
+        this.next = next;
+        this.last = Optional.<String> absent();
     }
 
     public String getFirst() {
@@ -90,4 +90,77 @@ public @interface Paginated {
      * @return {@code true} if Web Linking should be used, or false if custom HTTP headers should be used.
      */
     boolean webLinking() default true;
+
+    /**
+     * The maximum 'limit' that a request is allowed to specify. Requests asking for larger pages are rejected with a
+     * {@link PaginationRequestException} so that a single request cannot ask for an unbounded page.
+     * 
+     * @return {@code int} the maximum value allowed for the 'limit' query parameter. Defaults to 1000.
+     */
+    int maxLimit() default 1000;
+
+    /**
+     * The name of the property of the returned items that is used as the key for keyset, or cursor, pagination.
+     * </p>
+     * When specified the target endpoint is passed a {@link CursorPaginationInfo} holding the key decoded from the opaque
+     * cursor in the 'cursorParamName' query parameter, instead of an offset. The endpoint is expected to return the items
+     * ordered by this key, and the next/previous links are built from the keys of the last and first items returned. This
+     * avoids the data layer having to scan past 'offset' rows for deep pages.
+     * 
+     * @return {@code String} the name of the key property. Defaults to '' which selects offset/limit pagination.
+     */
+    String cursorKey() default "";
+
+    /**
+     * The name of the query parameter that will be used as the opaque cursor when 'cursorKey' has been specified.
+     * 
+     * @return {@code String} the name of the query parameter used for the cursor. If not specified defaults to 'cursor'.
+     */
+    String cursorParamName() default "cursor";
+
+    /**
+     * The {@link CountProvider} used to count the total number of items, enabling a 'last' link and a total count header.
+     * </p>
+     * The provider is looked up as a CDI bean once, and is then reused and run in parallel with the target endpoint method
+     * for every request.
+     * 
+     * @return {@code Class} the {@link CountProvider} implementation. Defaults to {@code CountProvider.class} which means that
+     *         no total count is provided.
+     */
+    Class<? extends CountProvider> countProvider() default CountProvider.class;
+
+    /**
+     * The number of seconds that the total count of a query is cached for. The count is cached per route, caller and endpoint
+     * arguments, excluding the offset/limit, so paging through the same result set reuses the count. The caller is the
+     * principal, or the session of unauthenticated requests, and anonymous requests without a session share their counts.
+     * 
+     * @return {@code int} the number of seconds a total count is cached for. Defaults to 30.
+     */
+    int countCacheSeconds() default 30;
+
+    /**
+     * Determines if the next page should be speculatively fetched after a full page has been returned.
+     * </p>
+     * The next page is fetched by invoking the target endpoint method on a background thread, and is served to a following
+     * request for that page if it arrives within 'prefetchCacheSeconds'. A request waits briefly for a prefetch that has not
+     * completed yet, and fetches the page itself if the prefetch does not complete in time.
+     * </p>
+     * Prefetching is only safe for caller-independent endpoints, whose results depend solely on their arguments. The
+     * background invocation runs outside of the CDI request scope, after the original request may have completed, so the
+     * endpoint must not use request scoped beans, the request or the session. Prefetched pages are additionally keyed by the
+     * principal, or the session of unauthenticated requests, but anonymous requests without a session all share one key.
+     * </p>
+     * Prefetch hits and misses are counted per route in the {@code RouteCounters} named 'pagination-prefetch'. Prefetching is
+     * only supported for offset/limit pagination.
+     * 
+     * @return {@code true} if the next page should be prefetched. Defaults to false.
+     */
+    boolean prefetch() default false;
+
+    /**
+     * The number of seconds that a prefetched page is kept for.
+     * 
+     * @return {@code int} the number of seconds a prefetched page is kept for. Defaults to 10.
+     */
+    int prefetchCacheSeconds() default 10;
 }
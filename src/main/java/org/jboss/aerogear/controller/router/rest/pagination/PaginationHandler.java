@@ -18,10 +18,17 @@ package org.jboss.aerogear.controller.router.rest.pagination;
 
 import static org.jboss.aerogear.controller.util.ParameterExtractor.extractArguments;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 
 import javax.decorator.Decorator;
 import javax.decorator.Delegate;
@@ -29,12 +36,16 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.metrics.RouteCounters;
 import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.EndpointInvoker;
 import org.jboss.aerogear.controller.router.InvocationResult;
 import org.jboss.aerogear.controller.router.Route;
 import org.jboss.aerogear.controller.router.RouteContext;
 import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.util.RequestUtils;
+
+import com.google.common.base.Optional;
 
 /**
  * PaginationHandler is a CDI Decorator that decorates a {@link RouteProcessor} and is responsible for handling
@@ -43,8 +54,22 @@ import org.jboss.aerogear.controller.router.RouteProcessor;
 @Decorator
 public class PaginationHandler implements RouteProcessor {
 
+    public static final String PREFETCH_COUNTERS = "pagination-prefetch";
+    public static final String PREFETCH_HITS = "hits";
+    public static final String PREFETCH_MISSES = "misses";
+    public static final String PREFETCHES = "prefetches";
+
+    private static final TotalCounts SHARED_TOTAL_COUNTS = new TotalCounts();
+    private static final PrefetchCache SHARED_PREFETCH_CACHE = new PrefetchCache();
+
     private final RouteProcessor delegate;
     private final PaginationStrategy pagingStrategy;
+    private final PaginationStrategy cursorStrategy = new CursorPaginationStrategy();
+    private final Instance<CountProvider> countProviders;
+    private final ConcurrentMap<Class<? extends CountProvider>, CountProvider> providers = new ConcurrentHashMap<Class<? extends CountProvider>, CountProvider>();
+    private final TotalCounts totalCounts;
+    private final PrefetchCache prefetchCache;
+    private final RouteCounters prefetchCounters = RouteCounters.forName(PREFETCH_COUNTERS);
     private final Map<String, Consumer> consumers = new HashMap<String, Consumer>();
     private final EndpointInvoker endpointInvoker;
 
@@ -52,15 +77,28 @@ public class PaginationHandler implements RouteProcessor {
      * Sole contructor which will have its parameters injected by CDI.
      * 
      * @param delegate the {@link RouteProcessor} that this class decorates.
-     * @param pagingStrategies a CDI {@link Instance} of {@link PaginationStrategy}s enabling the strategy to be configured.
+     * @param pagingStrategies a CDI {@link Instance} of {@link PaginationStrategy}s enabling the offset/limit strategy to be
+     *        configured. Endpoints that specify a {@link Paginated#cursorKey()} always use {@link CursorPaginationStrategy}.
      * @param consumers CDI {@link Instance} of {@link Consumer} that are used for unmarshalling a HTTP request body into
      *      a Java Object representation. 
      * @param endpointInvoker {@link EndpointInvoker} which is responsible for invoking endpoints.
+     * @param countProviders CDI {@link Instance} of {@link CountProvider}s used to count the total number of items.
      */
     @Inject
     public PaginationHandler(final @Delegate RouteProcessor delegate, final Instance<PaginationStrategy> pagingStrategies,
-            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker) {
+            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker,
+            final Instance<CountProvider> countProviders) {
+        this(delegate, pagingStrategies, consumers, endpointInvoker, countProviders, SHARED_TOTAL_COUNTS,
+                SHARED_PREFETCH_CACHE);
+    }
+
+    PaginationHandler(final RouteProcessor delegate, final Instance<PaginationStrategy> pagingStrategies,
+            final Instance<Consumer> consumers, final EndpointInvoker endpointInvoker,
+            final Instance<CountProvider> countProviders, final TotalCounts totalCounts, final PrefetchCache prefetchCache) {
         this.delegate = delegate;
+        this.countProviders = countProviders;
+        this.totalCounts = totalCounts;
+        this.prefetchCache = prefetchCache;
         this.pagingStrategy = pagingStrategies.isUnsatisfied() ? defaultPagingStrategy() : pagingStrategies.get();
         this.endpointInvoker = endpointInvoker;
         for (Consumer consumer : consumers) {
@@ -70,19 +108,99 @@ public class PaginationHandler implements RouteProcessor {
 
     @Override
     public InvocationResult process(final RouteContext routeContext) throws Exception {
-        if (hasPaginatedAnnotation(routeContext.getRoute())) {
+        final Route route = routeContext.getRoute();
+        final Paginated paginated = route.isComposite() ? null : route.getTargetMethod().getAnnotation(Paginated.class);
+        if (paginated != null) {
+            final PaginationStrategy strategy = paginated.cursorKey().length() > 0 ? cursorStrategy : pagingStrategy;
             final Map<String, Object> requestArgs = extractArguments(routeContext, consumers);
-            final PaginationInfo paginationInfo = pagingStrategy.createPaginationInfo(routeContext, requestArgs);
-            final Object[] args = pagingStrategy.preInvocation(paginationInfo, requestArgs);
-            final Collection<?> results = (Collection<?>) endpointInvoker.invoke(routeContext, args);
-            return new InvocationResult(pagingStrategy.postInvocation(results, routeContext, paginationInfo), routeContext);
+            final PaginationInfo paginationInfo = strategy.createPaginationInfo(routeContext, requestArgs);
+            final Object[] args = strategy.preInvocation(paginationInfo, requestArgs);
+            final Future<Integer> total = startCount(paginated, routeContext, args);
+            final Collection<?> results = invoke(paginated, routeContext, args);
+            if (total != null) {
+                final Optional<Integer> count = totalCounts.await(total);
+                if (count.isPresent()) {
+                    paginationInfo.setTotal(count.get());
+                }
+            }
+            return new InvocationResult(strategy.postInvocation(results, routeContext, paginationInfo), routeContext);
         } else {
             return delegate.process(routeContext);
         }
     }
 
-    private boolean hasPaginatedAnnotation(final Route route) {
-        return route.getTargetMethod().getAnnotation(Paginated.class) != null;
+    private Collection<?> invoke(final Paginated paginated, final RouteContext routeContext, final Object[] args)
+            throws Exception {
+        if (!paginated.prefetch() || paginated.cursorKey().length() > 0 || !(args[0] instanceof PaginationInfo)) {
+            return (Collection<?>) endpointInvoker.invoke(routeContext, args);
+        }
+        final String path = routeContext.getRoute().getPath();
+        final PaginationInfo paginationInfo = (PaginationInfo) args[0];
+        final Optional<Object> prefetched = prefetchCache.take(pageKey(routeContext, paginationInfo, args));
+        final Collection<?> results;
+        if (prefetched.isPresent()) {
+            prefetchCounters.increment(path, PREFETCH_HITS);
+            results = (Collection<?>) prefetched.get();
+        } else {
+            prefetchCounters.increment(path, PREFETCH_MISSES);
+            results = (Collection<?>) endpointInvoker.invoke(routeContext, args);
+        }
+        if (results.size() == paginationInfo.getLimit()) {
+            prefetchNext(paginated, routeContext, paginationInfo, args);
+        }
+        return results;
+    }
+
+    private void prefetchNext(final Paginated paginated, final RouteContext routeContext,
+            final PaginationInfo paginationInfo, final Object[] args) {
+        final String path = routeContext.getRoute().getPath();
+        final Object[] nextArgs = args.clone();
+        nextArgs[0] = paginationInfo.withOffset(paginationInfo.getOffset() + paginationInfo.getLimit());
+        prefetchCache.prefetch(pageKey(routeContext, (PaginationInfo) nextArgs[0], nextArgs), new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                prefetchCounters.increment(path, PREFETCHES);
+                return endpointInvoker.invoke(routeContext, nextArgs);
+            }
+        }, paginated.prefetchCacheSeconds());
+    }
+
+    /**
+     * The key of a prefetched page: the route, the page, the endpoint arguments and the caller, so that a page fetched on
+     * behalf of one principal (or session) is never served to another.
+     */
+    private static List<Object> pageKey(final RouteContext routeContext, final PaginationInfo paginationInfo,
+            final Object[] args) {
+        final List<Object> key = new ArrayList<Object>(args.length + 3);
+        key.add(routeContext.getRoute().getPath());
+        key.add(RequestUtils.extractCaller(routeContext.getRequest()));
+        key.add(paginationInfo.getOffset());
+        key.add(paginationInfo.getLimit());
+        key.addAll(Arrays.asList(args).subList(1, args.length));
+        return key;
+    }
+
+    private Future<Integer> startCount(final Paginated paginated, final RouteContext routeContext, final Object[] args) {
+        if (paginated.countProvider() == CountProvider.class) {
+            return null;
+        }
+        final Object[] countArgs = Arrays.copyOfRange(args, 1, args.length);
+        return totalCounts.count(countProvider(paginated.countProvider()), routeContext.getRoute().getPath(),
+                RequestUtils.extractCaller(routeContext.getRequest()), countArgs, paginated.countCacheSeconds());
+    }
+
+    /*
+     * CDI 1.0 offers no way to destroy an instance obtained from Instance.get(), so each CountProvider is resolved once and
+     * then lives as long as this handler, instead of a new dependent instance being created for every request.
+     */
+    private CountProvider countProvider(final Class<? extends CountProvider> type) {
+        final CountProvider provider = providers.get(type);
+        if (provider != null) {
+            return provider;
+        }
+        final CountProvider created = countProviders.select(type).get();
+        final CountProvider existing = providers.putIfAbsent(type, created);
+        return existing != null ? existing : created;
     }
 
     public static PaginationStrategy defaultPagingStrategy() {
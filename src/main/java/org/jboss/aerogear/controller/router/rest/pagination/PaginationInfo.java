@@ -38,6 +38,7 @@ public class PaginationInfo {
     private final int limit;
     private final boolean webLinking;
     private final Optional<String> headerPrefix;
+    private Optional<Integer> total = Optional.absent();
 
     public PaginationInfo(final String offsetParamName, final int offset, final String limitParamName, final int limit) {
         this(offsetParamName, offset, limitParamName, limit, true, Optional.<String> absent());
@@ -88,6 +89,29 @@ public class PaginationInfo {
         return headerPrefix;
     }
 
+    /**
+     * Returns the total number of items as counted by the {@link CountProvider} configured for the endpoint.
+     * </p>
+     * The total is counted in parallel with the invocation of the target endpoint method, so it only becomes available to
+     * the {@link PaginationStrategy#postInvocation} method.
+     * 
+     * @return {@code Optional} the total number of items, or absent if no count was available.
+     */
+    public Optional<Integer> getTotal() {
+        return total;
+    }
+
+    PaginationInfo withOffset(final int offset) {
+        if (headerPrefix.isPresent()) {
+            return new PaginationInfo(offsetParamName, offset, limitParamName, limit, headerPrefix.get());
+        }
+        return new PaginationInfo(offsetParamName, offset, limitParamName, limit);
+    }
+
+    void setTotal(final int total) {
+        this.total = Optional.of(Integer.valueOf(total));
+    }
+
     public static PaginationInfoBuilder offset(int value) {
         return offset(PaginationInfo.DEFAULT_OFFSET_PARAM_NAME, value);
     }
@@ -30,6 +30,8 @@ import com.google.common.base.Optional;
 public class PaginationMetadata {
 
     public static final String DEFAULT_HEADER_PREFIX = "AG-";
+    public static final String TOTAL_COUNT_HEADER = "Total-Count";
+    public static final String WEB_LINKING_TOTAL_COUNT_HEADER = "X-Total-Count";
     private final Links links;
     private final WebLinking webLinking;
     private final PaginationProperties params;
@@ -58,20 +60,38 @@ public class PaginationMetadata {
 
     public Map<String, String> getHeaders(final int resultsSize) {
         final Map<String, String> headers = new HashMap<String, String>();
+        final boolean previous = !firstpage();
+        final boolean next = fullpage(resultsSize) && !params.isLastOffset();
+        final boolean last = links.getLast().isPresent() && !params.isLastOffset();
         if (headerPrefix.isPresent()) {
-            if (!firstpage()) {
+            if (previous) {
                 headers.put(headerPrefix.get() + "Links-Previous", links.getPrevious());
             }
-            if (fullpage(resultsSize)) {
+            if (next) {
                 headers.put(headerPrefix.get() + "Links-Next", links.getNext());
             }
+            if (last) {
+                headers.put(headerPrefix.get() + "Links-Last", links.getLast().get());
+            }
+            if (params.total().isPresent()) {
+                headers.put(headerPrefix.get() + TOTAL_COUNT_HEADER, params.total().get().toString());
+            }
         } else {
-            if (firstpage() && fullpage(resultsSize)) {
-                headers.put(webLinking.getLinkHeaderName(), webLinking.getNext());
-            } else if (!firstpage() && !fullpage(resultsSize)) {
-                headers.put(webLinking.getLinkHeaderName(), webLinking.getPrevious());
-            } else if (fullpage(resultsSize)) {
-                headers.put(webLinking.getLinkHeaderName(), webLinking.getLinkHeaders());
+            final StringBuilder link = new StringBuilder();
+            if (previous) {
+                link.append(webLinking.getPrevious());
+            }
+            if (next) {
+                link.append(link.length() > 0 ? "," : "").append(webLinking.getNext());
+            }
+            if (last) {
+                link.append(link.length() > 0 ? "," : "").append(webLinking.getLast());
+            }
+            if (link.length() > 0) {
+                headers.put(webLinking.getLinkHeaderName(), link.toString());
+            }
+            if (params.total().isPresent()) {
+                headers.put(WEB_LINKING_TOTAL_COUNT_HEADER, params.total().get().toString());
             }
         }
         return headers;
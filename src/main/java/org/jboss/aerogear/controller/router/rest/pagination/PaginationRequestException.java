@@ -16,7 +16,11 @@
  */
 package org.jboss.aerogear.controller.router.rest.pagination;
 
-public class PaginationRequestException extends RuntimeException {
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.spi.HttpStatusAwareException;
+
+public class PaginationRequestException extends RuntimeException implements HttpStatusAwareException {
 
     private static final long serialVersionUID = 1L;
 
@@ -36,4 +40,9 @@ public class PaginationRequestException extends RuntimeException {
         super(cause);
     }
 
+    @Override
+    public int getStatus() {
+        return HttpServletResponse.SC_BAD_REQUEST;
+    }
+
 }
@@ -0,0 +1,186 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.aerogear.controller.router.decorators.deadline.Deadline;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineContext;
+import org.jboss.aerogear.controller.util.SharedExecutor;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Holds pages of paginated endpoints that have been speculatively fetched ahead of the client requesting them.
+ * </p>
+ * A prefetched page is served at most once, it is removed from the cache when taken, and is discarded when not taken within
+ * its time-to-live. Prefetches run on a small bounded pool of daemon threads, when the pool is saturated prefetching is
+ * skipped rather than queued.
+ */
+class PrefetchCache {
+
+    static final int MAX_PREFETCHED_PAGES = 256;
+    static final int MAX_QUEUED_PREFETCHES = 32;
+    static final long MAX_WAIT_MILLIS = 250;
+
+    private static final SharedExecutor<ThreadPoolExecutor> POOL = new SharedExecutor<ThreadPoolExecutor>() {
+        @Override
+        protected ThreadPoolExecutor create() {
+            return new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_QUEUED_PREFETCHES),
+                    new ThreadFactoryBuilder().setNameFormat("aerogear-prefetch-%d").setDaemon(true).build());
+        }
+    };
+
+    private final Executor executor;
+    private final Cache<Page, Entry> entries;
+
+    PrefetchCache() {
+        this(POOL);
+    }
+
+    PrefetchCache(final Executor executor) {
+        this.executor = executor;
+        this.entries = CacheBuilder.newBuilder().maximumSize(MAX_PREFETCHED_PAGES).build(new CacheLoader<Page, Entry>() {
+            @Override
+            public Entry load(final Page page) {
+                return start(page);
+            }
+        });
+    }
+
+    /**
+     * Starts fetching a page in the background, unless it is already cached.
+     * 
+     * @param key the key of the page, for example the route path together with the endpoint arguments.
+     * @param loader the {@link Callable} fetching the page.
+     * @param ttlSeconds the number of seconds the page is kept for.
+     */
+    void prefetch(final List<Object> key, final Callable<Object> loader, final int ttlSeconds) {
+        entries.getUnchecked(new Page(key, loader, ttlSeconds));
+    }
+
+    /**
+     * Takes a prefetched page from the cache. If the page is still being fetched this waits for it to complete, as that is
+     * expected to be quicker than fetching it again, but for at most {@link #MAX_WAIT_MILLIS} and never beyond the
+     * {@link Deadline} of the request. A prefetch that is still queued when the wait ends is cancelled, so that the pool is
+     * not spent on a page that will not be served.
+     * 
+     * @param key the key of the page.
+     * @return {@code Optional} the prefetched page, or absent if it was not prefetched, has expired, failed, was still queued
+     *         or did not complete in time.
+     * @throws InterruptedException if interrupted while waiting for an in-flight prefetch.
+     */
+    Optional<Object> take(final List<Object> key) throws InterruptedException {
+        final Entry entry = entries.asMap().remove(new Page(key, null, 0));
+        if (entry == null || entry.isExpired()) {
+            return Optional.absent();
+        }
+        final long timeout = Math.min(MAX_WAIT_MILLIS, DeadlineContext.current().remaining(TimeUnit.MILLISECONDS));
+        try {
+            return Optional.fromNullable(entry.task.get(timeout, TimeUnit.MILLISECONDS));
+        } catch (final TimeoutException e) {
+            if (!entry.task.started) {
+                entry.task.cancel(false);
+            }
+            return Optional.absent();
+        } catch (final ExecutionException e) {
+            return Optional.absent();
+        } catch (final CancellationException e) {
+            return Optional.absent();
+        }
+    }
+
+    private Entry start(final Page page) {
+        final PrefetchTask task = new PrefetchTask(page.loader);
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            task.cancel(false);
+        }
+        return new Entry(task, System.nanoTime() + TimeUnit.SECONDS.toNanos(page.ttlSeconds));
+    }
+
+    /*
+     * Records whether a pool thread has picked up the prefetch, as FutureTask does not expose whether it is running.
+     */
+    private static class PrefetchTask extends FutureTask<Object> {
+        private volatile boolean started;
+
+        PrefetchTask(final Callable<Object> loader) {
+            super(loader);
+        }
+
+        @Override
+        public void run() {
+            started = true;
+            super.run();
+        }
+    }
+
+    private static class Entry {
+        private final PrefetchTask task;
+        private final long expires;
+
+        Entry(final PrefetchTask task, final long expires) {
+            this.task = task;
+            this.expires = expires;
+        }
+
+        boolean isExpired() {
+            return task.isCancelled() || System.nanoTime() - expires >= 0;
+        }
+    }
+
+    private static class Page {
+        private final List<Object> key;
+        private final Callable<Object> loader;
+        private final int ttlSeconds;
+
+        Page(final List<Object> key, final Callable<Object> loader, final int ttlSeconds) {
+            this.key = key;
+            this.loader = loader;
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Page && key.equals(((Page) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+
+}
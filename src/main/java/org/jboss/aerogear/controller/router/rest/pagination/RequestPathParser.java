@@ -41,11 +41,24 @@ public class RequestPathParser {
         return replaceParam(pgInfo.getLimitParamName(), String.valueOf(limit), path);
     }
 
+    /**
+     * Replaces the cursor and limit for the current request.
+     * 
+     * @param cursorParamName the name of the cursor query parameter.
+     * @param cursor the new cursor value, an empty string refers to the first page.
+     * @param limit the new limit value.
+     * @return {@code String} the updated request url, containing the full url with query string.
+     */
+    public String replaceCursor(final String cursorParamName, final String cursor, final int limit) {
+        final String path = replaceParam(cursorParamName, cursor, requestPath);
+        return replaceParam(pgInfo.getLimitParamName(), String.valueOf(limit), path);
+    }
+
     private String replaceParam(final String paramName, final String paramValue, final String path) {
         final StringBuilder parsed = new StringBuilder();
         final int startIdx = path.indexOf(paramName);
         if (paramMissingFromQueryPath(startIdx)) {
-            return path + "&" + paramName + "=" + paramValue;
+            return path + (path.indexOf('?') == -1 ? "?" : "&") + paramName + "=" + paramValue;
         }
         parsed.append(path.substring(0, startIdx));
         parsed.append(paramName).append("=").append(paramValue);
@@ -0,0 +1,194 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.aerogear.controller.log.AeroGearLogger;
+import org.jboss.aerogear.controller.util.SharedExecutor;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs {@link CountProvider}s asynchronously and caches their results per query and caller.
+ * </p>
+ * The cached value is the {@link Future} of the count, so concurrent requests for the same query share a single count while
+ * it is in progress. Entries expire after the time-to-live specified when they were created, after which the next request
+ * starts a new count.
+ */
+class TotalCounts {
+
+    static final int MAX_CACHED_COUNTS = 1024;
+    static final int MAX_QUEUED_COUNTS = 64;
+    static final long DEFAULT_AWAIT_MILLIS = 250;
+
+    private static final SharedExecutor<ThreadPoolExecutor> POOL = new SharedExecutor<ThreadPoolExecutor>() {
+        @Override
+        protected ThreadPoolExecutor create() {
+            return new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_QUEUED_COUNTS),
+                    new ThreadFactoryBuilder().setNameFormat("aerogear-count-%d").setDaemon(true).build());
+        }
+    };
+
+    private final Executor executor;
+    private final long awaitMillis;
+    private final Cache<Query, Entry> entries;
+
+    TotalCounts() {
+        this(POOL, DEFAULT_AWAIT_MILLIS);
+    }
+
+    TotalCounts(final Executor executor, final long awaitMillis) {
+        this.executor = executor;
+        this.awaitMillis = awaitMillis;
+        this.entries = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_COUNTS).build(new CacheLoader<Query, Entry>() {
+            @Override
+            public Entry load(final Query query) {
+                return start(query);
+            }
+        });
+    }
+
+    /**
+     * Returns the pending, or cached, count for the passed-in query, starting a new count if none is cached.
+     * 
+     * @param provider the {@link CountProvider} performing the count.
+     * @param path the path of the route being processed, part of the cache key.
+     * @param caller the caller of the request, or {@code null} for anonymous requests, part of the cache key.
+     * @param arguments the arguments of the query, part of the cache key.
+     * @param ttlSeconds the number of seconds a new count is cached for.
+     * @return {@code Future} the total count.
+     */
+    Future<Integer> count(final CountProvider provider, final String path, final String caller, final Object[] arguments,
+            final int ttlSeconds) {
+        final Query query = new Query(provider, path, caller, arguments, ttlSeconds);
+        final Entry cached = entries.asMap().get(query);
+        if (cached != null && cached.isExpired()) {
+            entries.asMap().remove(query, cached);
+        }
+        return entries.getUnchecked(query).task;
+    }
+
+    /**
+     * Waits a short while for a count to complete. A count that does not complete in time is left running, and its result
+     * will be available to subsequent requests for the same query.
+     * 
+     * @param count the count returned from {@link #count(CountProvider, String, String, Object[], int)}.
+     * @return {@code Optional} the total count, or absent if the count failed or did not complete in time.
+     */
+    Optional<Integer> await(final Future<Integer> count) {
+        try {
+            return Optional.of(count.get(awaitMillis, TimeUnit.MILLISECONDS));
+        } catch (final TimeoutException e) {
+            return Optional.absent();
+        } catch (final ExecutionException e) {
+            AeroGearLogger.THROTTLED.totalCountFailed(e.getCause());
+            return Optional.absent();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.absent();
+        } catch (final CancellationException e) {
+            return Optional.absent();
+        }
+    }
+
+    private Entry start(final Query query) {
+        final FutureTask<Integer> task = new FutureTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return query.provider.count(query.arguments);
+            }
+        });
+        try {
+            executor.execute(task);
+            return new Entry(task, System.nanoTime() + TimeUnit.SECONDS.toNanos(query.ttlSeconds));
+        } catch (final RejectedExecutionException e) {
+            task.cancel(false);
+            return new Entry(task, System.nanoTime());
+        }
+    }
+
+    private static class Entry {
+        private final FutureTask<Integer> task;
+        private final long expires;
+
+        Entry(final FutureTask<Integer> task, final long expires) {
+            this.task = task;
+            this.expires = expires;
+        }
+
+        boolean isExpired() {
+            return task.isCancelled() || System.nanoTime() - expires >= 0;
+        }
+    }
+
+    private static class Query {
+        private final CountProvider provider;
+        private final String path;
+        private final String caller;
+        private final Object[] arguments;
+        private final int ttlSeconds;
+
+        Query(final CountProvider provider, final String path, final String caller, final Object[] arguments,
+                final int ttlSeconds) {
+            this.provider = provider;
+            this.path = path;
+            this.caller = caller;
+            this.arguments = arguments;
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Query)) {
+                return false;
+            }
+            final Query other = (Query) o;
+            return provider.getClass().equals(other.provider.getClass()) && path.equals(other.path)
+                    && (caller == null ? other.caller == null : caller.equals(other.caller))
+                    && Arrays.equals(arguments, other.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            final int hash = 31 * (31 * provider.getClass().hashCode() + path.hashCode())
+                    + (caller == null ? 0 : caller.hashCode());
+            return 31 * hash + Arrays.hashCode(arguments);
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ public class WebLinking {
 
     public static final String PREVIOUS = "previous";
     public static final String NEXT = "next";
+    public static final String LAST = "last";
     public static final String LINK_HEADER = "Link";
 
     private final Links links;
@@ -51,6 +52,10 @@ public class WebLinking {
         return oneLink(links.getPrevious(), PREVIOUS);
     }
 
+    public String getLast() {
+        return oneLink(links.getLast().get(), LAST);
+    }
+
     public String getLinkHeaders() {
         final StringBuilder sb = new StringBuilder();
         sb.append(oneLink(links.getPrevious(), PREVIOUS)).append(",");
@@ -0,0 +1,215 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.projection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An immutable selection of the properties of an entity that should be written in a response. 
+ * </p> 
+ * The textual form is a comma separated list of property names, where the properties of a nested object can be selected
+ * either with parentheses, 'owner(name,age)', or with a slash, 'owner/name'. Selecting a property without specifying any
+ * nested properties selects the whole value of that property.
+ */
+public final class Projection {
+
+    /**
+     * The projection that includes all properties.
+     */
+    public static final Projection ALL = new Projection(null);
+
+    private final Map<String, Projection> fields;
+
+    private Projection(final Map<String, Projection> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses the textual form of a projection.
+     * 
+     * @param fields the projection, for example 'id,name,owner(name)'.
+     * @return {@code Projection} the parsed projection.
+     * @throws IllegalArgumentException if the passed-in string is not a valid projection.
+     */
+    public static Projection parse(final String fields) {
+        final Parser parser = new Parser(fields);
+        final Map<String, Projection> selected = new LinkedHashMap<String, Projection>();
+        parser.parseList(selected);
+        if (!parser.atEnd()) {
+            throw parser.error("unexpected '" + parser.peek() + "'");
+        }
+        return new Projection(selected);
+    }
+
+    /**
+     * Determines whether the named property is part of this projection.
+     * 
+     * @param name the name of the property.
+     * @return {@code true} if the property should be written.
+     */
+    public boolean includes(final String name) {
+        return fields == null || fields.containsKey(name);
+    }
+
+    /**
+     * Returns the projection to be applied to the value of the named property.
+     * 
+     * @param name the name of a property that is included in this projection.
+     * @return {@code Projection} for the nested value, {@link #ALL} if the whole value was selected.
+     */
+    public Projection child(final String name) {
+        if (fields == null) {
+            return ALL;
+        }
+        final Projection child = fields.get(name);
+        return child == null ? ALL : child;
+    }
+
+    private Projection merge(final Projection other) {
+        if (fields == null || other.fields == null) {
+            return ALL;
+        }
+        final Map<String, Projection> merged = new LinkedHashMap<String, Projection>(fields);
+        for (Entry<String, Projection> entry : other.fields.entrySet()) {
+            add(merged, entry.getKey(), entry.getValue());
+        }
+        return new Projection(merged);
+    }
+
+    private static void add(final Map<String, Projection> fields, final String name, final Projection projection) {
+        final Projection existing = fields.get(name);
+        fields.put(name, existing == null ? projection : existing.merge(projection));
+    }
+
+    @Override
+    public String toString() {
+        if (fields == null) {
+            return "*";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (Entry<String, Projection> entry : fields.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey());
+            if (entry.getValue().fields != null) {
+                sb.append('(').append(entry.getValue()).append(')');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return fields == null ? 0 : fields.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Projection)) {
+            return false;
+        }
+        final Projection other = (Projection) obj;
+        return fields == null ? other.fields == null : fields.equals(other.fields);
+    }
+
+    private static class Parser {
+
+        private final String input;
+        private int pos;
+
+        Parser(final String input) {
+            this.input = input;
+        }
+
+        void parseList(final Map<String, Projection> fields) {
+            do {
+                parseItem(fields);
+            } while (consume(','));
+        }
+
+        private void parseItem(final Map<String, Projection> fields) {
+            final String name = parseName();
+            final Projection projection;
+            if (consume('(')) {
+                final Map<String, Projection> nested = new LinkedHashMap<String, Projection>();
+                parseList(nested);
+                if (!consume(')')) {
+                    throw error("missing ')'");
+                }
+                projection = new Projection(nested);
+            } else if (consume('/')) {
+                final Map<String, Projection> nested = new LinkedHashMap<String, Projection>();
+                parseItem(nested);
+                projection = new Projection(nested);
+            } else {
+                projection = ALL;
+            }
+            add(fields, name, projection);
+        }
+
+        private String parseName() {
+            skipWhitespace();
+            final int start = pos;
+            while (pos < input.length() && ",()/".indexOf(input.charAt(pos)) == -1 && !Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("expected a property name");
+            }
+            final String name = input.substring(start, pos);
+            skipWhitespace();
+            return name;
+        }
+
+        private boolean consume(final char c) {
+            skipWhitespace();
+            if (pos < input.length() && input.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean atEnd() {
+            skipWhitespace();
+            return pos == input.length();
+        }
+
+        char peek() {
+            return input.charAt(pos);
+        }
+
+        IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+
+}
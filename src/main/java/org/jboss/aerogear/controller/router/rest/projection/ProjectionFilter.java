@@ -0,0 +1,125 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.projection;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.SerializerProvider;
+import org.codehaus.jackson.map.ser.BeanPropertyFilter;
+import org.codehaus.jackson.map.ser.BeanPropertyWriter;
+import org.codehaus.jackson.map.ser.FilterProvider;
+
+/**
+ * A Jackson {@link BeanPropertyFilter} that applies a {@link Projection} while an entity graph is serialized. 
+ * </p> 
+ * Properties that are not part of the projection are skipped before their getter is called, so they are never visited. As the
+ * filter keeps track of the position in the entity graph, an instance must only be used for a single serialization, with the
+ * exception of {@link #ALL} which never changes state.
+ */
+public final class ProjectionFilter extends FilterProvider implements BeanPropertyFilter {
+
+    /**
+     * The filter id that is assigned to all bean types by the {@link ProjectionIntrospector}.
+     */
+    public static final String FILTER_ID = "aerogear-projection";
+
+    /**
+     * A stateless filter which includes all properties.
+     */
+    public static final ProjectionFilter ALL = new ProjectionFilter(Projection.ALL);
+
+    private final Deque<Projection> projections = new ArrayDeque<Projection>();
+
+    public ProjectionFilter(final Projection projection) {
+        projections.push(projection);
+    }
+
+    /**
+     * Returns the filter in use by the passed-in {@link SerializerProvider}.
+     * 
+     * @param provider the {@link SerializerProvider} of the current serialization.
+     * @return {@code ProjectionFilter} the filter in use, or {@link #ALL} if no projection is being applied.
+     */
+    public static ProjectionFilter from(final SerializerProvider provider) {
+        final FilterProvider filterProvider = provider.getFilterProvider();
+        return filterProvider instanceof ProjectionFilter ? (ProjectionFilter) filterProvider : ALL;
+    }
+
+    /**
+     * Determines whether the named property of the object currently being serialized should be written.
+     * 
+     * @param name the name of the property.
+     * @return {@code true} if the property should be written.
+     */
+    public boolean includes(final String name) {
+        return projections.peek().includes(name);
+    }
+
+    /**
+     * Writes a field whose value is serialized by Jackson, applying the nested projection for the field to the value.
+     * 
+     * @param name the name of the field.
+     * @param value the value of the field.
+     * @param jgen the {@link JsonGenerator} to write to.
+     * @param provider the {@link SerializerProvider} of the current serialization.
+     * @throws IOException if an error occurs while writing the field.
+     */
+    public void serializeField(final String name, final Object value, final JsonGenerator jgen,
+            final SerializerProvider provider) throws IOException {
+        final Projection current = projections.peek();
+        if (current == Projection.ALL) {
+            provider.defaultSerializeField(name, value, jgen);
+            return;
+        }
+        projections.push(current.child(name));
+        try {
+            provider.defaultSerializeField(name, value, jgen);
+        } finally {
+            projections.pop();
+        }
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator jgen, final SerializerProvider provider,
+            final BeanPropertyWriter writer) throws Exception {
+        final Projection current = projections.peek();
+        if (current == Projection.ALL) {
+            writer.serializeAsField(bean, jgen, provider);
+            return;
+        }
+        if (!current.includes(writer.getName())) {
+            return;
+        }
+        projections.push(current.child(writer.getName()));
+        try {
+            writer.serializeAsField(bean, jgen, provider);
+        } finally {
+            projections.pop();
+        }
+    }
+
+    @Override
+    public BeanPropertyFilter findFilter(final Object filterId) {
+        return FILTER_ID.equals(filterId) ? this : null;
+    }
+
+}
@@ -0,0 +1,37 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.projection;
+
+import org.codehaus.jackson.map.introspect.AnnotatedClass;
+import org.codehaus.jackson.map.introspect.JacksonAnnotationIntrospector;
+
+/**
+ * A {@link JacksonAnnotationIntrospector} that assigns the {@link ProjectionFilter#FILTER_ID} to every bean type that does not
+ * declare a filter of its own using {@code @JsonFilter}, so that projections can be applied to any entity without annotating
+ * it.
+ */
+public class ProjectionIntrospector extends JacksonAnnotationIntrospector {
+
+    @Override
+    public Object findFilterId(final AnnotatedClass ac) {
+        final Object id = super.findFilterId(ac);
+        return id == null ? ProjectionFilter.FILTER_ID : id;
+    }
+
+}
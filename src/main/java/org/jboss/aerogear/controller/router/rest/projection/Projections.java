@@ -0,0 +1,105 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.projection;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.jboss.aerogear.controller.log.ExceptionBundle;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Resolves the {@link Projection} to apply to a response. 
+ * </p> 
+ * The projection is taken from the 'fields' request parameter, or from the default declared for the route using
+ * {@link org.jboss.aerogear.controller.router.RouteBuilder.TargetEndpoint#fields(String...)}. Parsed projections are cached
+ * per distinct 'fields' value, so that parsing only happens the first time a projection is requested.
+ */
+public final class Projections {
+
+    public static final String FIELDS_PARAM = "fields";
+    public static final int MAX_CACHED_PROJECTIONS = 1024;
+
+    private static final Cache<String, Projection> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PROJECTIONS)
+            .build(new CacheLoader<String, Projection>() {
+                @Override
+                public Projection load(final String fields) {
+                    return Projection.parse(fields);
+                }
+            });
+
+    private Projections() {
+    }
+
+    /**
+     * Returns the parsed form of the passed-in projection.
+     * 
+     * @param fields the textual form of the projection.
+     * @return {@code Projection} the parsed, and possibly cached, projection.
+     * @throws InvalidProjectionException if the passed-in string is not a valid projection.
+     */
+    public static Projection parse(final String fields) {
+        try {
+            return CACHE.getUnchecked(fields);
+        } catch (final UncheckedExecutionException e) {
+            throw ExceptionBundle.MESSAGES.invalidProjection(fields, e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Returns the projection requested for the passed-in {@link RouteContext}. Error routes are never projected.
+     * 
+     * @param routeContext the current {@link RouteContext}.
+     * @return {@code Optional<Projection>} the projection to apply, or {@link Optional#absent()} if the whole entity should be
+     *         written.
+     * @throws InvalidProjectionException if the 'fields' request parameter is not a valid projection.
+     */
+    public static Optional<Projection> forRequest(final RouteContext routeContext) {
+        final Route route = routeContext.getRoute();
+        if (route.hasExceptionsRoutes()) {
+            return Optional.absent();
+        }
+        final String fields = routeContext.getRequest().getParameter(FIELDS_PARAM);
+        if (fields != null && fields.trim().length() > 0) {
+            return Optional.of(parse(fields));
+        }
+        final Optional<String> defaultFields = route.getFields();
+        return defaultFields.isPresent() ? Optional.of(parse(defaultFields.get())) : Optional.<Projection> absent();
+    }
+
+    /**
+     * Returns an {@link ObjectWriter} that applies the projection requested for the passed-in {@link RouteContext}.
+     * 
+     * @param mapper the {@link ObjectMapper} to create the writer from.
+     * @param routeContext the current {@link RouteContext}.
+     * @return {@code ObjectWriter} to write the response entity with.
+     */
+    public static ObjectWriter writer(final ObjectMapper mapper, final RouteContext routeContext) {
+        final Optional<Projection> projection = forRequest(routeContext);
+        return projection.isPresent() ? mapper.writer(new ProjectionFilter(projection.get())) : mapper.writer();
+    }
+
+}
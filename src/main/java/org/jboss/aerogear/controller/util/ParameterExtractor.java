@@ -204,7 +204,7 @@ public class ParameterExtractor {
             if (value.length == 1) {
                 parameters.add(new br.com.caelum.iogi.parameters.Parameter(entry.getKey(), value[0]));
             } else {
-                AeroGearLogger.LOGGER.multivaluedParamsUnsupported();
+                AeroGearLogger.THROTTLED.multivaluedParamsUnsupported();
             }
         }
         if (!parameters.isEmpty()) {
@@ -217,6 +217,24 @@ public class ParameterExtractor {
         return Optional.absent();
     }
 
+    /**
+     * Extracts a value from the request headers or, if there is no such header, from the request cookies. This uses the
+     * same lookup order as for request parameters but never reads the request body.
+     * 
+     * @param routeContext the {@link org.jboss.aerogear.controller.router.RouteContext}.
+     * @param paramName the name of the header or cookie.
+     * @return {@code Optional<String>} containing the value of the header or cookie, if present.
+     */
+    public static Optional<String> extractHeaderOrCookieParam(final RouteContext routeContext, final String paramName)
+            throws Exception {
+        final Optional<?> header = extractHeaderParam(routeContext, paramName);
+        if (header.isPresent()) {
+            return Optional.of(header.get().toString());
+        }
+        final Optional<?> cookie = extractCookieParam(routeContext, paramName, String.class);
+        return cookie.isPresent() ? Optional.of(cookie.get().toString()) : Optional.<String> absent();
+    }
+
     private static boolean addIfPresent(final Optional<?> op, final String paramName, final Map<String, Object> args) {
         if (op.isPresent()) {
             args.put(paramName, op.get());
@@ -17,6 +17,7 @@
 
 package org.jboss.aerogear.controller.util;
 
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +30,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.RequestMethod;
@@ -44,7 +46,7 @@ public class RequestUtils {
     private final static Pattern PATH_PLACEHOLDER_PATTERN = Pattern.compile("/\\{?([^/}?]+)\\}?");
     private final static Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([a-zA-Z]*)\\}");
     private final static Pattern PATH_PATTERN = Pattern.compile("/(?:([^/]+))");
-    private final static String MEDIA_RANGE = "(\\*|\\w)+";
+    private final static String MEDIA_RANGE = "(\\*|[\\w.+-])+";
     private final static Pattern ACCEPT_HEADER_PATTERN = Pattern.compile("(" + MEDIA_RANGE + "/" + MEDIA_RANGE +")");
 
     private RequestUtils() {
@@ -64,6 +66,23 @@ public class RequestUtils {
         return request.getRequestURI().substring(contextPath.length());
     }
 
+    /**
+     * Returns a key identifying the caller of the passed-in {@link HttpServletRequest}, for results that are shared between
+     * requests but must not be shared between callers.
+     * 
+     * @param request the {@link HttpServletRequest}.
+     * @return {@code String} identifying the principal, or the session of unauthenticated requests, or {@code null} for
+     *         anonymous requests without a session.
+     */
+    public static String extractCaller(final HttpServletRequest request) {
+        final Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        final HttpSession session = request.getSession(false);
+        return session != null ? "session:" + session.getId() : null;
+    }
+
     /**
      * Returns the {@link RequestMethod} for the passed-in {@link HttpServletRequest}.
      * 
@@ -171,6 +190,10 @@ public class RequestUtils {
     
     /**
      * Gets the media type that is compatible with the requested media type and the media types that a route produces.
+     * </p>
+     * A route that produces {@link MediaType#JSON} can also respond with {@link MediaType#SMILE}, the binary JSON format, as
+     * the same Jackson data binding is used for both. Smile is only chosen when it is named explicitly in the 'Accept'
+     * header, so wildcards still select the media types the route declares.
      * 
      * @param acceptHeaders the 'Accept' header media types for the current request.
      * @param produces the {@link MediaType}s that the route is capable of producing.
@@ -178,6 +201,9 @@ public class RequestUtils {
      */
     public static Optional<MediaType> getAcceptedMediaType(final Set<String> acceptHeaders, final Set<MediaType> produces) {
         for (String acceptHeader : acceptHeaders) {
+            if (acceptHeader.equals(MediaType.SMILE.getType()) && produces.contains(MediaType.JSON)) {
+                return Optional.of(MediaType.SMILE);
+            }
             for (MediaType mediaType : produces) {
                 if (acceptHeader.equals(mediaType.getType())) {
                     return Optional.of(mediaType);
@@ -192,6 +218,26 @@ public class RequestUtils {
         return Optional.absent();
     }
     
+    /**
+     * Gets the media type that will be used to respond to the current request, following the same rules as
+     * {@link org.jboss.aerogear.controller.router.Responders}.
+     * 
+     * @param request the {@link HttpServletRequest}.
+     * @param produces the {@link MediaType}s that the route is capable of producing.
+     * @return {@code String} the negotiated media type, or {@code null} if none of the media types is acceptable.
+     */
+    public static String getNegotiatedMediaType(final HttpServletRequest request, final Set<MediaType> produces) {
+        final Set<String> acceptHeaders = extractAcceptHeader(request);
+        final Optional<MediaType> accepted = getAcceptedMediaType(acceptHeaders, produces);
+        if (accepted.isPresent()) {
+            return accepted.get().getType();
+        }
+        if ((acceptHeaders.isEmpty() || acceptHeaders.contains(MediaType.ANY)) && !produces.isEmpty()) {
+            return produces.iterator().next().getType();
+        }
+        return null;
+    }
+    
     /**
      * Will extract any placeholders, {name}, from the passed-in string.
      * 
@@ -0,0 +1,97 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A lazily created executor that is shared by all requests, and is shut down when the application is undeployed.
+ * </p>
+ * The shared pools are held in static state, so that when this library is on a shared class loader their threads would
+ * otherwise outlive the application and keep its class loader from being collected. {@link #shutdownAll()} is called by the
+ * {@link org.jboss.aerogear.controller.filter.AeroGear} filter when it is destroyed. An executor that is used again after
+ * it has been shut down is created anew.
+ * 
+ * @param <T> the type of the {@link ExecutorService}.
+ */
+public abstract class SharedExecutor<T extends ExecutorService> implements Executor {
+
+    private static final List<SharedExecutor<?>> EXECUTORS = new CopyOnWriteArrayList<SharedExecutor<?>>();
+
+    private volatile T executor;
+
+    protected SharedExecutor() {
+        EXECUTORS.add(this);
+    }
+
+    /**
+     * Creates the executor, which is called when the executor is first used, and when it is used after being shut down.
+     * 
+     * @return {@code ExecutorService} the new executor.
+     */
+    protected abstract T create();
+
+    /**
+     * Returns the executor, creating it if needed.
+     * 
+     * @return {@code ExecutorService} the shared executor.
+     */
+    public T get() {
+        final T current = executor;
+        return current != null ? current : createIfAbsent();
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        get().execute(command);
+    }
+
+    /**
+     * Shuts down the executor, if it has been created, interrupting the tasks that are running.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Shuts down all shared executors.
+     */
+    public static void shutdownAll() {
+        for (SharedExecutor<?> sharedExecutor : EXECUTORS) {
+            sharedExecutor.shutdown();
+        }
+    }
+
+    boolean isCreated() {
+        return executor != null;
+    }
+
+    private synchronized T createIfAbsent() {
+        if (executor == null) {
+            executor = create();
+        }
+        return executor;
+    }
+
+}
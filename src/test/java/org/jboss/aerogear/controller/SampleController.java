@@ -25,6 +25,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.jboss.aerogear.controller.router.error.ErrorResponse;
 import org.jboss.aerogear.controller.router.error.JsonErrorResponse;
+import org.jboss.aerogear.controller.router.rest.pagination.CursorPaginationInfo;
 import org.jboss.aerogear.controller.router.rest.pagination.Paginated;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
 
@@ -92,6 +93,58 @@ public class SampleController {
         return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
     }
 
+    @Paginated(countProvider = IntsCountProvider.class)
+    public List<Integer> findByWithTotal(PaginationInfo pinfo, String query) {
+        return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
+    }
+
+    @Paginated(countProvider = IntsCountProvider.class, webLinking = false, customHeadersPrefix = "TS-")
+    public List<Integer> findByWithTotalCustomHeaders(PaginationInfo pinfo, String query) {
+        return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
+    }
+
+    @Paginated(prefetch = true)
+    public List<Integer> findByWithPrefetch(PaginationInfo pinfo, String query) {
+        return ints(pinfo.getOffset(), pinfo.getLimit(), 50);
+    }
+
+    @Paginated(cursorKey = "brand", maxLimit = 20)
+    public List<Car> findCarsByCursor(CursorPaginationInfo pinfo, String color) {
+        return cars(pinfo, color, 50);
+    }
+
+    @Paginated(cursorKey = "brand", cursorParamName = "after", webLinking = false, customHeadersPrefix = "TS-")
+    public List<Car> findCarsByCursorWithCustomHeaders(CursorPaginationInfo pinfo, String color) {
+        return cars(pinfo, color, 50);
+    }
+
+    public Car findCarAfter(String brand, Long delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Car("red", brand);
+    }
+
+    private List<Car> cars(final CursorPaginationInfo pinfo, final String color, final int total) {
+        final ArrayList<Car> cars = new ArrayList<Car>();
+        final int start;
+        if (pinfo.getBefore().isPresent()) {
+            start = Math.max(0, Integer.parseInt(pinfo.getBefore().get()) - pinfo.getLimit());
+        } else if (pinfo.getAfter().isPresent()) {
+            start = Integer.parseInt(pinfo.getAfter().get()) + 1;
+        } else {
+            start = 0;
+        }
+        final int end = pinfo.getBefore().isPresent() ? Integer.parseInt(pinfo.getBefore().get())
+                : Math.min(total, start + pinfo.getLimit());
+        for (int i = start; i < end; i++) {
+            cars.add(new Car(color, String.format("%02d", i)));
+        }
+        return cars;
+    }
+
     private List<Integer> ints(final int offset, final int limit, final int total) {
         final ArrayList<Integer> ints = new ArrayList<Integer>();
         if (offset >= total) {
@@ -0,0 +1,140 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.filter;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.filter.accesslog.AccessLog;
+import org.jboss.aerogear.controller.filter.accesslog.AccessLogConfig;
+import org.jboss.aerogear.controller.filter.limit.AdaptiveLimiter;
+import org.jboss.aerogear.controller.filter.limit.LimiterConfig;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.Priority;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Router;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+
+public class AeroGearTest {
+
+    @Mock
+    private Router router;
+    @Mock
+    private Route route;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private FilterChain chain;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(router.hasRouteFor(request)).thenReturn(true);
+        when(router.routeFor(request)).thenReturn(Optional.of(route));
+        when(route.getPath()).thenReturn("/reports");
+    }
+
+    @Test
+    public void withoutLimiter() throws Exception {
+        new AeroGear(router, null).doFilter(request, response, chain);
+        verify(router).dispatch(request, response, chain);
+        verify(router, never()).routeFor(request);
+    }
+
+    @Test
+    public void noRoute() throws Exception {
+        when(router.hasRouteFor(request)).thenReturn(false);
+        new AeroGear(router, null).doFilter(request, response, chain);
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    public void admitted() throws Exception {
+        when(route.getPriority()).thenReturn(Priority.NORMAL);
+        final AdaptiveLimiter limiter = new AdaptiveLimiter(LimiterConfig.enableLimiter().initialLimit(4).minLimit(1).build());
+        new AeroGear(router, limiter).doFilter(request, response, chain);
+        verify(router).dispatch(request, response, chain);
+        verify(response, never()).sendError(any(Integer.class));
+    }
+
+    @Test
+    public void shed() throws Exception {
+        when(route.getPriority()).thenReturn(Priority.LOW);
+        final AdaptiveLimiter limiter = new AdaptiveLimiter(LimiterConfig.enableLimiter().initialLimit(1).minLimit(1).build());
+        limiter.tryAcquire(Priority.HIGH);
+        new AeroGear(router, limiter).doFilter(request, response, chain);
+        verify(router, never()).dispatch(request, response, chain);
+        verify(request, never()).getInputStream();
+        verify(response).setHeader("Retry-After", "1");
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void shedUnmatchedCountedUnderConstantKey() throws Exception {
+        when(router.routeFor(request)).thenReturn(Optional.<Route> absent());
+        when(request.getRequestURI()).thenReturn("/unmatched/" + System.nanoTime());
+        final RouteCounters counters = RouteCounters.forName(AdaptiveLimiter.LIMITER_COUNTERS);
+        final long rejected = counters.get(RouteCounters.UNMATCHED, AdaptiveLimiter.REJECTED);
+        final AdaptiveLimiter limiter = new AdaptiveLimiter(LimiterConfig.enableLimiter().initialLimit(1).minLimit(1).build());
+        limiter.tryAcquire(Priority.HIGH);
+        new AeroGear(router, limiter).doFilter(request, response, chain);
+        verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(counters.get(RouteCounters.UNMATCHED, AdaptiveLimiter.REJECTED)).isEqualTo(rejected + 1);
+    }
+
+    @Test
+    public void accessLogged() throws Exception {
+        final File file = File.createTempFile("access", ".log");
+        final AccessLog accessLog = new AccessLog(AccessLogConfig.enableAccessLog(file.getPath()).build());
+        accessLog.start();
+        when(request.getMethod()).thenReturn("GET");
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_NOT_FOUND);
+        final AeroGear aeroGear = new AeroGear(router, null, accessLog);
+        aeroGear.doFilter(request, response, chain);
+        aeroGear.destroy();
+        verify(router).dispatch(eq(request), any(HttpServletResponse.class), eq(chain));
+        final BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            assertThat(reader.readLine()).matches(".* GET /reports 404 0 \\d+");
+        } finally {
+            reader.close();
+            file.delete();
+        }
+    }
+
+}
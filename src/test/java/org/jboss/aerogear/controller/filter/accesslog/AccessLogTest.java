@@ -0,0 +1,148 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.filter.accesslog;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AccessLogTest {
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = File.createTempFile("access", "log");
+        dir.delete();
+        file = new File(dir, "access.log");
+        RouteCounters.forName(AccessLog.ACCESS_LOG_COUNTERS).reset();
+    }
+
+    @After
+    public void deleteDir() {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void writeRecords() throws Exception {
+        final AccessLog log = new AccessLog(AccessLogConfig.enableAccessLog(file.getPath()).flushInterval(10).build());
+        log.start();
+        assertThat(log.log("GET", "/cars/{id}", 200, 512, TimeUnit.MILLISECONDS.toNanos(3))).isTrue();
+        assertThat(log.log("POST", "/cars", 500, 0, 1500)).isTrue();
+        log.close();
+        final List<String> lines = readLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).matches("\\d{4}-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d\\.\\d{3}[+-]\\d{4} GET /cars/\\{id\\} 200 512 3000");
+        assertThat(lines.get(1)).endsWith(" POST /cars 500 0 1");
+    }
+
+    @Test
+    public void dropNewest() throws Exception {
+        final AccessLog log = new AccessLog(AccessLogConfig.enableAccessLog(file.getPath()).bufferSize(3).build());
+        for (int i = 0; i < 4; i++) {
+            assertThat(log.log("GET", "/cars", 200, 0, 0)).isTrue();
+        }
+        assertThat(log.log("GET", "/cars", 500, 0, 0)).isFalse();
+        assertThat(log.getDropped()).isEqualTo(1);
+        assertThat(RouteCounters.forName(AccessLog.ACCESS_LOG_COUNTERS).get("/cars", AccessLog.DROPPED)).isEqualTo(1);
+        log.start();
+        log.close();
+        final List<String> lines = readLines(file);
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(4)).isEqualTo("# dropped 1 records");
+    }
+
+    @Test
+    public void dropUnmatched() throws Exception {
+        final RouteCounters counters = RouteCounters.forName(AccessLog.ACCESS_LOG_COUNTERS);
+        final long dropped = counters.get(RouteCounters.UNMATCHED, AccessLog.DROPPED);
+        final AccessLog log = new AccessLog(AccessLogConfig.enableAccessLog(file.getPath()).bufferSize(1).build());
+        assertThat(log.log("GET", null, "/missing/1", 404, 0, 0)).isTrue();
+        assertThat(log.log("GET", null, "/missing/2", 404, 0, 0)).isFalse();
+        assertThat(counters.get(RouteCounters.UNMATCHED, AccessLog.DROPPED)).isEqualTo(dropped + 1);
+        assertThat(counters.get("/missing/2", AccessLog.DROPPED)).isEqualTo(0);
+        log.start();
+        log.close();
+        assertThat(readLines(file).get(0)).endsWith(" GET /missing/1 404 0 0");
+    }
+
+    @Test
+    public void preserveErrors() throws Exception {
+        final AccessLog log = new AccessLog(AccessLogConfig.enableAccessLog(file.getPath()).bufferSize(8)
+                .overflowPolicy(OverflowPolicy.PRESERVE_ERRORS).build());
+        for (int i = 0; i < 6; i++) {
+            assertThat(log.log("GET", "/cars", 200, 0, 0)).isTrue();
+        }
+        assertThat(log.log("GET", "/cars", 404, 0, 0)).isFalse();
+        assertThat(log.log("GET", "/cars", 503, 0, 0)).isTrue();
+        assertThat(log.log("GET", "/cars", 500, 0, 0)).isTrue();
+        assertThat(log.log("GET", "/cars", 500, 0, 0)).isFalse();
+        assertThat(log.getDropped()).isEqualTo(2);
+    }
+
+    @Test
+    public void rotate() throws Exception {
+        final RotatingFileWriter writer = new RotatingFileWriter(file, 10, 2);
+        for (String batch : new String[] { "first\n", "second\n", "third\n", "fourth\n" }) {
+            writer.write(batch.getBytes("UTF-8"), batch.length());
+        }
+        writer.close();
+        assertThat(readLines(file)).containsOnly("fourth");
+        assertThat(readLines(new File(file.getPath() + ".1"))).containsOnly("third");
+        assertThat(readLines(new File(file.getPath() + ".2"))).containsOnly("second");
+        assertThat(new File(file.getPath() + ".3").exists()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fileRequired() {
+        AccessLogConfig.enableAccessLog(null).build();
+    }
+
+    private static List<String> readLines(final File file) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            final List<String> lines = new ArrayList<String>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+            return lines;
+        } finally {
+            reader.close();
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.filter.limit;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.router.Priority;
+import org.junit.Test;
+
+public class AdaptiveLimiterTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void admitsUpToLimit() {
+        final AdaptiveLimiter limiter = limiter(10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Priority.HIGH)).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+        limiter.release(System.nanoTime());
+        assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+    }
+
+    @Test
+    public void lowPriorityIsShedFirst() {
+        final AdaptiveLimiter limiter = limiter(10);
+        for (int i = 0; i < 7; i++) {
+            assertThat(limiter.tryAcquire(Priority.LOW)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Priority.LOW)).isFalse();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+        assertThat(limiter.tryAcquire(Priority.NORMAL)).isFalse();
+        assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+        assertThat(limiter.tryAcquire(Priority.HIGH)).isFalse();
+    }
+
+    @Test
+    public void limitGrowsWhileLatencyIsStable() {
+        final AdaptiveLimiter limiter = saturated(limiter(20), 20);
+        long now = System.nanoTime();
+        for (int window = 0; window < 10; window++) {
+            now = window(limiter, now, FAST);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    public void limitShrinksWhenLatencyRises() {
+        final AdaptiveLimiter limiter = saturated(limiter(20), 20);
+        long now = window(limiter, System.nanoTime(), FAST);
+        for (int window = 0; window < 10; window++) {
+            now = window(limiter, now, SLOW);
+        }
+        assertThat(limiter.getLimit()).isLessThan(20);
+    }
+
+    @Test
+    public void limitIsBounded() {
+        final AdaptiveLimiter limiter = new AdaptiveLimiter(LimiterConfig.enableLimiter().initialLimit(10).minLimit(8)
+                .maxLimit(12).build());
+        saturated(limiter, 10);
+        long now = window(limiter, System.nanoTime(), FAST);
+        for (int window = 0; window < 20; window++) {
+            now = window(limiter, now, SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    public void limitDoesNotGrowWhenUnderused() {
+        final AdaptiveLimiter limiter = saturated(limiter(20), 2);
+        long now = System.nanoTime();
+        for (int window = 0; window < 10; window++) {
+            now = window(limiter, now, FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLimits() {
+        LimiterConfig.enableLimiter().initialLimit(10).minLimit(20).build();
+    }
+
+    private static AdaptiveLimiter limiter(final int initialLimit) {
+        return new AdaptiveLimiter(LimiterConfig.enableLimiter().initialLimit(initialLimit).minLimit(1).build());
+    }
+
+    private static AdaptiveLimiter saturated(final AdaptiveLimiter limiter, final int inFlight) {
+        for (int i = 0; i < inFlight; i++) {
+            limiter.tryAcquire(Priority.HIGH);
+        }
+        return limiter;
+    }
+
+    private static long window(final AdaptiveLimiter limiter, final long start, final long latency) {
+        final long end = start + WINDOW;
+        for (int i = 0; i < 20; i++) {
+            limiter.sample(latency, end);
+        }
+        return end;
+    }
+
+}
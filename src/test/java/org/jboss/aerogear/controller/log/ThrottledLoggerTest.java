@@ -0,0 +1,170 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.log;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+public class ThrottledLoggerTest {
+
+    private final Set<String> allowed = Collections.singleton("GET");
+    private final FakeTicker ticker = new FakeTicker();
+    private AeroGearLogger delegate;
+    private AeroGearLogger logger;
+
+    @Before
+    public void createLogger() {
+        delegate = mock(AeroGearLogger.class);
+        logger = ThrottledLogger.throttle(delegate, 60, ticker);
+    }
+
+    @Test
+    public void suppressRepeatedMessages() {
+        for (int i = 0; i < 5; i++) {
+            logger.badCorsRequestMethod("PUT", allowed);
+        }
+        verify(delegate).badCorsRequestMethod("PUT", allowed);
+        verify(delegate, never()).suppressedMessages(anyLong(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    public void requestValuesNotKeyed() {
+        logger.badCorsRequestMethod("PUT", allowed);
+        logger.badCorsRequestMethod("DELETE", allowed);
+        logger.badCorsRequestHeaders("X-One", Collections.<String> emptyList());
+        logger.badCorsRequestHeaders("X-Two", Collections.<String> emptyList());
+        verify(delegate).badCorsRequestMethod("PUT", allowed);
+        verify(delegate, never()).badCorsRequestMethod("DELETE", allowed);
+        verify(delegate).badCorsRequestHeaders("X-One", Collections.<String> emptyList());
+        verify(delegate, never()).badCorsRequestHeaders("X-Two", Collections.<String> emptyList());
+    }
+
+    @Test
+    public void summarizeAfterWindow() {
+        for (int i = 0; i < 5; i++) {
+            logger.badCorsRequestMethod("PUT", allowed);
+        }
+        ticker.advance(61, TimeUnit.SECONDS);
+        logger.badCorsRequestMethod("PUT", allowed);
+        verify(delegate).suppressedMessages(4, "badCorsRequestMethod", "", 60);
+        verify(delegate, times(2)).badCorsRequestMethod("PUT", allowed);
+    }
+
+    @Test
+    public void summarizeOnFlush() {
+        for (int i = 0; i < 3; i++) {
+            logger.multivaluedParamsUnsupported();
+        }
+        ticker.advance(61, TimeUnit.SECONDS);
+        verify(delegate, never()).suppressedMessages(anyLong(), anyString(), anyString(), anyLong());
+        ThrottledLogger.flush(logger);
+        verify(delegate).suppressedMessages(2, "multivaluedParamsUnsupported", "", 60);
+    }
+
+    @Test
+    public void keyedByCauseWithoutOtherArguments() {
+        final IllegalStateException cause = new IllegalStateException();
+        logger.totalCountFailed(cause);
+        logger.totalCountFailed(new IllegalStateException());
+        logger.totalCountFailed(new IllegalArgumentException());
+        verify(delegate).totalCountFailed(cause);
+        verify(delegate, times(2)).totalCountFailed(any(Throwable.class));
+    }
+
+    @Test
+    public void catchAllKeyedByExceptionClass() {
+        logger.routeCatchAllException(new IllegalStateException("first"), "first");
+        logger.routeCatchAllException(new IllegalStateException("second"), "second");
+        logger.routeCatchAllException(new IllegalArgumentException("third"), "third");
+        verify(delegate).routeCatchAllException(any(IllegalStateException.class), eq("first"));
+        verify(delegate, never()).routeCatchAllException(any(IllegalStateException.class), eq("second"));
+        verify(delegate).routeCatchAllException(any(IllegalArgumentException.class), eq("third"));
+    }
+
+    @Test
+    public void keyedByConfiguredName() {
+        final TimeoutException cause = new TimeoutException();
+        logger.optionalPartFailed("weather", cause);
+        logger.optionalPartFailed("news", cause);
+        logger.optionalPartFailed("weather", cause);
+        verify(delegate).optionalPartFailed("weather", cause);
+        verify(delegate).optionalPartFailed("news", cause);
+    }
+
+    @Test
+    public void stormOfDistinctMessages() {
+        for (int i = 0; i < 10000; i++) {
+            final String message = "no such car: " + i;
+            logger.routeCatchAllException(new IllegalStateException(message), message);
+        }
+        verify(delegate).routeCatchAllException(any(Throwable.class), anyString());
+        ticker.advance(61, TimeUnit.SECONDS);
+        ThrottledLogger.flush(logger);
+        verify(delegate).suppressedMessages(9999, "routeCatchAllException", IllegalStateException.class.getName(), 60);
+    }
+
+    @Test
+    public void linesPerMethodCapped() {
+        final int parts = ThrottledLogger.MAX_LINES_PER_METHOD + 100;
+        final TimeoutException cause = new TimeoutException();
+        for (int i = 0; i < parts; i++) {
+            logger.optionalPartFailed("part-" + i, cause);
+        }
+        verify(delegate, times(ThrottledLogger.MAX_LINES_PER_METHOD)).optionalPartFailed(anyString(), eq(cause));
+        ticker.advance(61, TimeUnit.SECONDS);
+        ThrottledLogger.flush(logger);
+        verify(delegate).suppressedMessages(100, "optionalPartFailed", ThrottledLogger.OVERFLOW_KEY, 60);
+    }
+
+    @Test
+    public void passThroughUnannotatedMethods() {
+        logger.info("hello");
+        logger.info("hello");
+        verify(delegate, times(2)).info("hello");
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(final long time, final TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+
+}
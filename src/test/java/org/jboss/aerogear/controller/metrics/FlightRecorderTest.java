@@ -0,0 +1,144 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.parameter.Parameter.param;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.RouteTester;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.junit.Test;
+
+public class FlightRecorderTest {
+
+    @Test
+    public void disabledUnlessRecorded() {
+        for (FlightEvent type : FlightEvent.values()) {
+            assertThat(FlightRecorder.begin(type)).isSameAs(FlightRecorder.DISABLED);
+        }
+        FlightRecorder.DISABLED.commit("/cars", "GET", null);
+        assertThat(FlightRecorder.DISABLED.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void recordRequest() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable());
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }).acceptHeader(MediaType.JSON);
+        final Map<String, Object> events = record(routeTester);
+        assertThat(events.keySet()).contains(FlightEvent.ARGUMENT_BINDING.getName(),
+                FlightEvent.ENDPOINT_INVOCATION.getName(), FlightEvent.RESPONSE_WRITING.getName());
+        final Object invocation = events.get(FlightEvent.ENDPOINT_INVOCATION.getName());
+        assertThat(get(invocation, "path")).isEqualTo("/car/{id}");
+        assertThat(get(invocation, "method")).isEqualTo("GET");
+        assertThat(get(invocation, "mediaType")).isEqualTo(MediaType.JSON.getType());
+    }
+
+    @Test
+    public void disabledAgainWhenRecordingStops() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable());
+        final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        final Object recording = recordingClass.newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, FlightEvent.ROUTE_RESOLUTION.getName());
+        try {
+            recordingClass.getMethod("start").invoke(recording);
+            assertThat(FlightRecorder.begin(FlightEvent.ROUTE_RESOLUTION).isEnabled()).isTrue();
+            recordingClass.getMethod("stop").invoke(recording);
+            assertThat(FlightRecorder.begin(FlightEvent.ROUTE_RESOLUTION)).isSameAs(FlightRecorder.DISABLED);
+        } finally {
+            recordingClass.getMethod("close").invoke(recording);
+        }
+    }
+
+    @Test
+    public void unregisterAndRegisterAgainWhenUsed() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable());
+        final String name = FlightEvent.ROUTE_RESOLUTION.getName();
+        assertThat(registeredEventTypes()).contains(name);
+        FlightRecorder.unregister();
+        assertThat(registeredEventTypes()).excludes(name);
+        assertThat(FlightRecorder.begin(FlightEvent.ROUTE_RESOLUTION)).isSameAs(FlightRecorder.DISABLED);
+        assertThat(registeredEventTypes()).contains(name);
+    }
+
+    private static List<String> registeredEventTypes() throws Exception {
+        final Class<?> recorderClass = Class.forName("jdk.jfr.FlightRecorder");
+        final Object recorder = recorderClass.getMethod("getFlightRecorder").invoke(null);
+        final List<String> names = new ArrayList<String>();
+        for (Object eventType : (List<?>) recorderClass.getMethod("getEventTypes").invoke(recorder)) {
+            names.add((String) eventType.getClass().getMethod("getName").invoke(eventType));
+        }
+        return names;
+    }
+
+    /*
+     * The JFR API is only used through reflection, as the tests are compiled for Java 6.
+     */
+    private static Map<String, Object> record(final RouteTester routeTester) throws Exception {
+        final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        final Object recording = recordingClass.newInstance();
+        final Method enable = recordingClass.getMethod("enable", String.class);
+        for (FlightEvent type : FlightEvent.values()) {
+            enable.invoke(recording, type.getName());
+        }
+        final File file = File.createTempFile("aerogear", ".jfr");
+        try {
+            recordingClass.getMethod("start").invoke(recording);
+            routeTester.processGetRequest("/car/3");
+            recordingClass.getMethod("stop").invoke(recording);
+            final Class<?> pathClass = Class.forName("java.nio.file.Path");
+            final Object path = File.class.getMethod("toPath").invoke(file);
+            recordingClass.getMethod("dump", pathClass).invoke(recording, path);
+            final Class<?> recordingFile = Class.forName("jdk.jfr.consumer.RecordingFile");
+            final List<?> recorded = (List<?>) recordingFile.getMethod("readAllEvents", pathClass).invoke(null, path);
+            final Map<String, Object> events = new HashMap<String, Object>();
+            for (Object event : recorded) {
+                final Object eventType = event.getClass().getMethod("getEventType").invoke(event);
+                events.put((String) eventType.getClass().getMethod("getName").invoke(eventType), event);
+            }
+            return events;
+        } finally {
+            recordingClass.getMethod("close").invoke(recording);
+            file.delete();
+        }
+    }
+
+    private static Object get(final Object event, final String field) throws Exception {
+        return event.getClass().getMethod("getValue", String.class).invoke(event, field);
+    }
+
+}
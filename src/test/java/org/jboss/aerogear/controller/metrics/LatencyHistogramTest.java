@@ -0,0 +1,80 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int i = 1; i < LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE); i++) {
+            final long lower = LatencyHistogram.lowerBound(i);
+            assertThat(LatencyHistogram.indexOf(lower)).isEqualTo(i);
+            assertThat(LatencyHistogram.indexOf(lower - 1)).isEqualTo(i - 1);
+        }
+    }
+
+    @Test
+    public void precision() {
+        for (long value = 1; value < LatencyHistogram.MAX_VALUE; value = value * 3 + 1) {
+            final int index = LatencyHistogram.indexOf(value);
+            final long width = LatencyHistogram.lowerBound(index + 1) - LatencyHistogram.lowerBound(index);
+            assertThat(width * 16).isLessThanOrEqualTo(Math.max(16, value));
+        }
+    }
+
+    @Test
+    public void record() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getSum()).isEqualTo(500500);
+        assertThat(histogram.getMean()).isEqualTo(500);
+        assertThat(histogram.getMax()).isEqualTo(1000);
+        assertThat(histogram.getValueAtPercentile(50)).isGreaterThanOrEqualTo(500).isLessThanOrEqualTo(500 + 500 / 16);
+        assertThat(histogram.getValueAtPercentile(99)).isGreaterThanOrEqualTo(990).isLessThanOrEqualTo(1000);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000);
+        assertThat(histogram.getCountAtOrBelow(31)).isEqualTo(31);
+        assertThat(histogram.getCountAtOrBelow(1000)).isGreaterThanOrEqualTo(1000 - 1000 / 16);
+        assertThat(histogram.getCountAtOrBelow(LatencyHistogram.MAX_VALUE)).isEqualTo(1000);
+    }
+
+    @Test
+    public void outOfRange() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getMax()).isEqualTo(LatencyHistogram.MAX_VALUE);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void empty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(0);
+        assertThat(histogram.getMean()).isEqualTo(0);
+    }
+
+}
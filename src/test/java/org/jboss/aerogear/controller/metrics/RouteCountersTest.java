@@ -0,0 +1,70 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+public class RouteCountersTest {
+
+    @Test
+    public void forName() {
+        assertThat(RouteCounters.forName("test-forName")).isSameAs(RouteCounters.forName("test-forName"));
+    }
+
+    @Test
+    public void increment() {
+        final RouteCounters counters = RouteCounters.forName("test-increment");
+        counters.increment("/cars", "hits");
+        counters.increment("/cars", "hits");
+        counters.add("/cars", "misses", 5);
+        assertThat(counters.get("/cars", "hits")).isEqualTo(2);
+        assertThat(counters.get("/cars", "misses")).isEqualTo(5);
+        assertThat(counters.get("/cars", "unknown")).isEqualTo(0);
+        assertThat(counters.get("/trucks", "hits")).isEqualTo(0);
+    }
+
+    @Test
+    public void snapshotAndReset() {
+        final RouteCounters counters = RouteCounters.forName("test-snapshot");
+        counters.increment("/cars", "hits");
+        final Map<String, Map<String, Long>> snapshot = counters.getCounters();
+        assertThat(snapshot.get("/cars").get("hits")).isEqualTo(1L);
+        counters.reset();
+        assertThat(counters.getCounters()).isEmpty();
+        assertThat(snapshot.get("/cars").get("hits")).isEqualTo(1L);
+    }
+
+    @Test
+    public void registeredWithJmx() throws Exception {
+        RouteCounters.forName("test-jmx").increment("/cars", "hits");
+        final ObjectName name = new ObjectName(RouteCounters.JMX_DOMAIN + ":type=RouteCounters,name=\"test-jmx\"");
+        final Object counters = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Counters");
+        assertThat(counters).isInstanceOf(TabularData.class);
+        assertThat(((TabularData) counters).size()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SlowRequestLogTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity() {
+        new SlowRequestLog(0);
+    }
+
+    @Test
+    public void newestFirst() {
+        final SlowRequestLog log = new SlowRequestLog(3);
+        assertThat(log.getRequests()).isEmpty();
+        log.add(request("/a"));
+        log.add(request("/b"));
+        assertThat(routes(log)).containsOnly("/b", "/a");
+        assertThat(log.getRequests().get(0).getRoute()).isEqualTo("/b");
+    }
+
+    @Test
+    public void overwriteOldest() {
+        final SlowRequestLog log = new SlowRequestLog(3);
+        for (String route : new String[] { "/a", "/b", "/c", "/d", "/e" }) {
+            log.add(request(route));
+        }
+        final List<SlowRequest> requests = log.getRequests();
+        assertThat(requests).hasSize(3);
+        assertThat(requests.get(0).getRoute()).isEqualTo("/e");
+        assertThat(requests.get(2).getRoute()).isEqualTo("/c");
+        assertThat(log.getSlowRequests()).hasSize(3);
+        log.clear();
+        assertThat(log.getRequests()).isEmpty();
+    }
+
+    private static SlowRequest request(final String route) {
+        return new SlowRequest(new Date(), "threshold", "GET", route, 200, 1500000, 1200000, "main", 10,
+                Collections.<String, Long> emptyMap(), Collections.<String, String> emptyMap());
+    }
+
+    private static String[] routes(final SlowRequestLog log) {
+        final List<SlowRequest> requests = log.getRequests();
+        final String[] routes = new String[requests.size()];
+        for (int i = 0; i < routes.length; i++) {
+            routes[i] = requests.get(i).getRoute();
+        }
+        return routes;
+    }
+
+}
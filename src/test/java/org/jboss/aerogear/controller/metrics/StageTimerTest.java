@@ -0,0 +1,123 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.MapAssert.entry;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.parameter.Parameter.param;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.RouteTester;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.junit.Test;
+
+public class StageTimerTest {
+
+    @Test
+    public void disabled() {
+        final StageTimer timer = StageTimer.DISABLED;
+        assertThat(timer.start()).isEqualTo(0);
+        timer.stop(Stage.INVOKE, 0);
+        assertThat(timer.get(Stage.INVOKE)).isEqualTo(0);
+        assertThat(timer.isServerTimingEnabled()).isFalse();
+    }
+
+    @Test
+    public void accumulate() {
+        final StageTimer timer = StageTimer.create(false);
+        timer.stop(Stage.INVOKE, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2));
+        timer.stop(Stage.INVOKE, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(3));
+        assertThat(timer.get(Stage.INVOKE)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(timer.get(Stage.BIND)).isEqualTo(0);
+    }
+
+    @Test
+    public void serverTiming() {
+        final StageTimer timer = StageTimer.create(true);
+        timer.stop(Stage.ROUTE, System.nanoTime() - 12000);
+        timer.stop(Stage.INVOKE, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(3));
+        assertThat(timer.toServerTiming()).matches("route;dur=0\\.0\\d\\d, invoke;dur=3\\.\\d\\d\\d");
+    }
+
+    @Test
+    public void forRequest() {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        assertThat(StageTimer.forRequest(request)).isSameAs(StageTimer.DISABLED);
+        final StageTimer timer = StageTimer.create(false);
+        when(request.getAttribute(StageTimer.ATTRIBUTE)).thenReturn(timer);
+        assertThat(StageTimer.forRequest(request)).isSameAs(timer);
+    }
+
+    @Test
+    public void stagesOfRequest() throws Exception {
+        final StageTimer timer = StageTimer.create(true);
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/car/{id}")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).find(param("id"));
+            }
+        }).acceptHeader(MediaType.JSON).stageTimer(timer);
+        final HttpServletResponse response = routeTester.processGetRequest("/car/3").getRouteContext().getResponse();
+        assertThat(timer.get(Stage.BIND)).isGreaterThan(0);
+        assertThat(timer.get(Stage.INVOKE)).isGreaterThan(0);
+        assertThat(timer.get(Stage.RESPOND)).isGreaterThan(0);
+        verify(response).setHeader(eq(StageTimer.SERVER_TIMING_HEADER), anyString());
+        verify(response, never()).setHeader(eq(StageTimer.SERVER_TIMING_HEADER), eq(""));
+        final RouteMetrics metrics = RouteMetrics.getInstance();
+        metrics.reset();
+        metrics.recordStages("/car/{id}", timer);
+        assertThat(metrics.getRoutes().get("/car/{id}").getStage(Stage.INVOKE).get().getCount()).isEqualTo(1);
+        final long respondMean = metrics.getRoutes().get("/car/{id}").getStage(Stage.RESPOND).get().getMean();
+        assertThat(metrics.getMetrics().get("/car/{id}")).includes(entry("respondMean", respondMean));
+    }
+
+    @Test
+    public void argumentShapes() {
+        assertThat(StageTimer.shapeOf(null)).isEqualTo("null");
+        assertThat(StageTimer.shapeOf("Audi")).isEqualTo("String(4)");
+        assertThat(StageTimer.shapeOf(Arrays.asList(1, 2, 3))).isEqualTo("ArrayList(3)");
+        assertThat(StageTimer.shapeOf(new int[2])).isEqualTo("int[](2)");
+        assertThat(StageTimer.shapeOf(Long.valueOf(10))).isEqualTo("Long");
+        final StageTimer timer = StageTimer.create(false);
+        timer.recordArguments("car.", Collections.singletonMap("name", "Audi"));
+        assertThat(timer.getArguments()).includes(entry("car.name", "String(4)"));
+        StageTimer.DISABLED.recordArguments("", Collections.singletonMap("name", "Audi"));
+        assertThat(StageTimer.DISABLED.getArguments()).isEmpty();
+    }
+
+}
@@ -0,0 +1,216 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.mocks;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import org.jboss.aerogear.controller.router.RequestMethod;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * A request fake for benchmarks and the {@link LoadHarness}, configured like {@link MockRequest}.
+ * </p>
+ * The methods used by the router, the parameter extraction, the responders and the CORS handler are implemented with plain
+ * fields, as Mockito stubs would dominate the measured time and record every invocation. Any other method is delegated to a
+ * Mockito mock.
+ */
+public class FakeRequest extends HttpServletRequestWrapper {
+
+    public static final String CONTEXT_PATH = "/app";
+
+    private static final ServletContext SERVLET_CONTEXT = (ServletContext) Proxy.newProxyInstance(
+            FakeRequest.class.getClassLoader(), new Class<?>[] { ServletContext.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    return "getContextPath".equals(method.getName()) ? CONTEXT_PATH : null;
+                }
+            });
+
+    private final Map<String, String> headers = new HashMap<String, String>();
+    private final Map<String, String[]> params = new LinkedHashMap<String, String[]>();
+    private final Map<String, Object> attributes = new HashMap<String, Object>();
+    private final List<Cookie> cookies = new ArrayList<Cookie>();
+    private String method = RequestMethod.GET.toString();
+    private String requestURI = CONTEXT_PATH + "/";
+    private byte[] body;
+
+    public FakeRequest() {
+        super(mock(HttpServletRequest.class));
+    }
+
+    public FakeRequest method(final RequestMethod method) {
+        this.method = method.toString();
+        return this;
+    }
+
+    public FakeRequest path(final String path) {
+        this.requestURI = CONTEXT_PATH + path;
+        return this;
+    }
+
+    public FakeRequest header(final String name, final String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public FakeRequest param(final String name, final String value) {
+        params.put(name, new String[] { value });
+        return this;
+    }
+
+    public FakeRequest cookie(final String name, final String value) {
+        cookies.add(new Cookie(name, value));
+        return this;
+    }
+
+    public FakeRequest body(final String contentType, final byte[] body) {
+        headers.put("Content-Type", contentType);
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * Prepares this request to be dispatched again by removing the attributes set while it was processed.
+     * 
+     * @return {@code FakeRequest} this request.
+     */
+    public FakeRequest reset() {
+        attributes.clear();
+        return this;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer("http://localhost:8080").append(requestURI);
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return SERVLET_CONTEXT;
+    }
+
+    @Override
+    public String getContextPath() {
+        return CONTEXT_PATH;
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Iterators.asEnumeration(headers.keySet().iterator());
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.get("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body == null ? -1 : body.length;
+    }
+
+    @Override
+    public String getParameter(final String name) {
+        final String[] values = params.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return params;
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return cookies.isEmpty() ? null : cookies.toArray(new Cookie[cookies.size()]);
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
+
+    /**
+     * Returns a new stream over the body on every call, so that the same request can be consumed repeatedly.
+     */
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body == null ? new byte[0] : body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                return in.read(b, off, len);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.mocks;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * A response fake for benchmarks and the {@link LoadHarness}, which discards the body and only counts its bytes. Methods that
+ * are not implemented are delegated to a Mockito mock.
+ */
+public class FakeResponse extends HttpServletResponseWrapper {
+
+    private final Map<String, String> headers = new HashMap<String, String>();
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding = "UTF-8";
+    private long bytesWritten;
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(final int b) {
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            bytesWritten += len;
+        }
+    };
+    private PrintWriter writer;
+
+    public FakeResponse() {
+        super(mock(HttpServletResponse.class));
+    }
+
+    /**
+     * Prepares this response to be reused for another request.
+     * 
+     * @return {@code long} the number of bytes written since the previous reset.
+     */
+    public long clear() {
+        if (writer != null) {
+            writer.flush();
+        }
+        final long written = bytesWritten;
+        headers.clear();
+        status = SC_OK;
+        bytesWritten = 0;
+        return written;
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        headers.put(name, value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        final String existing = headers.get(name);
+        headers.put(name, existing == null ? value : existing + "," + value);
+    }
+
+    @Override
+    public boolean containsHeader(final String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(final int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void setContentType(final String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String characterEncoding) {
+        this.characterEncoding = characterEncoding;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter((OutputStream) outputStream, characterEncoding));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+}
@@ -0,0 +1,446 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.mocks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.mocks.LoadReport.RouteStats;
+import org.jboss.aerogear.controller.router.Consumer;
+import org.jboss.aerogear.controller.router.ControllerFactory;
+import org.jboss.aerogear.controller.router.DefaultRouteProcessor;
+import org.jboss.aerogear.controller.router.DefaultRouter;
+import org.jboss.aerogear.controller.router.EndpointInvoker;
+import org.jboss.aerogear.controller.router.Responder;
+import org.jboss.aerogear.controller.router.Responders;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.RoutingModule;
+import org.jboss.aerogear.controller.router.decorators.ErrorHandler;
+import org.jboss.aerogear.controller.router.decorators.ResponseHandler;
+import org.jboss.aerogear.controller.router.decorators.SecurityHandler;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.BulkheadHandler;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsConfiguration;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsHandler;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineHandler;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimitHandler;
+import org.jboss.aerogear.controller.router.error.ErrorRoute;
+import org.jboss.aerogear.controller.router.rest.JsonConsumer;
+import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.jboss.aerogear.controller.router.rest.SmileConsumer;
+import org.jboss.aerogear.controller.router.rest.pagination.CountProvider;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationHandler;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationStrategy;
+import org.jboss.aerogear.controller.spi.SecurityProvider;
+
+/**
+ * An in-process load harness which replays a weighted mix of {@link LoadRequest}s from several threads against a
+ * {@link RoutingModule}, and reports the throughput, the latency percentiles and the allocations of every request in a
+ * {@link LoadReport}.
+ * </p>
+ * Requests are dispatched, as the AeroGear filter does, to a {@link DefaultRouter}, optionally decorated by a
+ * {@link CorsHandler}, in front of the same {@link RouteProcessor} chain as {@link RouteTester}. Unlike {@link RouteTester} no
+ * Mockito mock is invoked while the load is running: every thread uses its own {@link FakeRequest}s and {@link FakeResponse},
+ * controllers are plain instances and the responders are real ones, so that neither stubbing nor invocation recording is
+ * measured.
+ * </p>
+ * Allocations are counted with the per thread allocation counter of HotSpot's {@code com.sun.management.ThreadMXBean}, and
+ * reported as {@code -1} on other JVMs.
+ * 
+ * <pre>
+ * LoadReport report = LoadHarness.from(routingModule).threads(4).iterations(10000)
+ *         .request(LoadRequest.get("/cars/1").accept(JSON), 4)
+ *         .request(LoadRequest.post("/cars").accept(JSON).body(JSON, "{\"color\":\"red\",\"brand\":\"Ferrari\"}"))
+ *         .run();
+ * </pre>
+ */
+public class LoadHarness {
+
+    private static final String EXCEPTION_ATTRIBUTE = ErrorRoute.DEFAULT.getExceptionAttrName();
+    private static final FilterChain NO_OP_CHAIN = new FilterChain() {
+        @Override
+        public void doFilter(final ServletRequest request, final ServletResponse response) {
+        }
+    };
+
+    private final RoutingModule routingModule;
+    private final ConcurrentMap<Class<?>, Object> controllers = new ConcurrentHashMap<Class<?>, Object>();
+    private final List<Responder> responders = new LinkedList<Responder>();
+    private final List<LoadRequest> requests = new ArrayList<LoadRequest>();
+    private final List<Integer> weights = new ArrayList<Integer>();
+    private CorsConfiguration corsConfig;
+    private int threads = 4;
+    private int warmupIterations = 1000;
+    private int iterations = 5000;
+
+    private LoadHarness(final RoutingModule routingModule) {
+        this.routingModule = routingModule;
+    }
+
+    public static LoadHarness from(final RoutingModule routingModule) {
+        return new LoadHarness(routingModule);
+    }
+
+    /**
+     * Adds a request to the mix, replayed in proportion to its weight.
+     * 
+     * @param request the {@link LoadRequest} to replay.
+     * @param weight the relative number of times this request is replayed.
+     * @return {@code LoadHarness} this harness.
+     */
+    public LoadHarness request(final LoadRequest request, final int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be positive: " + weight);
+        }
+        requests.add(request);
+        weights.add(weight);
+        return this;
+    }
+
+    public LoadHarness request(final LoadRequest request) {
+        return request(request, 1);
+    }
+
+    /**
+     * Registers the instance used for all requests routed to its class. Controllers that are not registered are created with
+     * their no-argument constructor, once per run.
+     * 
+     * @param controller the controller instance, which must be thread safe.
+     * @return {@code LoadHarness} this harness.
+     */
+    public LoadHarness controller(final Object controller) {
+        controllers.put(controller.getClass(), controller);
+        return this;
+    }
+
+    /**
+     * Adds a {@link Responder}. When no responder is added a {@link JsonResponder} is used.
+     * 
+     * @param responder the {@link Responder} to add.
+     * @return {@code LoadHarness} this harness.
+     */
+    public LoadHarness addResponder(final Responder responder) {
+        responders.add(responder);
+        return this;
+    }
+
+    /**
+     * Puts a {@link CorsHandler} with the passed-in configuration in front of the router, which is needed for preflight
+     * requests.
+     * 
+     * @param corsConfig the {@link CorsConfiguration} to use.
+     * @return {@code LoadHarness} this harness.
+     */
+    public LoadHarness cors(final CorsConfiguration corsConfig) {
+        this.corsConfig = corsConfig;
+        return this;
+    }
+
+    public LoadHarness threads(final int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the number of requests every thread dispatches before the measurement starts.
+     * 
+     * @param warmupIterations the number of warmup requests per thread.
+     * @return {@code LoadHarness} this harness.
+     */
+    public LoadHarness warmup(final int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+        return this;
+    }
+
+    /**
+     * Sets the number of requests every thread dispatches while measuring.
+     * 
+     * @param iterations the number of measured requests per thread.
+     * @return {@code LoadHarness} this harness.
+     */
+    public LoadHarness iterations(final int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Runs the warmup and then the measured requests on all threads, and waits for them to complete.
+     * 
+     * @return {@code LoadReport} the results of the measured requests.
+     * @throws Exception if the router could not be created or a worker thread failed.
+     */
+    public LoadReport run() throws Exception {
+        if (requests.isEmpty()) {
+            throw new IllegalStateException("No requests to replay");
+        }
+        final Router router = router();
+        final int[] schedule = schedule();
+        final Map<String, RouteStats> stats = new LinkedHashMap<String, RouteStats>();
+        final RouteStats[] statsBySlot = new RouteStats[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            final String name = requests.get(i).getName();
+            if (!stats.containsKey(name)) {
+                stats.put(name, new RouteStats(name, Allocations.isSupported()));
+            }
+            statsBySlot[i] = stats.get(name);
+        }
+
+        final CyclicBarrier start = new CyclicBarrier(threads + 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final List<Thread> workers = new ArrayList<Thread>(threads);
+        for (int t = 0; t < threads; t++) {
+            final Worker worker = new Worker(router, schedule, t * schedule.length / threads, statsBySlot, start, failure);
+            final Thread thread = new Thread(worker, "aerogear-load-" + t);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        start.await();
+        final long begin = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        final long elapsed = System.nanoTime() - begin;
+        if (failure.get() != null) {
+            throw new IllegalStateException("Load worker failed", failure.get());
+        }
+        return new LoadReport(stats, threads, elapsed);
+    }
+
+    /**
+     * Spreads every request over the schedule in proportion to its weight, so that the mix is interleaved rather than replayed
+     * in bursts of the same request.
+     */
+    private int[] schedule() {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        final int[] schedule = new int[total];
+        final int[] given = new int[weights.size()];
+        for (int i = 0; i < total; i++) {
+            int next = 0;
+            double lowest = Double.MAX_VALUE;
+            for (int r = 0; r < weights.size(); r++) {
+                final double share = (given[r] + 1) / (double) weights.get(r);
+                if (share < lowest) {
+                    lowest = share;
+                    next = r;
+                }
+            }
+            given[next]++;
+            schedule[i] = next;
+        }
+        return schedule;
+    }
+
+    /**
+     * Creates the {@link Router} that requests are dispatched to, which builds the route table of the routing module. Every
+     * run creates its own router.
+     * 
+     * @return {@code Router} a new router for the routing module.
+     */
+    @SuppressWarnings("unchecked")
+    public Router router() {
+        final Instance<Consumer> consumers = mock(Instance.class);
+        when(consumers.iterator()).thenReturn(
+                Arrays.<Consumer> asList(new JsonConsumer(), new SmileConsumer()).iterator(),
+                Arrays.<Consumer> asList(new JsonConsumer(), new SmileConsumer()).iterator());
+        final Instance<SecurityProvider> securityProviders = mock(Instance.class);
+        when(securityProviders.isUnsatisfied()).thenReturn(true);
+        final Instance<PaginationStrategy> pagingStrategies = mock(Instance.class);
+        when(pagingStrategies.isUnsatisfied()).thenReturn(true);
+        final Instance<Responder> responderInstance = mock(Instance.class);
+        when(responderInstance.iterator()).thenReturn(
+                (responders.isEmpty() ? Arrays.<Responder> asList(new JsonResponder()) : responders).iterator());
+        final Instance<RoutingModule> routingModules = mock(Instance.class);
+        when(routingModules.get()).thenReturn(routingModule);
+
+        final EndpointInvoker endpointInvoker = new EndpointInvoker(new Controllers(), mock(BeanManager.class));
+        final RouteProcessor defaultRouteProcessor = new DefaultRouteProcessor(consumers, endpointInvoker);
+        final RouteProcessor paginationHandler = new PaginationHandler(defaultRouteProcessor, pagingStrategies, consumers,
+                endpointInvoker, mock(Instance.class));
+        final RouteProcessor bulkheadHandler = new BulkheadHandler(paginationHandler);
+        final RouteProcessor rateLimitHandler = new RateLimitHandler(bulkheadHandler);
+        final RouteProcessor securityHandler = new SecurityHandler(rateLimitHandler, securityProviders);
+        final RouteProcessor deadlineHandler = new DeadlineHandler(securityHandler);
+        final RouteProcessor errorHandler = new ErrorHandler(deadlineHandler, endpointInvoker);
+        final RouteProcessor responseHandler = new ResponseHandler(errorHandler, new Responders(responderInstance));
+        final Router router = new DefaultRouter(routingModules, responseHandler);
+        if (corsConfig == null) {
+            return router;
+        }
+        final Instance<CorsConfiguration> corsInstance = mock(Instance.class);
+        when(corsInstance.get()).thenReturn(corsConfig);
+        return new CorsHandler(router, corsInstance);
+    }
+
+    /**
+     * Creates controllers without CDI, reusing a single instance per class.
+     */
+    private class Controllers extends ControllerFactory {
+
+        @Override
+        public Object createController(final Class<?> targetClass, final BeanManager beanManager) {
+            final Object controller = controllers.get(targetClass);
+            if (controller != null) {
+                return controller;
+            }
+            try {
+                final Object created = targetClass.newInstance();
+                final Object existing = controllers.putIfAbsent(targetClass, created);
+                return existing == null ? created : existing;
+            } catch (final Exception e) {
+                throw new IllegalStateException("Could not create controller " + targetClass.getName(), e);
+            }
+        }
+
+    }
+
+    private class Worker implements Runnable {
+
+        private final Router router;
+        private final int[] schedule;
+        private final int offset;
+        private final RouteStats[] stats;
+        private final CyclicBarrier start;
+        private final AtomicReference<Throwable> failure;
+        private final FakeRequest[] fakeRequests;
+        private final FakeResponse response = new FakeResponse();
+
+        Worker(final Router router, final int[] schedule, final int offset, final RouteStats[] stats,
+                final CyclicBarrier start, final AtomicReference<Throwable> failure) {
+            this.router = router;
+            this.schedule = schedule;
+            this.offset = offset;
+            this.stats = stats;
+            this.start = start;
+            this.failure = failure;
+            this.fakeRequests = new FakeRequest[requests.size()];
+            for (int i = 0; i < fakeRequests.length; i++) {
+                fakeRequests[i] = requests.get(i).newRequest();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < warmupIterations; i++) {
+                    dispatch(i, false);
+                }
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    dispatch(i, true);
+                }
+            } catch (final Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        private void dispatch(final int iteration, final boolean record) {
+            final int slot = schedule[(offset + iteration) % schedule.length];
+            final FakeRequest request = fakeRequests[slot].reset();
+            final long allocatedBefore = Allocations.current();
+            final long begin = System.nanoTime();
+            boolean failed = false;
+            try {
+                if (router.hasRouteFor(request)) {
+                    router.dispatch(request, response, NO_OP_CHAIN);
+                } else {
+                    response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                }
+            } catch (final ServletException e) {
+                failed = true;
+            }
+            final long nanos = System.nanoTime() - begin;
+            final long allocated = Allocations.current() - allocatedBefore - Allocations.OVERHEAD;
+            failed |= response.getStatus() >= 500 || request.getAttribute(EXCEPTION_ATTRIBUTE) != null;
+            response.clear();
+            if (record) {
+                stats[slot].record(nanos, allocated, failed);
+            }
+        }
+
+    }
+
+    /**
+     * Reads the number of bytes allocated by the current thread, when the JVM supports it.
+     */
+    private static class Allocations {
+
+        private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+        private static final long OVERHEAD = overhead();
+
+        static boolean isSupported() {
+            return THREADS != null;
+        }
+
+        static long current() {
+            return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        private static com.sun.management.ThreadMXBean threadMXBean() {
+            try {
+                final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                    if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                        return threads;
+                    }
+                }
+            } catch (final LinkageError e) {
+                // not a HotSpot based JVM
+            }
+            return null;
+        }
+
+        /**
+         * Reading the counter may allocate itself, which must not be attributed to the measured request.
+         */
+        private static long overhead() {
+            long lowest = Long.MAX_VALUE;
+            for (int i = 0; i < 100; i++) {
+                final long before = current();
+                lowest = Math.min(lowest, current() - before);
+            }
+            return lowest;
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.mocks;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.jboss.aerogear.controller.router.MediaType.JSON;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+import static org.jboss.aerogear.controller.router.RequestMethod.PUT;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.LoadReport.RouteStats;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.RoutingModule;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsConfig;
+import org.junit.Test;
+
+public class LoadHarnessTest {
+
+    private static final String ORIGIN = "http://example.com";
+
+    private final RoutingModule routingModule = new AbstractRoutingModule() {
+        @Override
+        public void configuration() {
+            route()
+                    .from("/cars/{id}")
+                    .on(GET)
+                    .produces(JSON)
+                    .to(SampleController.class).find(param("id"));
+            route()
+                    .from("/cars")
+                    .on(GET)
+                    .produces(JSON)
+                    .to(SampleController.class).save(param("color"), param("brand"));
+            route()
+                    .from("/cars")
+                    .on(POST)
+                    .consumes(JSON)
+                    .produces(JSON)
+                    .to(SampleController.class).save(param(Car.class));
+            route()
+                    .from("/fail")
+                    .on(GET)
+                    .produces(JSON)
+                    .to(SampleController.class).throwIllegalStateException();
+        }
+    };
+
+    @Test
+    public void replaysMix() throws Exception {
+        final LoadReport report = LoadHarness.from(routingModule)
+                .cors(CorsConfig.enableCorsSupport().anyOrigin().enableCookies().maxAge(3600)
+                        .enableAllRequestMethods().validRequestHeaders("accept, content-type"))
+                .threads(2)
+                .warmup(50)
+                .iterations(400)
+                .request(LoadRequest.get("/cars/1").accept(JSON), 2)
+                .request(LoadRequest.get("/cars").accept(JSON).param("color", "red").param("brand", "Ferrari"))
+                .request(LoadRequest.post("/cars").accept(JSON).body(JSON, "{\"color\":\"red\",\"brand\":\"Ferrari\"}"))
+                .request(LoadRequest.preflight("/cars", ORIGIN, PUT).accept(JSON))
+                .run();
+
+        assertThat(report.getRequests()).isEqualTo(800);
+        assertThat(report.getErrors()).isEqualTo(0);
+        assertThat(report.getThroughput() > 0).isTrue();
+        assertThat(report.getRouteStats().keySet()).containsOnly("GET /cars/1", "GET /cars", "POST /cars",
+                "PREFLIGHT /cars");
+        assertThat(report.get("GET /cars/1").getRequests()).isEqualTo(320);
+        assertThat(report.get("PREFLIGHT /cars").getRequests()).isEqualTo(160);
+        for (RouteStats stats : report.getRouteStats().values()) {
+            assertThat(stats.getLatencyAtPercentile(50)).isGreaterThan(0);
+            assertThat(stats.getLatencyAtPercentile(99)).isGreaterThanOrEqualTo(stats.getLatencyAtPercentile(50));
+            assertThat(stats.getMaxLatency()).isGreaterThanOrEqualTo(stats.getLatencyAtPercentile(99));
+            assertThat(stats.getAllocatedBytesPerRequest()).isNotEqualTo(0);
+        }
+    }
+
+    @Test
+    public void countsErrors() throws Exception {
+        final LoadReport report = LoadHarness.from(routingModule)
+                .threads(1)
+                .warmup(0)
+                .iterations(10)
+                .request(LoadRequest.get("/fail").accept(JSON))
+                .request(LoadRequest.get("/cars/1").accept(JSON))
+                .run();
+
+        assertThat(report.get("GET /fail").getErrors()).isEqualTo(5);
+        assertThat(report.get("GET /cars/1").getErrors()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownRequestName() throws Exception {
+        LoadHarness.from(routingModule).threads(1).warmup(0).iterations(1).request(LoadRequest.get("/cars/1").accept(JSON))
+                .run().get("GET /unknown");
+    }
+
+}
@@ -0,0 +1,212 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.mocks;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.aerogear.controller.metrics.LatencyHistogram;
+
+/**
+ * The results of a {@link LoadHarness} run, per {@link LoadRequest} name.
+ */
+public class LoadReport {
+
+    private final Map<String, RouteStats> stats;
+    private final int threads;
+    private final long elapsedNanos;
+
+    LoadReport(final Map<String, RouteStats> stats, final int threads, final long elapsedNanos) {
+        this.stats = Collections.unmodifiableMap(new LinkedHashMap<String, RouteStats>(stats));
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        for (RouteStats routeStats : stats.values()) {
+            routeStats.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    /**
+     * Returns the statistics of the requests with the passed-in name.
+     * 
+     * @param name the name of the {@link LoadRequest}.
+     * @return {@code RouteStats} the statistics for the request.
+     * @throws IllegalArgumentException if no request with that name was part of the run.
+     */
+    public RouteStats get(final String name) {
+        final RouteStats routeStats = stats.get(name);
+        if (routeStats == null) {
+            throw new IllegalArgumentException("No request named '" + name + "' in " + stats.keySet());
+        }
+        return routeStats;
+    }
+
+    public Map<String, RouteStats> getRouteStats() {
+        return stats;
+    }
+
+    public long getRequests() {
+        long requests = 0;
+        for (RouteStats routeStats : stats.values()) {
+            requests += routeStats.getRequests();
+        }
+        return requests;
+    }
+
+    public long getErrors() {
+        long errors = 0;
+        for (RouteStats routeStats : stats.values()) {
+            errors += routeStats.getErrors();
+        }
+        return errors;
+    }
+
+    /**
+     * Returns the number of requests processed per second by all threads together.
+     * 
+     * @return {@code double} the total throughput.
+     */
+    public double getThroughput() {
+        return perSecond(getRequests(), elapsedNanos);
+    }
+
+    public long getElapsed(final TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d requests on %d threads in %d ms, %.0f req/s, %d errors%n", getRequests(), threads,
+                getElapsed(TimeUnit.MILLISECONDS), getThroughput(), getErrors()));
+        sb.append(String.format("%-32s %9s %7s %10s %9s %9s %9s %9s %10s%n", "request", "count", "errors", "req/s",
+                "p50(us)", "p90(us)", "p99(us)", "max(us)", "bytes/req"));
+        for (RouteStats routeStats : stats.values()) {
+            sb.append(String.format("%-32s %9d %7d %10.0f %9.1f %9.1f %9.1f %9.1f %10d%n", routeStats.getName(),
+                    routeStats.getRequests(), routeStats.getErrors(), routeStats.getThroughput(),
+                    routeStats.getLatencyAtPercentile(50) / 1000.0, routeStats.getLatencyAtPercentile(90) / 1000.0,
+                    routeStats.getLatencyAtPercentile(99) / 1000.0, routeStats.getMaxLatency() / 1000.0,
+                    routeStats.getAllocatedBytesPerRequest()));
+        }
+        return sb.toString();
+    }
+
+    private static double perSecond(final long count, final long nanos) {
+        return nanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * The statistics of a single {@link LoadRequest}. Latencies are recorded in a {@link LatencyHistogram} in nanoseconds, so
+     * they are known within 1/16 of their value.
+     */
+    public static class RouteStats {
+
+        private final String name;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong allocatedBytes = new AtomicLong();
+        private final boolean allocationsCounted;
+        private volatile long elapsedNanos;
+
+        RouteStats(final String name, final boolean allocationsCounted) {
+            this.name = name;
+            this.allocationsCounted = allocationsCounted;
+        }
+
+        void record(final long nanos, final long allocated, final boolean failed) {
+            latencies.record(nanos);
+            if (allocated > 0) {
+                allocatedBytes.addAndGet(allocated);
+            }
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getRequests() {
+            return latencies.getCount();
+        }
+
+        /**
+         * Returns the number of requests that threw an exception, were routed to an error route or were answered with a 5xx
+         * status.
+         * 
+         * @return {@code long} the number of failed requests.
+         */
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public double getThroughput() {
+            return perSecond(getRequests(), elapsedNanos);
+        }
+
+        public long getLatencyAtPercentile(final double percentile) {
+            return latencies.getValueAtPercentile(percentile);
+        }
+
+        public long getMaxLatency() {
+            return latencies.getMax();
+        }
+
+        public long getMeanLatency() {
+            return latencies.getMean();
+        }
+
+        /**
+         * Returns the mean number of bytes allocated on the heap by the dispatching thread while processing one request.
+         * 
+         * @return {@code long} the bytes allocated per request, or {@code -1} if the JVM does not count the allocations of a
+         *         thread.
+         */
+        public long getAllocatedBytesPerRequest() {
+            final long requests = getRequests();
+            if (!allocationsCounted) {
+                return -1;
+            }
+            return requests == 0 ? 0 : allocatedBytes.get() / requests;
+        }
+
+        /**
+         * Returns the number of bytes allocated per second while processing this request.
+         * 
+         * @return {@code double} the allocation rate in bytes per second, or {@code -1} if the JVM does not count the
+         *         allocations of a thread.
+         */
+        public double getAllocationRate() {
+            return allocationsCounted ? perSecond(allocatedBytes.get(), elapsedNanos) : -1;
+        }
+
+        @Override
+        public String toString() {
+            return "RouteStats[name=" + name + ", requests=" + getRequests() + ", errors=" + getErrors() + ", latencies="
+                    + latencies + ", bytesPerRequest=" + getAllocatedBytesPerRequest() + "]";
+        }
+
+    }
+
+}
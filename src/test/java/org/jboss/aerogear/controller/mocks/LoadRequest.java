@@ -0,0 +1,132 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.mocks;
+
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+
+/**
+ * A template for the requests replayed by a {@link LoadHarness}, from which every worker thread creates its own
+ * {@link FakeRequest}.
+ */
+public class LoadRequest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final RequestMethod method;
+    private final String path;
+    private final Map<String, String> headers = new LinkedHashMap<String, String>();
+    private final Map<String, String> params = new LinkedHashMap<String, String>();
+    private String name;
+    private String contentType;
+    private byte[] body;
+
+    private LoadRequest(final RequestMethod method, final String path) {
+        this.method = method;
+        this.path = path;
+        this.name = method + " " + path;
+    }
+
+    public static LoadRequest get(final String path) {
+        return new LoadRequest(RequestMethod.GET, path);
+    }
+
+    public static LoadRequest post(final String path) {
+        return new LoadRequest(RequestMethod.POST, path);
+    }
+
+    public static LoadRequest put(final String path) {
+        return new LoadRequest(RequestMethod.PUT, path);
+    }
+
+    public static LoadRequest delete(final String path) {
+        return new LoadRequest(RequestMethod.DELETE, path);
+    }
+
+    /**
+     * Creates a CORS preflight request.
+     * 
+     * @param path the path of the request, without the context path.
+     * @param origin the value of the 'Origin' header.
+     * @param requestMethod the value of the 'Access-Control-Request-Method' header.
+     * @return {@code LoadRequest} an 'OPTIONS' request named 'PREFLIGHT path'.
+     */
+    public static LoadRequest preflight(final String path, final String origin, final RequestMethod requestMethod) {
+        return new LoadRequest(RequestMethod.OPTIONS, path).named("PREFLIGHT " + path).header("Origin", origin)
+                .header("Access-Control-Request-Method", requestMethod.toString());
+    }
+
+    /**
+     * Sets the name under which the results of this request are reported. Defaults to the request method followed by the path.
+     * 
+     * @param name the name of this request in the {@link LoadReport}.
+     * @return {@code LoadRequest} this request.
+     */
+    public LoadRequest named(final String name) {
+        this.name = name;
+        return this;
+    }
+
+    public LoadRequest accept(final MediaType mediaType) {
+        return header("Accept", mediaType.getType());
+    }
+
+    public LoadRequest header(final String name, final String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public LoadRequest param(final String name, final String value) {
+        params.put(name, value);
+        return this;
+    }
+
+    public LoadRequest body(final MediaType mediaType, final String body) {
+        this.contentType = mediaType.getType();
+        this.body = body.getBytes(UTF_8);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    FakeRequest newRequest() {
+        final FakeRequest request = new FakeRequest().method(method).path(path);
+        for (Entry<String, String> header : headers.entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+        for (Entry<String, String> param : params.entrySet()) {
+            request.param(param.getKey(), param.getValue());
+        }
+        if (body != null) {
+            request.body(contentType, body);
+        }
+        return request;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadRequest[name=" + name + ", headers=" + headers + ", params=" + params + "]";
+    }
+
+}
@@ -24,6 +24,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -184,6 +185,13 @@ public class MockRequest {
         return this;
     }
     
+    public MockRequest principal(final String name) {
+        final Principal principal = mock(Principal.class);
+        when(principal.getName()).thenReturn(name);
+        when(request.getUserPrincipal()).thenReturn(principal);
+        return this;
+    }
+
     public MockRequest contentType(final String contentType) {
         when(request.getContentType()).thenReturn(contentType);
         return this;
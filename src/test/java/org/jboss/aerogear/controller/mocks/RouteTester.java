@@ -16,6 +16,7 @@
  */
 package org.jboss.aerogear.controller.mocks;
 
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
@@ -30,8 +31,10 @@ import java.util.logging.Logger;
 
 import javax.enterprise.inject.Instance;
 
+import org.jboss.aerogear.controller.metrics.StageTimer;
 import org.jboss.aerogear.controller.router.Consumer;
 import org.jboss.aerogear.controller.router.DefaultRouteProcessor;
+import org.jboss.aerogear.controller.router.CompositePart;
 import org.jboss.aerogear.controller.router.EndpointInvoker;
 import org.jboss.aerogear.controller.router.InvocationResult;
 import org.jboss.aerogear.controller.router.MediaType;
@@ -45,10 +48,15 @@ import org.jboss.aerogear.controller.router.RoutingModule;
 import org.jboss.aerogear.controller.router.decorators.ErrorHandler;
 import org.jboss.aerogear.controller.router.decorators.ResponseHandler;
 import org.jboss.aerogear.controller.router.decorators.SecurityHandler;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.BulkheadHandler;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineHandler;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimitHandler;
 import org.jboss.aerogear.controller.router.error.ErrorTarget;
 import org.jboss.aerogear.controller.router.error.ErrorViewResponder;
 import org.jboss.aerogear.controller.router.rest.JsonConsumer;
 import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.jboss.aerogear.controller.router.rest.SmileConsumer;
+import org.jboss.aerogear.controller.router.rest.pagination.CountProvider;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationHandler;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationStrategy;
 import org.jboss.aerogear.controller.spi.SecurityProvider;
@@ -67,12 +75,15 @@ public class RouteTester {
     private Instance<SecurityProvider> securityProviderInstance;
     @Mock
     private Instance<PaginationStrategy> pagingInstance;
+    @Mock
+    private Instance<CountProvider> countProviders;
     private final MockRequest mockRequest;
     private final MockResponder mockResponders;
     private final MockEndpointInvoker mockInvoker;
     private final Routes routes;
     private Object controller;
     private RouteProcessor routeProcessor;
+    private StageTimer timer = StageTimer.DISABLED;
 
     private RouteTester(final RoutingModule routingModule) {
         MockitoAnnotations.initMocks(this);
@@ -140,7 +151,8 @@ public class RouteTester {
     public InvocationResult process(final Route route) throws Exception {
         setController(route);
         mockRequest.prepareProcessing();
-        final RouteContext routeContext = new RouteContext(route, mockRequest.getRequest(), mockRequest.getResponse(), routes);
+        final RouteContext routeContext = new RouteContext(route, RequestUtils.extractPath(mockRequest.getRequest()),
+                mockRequest.getRequest(), mockRequest.getResponse(), routes, timer);
         return createRouteProcessor().process(routeContext);
     }
 
@@ -149,9 +161,12 @@ public class RouteTester {
             final EndpointInvoker endpointInvoker = mockInvoker.getEndpointInvoker();
             final RouteProcessor defaultRouteProcessor = new DefaultRouteProcessor(consumers, endpointInvoker);
             final RouteProcessor paginationHandler = new PaginationHandler(defaultRouteProcessor, pagingInstance, consumers,
-                    endpointInvoker);
-            final RouteProcessor securityHandler = new SecurityHandler(paginationHandler, securityProviderInstance);
-            final RouteProcessor errorHandler = new ErrorHandler(securityHandler, endpointInvoker);
+                    endpointInvoker, countProviders);
+            final RouteProcessor bulkheadHandler = new BulkheadHandler(paginationHandler);
+            final RouteProcessor rateLimitHandler = new RateLimitHandler(bulkheadHandler);
+            final RouteProcessor securityHandler = new SecurityHandler(rateLimitHandler, securityProviderInstance);
+            final RouteProcessor deadlineHandler = new DeadlineHandler(securityHandler);
+            final RouteProcessor errorHandler = new ErrorHandler(deadlineHandler, endpointInvoker);
             routeProcessor = new ResponseHandler(errorHandler, mockResponders.getResponders());
             return routeProcessor;
         } else {
@@ -204,6 +219,28 @@ public class RouteTester {
         return this;
     }
 
+    public RouteTester principal(final String name) {
+        mockRequest.principal(name);
+        return this;
+    }
+
+    public RouteTester stageTimer(final StageTimer timer) {
+        this.timer = timer;
+        return this;
+    }
+
+    public RouteTester countProvider(final CountProvider countProvider) {
+        instrumentCountProvider(countProvider.getClass(), countProvider);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends CountProvider> void instrumentCountProvider(final Class<T> type, final CountProvider countProvider) {
+        final Instance<T> instance = mock(Instance.class);
+        when(instance.get()).thenReturn((T) countProvider);
+        when(countProviders.select(type)).thenReturn(instance);
+    }
+
     private void instrumentPagination() {
         when(pagingInstance.isUnsatisfied()).thenReturn(true);
     }
@@ -215,7 +252,7 @@ public class RouteTester {
     }
 
     private void instrumentConsumers() {
-        final Iterator<Consumer> iterator = new HashSet<Consumer>(Arrays.asList(new JsonConsumer())).iterator();
+        final Iterator<Consumer> iterator = new HashSet<Consumer>(Arrays.asList(new JsonConsumer(), new SmileConsumer())).iterator();
         when(consumers.iterator()).thenReturn(iterator);
     }
 
@@ -230,7 +267,13 @@ public class RouteTester {
     }
 
     private void setController(Route route) {
-        controller = mockInvoker.setController(controller, route);
+        if (route.isComposite()) {
+            for (CompositePart part : route.getParts()) {
+                controller = mockInvoker.setController(controller, part.getRoute());
+            }
+        } else {
+            controller = mockInvoker.setController(controller, route);
+        }
     }
 
     public ErrorTarget getErrorTarget() {
@@ -0,0 +1,135 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.mocks;
+
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.router.AbstractRoutingModule;
+import org.jboss.aerogear.controller.router.RoutingModule;
+import org.jboss.aerogear.controller.router.Routes;
+
+/**
+ * Builds route tables of a given size for the benchmarks and the route table budget test.
+ */
+public final class SyntheticRoutes {
+
+    private SyntheticRoutes() {
+    }
+
+    /**
+     * Builds routes with static paths, {@code /resource<i>/items}.
+     * 
+     * @param count the number of routes.
+     * @return {@link Routes} the route table.
+     */
+    public static Routes staticRoutes(final int count) {
+        return new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                for (int i = 0; i < count; i++) {
+                    route()
+                            .from(staticPath(i))
+                            .on(GET)
+                            .produces(JSON)
+                            .to(SampleController.class).index();
+                }
+            }
+        }.build();
+    }
+
+    /**
+     * Builds routes with a path parameter, {@code /resource<i>/items/{id}}.
+     * 
+     * @param count the number of routes.
+     * @return {@link Routes} the route table.
+     */
+    public static Routes parameterizedRoutes(final int count) {
+        return new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                for (int i = 0; i < count; i++) {
+                    route()
+                            .from(staticPath(i) + "/{id}")
+                            .on(GET)
+                            .produces(JSON)
+                            .to(SampleController.class).find(param("id"));
+                }
+            }
+        }.build();
+    }
+
+    /**
+     * Creates a routing module resembling an application one, cycling through static GET routes, GET routes with a path
+     * parameter, GET routes with query parameters and JSON POST routes, {@code /resource<i>/items}.
+     * 
+     * @param count the number of routes.
+     * @return {@link RoutingModule} the module. It should only be built once, as every call to {@code build()} adds its
+     *         routes again.
+     */
+    public static RoutingModule mixedModule(final int count) {
+        return new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                for (int i = 0; i < count; i++) {
+                    switch (i % 4) {
+                        case 0:
+                            route()
+                                    .from(staticPath(i))
+                                    .on(GET)
+                                    .produces(JSON)
+                                    .to(SampleController.class).index();
+                            break;
+                        case 1:
+                            route()
+                                    .from(staticPath(i) + "/{id}")
+                                    .on(GET)
+                                    .produces(JSON)
+                                    .to(SampleController.class).find(param("id"));
+                            break;
+                        case 2:
+                            route()
+                                    .from(staticPath(i))
+                                    .on(GET)
+                                    .produces(JSON)
+                                    .to(SampleController.class).find(param("color"), param("brand"));
+                            break;
+                        default:
+                            route()
+                                    .from(staticPath(i))
+                                    .on(POST)
+                                    .consumes(JSON)
+                                    .produces(JSON)
+                                    .to(SampleController.class).save(param(Car.class));
+                            break;
+                    }
+                }
+            }
+        };
+    }
+
+    public static String staticPath(final int index) {
+        return "/resource" + index + "/items";
+    }
+
+    public static String parameterizedPath(final int index) {
+        return staticPath(index) + "/42";
+    }
+
+}
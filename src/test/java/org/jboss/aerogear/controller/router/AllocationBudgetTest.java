@@ -0,0 +1,151 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.jboss.aerogear.controller.router.MediaType.JSON;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+import static org.jboss.aerogear.controller.router.RequestMethod.POST;
+import static org.jboss.aerogear.controller.router.RequestMethod.PUT;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.mocks.LoadHarness;
+import org.jboss.aerogear.controller.mocks.LoadRequest;
+import org.jboss.aerogear.controller.router.decorators.cors.CorsConfig;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Fails when the mean number of bytes allocated on the heap while dispatching a request exceeds the budget recorded for its
+ * scenario and the major version of the running JVM in {@code allocation-budgets.properties}, for example
+ * {@code parameterless-get.8}.
+ * </p>
+ * Every scenario is warmed up long enough for the dispatch path to be compiled, so that allocations removed by escape
+ * analysis are not counted. The budgets are measured on HotSpot with some headroom, as the JDK's own allocations differ
+ * between versions, and should be lowered when an allocation is removed from the dispatch path. The test is skipped on JVMs
+ * that have no recorded budget or cannot count the allocations of a thread.
+ */
+public class AllocationBudgetTest {
+
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 5000;
+    private static final Properties BUDGETS = new Properties();
+    private static final int JAVA_VERSION = javaVersion();
+
+    private final RoutingModule routingModule = new AbstractRoutingModule() {
+        @Override
+        public void configuration() {
+            route()
+                    .from("/car")
+                    .on(GET)
+                    .produces(JSON)
+                    .to(Cars.class).get();
+            route()
+                    .from("/cars/{id}")
+                    .on(GET)
+                    .produces(JSON)
+                    .to(Cars.class).find(param("id"));
+            route()
+                    .from("/cars")
+                    .on(POST)
+                    .consumes(JSON)
+                    .produces(JSON)
+                    .to(Cars.class).save(param(Car.class));
+        }
+    };
+
+    @BeforeClass
+    public static void loadBudgets() throws IOException {
+        final InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties");
+        try {
+            BUDGETS.load(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /*
+     * The major version of the running JVM: 8 for "1.8", 11 for "11".
+     */
+    private static int javaVersion() {
+        final String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+
+    @Test
+    public void parameterlessGet() throws Exception {
+        assertWithinBudget(LoadRequest.get("/car").accept(JSON).named("parameterless-get"));
+    }
+
+    @Test
+    public void pathParameters() throws Exception {
+        assertWithinBudget(LoadRequest.get("/cars/42").accept(JSON).named("path-parameters"));
+    }
+
+    @Test
+    public void jsonPost() throws Exception {
+        assertWithinBudget(LoadRequest.post("/cars").accept(JSON).body(JSON, "{\"color\":\"red\",\"brand\":\"Ferrari\"}")
+                .named("json-post"));
+    }
+
+    @Test
+    public void corsPreflight() throws Exception {
+        assertWithinBudget(LoadRequest.preflight("/cars", "http://example.com", PUT)
+                .header("Access-Control-Request-Headers", "content-type").named("cors-preflight"));
+    }
+
+    private void assertWithinBudget(final LoadRequest request) throws Exception {
+        final String recorded = BUDGETS.getProperty(request.getName() + "." + JAVA_VERSION);
+        assumeTrue(recorded != null);
+        final long budget = Long.parseLong(recorded);
+        final long allocated = LoadHarness.from(routingModule)
+                .cors(CorsConfig.enableCorsSupport().anyOrigin().enableCookies().maxAge(3600).enableAllRequestMethods()
+                        .validRequestHeaders("accept, content-type"))
+                .threads(1)
+                .warmup(WARMUP)
+                .iterations(ITERATIONS)
+                .request(request)
+                .run()
+                .get(request.getName())
+                .getAllocatedBytesPerRequest();
+        assumeTrue(allocated != -1);
+        assertThat(allocated).as(request.getName() + " allocated " + allocated + " bytes per request, budget is " + budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    public static class Cars {
+
+        public Car get() {
+            return new Car("red", "Ferrari");
+        }
+
+        public Car find(final String id) {
+            return new Car("red", id);
+        }
+
+        public Car save(final Car car) {
+            return car;
+        }
+
+    }
+
+}
@@ -0,0 +1,231 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.decorators.deadline.Deadline;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineContext;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineExceededException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoalescerTest {
+
+    private static final int REQUESTS = 8;
+
+    private final RouteCounters counters = RouteCounters.forName("coalescer-test");
+    private final Coalescer coalescer = new Coalescer(counters);
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private Route route;
+
+    @Before
+    public void setup() {
+        counters.reset();
+        executor = Executors.newFixedThreadPool(2 * REQUESTS);
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        rb.from("/cars").on(RequestMethod.GET).coalesce().to(SampleController.class).find("red", "Audi");
+        route = rb.build();
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentIdenticalInvocationsAreCoalesced() throws Exception {
+        final List<Future<Object>> results = invokeConcurrently(null, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                invocations.incrementAndGet();
+                release.await();
+                return "result";
+            }
+        }, "red");
+        awaitCoalesced(REQUESTS - 1);
+        release.countDown();
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(counters.get("/cars", DefaultRouteProcessor.INVOCATIONS)).isEqualTo(1);
+        assertThat(coalescer.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void exceptionIsSharedWithEveryWaiter() throws Exception {
+        final IllegalStateException exception = new IllegalStateException("downstream failure");
+        final List<Future<Object>> results = invokeConcurrently(null, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                release.await();
+                throw exception;
+            }
+        }, "red");
+        awaitCoalesced(REQUESTS - 1);
+        release.countDown();
+        for (Future<Object> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("expected the invocation to fail");
+            } catch (final ExecutionException e) {
+                assertThat(e.getCause()).isSameAs(exception);
+            }
+        }
+        assertThat(coalescer.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void differentArgumentsAreNotCoalesced() throws Exception {
+        final Callable<Object> invocation = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                invocations.incrementAndGet();
+                release.await();
+                return "result";
+            }
+        };
+        final List<Future<Object>> results = new ArrayList<Future<Object>>();
+        results.addAll(invokeConcurrently(null, invocation, "red"));
+        results.addAll(invokeConcurrently(null, invocation, "blue"));
+        awaitCoalesced(2 * (REQUESTS - 1));
+        release.countDown();
+        for (Future<Object> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(invocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void sequentialInvocationsAreNotCoalesced() throws Exception {
+        release.countDown();
+        final Callable<Object> invocation = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return invocations.incrementAndGet();
+            }
+        };
+        assertThat(coalescer.invoke(route, null, new Object[] { new String[] { "red" } }, invocation)).isEqualTo(1);
+        assertThat(coalescer.invoke(route, null, new Object[] { new String[] { "red" } }, invocation)).isEqualTo(2);
+        assertThat(counters.get("/cars", DefaultRouteProcessor.COALESCED)).isEqualTo(0);
+    }
+
+    @Test
+    public void differentCallersAreNotCoalesced() throws Exception {
+        final Callable<Object> invocation = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                invocations.incrementAndGet();
+                release.await();
+                return "result";
+            }
+        };
+        final List<Future<Object>> results = new ArrayList<Future<Object>>();
+        results.addAll(invokeConcurrently("principal:alice", invocation, "red"));
+        results.addAll(invokeConcurrently("principal:bob", invocation, "red"));
+        awaitCoalesced(2 * (REQUESTS - 1));
+        release.countDown();
+        for (Future<Object> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(invocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void waitBoundedByDeadline() throws Exception {
+        final Callable<Object> invocation = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                release.await();
+                return "result";
+            }
+        };
+        final Future<Object> leader = invokeConcurrently(null, invocation, "red", 1).get(0);
+        awaitInFlight();
+        final Deadline previous = DeadlineContext.attach(Deadline.after(20, TimeUnit.MILLISECONDS));
+        try {
+            coalescer.invoke(route, null, new Object[] { "red", new String[] { "Audi" } }, invocation);
+            fail("expected the deadline to be exceeded");
+        } catch (final DeadlineExceededException e) {
+            assertThat(e.getStatus()).isEqualTo(504);
+        } finally {
+            DeadlineContext.detach(previous);
+        }
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    private List<Future<Object>> invokeConcurrently(final String caller, final Callable<Object> invocation,
+            final String color) {
+        return invokeConcurrently(caller, invocation, color, REQUESTS);
+    }
+
+    private List<Future<Object>> invokeConcurrently(final String caller, final Callable<Object> invocation,
+            final String color, final int requests) {
+        final List<Future<Object>> results = new ArrayList<Future<Object>>();
+        for (int i = 0; i < requests; i++) {
+            results.add(executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return coalescer.invoke(route, caller, new Object[] { color, new String[] { "Audi" } }, invocation);
+                }
+            }));
+        }
+        return results;
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (coalescer.inFlight() == 0) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("timed out waiting for an invocation in flight");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(final long expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (counters.get("/cars", DefaultRouteProcessor.COALESCED) < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("timed out waiting for " + expected + " coalesced invocations");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -29,18 +29,26 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.Map;
+
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
 
 import org.jboss.aerogear.controller.Car;
+import org.jboss.aerogear.controller.IntsCountProvider;
 import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.metrics.RouteCounters;
 import org.jboss.aerogear.controller.mocks.RouteTester;
 import org.jboss.aerogear.controller.router.parameter.MissingRequestParameterException;
 import org.jboss.aerogear.controller.router.rest.AbstractRestResponder;
 import org.jboss.aerogear.controller.router.rest.JsonResponder;
+import org.jboss.aerogear.controller.router.rest.pagination.CursorPaginationInfo;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationHandler;
 import org.jboss.aerogear.controller.router.rest.pagination.PaginationInfo;
+import org.jboss.aerogear.controller.router.rest.pagination.PaginationRequestException;
 import org.junit.Test;
 
 public class DefaultRouteProcessorTest {
@@ -527,6 +535,258 @@ public class DefaultRouteProcessorTest {
         assertThat(routeTester.getStringWriter().toString()).isEqualTo("[]");
     }
     
+    @Test
+    public void testPagedEndpointMaxLimit() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithDefaults(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/ints?color=blue&limit=1001");
+        assertThat(result.getResult()).isInstanceOf(PaginationRequestException.class);
+        verify(result.getRouteContext().getResponse()).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void testPagedEndpointWithTotalCount() throws Exception {
+        final IntsCountProvider countProvider = new IntsCountProvider();
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithTotal(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder()).countProvider(countProvider);
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/ints?color=green");
+        final HttpServletResponse response = result.getRouteContext().getResponse();
+        verify(response).setHeader("Link", "<http://localhost:8080/test/ints?color=green&offset=10&limit=10>; rel=\"next\","
+                + "<http://localhost:8080/test/ints?color=green&offset=40&limit=10>; rel=\"last\"");
+        verify(response).setHeader("X-Total-Count", "50");
+        assertThat(countProvider.getInvocations()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPagedEndpointTotalCountCached() throws Exception {
+        final IntsCountProvider countProvider = new IntsCountProvider();
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithTotalCustomHeaders(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder()).countProvider(countProvider);
+        routeTester.acceptHeader(JSON).processGetRequest("/ints?color=purple&offset=0&limit=10");
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/ints?color=purple&offset=10&limit=10");
+        final HttpServletResponse response = result.getRouteContext().getResponse();
+        verify(response, times(2)).setHeader("TS-Total-Count", "50");
+        verify(response, times(2)).setHeader("TS-Links-Last", "http://localhost:8080/test/ints?color=purple&offset=40&limit=10");
+        assertThat(countProvider.getInvocations()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPagedEndpointTotalCountCachedPerCaller() throws Exception {
+        final IntsCountProvider countProvider = new IntsCountProvider();
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithTotalCustomHeaders(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder()).countProvider(countProvider);
+        routeTester.principal("alice").acceptHeader(JSON).processGetRequest("/ints?color=yellow&offset=0&limit=10");
+        routeTester.principal("bob").acceptHeader(JSON).processGetRequest("/ints?color=yellow&offset=0&limit=10");
+        routeTester.principal("alice").acceptHeader(JSON).processGetRequest("/ints?color=yellow&offset=10&limit=10");
+        assertThat(countProvider.getInvocations()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPagedEndpointWithTotalCountLastPage() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithTotalCustomHeaders(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder()).countProvider(new IntsCountProvider());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/ints?color=orange&offset=40&limit=10");
+        final HttpServletResponse response = result.getRouteContext().getResponse();
+        verify(response).setHeader("TS-Links-Previous", "http://localhost:8080/test/ints?color=orange&offset=30&limit=10");
+        verify(response, never()).setHeader(eq("TS-Links-Next"), anyString());
+        verify(response, never()).setHeader(eq("TS-Links-Last"), anyString());
+        verify(response).setHeader("TS-Total-Count", "50");
+    }
+
+    @Test
+    public void testPagedEndpointWithPrefetch() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/prefetched-ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithPrefetch(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final RouteCounters counters = RouteCounters.forName(PaginationHandler.PREFETCH_COUNTERS);
+        routeTester.acceptHeader(JSON).processGetRequest("/prefetched-ints?color=blue&offset=0&limit=10");
+        assertThat(counters.get("/prefetched-ints", PaginationHandler.PREFETCH_MISSES)).isEqualTo(1);
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest(
+                "/prefetched-ints?color=blue&offset=10&limit=10");
+        assertThat(counters.get("/prefetched-ints", PaginationHandler.PREFETCH_HITS)).isEqualTo(1);
+        assertThat(counters.get("/prefetched-ints", PaginationHandler.PREFETCH_MISSES)).isEqualTo(1);
+        verify(result.getRouteContext().getResponse()).setHeader("Link",
+                "<http://localhost:8080/test/prefetched-ints?color=blue&offset=0&limit=10>; rel=\"previous\","
+                        + "<http://localhost:8080/test/prefetched-ints?color=blue&offset=20&limit=10>; rel=\"next\"");
+        assertThat(routeTester.getStringWriter().toString()).endsWith("[10,11,12,13,14,15,16,17,18,19]");
+    }
+
+    @Test
+    public void testPagedEndpointWithPrefetchNotSharedBetweenPrincipals() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/principal-ints")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findByWithPrefetch(param(PaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final RouteCounters counters = RouteCounters.forName(PaginationHandler.PREFETCH_COUNTERS);
+        routeTester.principal("alice").acceptHeader(JSON).processGetRequest("/principal-ints?color=blue&offset=0&limit=10");
+        routeTester.principal("bob").acceptHeader(JSON).processGetRequest("/principal-ints?color=blue&offset=10&limit=10");
+        assertThat(counters.get("/principal-ints", PaginationHandler.PREFETCH_HITS)).isEqualTo(0);
+        assertThat(counters.get("/principal-ints", PaginationHandler.PREFETCH_MISSES)).isEqualTo(2);
+        routeTester.principal("alice").acceptHeader(JSON).processGetRequest("/principal-ints?color=blue&offset=10&limit=10");
+        assertThat(counters.get("/principal-ints", PaginationHandler.PREFETCH_HITS)).isEqualTo(1);
+    }
+
+    @Test
+    public void testCursorPagedEndpointFirstPage() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findCarsByCursor(param(CursorPaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/cars?color=red");
+        verify(routeTester.<SampleController>getController()).findCarsByCursor(any(CursorPaginationInfo.class), eq("red"));
+        verify(result.getRouteContext().getResponse()).setHeader("Link",
+                "<http://localhost:8080/test/cars?color=red&cursor=YTowOQ&limit=10>; rel=\"next\"");
+    }
+
+    @Test
+    public void testCursorPagedEndpointMiddlePage() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findCarsByCursorWithCustomHeaders(param(CursorPaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/cars?color=red&after=YTowOQ&limit=5");
+        final HttpServletResponse response = result.getRouteContext().getResponse();
+        verify(response).setHeader("TS-Links-Previous", "http://localhost:8080/test/cars?color=red&after=YjoxMA&limit=5");
+        verify(response).setHeader("TS-Links-Next", "http://localhost:8080/test/cars?color=red&after=YToxNA&limit=5");
+        assertThat(routeTester.getStringWriter().toString()).contains("\"brand\":\"10\"").contains("\"brand\":\"14\"")
+                .excludes("\"brand\":\"15\"");
+    }
+
+    @Test
+    public void testCursorPagedEndpointBackToFirstPage() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findCarsByCursorWithCustomHeaders(param(CursorPaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/cars?color=red&after=YjowMw&limit=5");
+        final HttpServletResponse response = result.getRouteContext().getResponse();
+        verify(response, never()).setHeader(eq("TS-Links-Previous"), anyString());
+        verify(response).setHeader("TS-Links-Next", "http://localhost:8080/test/cars?color=red&after=YTowMg&limit=5");
+    }
+
+    @Test
+    public void testCursorPagedEndpointLastPage() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findCarsByCursorWithCustomHeaders(param(CursorPaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/cars?color=red&after=YTo0Nw&limit=5");
+        final HttpServletResponse response = result.getRouteContext().getResponse();
+        verify(response).setHeader("TS-Links-Previous", "http://localhost:8080/test/cars?color=red&after=Yjo0OA&limit=5");
+        verify(response, never()).setHeader(eq("TS-Links-Next"), anyString());
+    }
+
+    @Test
+    public void testCursorPagedEndpointMaxLimit() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findCarsByCursor(param(CursorPaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/cars?color=red&limit=21");
+        assertThat(result.getResult()).isInstanceOf(PaginationRequestException.class);
+        verify(routeTester.<SampleController>getController(), never()).findCarsByCursor(any(CursorPaginationInfo.class), anyString());
+    }
+
+    @Test
+    public void testCursorPagedEndpointInvalidCursor() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route()
+                        .from("/cars")
+                        .on(GET)
+                        .produces(JSON)
+                        .to(SampleController.class).findCarsByCursor(param(CursorPaginationInfo.class), param("color"));
+            }
+        }).spyController(new SampleController()).addResponder(new JsonResponder());
+        final InvocationResult result = routeTester.acceptHeader(JSON).processGetRequest("/cars?color=red&cursor=Zm9v");
+        assertThat(result.getResult()).isInstanceOf(PaginationRequestException.class);
+        verify(result.getRouteContext().getResponse()).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+    }
+
     @Test 
     public void testMissingQueryParameter() throws Exception {
         final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
@@ -560,6 +820,66 @@ public class DefaultRouteProcessorTest {
         verify(routeTester.jspResponder()).respond(any(), any(RouteContext.class));
     }
     
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompositeRoute() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                final RouteBuilder.CompositeEndpoint dashboard = route()
+                        .from("/dashboard")
+                        .on(GET)
+                        .produces(JSON)
+                        .compose();
+                dashboard.part("first").to(SampleController.class).findCarAfter(param("brand"), 400L);
+                dashboard.part("second").to(SampleController.class).findCarAfter("BMW", 400L);
+                dashboard.part("third").to(SampleController.class).findCarAfter("Lada", 400L);
+            }
+        }).spyController(new SampleController()).acceptHeader(JSON).param("brand", "Audi");
+        final long start = System.currentTimeMillis();
+        final InvocationResult result = routeTester.processGetRequest("/dashboard");
+        final long elapsed = System.currentTimeMillis() - start;
+        final Map<String, Car> cars = (Map<String, Car>) result.getResult();
+        assertThat(cars.keySet()).containsOnly("first", "second", "third");
+        assertThat(cars.get("first").getBrand()).isEqualTo("Audi");
+        assertThat(cars.get("second").getBrand()).isEqualTo("BMW");
+        assertThat(cars.get("third").getBrand()).isEqualTo("Lada");
+        assertThat(elapsed).isLessThan(1200);
+        verify(routeTester.jsonResponder()).respond(eq(cars), any(RouteContext.class));
+    }
+
+    @Test
+    public void testCompositeRoutePartTimeout() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                final RouteBuilder.CompositeEndpoint dashboard = route().from("/dashboard").on(GET).compose();
+                dashboard.part("fast").to(SampleController.class).findCarAfter("Audi", 0L);
+                dashboard.part("slow").timeout(50).to(SampleController.class).findCarAfter("BMW", 2000L);
+            }
+        }).spyController(new SampleController()).acceptHeader(JSON);
+        final InvocationResult result = routeTester.processGetRequest("/dashboard");
+        assertThat(result.getResult()).isInstanceOf(CompositePartTimeoutException.class);
+        verify(result.getRouteContext().getResponse()).setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompositeRouteOptionalPartTimeout() throws Exception {
+        final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                final RouteBuilder.CompositeEndpoint dashboard = route().from("/dashboard").on(GET).compose().timeout(50);
+                dashboard.part("fast").to(SampleController.class).findCarAfter("Audi", 0L);
+                dashboard.part("slow").optional().to(SampleController.class).findCarAfter("BMW", 2000L);
+            }
+        }).spyController(new SampleController()).acceptHeader(JSON);
+        final Map<String, Car> cars = (Map<String, Car>) routeTester.processGetRequest("/dashboard").getResult();
+        assertThat(cars.get("fast").getBrand()).isEqualTo("Audi");
+        assertThat(cars.containsKey("slow")).isTrue();
+        assertThat(cars.get("slow")).isNull();
+    }
+
     @Test
     public void testMvcRouteWithPathParamAndConstant() throws Exception {
         final RouteTester routeTester = RouteTester.from(new AbstractRoutingModule() {
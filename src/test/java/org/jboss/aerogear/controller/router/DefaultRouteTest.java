@@ -26,6 +26,7 @@ import java.util.Set;
 
 import org.fest.assertions.Fail;
 import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.router.rest.projection.InvalidProjectionException;
 import org.jboss.aerogear.controller.util.RequestUtils;
 import org.junit.Test;
 
@@ -190,7 +191,56 @@ public class DefaultRouteTest {
         final Route route = new DefaultRoute(rd);
         assertThat(route.produces()).contains(MediaType.JSON);
     }
-    
+
+    @Test
+    public void fields() {
+        final RouteDescriptor rd = new RouteDescriptor();
+        rd.setPath("/home").on(GET).produces(MediaType.JSON).fields("id", "owner(name)").to(SampleController.class).index();
+        final Route route = new DefaultRoute(rd);
+        assertThat(route.getFields().get()).isEqualTo("id,owner(name)");
+    }
+
+    @Test
+    public void noFields() {
+        final RouteDescriptor rd = new RouteDescriptor();
+        rd.setPath("/home").on(GET).produces(MediaType.JSON).to(SampleController.class).index();
+        assertThat(new DefaultRoute(rd).getFields().isPresent()).isFalse();
+    }
+
+    @Test(expected = InvalidProjectionException.class)
+    public void invalidFields() {
+        new RouteDescriptor().setPath("/home").on(GET).fields("owner(name");
+    }
+
+    @Test
+    public void producesJsonDoesNotProduceSmile() {
+        final RouteDescriptor rd = new RouteDescriptor();
+        rd.setPath("/home").on(GET).produces(MediaType.JSON).consumes(MediaType.JSON).to(SampleController.class).index();
+        final Route route = new DefaultRoute(rd);
+        assertThat(route.produces()).containsOnly(MediaType.JSON);
+        assertThat(((DefaultRoute) route).consumes()).containsOnly(MediaType.JSON.getType());
+    }
+
+    @Test
+    public void producesJsonMatchesExplicitSmileAccept() {
+        final RouteDescriptor rd = new RouteDescriptor();
+        rd.setPath("/home").on(GET).produces(MediaType.JSON).to(SampleController.class).index();
+        final Route route = new DefaultRoute(rd);
+        assertThat(route.matches(RequestMethod.GET, "/home", acceptHeaders(MediaType.SMILE.getType()))).isTrue();
+        assertThat(route.produces()).containsOnly(MediaType.JSON);
+    }
+
+    @Test
+    public void producesSmileWhenDeclared() {
+        final RouteDescriptor rd = new RouteDescriptor();
+        rd.setPath("/home").on(GET).produces(MediaType.JSON, MediaType.SMILE).consumes(MediaType.JSON, MediaType.SMILE)
+                .to(SampleController.class).index();
+        final Route route = new DefaultRoute(rd);
+        assertThat(route.produces()).containsOnly(MediaType.JSON, MediaType.SMILE);
+        assertThat(route.produces().iterator().next()).isEqualTo(MediaType.JSON);
+        assertThat(((DefaultRoute) route).consumes()).contains(MediaType.SMILE.getType());
+    }
+
     @Test
     public void matchesProducesMultiplePathParams() throws NoSuchMethodException {
         final RouteDescriptor rd = new RouteDescriptor();
@@ -16,12 +16,18 @@
  */
 package org.jboss.aerogear.controller.router;
 
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import javax.enterprise.inject.Instance;
+import javax.servlet.http.HttpServletResponse;
 
+import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.mocks.FakeRequest;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -29,7 +35,11 @@ public class DefaultRouterTest {
     
     @Mock
     private Instance<RoutingModule> routingModuleInstance;
-    
+    @Mock
+    private RouteProcessor routeProcessor;
+    @Mock
+    private HttpServletResponse response;
+
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
@@ -41,4 +51,41 @@ public class DefaultRouterTest {
         new DefaultRouter(routingModuleInstance, null);
     }
 
+    @Test
+    public void routeResolvedOncePerRequest() throws Exception {
+        final DefaultRouter router = router();
+        final FakeRequest request = new FakeRequest().path("/cars");
+        assertThat(router.hasRouteFor(request)).isTrue();
+        final Route route = router.routeFor(request).get();
+        assertThat(request.getAttribute(DefaultRouter.ROUTE_ATTRIBUTE)).isNotNull();
+        // no POST route exists, so the dispatched route can only be the one resolved above
+        request.method(RequestMethod.POST);
+        router.dispatch(request, response, null);
+        final ArgumentCaptor<RouteContext> routeContext = ArgumentCaptor.forClass(RouteContext.class);
+        verify(routeProcessor).process(routeContext.capture());
+        assertThat(routeContext.getValue().getRoute()).isSameAs(route);
+    }
+
+    @Test
+    public void routeResolvedAgainForAnotherPath() {
+        final DefaultRouter router = router();
+        final FakeRequest request = new FakeRequest().path("/cars");
+        final Route cars = router.routeFor(request).get();
+        request.path("/cars/1");
+        assertThat(router.routeFor(request).get()).isNotSameAs(cars);
+        request.path("/trucks");
+        assertThat(router.hasRouteFor(request)).isFalse();
+    }
+
+    private DefaultRouter router() {
+        when(routingModuleInstance.get()).thenReturn(new AbstractRoutingModule() {
+            @Override
+            public void configuration() {
+                route().from("/cars").on(RequestMethod.GET).to(SampleController.class).index();
+                route().from("/cars/{id}").on(RequestMethod.GET).to(SampleController.class).find(param("id"));
+            }
+        });
+        return new DefaultRouter(routingModuleInstance, routeProcessor);
+    }
+
 }
@@ -0,0 +1,102 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.inject.spi.BeanManager;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.SampleController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EndpointInvokerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ControllerFactory controllerFactory = mock(ControllerFactory.class);
+    private final BeanManager beanManager = mock(BeanManager.class);
+    private ThreadPoolExecutor saturated;
+    private EndpointInvoker invoker;
+
+    @Before
+    public void saturateExecutor() {
+        saturated = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(1));
+        for (int i = 0; i < 2; i++) {
+            saturated.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        when(controllerFactory.createController(SampleController.class, beanManager)).thenReturn(new SampleController());
+        invoker = new EndpointInvoker(controllerFactory, beanManager, saturated);
+    }
+
+    @After
+    public void releaseExecutor() {
+        release.countDown();
+        saturated.shutdown();
+    }
+
+    @Test
+    public void requiredPartRejectedWhenQueueFull() throws Exception {
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        rb.from("/dashboard").on(RequestMethod.GET).compose().part("car").to(SampleController.class).findCarAfter("Audi", 0L);
+        final long start = System.nanoTime();
+        try {
+            invoker.invokeParts(routeContext(rb.build()), Arrays.<Object[]> asList(new Object[] { "Audi", 0L }));
+            fail("expected the part to be rejected");
+        } catch (final CompositePartRejectedException e) {
+            assertThat(e.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+    }
+
+    @Test
+    public void optionalPartRejectedWhenQueueFull() throws Exception {
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        rb.from("/dashboard").on(RequestMethod.GET).compose().part("car").optional().to(SampleController.class)
+                .findCarAfter("Audi", 0L);
+        final Map<String, Object> results = invoker.invokeParts(routeContext(rb.build()),
+                Arrays.<Object[]> asList(new Object[] { "Audi", 0L }));
+        assertThat(results.containsKey("car")).isTrue();
+        assertThat(results.get("car")).isNull();
+    }
+
+    private static RouteContext routeContext(final Route route) {
+        return new RouteContext(route, "/dashboard", mock(HttpServletRequest.class), mock(HttpServletResponse.class), null);
+    }
+
+}
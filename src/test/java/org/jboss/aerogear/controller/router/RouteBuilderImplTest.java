@@ -19,7 +19,11 @@ package org.jboss.aerogear.controller.router;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.concurrent.TimeUnit;
+
 import org.jboss.aerogear.controller.SampleController;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.Bulkhead;
+import org.jboss.aerogear.controller.router.decorators.ratelimit.RateLimit;
 import org.junit.Test;
 
 public class RouteBuilderImplTest {
@@ -71,6 +75,97 @@ public class RouteBuilderImplTest {
         assertThat(rb.build().produces()).contains(MediaType.JSON);
     }
 
+    @Test
+    public void testComposite() {
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        final RouteBuilder.CompositeEndpoint composite = rb.from("/somepath").on(RequestMethod.GET).compose().timeout(200);
+        composite.part("index").to(SampleController.class).index();
+        composite.part("car").timeout(100).optional().to(SampleController.class).find("3");
+        final Route route = rb.build();
+        assertThat(route.isComposite()).isTrue();
+        assertThat(route.getTargetMethod()).isNull();
+        assertThat(route.produces()).contains(MediaType.JSON);
+        assertThat(route.getParts()).hasSize(2);
+        final CompositePart index = route.getParts().get(0);
+        assertThat(index.getName()).isEqualTo("index");
+        assertThat(index.getTimeout()).isEqualTo(200);
+        assertThat(index.isOptional()).isFalse();
+        assertThat(index.getRoute().getTargetMethod().getName()).isEqualTo("index");
+        assertThat(index.getRoute().getPath()).isEqualTo("/somepath");
+        final CompositePart car = route.getParts().get(1);
+        assertThat(car.getTimeout()).isEqualTo(100);
+        assertThat(car.isOptional()).isTrue();
+        assertThat(car.getRoute().getParameters()).hasSize(1);
+    }
+
+    @Test
+    public void testNotComposite() {
+        final Route route = defaultRouteBuilder().build();
+        assertThat(route.isComposite()).isFalse();
+        assertThat(route.getParts()).isEmpty();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCompositeCannotProduceViews() {
+        new RouteBuilderImpl().from("/somepath").on(RequestMethod.GET).produces(MediaType.JSP).compose();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompositeDuplicatePart() {
+        final RouteBuilder.CompositeEndpoint composite = new RouteBuilderImpl().from("/somepath").on(RequestMethod.GET)
+                .compose();
+        composite.part("index").to(SampleController.class).index();
+        composite.part("index");
+    }
+
+    @Test
+    public void testCoalesce() {
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        rb.from("/somepath").on(RequestMethod.GET).coalesce().to(SampleController.class).index();
+        assertThat(rb.build().isCoalesced()).isTrue();
+        assertThat(defaultRouteBuilder().build().isCoalesced()).isFalse();
+    }
+
+    @Test
+    public void testPriority() {
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        rb.from("/somepath").on(RequestMethod.GET).priority(Priority.LOW).to(SampleController.class).index();
+        assertThat(rb.build().getPriority()).isEqualTo(Priority.LOW);
+        assertThat(defaultRouteBuilder().build().getPriority()).isEqualTo(Priority.NORMAL);
+    }
+
+    @Test
+    public void testBulkhead() {
+        final Bulkhead reports = new Bulkhead("reports", 2, 100);
+        final RouteBuilderImpl shared = new RouteBuilderImpl();
+        shared.from("/reports").on(RequestMethod.GET).bulkhead(reports).to(SampleController.class).index();
+        assertThat(shared.build().getBulkhead().get()).isSameAs(reports);
+        final RouteBuilderImpl own = new RouteBuilderImpl();
+        own.from("/somepath").on(RequestMethod.GET).bulkhead(3).to(SampleController.class).index();
+        assertThat(own.build().getBulkhead().get().getMaxConcurrent()).isEqualTo(3);
+        assertThat(defaultRouteBuilder().build().getBulkhead().isPresent()).isFalse();
+    }
+
+    @Test
+    public void testDeadline() {
+        final RouteBuilderImpl rb = new RouteBuilderImpl();
+        rb.from("/somepath").on(RequestMethod.GET).deadline(250).to(SampleController.class).index();
+        assertThat(rb.build().getDeadline().get()).isEqualTo(250L);
+        assertThat(defaultRouteBuilder().build().getDeadline().isPresent()).isFalse();
+    }
+
+    @Test
+    public void testRateLimit() {
+        final RateLimit search = RateLimit.of(100, 1, TimeUnit.MINUTES).burst(20).keyedBy("X-Api-Key").build();
+        final RouteBuilderImpl shared = new RouteBuilderImpl();
+        shared.from("/cars").on(RequestMethod.GET).rateLimit(search).to(SampleController.class).index();
+        assertThat(shared.build().getRateLimit().get()).isSameAs(search);
+        final RouteBuilderImpl own = new RouteBuilderImpl();
+        own.from("/somepath").on(RequestMethod.GET).rateLimit(10, 1, TimeUnit.SECONDS).to(SampleController.class).index();
+        assertThat(own.build().getRateLimit().get().getBurst()).isEqualTo(10);
+        assertThat(defaultRouteBuilder().build().getRateLimit().isPresent()).isFalse();
+    }
+
     @Test
     public void testConsumes() {
         final RouteBuilderImpl rb = new RouteBuilderImpl();
@@ -0,0 +1,62 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.aerogear.controller.router;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.jboss.aerogear.controller.router.RequestMethod.GET;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.aerogear.controller.mocks.SyntheticRoutes;
+import org.junit.Test;
+
+/**
+ * Fails when building the route table of a large application exceeds its time or class loading budget. It guards in the
+ * regular build what {@code RouteTableBenchmark} measures in detail, for example a route proxy being generated per route
+ * instead of per target class.
+ * </p>
+ * A small routing module is built first, so that only the classes loaded because of the number of routes are counted. On
+ * HotSpot 8 to 21 building 1000 routes takes about 100 milliseconds and loads at most 10 classes, the budgets leave ample
+ * headroom for slow build machines.
+ */
+public class RouteTableBudgetTest {
+
+    private static final int ROUTES = 1000;
+    private static final long TIME_BUDGET_MILLIS = 3000;
+    private static final long CLASS_BUDGET = 100;
+
+    @Test
+    public void buildWithinBudget() {
+        final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        SyntheticRoutes.mixedModule(8).build();
+        final long loaded = classLoading.getTotalLoadedClassCount();
+        final long start = System.nanoTime();
+        final Routes routes = SyntheticRoutes.mixedModule(ROUTES).build();
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final long classes = classLoading.getTotalLoadedClassCount() - loaded;
+        assertThat(routes.hasRouteFor(GET, SyntheticRoutes.parameterizedPath(ROUTES - 3),
+                Collections.singleton(MediaType.JSON.getType()))).isTrue();
+        assertThat(millis).as("building " + ROUTES + " routes took " + millis + " ms, budget is " + TIME_BUDGET_MILLIS)
+                .isLessThanOrEqualTo(TIME_BUDGET_MILLIS);
+        assertThat(classes).as("building " + ROUTES + " routes loaded " + classes + " classes, budget is " + CLASS_BUDGET)
+                .isLessThanOrEqualTo(CLASS_BUDGET);
+    }
+
+}
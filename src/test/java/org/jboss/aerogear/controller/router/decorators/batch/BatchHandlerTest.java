@@ -0,0 +1,279 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.batch;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.inject.Instance;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.JsonNode;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.rest.ObjectMappers;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.base.Optional;
+
+public class BatchHandlerTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private ServletContext servletContext;
+    @Mock
+    private FilterChain chain;
+    @Mock
+    private Instance<BatchConfiguration> batchInstance;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+    @Before
+    public void initMocks() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        when(servletContext.getContextPath()).thenReturn("/test");
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/test/batch");
+        when(request.getHeaderNames()).thenAnswer(new Answer<Enumeration<String>>() {
+            @Override
+            public Enumeration<String> answer(final InvocationOnMock invocation) {
+                return Collections.enumeration(Collections.singleton("Accept-Language"));
+            }
+        });
+        when(request.getHeaders("Accept-Language")).thenAnswer(new Answer<Enumeration<String>>() {
+            @Override
+            public Enumeration<String> answer(final InvocationOnMock invocation) {
+                return Collections.enumeration(Collections.singleton("en"));
+            }
+        });
+        when(request.getHeader("Accept-Language")).thenReturn("en");
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) {
+                output.write(b);
+            }
+        });
+        when(batchInstance.isUnsatisfied()).thenReturn(false);
+        when(batchInstance.get()).thenReturn(BatchConfig.enableBatching().maxRequests(3).build());
+    }
+
+    @Test
+    public void batchDisabledByDefault() throws Exception {
+        when(batchInstance.isUnsatisfied()).thenReturn(true);
+        final Router delegate = mock(Router.class);
+        final BatchHandler handler = new BatchHandler(delegate, batchInstance);
+        assertThat(handler.hasRouteFor(request)).isFalse();
+        handler.dispatch(request, response, chain);
+        verify(delegate).dispatch(request, response, chain);
+    }
+
+    @Test
+    public void nonBatchRequestsAreDelegated() throws Exception {
+        when(request.getRequestURI()).thenReturn("/test/cars");
+        final Router delegate = mock(Router.class);
+        new BatchHandler(delegate, batchInstance).dispatch(request, response, chain);
+        verify(delegate).dispatch(request, response, chain);
+    }
+
+    @Test
+    public void requestsRunSequentiallyByDefault() throws Exception {
+        final JsonNode result = batch("[{\"id\":\"a\",\"path\":\"/echo?name=a\"},{\"id\":\"b\",\"path\":\"/echo?name=b\"}]");
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(threads).containsOnly(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void independentRequestsRunInParallel() throws Exception {
+        when(batchInstance.get()).thenReturn(BatchConfig.enableBatching().maxRequests(3).maxThreads(4).build());
+        final JsonNode result = batch("[{\"id\":\"a\",\"path\":\"/echo?name=a\"},{\"id\":\"b\",\"path\":\"/echo?name=b\"},"
+                + "{\"id\":\"c\",\"method\":\"get\",\"path\":\"/echo?name=c\"}]");
+        assertThat(result.size()).isEqualTo(3);
+        for (int i = 0; i < 3; i++) {
+            final String id = String.valueOf((char) ('a' + i));
+            assertThat(result.get(i).get("id").asText()).isEqualTo(id);
+            assertThat(result.get(i).get("status").asInt()).isEqualTo(200);
+            assertThat(result.get(i).get("headers").get("Content-Language").asText()).isEqualTo("en");
+            assertThat(result.get(i).get("body").asText()).isEqualTo("GET /test/echo " + id);
+        }
+        assertThat(threads.size()).isGreaterThan(1);
+    }
+
+    @Test
+    public void jsonBodiesAreEmbedded() throws Exception {
+        final JsonNode result = batch("[{\"method\":\"POST\",\"path\":\"/json\",\"body\":{\"brand\":\"Audi\"}}]");
+        assertThat(result.get(0).has("id")).isFalse();
+        assertThat(result.get(0).get("status").asInt()).isEqualTo(201);
+        assertThat(result.get(0).get("body").get("brand").asText()).isEqualTo("Audi");
+    }
+
+    @Test
+    public void stringBodiesAreSentAsIs() throws Exception {
+        final JsonNode result = batch("[{\"method\":\"PUT\",\"path\":\"/json\",\"headers\":{\"Content-Type\":"
+                + "\"application/json\"},\"body\":\"[1,2]\"}]");
+        assertThat(result.get(0).get("body").isArray()).isTrue();
+        assertThat(result.get(0).get("body").size()).isEqualTo(2);
+    }
+
+    @Test
+    public void noRouteFound() throws Exception {
+        final JsonNode result = batch("[{\"path\":\"/missing\"},{\"path\":\"/echo?name=x\"}]");
+        assertThat(result.get(0).get("status").asInt()).isEqualTo(404);
+        assertThat(result.get(1).get("status").asInt()).isEqualTo(200);
+    }
+
+    @Test
+    public void failingRequest() throws Exception {
+        final JsonNode result = batch("[{\"path\":\"/fail\"}]");
+        assertThat(result.get(0).get("status").asInt()).isEqualTo(500);
+    }
+
+    @Test
+    public void tooManyRequests() throws Exception {
+        batch("[{\"path\":\"/echo\"},{\"path\":\"/echo\"},{\"path\":\"/echo\"},{\"path\":\"/echo\"}]", false);
+        verify(response).sendError(eq(400), anyString());
+    }
+
+    @Test
+    public void invalidJson() throws Exception {
+        batch("[{\"path\":", false);
+        verify(response).sendError(eq(400), anyString());
+    }
+
+    @Test
+    public void missingPath() throws Exception {
+        batch("[{\"method\":\"GET\"}]", false);
+        verify(response).sendError(eq(400), anyString());
+    }
+
+    @Test
+    public void unsupportedMethod() throws Exception {
+        batch("[{\"method\":\"TRACE\",\"path\":\"/echo\"}]", false);
+        verify(response).sendError(eq(400), anyString());
+        verify(response, never()).setStatus(200);
+    }
+
+    @Test
+    public void bodyTooLarge() throws Exception {
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() {
+                return ' ';
+            }
+        });
+        new BatchHandler(new FakeRouter(), batchInstance).dispatch(request, response, chain);
+        verify(response).sendError(eq(413), anyString());
+    }
+
+    private JsonNode batch(final String body) throws Exception {
+        batch(body, true);
+        verify(response).setStatus(200);
+        verify(response, never()).sendError(any(Integer.class), anyString());
+        return ObjectMappers.json().readTree(output.toByteArray());
+    }
+
+    private void batch(final String body, final boolean expectSuccess) throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes("UTF-8"));
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+        });
+        final BatchHandler handler = new BatchHandler(new FakeRouter(), batchInstance);
+        try {
+            handler.dispatch(request, response, chain);
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private class FakeRouter implements Router {
+
+        @Override
+        public boolean hasRouteFor(final HttpServletRequest request) {
+            return !request.getRequestURI().endsWith("/missing");
+        }
+
+        @Override
+        public Optional<Route> routeFor(final HttpServletRequest request) {
+            return Optional.absent();
+        }
+
+        @Override
+        public void dispatch(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+                throws ServletException {
+            try {
+                if (request.getRequestURI().endsWith("/fail")) {
+                    throw new ServletException("failed");
+                }
+                if (request.getRequestURI().endsWith("/json")) {
+                    final byte[] body = new byte[request.getContentLength()];
+                    final int read = request.getInputStream().read(body);
+                    assertThat(read).isEqualTo(body.length);
+                    assertThat(request.getContentType()).startsWith("application/json");
+                    response.setStatus("POST".equals(request.getMethod()) ? 201 : 200);
+                    response.setContentType("application/json");
+                    response.getOutputStream().write(body);
+                    return;
+                }
+                threads.add(Thread.currentThread().getName());
+                Thread.sleep(50);
+                response.setHeader("Content-Language", request.getHeader("Accept-Language"));
+                response.setContentType("text/plain");
+                response.getWriter().print(request.getMethod() + " " + request.getRequestURI() + " "
+                        + request.getParameter("name"));
+            } catch (final IOException e) {
+                throw new ServletException(e);
+            } catch (final InterruptedException e) {
+                throw new ServletException(e);
+            }
+        }
+    }
+
+}
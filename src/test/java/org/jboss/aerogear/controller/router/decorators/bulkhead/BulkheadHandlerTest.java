@@ -0,0 +1,177 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.bulkhead;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+
+public class BulkheadHandlerTest {
+
+    @Mock
+    private Route route;
+    @Mock
+    private RouteContext routeContext;
+    @Mock
+    private HttpServletResponse response;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final RouteCounters counters = RouteCounters.forName(BulkheadHandler.BULKHEAD_COUNTERS);
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(routeContext.getRoute()).thenReturn(route);
+        when(routeContext.getResponse()).thenReturn(response);
+        when(route.getPath()).thenReturn("/reports");
+        counters.reset();
+    }
+
+    @After
+    public void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void noBulkhead() throws Exception {
+        when(route.getBulkhead()).thenReturn(Optional.<Bulkhead> absent());
+        final InvocationResult result = new BulkheadHandler(new BlockingProcessor(false)).process(routeContext);
+        assertThat(result.getResult()).isEqualTo("done");
+    }
+
+    @Test
+    public void rejectWhenFull() throws Exception {
+        final Bulkhead bulkhead = new Bulkhead("reports", 1);
+        when(route.getBulkhead()).thenReturn(Optional.of(bulkhead));
+        final BulkheadHandler handler = new BulkheadHandler(new BlockingProcessor(true));
+        final Future<InvocationResult> inFlight = processAsync(handler);
+        started.await(5, TimeUnit.SECONDS);
+        try {
+            handler.process(routeContext);
+            fail("expected the bulkhead to be full");
+        } catch (final BulkheadFullException e) {
+            assertThat(e.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+        verify(response).setHeader(BulkheadHandler.RETRY_AFTER_HEADER, "1");
+        assertThat(counters.get("/reports", BulkheadHandler.REJECTED)).isEqualTo(1);
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).getResult()).isEqualTo("done");
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void waitForPermit() throws Exception {
+        final Bulkhead bulkhead = new Bulkhead("reports", 1, 5000);
+        when(route.getBulkhead()).thenReturn(Optional.of(bulkhead));
+        final BulkheadHandler handler = new BulkheadHandler(new BlockingProcessor(true));
+        processAsync(handler);
+        started.await(5, TimeUnit.SECONDS);
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            }
+        }.start();
+        assertThat(handler.process(routeContext).getResult()).isEqualTo("done");
+        verify(response, never()).setHeader(BulkheadHandler.RETRY_AFTER_HEADER, "1");
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void permitReleasedOnException() throws Exception {
+        final Bulkhead bulkhead = new Bulkhead("reports", 1);
+        when(route.getBulkhead()).thenReturn(Optional.of(bulkhead));
+        final BulkheadHandler handler = new BulkheadHandler(new RouteProcessor() {
+            @Override
+            public InvocationResult process(final RouteContext routeContext) throws Exception {
+                throw new IllegalStateException("failed");
+            }
+        });
+        try {
+            handler.process(routeContext);
+            fail("expected the route to fail");
+        } catch (final IllegalStateException e) {
+            assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxConcurrent() {
+        new Bulkhead("reports", 0);
+    }
+
+    private Future<InvocationResult> processAsync(final BulkheadHandler handler) {
+        return executor.submit(new Callable<InvocationResult>() {
+            @Override
+            public InvocationResult call() throws Exception {
+                return handler.process(routeContext);
+            }
+        });
+    }
+
+    private class BlockingProcessor implements RouteProcessor {
+        private final boolean block;
+
+        BlockingProcessor(final boolean block) {
+            this.block = block;
+        }
+
+        @Override
+        public InvocationResult process(final RouteContext routeContext) throws Exception {
+            if (block && started.getCount() > 0) {
+                started.countDown();
+                release.await();
+            }
+            return new InvocationResult("done", routeContext);
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.deadline;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+
+public class DeadlineHandlerTest {
+
+    @Mock
+    private Route route;
+    @Mock
+    private RouteContext routeContext;
+    @Mock
+    private HttpServletRequest request;
+
+    private final RouteCounters counters = RouteCounters.forName(DeadlineHandler.DEADLINE_COUNTERS);
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(routeContext.getRoute()).thenReturn(route);
+        when(routeContext.getRequest()).thenReturn(request);
+        when(route.getPath()).thenReturn("/cars");
+        when(route.getDeadline()).thenReturn(Optional.<Long> absent());
+        counters.reset();
+    }
+
+    @Test
+    public void noDeadline() throws Exception {
+        final InvocationResult result = new DeadlineHandler(new DeadlineProcessor(0)).process(routeContext);
+        assertThat(result.getResult()).isSameAs(Deadline.NONE);
+        assertThat(DeadlineContext.current()).isSameAs(Deadline.NONE);
+    }
+
+    @Test
+    public void routeDeadline() throws Exception {
+        when(route.getDeadline()).thenReturn(Optional.of(5000L));
+        final Deadline deadline = (Deadline) new DeadlineHandler(new DeadlineProcessor(0)).process(routeContext).getResult();
+        assertThat(deadline.getTimeout()).isEqualTo(5000);
+        assertThat(DeadlineContext.current()).isSameAs(Deadline.NONE);
+    }
+
+    @Test
+    public void requestTimeoutHeaderShortensDeadline() throws Exception {
+        when(route.getDeadline()).thenReturn(Optional.of(5000L));
+        when(request.getHeader(DeadlineHandler.REQUEST_TIMEOUT_HEADER)).thenReturn("200");
+        final Deadline deadline = (Deadline) new DeadlineHandler(new DeadlineProcessor(0)).process(routeContext).getResult();
+        assertThat(deadline.getTimeout()).isEqualTo(200);
+    }
+
+    @Test
+    public void malformedRequestTimeoutHeaderIsIgnored() throws Exception {
+        when(request.getHeader(DeadlineHandler.REQUEST_TIMEOUT_HEADER)).thenReturn("soon");
+        final InvocationResult result = new DeadlineHandler(new DeadlineProcessor(0)).process(routeContext);
+        assertThat(result.getResult()).isSameAs(Deadline.NONE);
+    }
+
+    @Test
+    public void resultAfterDeadline() throws Exception {
+        when(route.getDeadline()).thenReturn(Optional.of(20L));
+        try {
+            new DeadlineHandler(new DeadlineProcessor(100)).process(routeContext);
+            fail("expected the deadline to be exceeded");
+        } catch (final DeadlineExceededException e) {
+            assertThat(e.getStatus()).isEqualTo(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+        }
+        assertThat(counters.get("/cars", DeadlineHandler.EXCEEDED)).isEqualTo(1);
+        assertThat(DeadlineContext.current()).isSameAs(Deadline.NONE);
+    }
+
+    @Test
+    public void expiredBeforeInvocation() throws Exception {
+        when(request.getHeader(DeadlineHandler.REQUEST_TIMEOUT_HEADER)).thenReturn("0");
+        final DeadlineProcessor processor = new DeadlineProcessor(0);
+        try {
+            new DeadlineHandler(processor).process(routeContext);
+            fail("expected the deadline to be exceeded");
+        } catch (final DeadlineExceededException e) {
+            assertThat(processor.invoked).isFalse();
+        }
+    }
+
+    @Test
+    public void endpointCancellationIsUnwrapped() throws Exception {
+        when(route.getDeadline()).thenReturn(Optional.of(20L));
+        final DeadlineHandler handler = new DeadlineHandler(new RouteProcessor() {
+            @Override
+            public InvocationResult process(final RouteContext routeContext) throws Exception {
+                Thread.sleep(50);
+                try {
+                    DeadlineContext.current().check();
+                } catch (final DeadlineExceededException e) {
+                    throw new InvocationTargetException(e);
+                }
+                return new InvocationResult("done", routeContext);
+            }
+        });
+        try {
+            handler.process(routeContext);
+            fail("expected the deadline to be exceeded");
+        } catch (final DeadlineExceededException e) {
+            assertThat(counters.get("/cars", DeadlineHandler.EXCEEDED)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void earliest() {
+        final Deadline later = Deadline.after(1, TimeUnit.MINUTES);
+        final Deadline sooner = Deadline.after(1, TimeUnit.SECONDS);
+        assertThat(later.earliest(sooner)).isSameAs(sooner);
+        assertThat(sooner.earliest(later)).isSameAs(sooner);
+        assertThat(sooner.earliest(Deadline.NONE)).isSameAs(sooner);
+        assertThat(Deadline.NONE.remaining(TimeUnit.MILLISECONDS)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    private static class DeadlineProcessor implements RouteProcessor {
+        private final long delay;
+        private boolean invoked;
+
+        DeadlineProcessor(final long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public InvocationResult process(final RouteContext routeContext) throws Exception {
+            invoked = true;
+            Thread.sleep(delay);
+            return new InvocationResult(DeadlineContext.current(), routeContext);
+        }
+    }
+
+}
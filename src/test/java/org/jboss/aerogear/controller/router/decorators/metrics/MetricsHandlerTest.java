@@ -0,0 +1,252 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.inject.Instance;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.metrics.PrometheusWriter;
+import org.jboss.aerogear.controller.metrics.RouteMetrics;
+import org.jboss.aerogear.controller.metrics.StageTimer;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.Router;
+import org.jboss.aerogear.controller.router.rest.ObjectMappers;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.base.Optional;
+
+public class MetricsHandlerTest {
+
+    @Mock
+    private Instance<MetricsConfiguration> metricsInstance;
+    @Mock
+    private Instance<SlowRequestConfiguration> slowRequestInstance;
+    @Mock
+    private Router delegate;
+    @Mock
+    private Route route;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private ServletContext servletContext;
+    @Mock
+    private FilterChain chain;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final RouteMetrics metrics = RouteMetrics.getInstance();
+
+    @Before
+    public void initMocks() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(metricsInstance.isUnsatisfied()).thenReturn(false);
+        when(metricsInstance.get()).thenReturn(MetricsConfig.enableMetrics().exportPath("/metrics").build());
+        when(slowRequestInstance.isUnsatisfied()).thenReturn(true);
+        when(request.getServletContext()).thenReturn(servletContext);
+        when(servletContext.getContextPath()).thenReturn("/app");
+        when(request.getRequestURI()).thenReturn("/app/cars");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getContentLength()).thenReturn(-1);
+        when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(final int b) {
+                body.write(b);
+            }
+        });
+        when(route.getPath()).thenReturn("/cars");
+        when(delegate.routeFor(request)).thenReturn(Optional.of(route));
+        metrics.reset();
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        when(metricsInstance.isUnsatisfied()).thenReturn(true);
+        final MetricsHandler handler = new MetricsHandler(delegate, metricsInstance, slowRequestInstance);
+        handler.dispatch(request, response, chain);
+        verify(delegate).dispatch(request, response, chain);
+        assertThat(metrics.getRoutes()).isEmpty();
+        when(request.getRequestURI()).thenReturn("/app/metrics");
+        assertThat(handler.hasRouteFor(request)).isFalse();
+    }
+
+    @Test
+    public void recordRequest() throws Exception {
+        when(request.getContentLength()).thenReturn(12);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final HttpServletResponse metered = (HttpServletResponse) invocation.getArguments()[1];
+                metered.getWriter().write("{\"brand\":\"Audi\"}");
+                return null;
+            }
+        }).when(delegate).dispatch(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+        new MetricsHandler(delegate, metricsInstance, slowRequestInstance).dispatch(request, response, chain);
+        final Map<String, Long> values = metrics.getMetrics().get("/cars");
+        assertThat(values.get("requests")).isEqualTo(1L);
+        assertThat(values.get("errors")).isEqualTo(0L);
+        assertThat(values.get("bytesIn")).isEqualTo(12L);
+        assertThat(values.get("bytesOut")).isEqualTo(16L);
+        assertThat(body.toString("UTF-8")).isEqualTo("{\"brand\":\"Audi\"}");
+    }
+
+    @Test
+    public void recordError() throws Exception {
+        doThrow(new ServletException("failed")).when(delegate).dispatch(any(HttpServletRequest.class),
+                any(HttpServletResponse.class), any(FilterChain.class));
+        try {
+            new MetricsHandler(delegate, metricsInstance, slowRequestInstance).dispatch(request, response, chain);
+            fail("expected the dispatch to fail");
+        } catch (final ServletException e) {
+            assertThat(metrics.getRoutes().get("/cars").getErrors()).isEqualTo(1);
+        }
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        final Router failing = mock(Router.class);
+        when(failing.routeFor(request)).thenReturn(Optional.of(route));
+        new MetricsHandler(failing, metricsInstance, slowRequestInstance).dispatch(request, response, chain);
+        assertThat(metrics.getRoutes().get("/cars").getRequests()).isEqualTo(2);
+        assertThat(metrics.getRoutes().get("/cars").getErrors()).isEqualTo(2);
+    }
+
+    @Test
+    public void export() throws Exception {
+        metrics.record("/cars", 3000000, false, 0, 100);
+        metrics.record("/cars", 300000000, true, 0, 100);
+        metrics.record("/say/\"hi\"", 1000, false, 0, 0);
+        when(request.getRequestURI()).thenReturn("/app/metrics");
+        final StringWriter out = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(out));
+        final MetricsHandler handler = new MetricsHandler(delegate, metricsInstance, slowRequestInstance);
+        assertThat(handler.hasRouteFor(request)).isTrue();
+        handler.dispatch(request, response, chain);
+        verify(response).setContentType(PrometheusWriter.CONTENT_TYPE);
+        final String text = out.toString();
+        assertThat(text).contains("# TYPE aerogear_request_duration_seconds histogram\n");
+        assertThat(text).contains("aerogear_request_duration_seconds_bucket{route=\"/cars\",le=\"0.0025\"} 0\n");
+        assertThat(text).contains("aerogear_request_duration_seconds_bucket{route=\"/cars\",le=\"0.005\"} 1\n");
+        assertThat(text).contains("aerogear_request_duration_seconds_bucket{route=\"/cars\",le=\"0.5\"} 2\n");
+        assertThat(text).contains("aerogear_request_duration_seconds_bucket{route=\"/cars\",le=\"+Inf\"} 2\n");
+        assertThat(text).contains("aerogear_request_duration_seconds_count{route=\"/cars\"} 2\n");
+        assertThat(text).contains("aerogear_requests_total{route=\"/cars\"} 2\n");
+        assertThat(text).contains("aerogear_request_errors_total{route=\"/cars\"} 1\n");
+        assertThat(text).contains("aerogear_response_bytes_total{route=\"/cars\"} 200\n");
+        assertThat(text).contains("aerogear_requests_total{route=\"/say/\\\"hi\\\"\"} 1\n");
+        assertThat(metrics.getRoutes()).hasSize(2);
+    }
+
+    @Test
+    public void exportWithMetricsDisabled() throws Exception {
+        final MetricsConfiguration exportOnly = mock(MetricsConfiguration.class);
+        when(exportOnly.isExportEnabled()).thenReturn(true);
+        when(exportOnly.getExportPath()).thenReturn("/metrics");
+        when(metricsInstance.get()).thenReturn(exportOnly);
+        when(request.getRequestURI()).thenReturn("/app/metrics");
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+        final MetricsHandler handler = new MetricsHandler(delegate, metricsInstance, slowRequestInstance);
+        assertThat(handler.hasRouteFor(request)).isTrue();
+        handler.dispatch(request, response, chain);
+        verify(response).setContentType(PrometheusWriter.CONTENT_TYPE);
+        verify(delegate, never()).dispatch(any(HttpServletRequest.class), any(HttpServletResponse.class),
+                any(FilterChain.class));
+    }
+
+    @Test
+    public void slowRequestLog() throws Exception {
+        when(metricsInstance.isUnsatisfied()).thenReturn(true);
+        when(slowRequestInstance.isUnsatisfied()).thenReturn(false);
+        when(slowRequestInstance.get()).thenReturn(
+                SlowRequestConfig.enableSlowRequestLog().threshold(0).threshold("/fast", 60000).path("/slow").build());
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                final HttpServletRequest req = (HttpServletRequest) invocation.getArguments()[0];
+                StageTimer.forRequest(req).recordArguments("", Collections.singletonMap("name", "Audi"));
+                Thread.sleep(2);
+                ((HttpServletResponse) invocation.getArguments()[1]).getWriter().write("ok");
+                return null;
+            }
+        }).when(delegate).dispatch(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable {
+                attributes.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(StageTimer.ATTRIBUTE)).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                return attributes.get(StageTimer.ATTRIBUTE);
+            }
+        });
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+        final MetricsHandler handler = new MetricsHandler(delegate, metricsInstance, slowRequestInstance);
+        handler.dispatch(request, response, chain);
+        when(route.getPath()).thenReturn("/fast");
+        handler.dispatch(request, response, chain);
+        assertThat(metrics.getRoutes()).isEmpty();
+
+        when(request.getRequestURI()).thenReturn("/app/slow");
+        assertThat(handler.hasRouteFor(request)).isTrue();
+        body.reset();
+        handler.dispatch(request, response, chain);
+        final List<?> logged = ObjectMappers.json().readValue(body.toByteArray(), List.class);
+        assertThat(logged).hasSize(1);
+        final Map<?, ?> slow = (Map<?, ?>) logged.get(0);
+        assertThat(slow.get("route")).isEqualTo("/cars");
+        assertThat(slow.get("reason")).isEqualTo("threshold");
+        assertThat(slow.get("status")).isEqualTo(200);
+        assertThat(slow.get("responseBytes")).isEqualTo(2);
+        assertThat(((Number) slow.get("durationMicros")).longValue()).isGreaterThanOrEqualTo(2000L);
+        assertThat((Map<?, ?>) slow.get("arguments")).isEqualTo(Collections.singletonMap("name", "String(4)"));
+        assertThat(((Map<?, ?>) slow.get("stageMicros")).keySet()).containsOnly("route", "bind", "invoke", "respond");
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.decorators.ratelimit;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.jboss.aerogear.controller.metrics.RouteCounters;
+import org.jboss.aerogear.controller.router.InvocationResult;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.RouteProcessor;
+import org.jboss.aerogear.controller.router.decorators.bulkhead.BulkheadHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+
+public class RateLimitHandlerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Mock
+    private Route route;
+    @Mock
+    private RouteContext routeContext;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final RouteCounters counters = RouteCounters.forName(RateLimitHandler.RATE_LIMIT_COUNTERS);
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(routeContext.getRoute()).thenReturn(route);
+        when(routeContext.getRequest()).thenReturn(request);
+        when(routeContext.getResponse()).thenReturn(response);
+        when(route.getPath()).thenReturn("/cars");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        counters.reset();
+    }
+
+    @Test
+    public void burstThenRefill() {
+        final RateLimit rateLimit = RateLimit.of(10, 1, TimeUnit.SECONDS).burst(3).build();
+        final long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        assertThat(rateLimit.tryAcquire("client", now).getRemaining()).isEqualTo(2);
+        assertThat(rateLimit.tryAcquire("client", now).getRemaining()).isEqualTo(1);
+        final RateLimit.Decision last = rateLimit.tryAcquire("client", now);
+        assertThat(last.isAllowed()).isTrue();
+        assertThat(last.getRemaining()).isEqualTo(0);
+        final RateLimit.Decision rejected = rateLimit.tryAcquire("client", now);
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getRetryAfterSeconds()).isEqualTo(1);
+        assertThat(rateLimit.tryAcquire("other", now).isAllowed()).isTrue();
+        assertThat(rateLimit.tryAcquire("client", now + 50 * MILLIS).isAllowed()).isFalse();
+        assertThat(rateLimit.tryAcquire("client", now + 100 * MILLIS).isAllowed()).isTrue();
+        final RateLimit.Decision refilled = rateLimit.tryAcquire("client", now + 1000 * MILLIS);
+        assertThat(refilled.isAllowed()).isTrue();
+        assertThat(refilled.getRemaining()).isEqualTo(2);
+    }
+
+    @Test
+    public void burstDefaultsToRequests() {
+        final RateLimit rateLimit = RateLimit.of(5, 1, TimeUnit.MINUTES).build();
+        assertThat(rateLimit.getBurst()).isEqualTo(5);
+        assertThat(rateLimit.getKeyName().isPresent()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRequests() {
+        RateLimit.of(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void noRateLimit() throws Exception {
+        when(route.getRateLimit()).thenReturn(Optional.<RateLimit> absent());
+        assertThat(new RateLimitHandler(new CountingProcessor()).process(routeContext).getResult()).isEqualTo("done");
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectWhenExceeded() throws Exception {
+        when(route.getRateLimit()).thenReturn(Optional.of(RateLimit.of(1, 1, TimeUnit.HOURS).build()));
+        final RateLimitHandler handler = new RateLimitHandler(new CountingProcessor());
+        handler.process(routeContext);
+        verify(response).setHeader(RateLimitHandler.LIMIT_HEADER, "1");
+        verify(response).setHeader(RateLimitHandler.REMAINING_HEADER, "0");
+        try {
+            handler.process(routeContext);
+            fail("expected the rate limit to be exceeded");
+        } catch (final RateLimitExceededException e) {
+            assertThat(e.getStatus()).isEqualTo(RateLimitExceededException.SC_TOO_MANY_REQUESTS);
+            assertThat(e.getMessage()).doesNotContain("10.0.0.1");
+        }
+        verify(response).setHeader(BulkheadHandler.RETRY_AFTER_HEADER, "3600");
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(counters.get("/cars", RateLimitHandler.REJECTED)).isEqualTo(1);
+    }
+
+    @Test
+    public void keyedByHeader() throws Exception {
+        when(route.getRateLimit()).thenReturn(
+                Optional.of(RateLimit.of(1, 1, TimeUnit.HOURS).keyedBy("X-Api-Key").build()));
+        final RateLimitHandler handler = new RateLimitHandler(new CountingProcessor());
+        when(request.getHeader("X-Api-Key")).thenReturn("first");
+        handler.process(routeContext);
+        when(request.getHeader("X-Api-Key")).thenReturn("second");
+        handler.process(routeContext);
+        assertThat(invocations.get()).isEqualTo(2);
+    }
+
+    private class CountingProcessor implements RouteProcessor {
+        @Override
+        public InvocationResult process(final RouteContext routeContext) throws Exception {
+            invocations.incrementAndGet();
+            return new InvocationResult("done", routeContext);
+        }
+    }
+
+}
@@ -20,6 +20,9 @@ package org.jboss.aerogear.controller.router.rest;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.jboss.aerogear.controller.router.rest.codec.JsonEntity;
+
+@JsonEntity
 public class Entity implements ResponseHeaders {
 
     private String name;
@@ -21,12 +21,15 @@ import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 
 import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.rest.encoding.RequestBodyTooLargeException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -60,8 +63,39 @@ public class JsonConsumerTest {
         assertThat(entity.getAge()).isEqualTo(44);
     }
 
+    @Test
+    public void unmarshallGzip() throws Exception {
+        final JsonConsumer consumer = new JsonConsumer();
+        final String json = "{\"name\":\"Fletch\", \"age\":\"44\"}";
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(from(gzip(json)));
+        final Entity entity = consumer.unmarshall(request, Entity.class);
+        assertThat(entity.getName()).isEqualTo("Fletch");
+        assertThat(entity.getAge()).isEqualTo(44);
+    }
+
+    @Test(expected = RequestBodyTooLargeException.class)
+    public void unmarshallGzipTooLarge() throws Exception {
+        final JsonConsumer consumer = new JsonConsumer(10);
+        when(request.getHeader("Content-Encoding")).thenReturn("gzip");
+        when(request.getInputStream()).thenReturn(from(gzip("{\"name\":\"Fletch\", \"age\":\"44\"}")));
+        consumer.unmarshall(request, Entity.class);
+    }
+
+    private byte[] gzip(final String json) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(json.getBytes());
+        gzip.close();
+        return out.toByteArray();
+    }
+
     private ServletInputStream from(final String json) {
-        final ByteArrayInputStream ba = new ByteArrayInputStream(json.getBytes());
+        return from(json.getBytes());
+    }
+
+    private ServletInputStream from(final byte[] bytes) {
+        final ByteArrayInputStream ba = new ByteArrayInputStream(bytes);
         return new ServletInputStream() {
             @Override
             public int read() throws IOException {
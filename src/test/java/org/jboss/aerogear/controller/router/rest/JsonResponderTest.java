@@ -41,6 +41,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.google.common.base.Optional;
+
 public class JsonResponderTest {
 
     @Mock
@@ -57,6 +59,7 @@ public class JsonResponderTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
+        when(route.getFields()).thenReturn(Optional.<String> absent());
     }
 
     @Test
@@ -89,6 +92,26 @@ public class JsonResponderTest {
         verify(response).setHeader("Entity-Age", "38");
     }
 
+    @Test
+    public void respondWithFields() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(request.getParameter("fields")).thenReturn("name");
+        new JsonResponder().respond(new Entity("Larry", 38), routeContext);
+        assertThat(stringWriter.toString()).isEqualTo("{\"name\":\"Larry\"}");
+    }
+
+    @Test
+    public void respondWithRouteDefaultFields() throws Exception {
+        final StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+        when(route.getFields()).thenReturn(Optional.of("age"));
+        new JsonResponder().respond(new Entity("Larry", 38), routeContext);
+        assertThat(stringWriter.toString()).isEqualTo("{\"age\":38}");
+    }
+
     @SuppressWarnings("rawtypes")
     @Test
     public void errorResponse() throws Exception {
@@ -0,0 +1,90 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.jboss.aerogear.controller.router.AeroGearException;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class SmileConsumerTest {
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void mediaType() {
+        assertThat(new SmileConsumer().mediaType()).isEqualTo(MediaType.SMILE.getType());
+    }
+
+    @Test
+    public void unmarshall() throws Exception {
+        final byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(new Entity("Fletch", 44));
+        when(request.getInputStream()).thenReturn(from(smile));
+        final Entity entity = new SmileConsumer().unmarshall(request, Entity.class);
+        assertThat(entity.getName()).isEqualTo("Fletch");
+        assertThat(entity.getAge()).isEqualTo(44);
+    }
+
+    @Test
+    public void smallerThanJson() throws Exception {
+        final Entity[] entities = new Entity[50];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = new Entity("Fletch", i);
+        }
+        final byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(entities);
+        final byte[] json = new ObjectMapper().writeValueAsBytes(entities);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test(expected = AeroGearException.class)
+    public void unmarshallJson() throws Exception {
+        when(request.getInputStream()).thenReturn(from("{\"name\":\"Fletch\", \"age\":\"44\"}".getBytes()));
+        new SmileConsumer().unmarshall(request, Entity.class);
+    }
+
+    private ServletInputStream from(final byte[] bytes) {
+        final ByteArrayInputStream ba = new ByteArrayInputStream(bytes);
+        return new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return ba.read();
+            }
+        };
+    }
+
+}
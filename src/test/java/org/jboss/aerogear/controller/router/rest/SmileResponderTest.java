@@ -0,0 +1,112 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.smile.SmileFactory;
+import org.jboss.aerogear.controller.router.MediaType;
+import org.jboss.aerogear.controller.router.RequestMethod;
+import org.jboss.aerogear.controller.router.Route;
+import org.jboss.aerogear.controller.router.RouteContext;
+import org.jboss.aerogear.controller.router.Routes;
+import org.jboss.aerogear.controller.router.error.ErrorResponseImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.base.Optional;
+
+public class SmileResponderTest {
+
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private Route route;
+    @Mock
+    private Routes routes;
+    @InjectMocks
+    private RouteContext routeContext;
+    private ByteArrayOutputStream out;
+
+    @Before
+    public void setup() throws IOException {
+        MockitoAnnotations.initMocks(this);
+        when(route.getFields()).thenReturn(Optional.<String> absent());
+        out = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+        });
+        when(request.getMethod()).thenReturn(RequestMethod.GET.toString());
+    }
+
+    @Test
+    public void accepts() {
+        assertThat(new SmileResponder().accepts(MediaType.SMILE.getType())).isTrue();
+        assertThat(new SmileResponder().accepts(MediaType.JSON.getType())).isFalse();
+    }
+
+    @Test
+    public void respond() throws Exception {
+        new SmileResponder().respond(new Entity("Larry", 38), routeContext);
+        verify(response).setContentType(MediaType.SMILE.getType());
+        verify(response, never()).setCharacterEncoding("UTF-8");
+        verify(response).setHeader("Entity-Name", "Larry");
+        final Entity entity = new ObjectMapper(new SmileFactory()).readValue(out.toByteArray(), Entity.class);
+        assertThat(entity.getName()).isEqualTo("Larry");
+        assertThat(entity.getAge()).isEqualTo(38);
+    }
+
+    @Test
+    public void respondOptions() throws Exception {
+        when(request.getMethod()).thenReturn(RequestMethod.OPTIONS.toString());
+        new SmileResponder().respond(new Entity("Larry", 38), routeContext);
+        assertThat(out.size()).isEqualTo(0);
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void errorResponse() throws Exception {
+        final ErrorResponseImpl errorResponse = new ErrorResponseImpl(HttpServletResponse.SC_NOT_FOUND, new Exception("not found"));
+        new SmileResponder().respond(errorResponse, routeContext);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+        final Map readValue = new ObjectMapper(new SmileFactory()).readValue(out.toByteArray(), Map.class);
+        assertThat(readValue.get("message")).isEqualTo("not found");
+    }
+
+}
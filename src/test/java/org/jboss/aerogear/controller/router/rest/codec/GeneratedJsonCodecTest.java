@@ -0,0 +1,175 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.codec;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.MapAssert.entry;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.jboss.aerogear.controller.router.rest.Entity;
+import org.jboss.aerogear.controller.router.rest.ObjectMappers;
+import org.junit.Test;
+
+public class GeneratedJsonCodecTest {
+
+    @Test
+    public void codecsRegistered() {
+        assertThat(ObjectMappers.generatedCodecTypes()).contains(Entity.class, Vehicle.class);
+        assertThat(ObjectMappers.generatedCodecTypes()).excludes(Machine.class);
+    }
+
+    @Test
+    public void codecsLoadedPerClassLoader() {
+        final ObjectMapper mapper = ObjectMappers.json();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[0], previous));
+        try {
+            assertThat(ObjectMappers.json()).isNotSameAs(mapper);
+            assertThat(ObjectMappers.json()).isSameAs(ObjectMappers.json());
+            assertThat(ObjectMappers.generatedCodecTypes()).contains(Entity.class, Vehicle.class);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+        assertThat(ObjectMappers.json()).isSameAs(mapper);
+    }
+
+    @Test
+    public void codec() {
+        final Vehicle_JsonCodec codec = new Vehicle_JsonCodec();
+        assertThat(codec.type()).isEqualTo(Vehicle.class);
+        assertThat(codec.serializer()).isNotNull();
+        assertThat(codec.deserializer()).isNotNull();
+    }
+
+    @Test
+    public void serializeSameAsReflection() throws Exception {
+        final Vehicle vehicle = vehicle();
+        final String generated = ObjectMappers.json().writeValueAsString(vehicle);
+        final String reflective = new ObjectMapper().writeValueAsString(vehicle);
+        final ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.readValue(generated, Map.class)).isEqualTo(mapper.readValue(reflective, Map.class));
+    }
+
+    @Test
+    public void serializeOrderAndNames() throws Exception {
+        final Vehicle vehicle = new Vehicle();
+        vehicle.setBrand("BMW");
+        vehicle.setSecret("s3cr3t");
+        assertThat(ObjectMappers.json().writeValueAsString(vehicle)).isEqualTo("{\"id\":0,\"brand\":\"BMW\","
+                + "\"electric\":false,\"doors\":null,\"weight\":0.0,\"category\":\"\\u0000\",\"colors\":null,"
+                + "\"mileage\":null,\"owner\":null,\"VIN\":null,\"description\":\"BMW (\\u0000)\"}");
+    }
+
+    @Test
+    public void subclassNotSerializedByParentCodec() throws Exception {
+        final Truck truck = new Truck();
+        truck.setBrand("Volvo");
+        truck.setPayload(12000);
+        final String generated = ObjectMappers.json().writeValueAsString(truck);
+        final ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.readValue(generated, Map.class)).includes(entry("payload", 12000), entry("brand", "Volvo"));
+        assertThat(mapper.readValue(generated, Map.class)).isEqualTo(
+                mapper.readValue(new ObjectMapper().writeValueAsString(truck), Map.class));
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        final byte[] json = ObjectMappers.json().writeValueAsBytes(vehicle());
+        assertVehicle(ObjectMappers.json().readValue(json, Vehicle.class));
+    }
+
+    @Test
+    public void roundTripSmile() throws Exception {
+        final byte[] smile = ObjectMappers.smile().writeValueAsBytes(vehicle());
+        assertVehicle(ObjectMappers.smile().readValue(smile, Vehicle.class));
+    }
+
+    @Test
+    public void deserializeCoercionsAndUnknownProperties() throws Exception {
+        final String json = "{\"id\":\"7\",\"unknown\":{\"nested\":[1,2]},\"electric\":\"true\",\"doors\":null,"
+                + "\"weight\":12,\"description\":\"ignored\",\"secret\":\"s3cr3t\",\"VIN\":\"WBA\"}";
+        final Vehicle vehicle = ObjectMappers.json().readValue(json, Vehicle.class);
+        assertThat(vehicle.getId()).isEqualTo(7L);
+        assertThat(vehicle.isElectric()).isTrue();
+        assertThat(vehicle.getDoors()).isNull();
+        assertThat(vehicle.getWeight()).isEqualTo(12.0);
+        assertThat(vehicle.getSecret()).isNull();
+        assertThat(vehicle.getVin()).isEqualTo("WBA");
+    }
+
+    @Test
+    public void propertyName() {
+        assertThat(JsonCodecProcessor.propertyName("Name")).isEqualTo("name");
+        assertThat(JsonCodecProcessor.propertyName("URL")).isEqualTo("url");
+        assertThat(JsonCodecProcessor.propertyName("URLValue")).isEqualTo("urlvalue");
+        assertThat(JsonCodecProcessor.propertyName("name")).isEqualTo("name");
+    }
+
+    private static Vehicle vehicle() {
+        final Vehicle vehicle = new Vehicle();
+        vehicle.setId(42);
+        vehicle.setBrand("BMW");
+        vehicle.setElectric(true);
+        vehicle.setDoors(5);
+        vehicle.setWeight(1450.5);
+        vehicle.setCategory('B');
+        vehicle.setColors(Arrays.asList("red", "blue"));
+        vehicle.setMileage(Collections.singletonMap("2012", 12000));
+        vehicle.setOwner(new Entity("Larry", 38));
+        vehicle.setSecret("s3cr3t");
+        vehicle.setVin("WBA");
+        return vehicle;
+    }
+
+    private static void assertVehicle(final Vehicle vehicle) {
+        assertThat(vehicle.getId()).isEqualTo(42L);
+        assertThat(vehicle.getBrand()).isEqualTo("BMW");
+        assertThat(vehicle.isElectric()).isTrue();
+        assertThat(vehicle.getDoors()).isEqualTo(5);
+        assertThat(vehicle.getWeight()).isEqualTo(1450.5);
+        assertThat(vehicle.getCategory()).isEqualTo('B');
+        assertThat(vehicle.getColors()).containsOnly("red", "blue");
+        assertThat(vehicle.getMileage().get("2012")).isEqualTo(12000);
+        assertThat(vehicle.getOwner().getName()).isEqualTo("Larry");
+        assertThat(vehicle.getSecret()).isNull();
+        assertThat(vehicle.getVin()).isEqualTo("WBA");
+    }
+
+    public static class Truck extends Vehicle {
+
+        private int payload;
+
+        public int getPayload() {
+            return payload;
+        }
+
+        public void setPayload(final int payload) {
+            this.payload = payload;
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.router.rest.codec;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonCodecProcessorTest {
+
+    private File output;
+
+    @Before
+    public void createOutput() throws Exception {
+        output = File.createTempFile("codecs", "");
+        output.delete();
+        output.mkdirs();
+    }
+
+    @After
+    public void deleteOutput() {
+        delete(output);
+    }
+
+    @Test
+    public void typeArgumentsOfSuperclassResolved() throws Exception {
+        assertThat(compile("test.Base", "package test; public class Base<T> { private T value; "
+                + "public T getValue() { return value; } public void setValue(T value) { this.value = value; } }",
+                "test.Car", "package test; @" + JsonEntity.class.getName() + " public class Car extends Base<String> {}"))
+                .isEmpty();
+        assertThat(new File(output, "test/Car_JsonCodec.class").exists()).isTrue();
+    }
+
+    @Test
+    public void unresolvedTypeVariable() throws Exception {
+        assertThat(compile("test.Car", "package test; @" + JsonEntity.class.getName() + " public class Car { "
+                + "public <T> T getValue() { return null; } }")).hasSize(1);
+    }
+
+    @Test
+    public void publicField() throws Exception {
+        assertThat(compile("test.Car", "package test; @" + JsonEntity.class.getName() + " public class Car { "
+                + "public String brand; }")).hasSize(1);
+    }
+
+    @Test
+    public void publicFieldOfSuperclass() throws Exception {
+        assertThat(compile("test.Base", "package test; public class Base { public String brand; }",
+                "test.Car", "package test; @" + JsonEntity.class.getName() + " public class Car extends Base {}"))
+                .hasSize(1);
+    }
+
+    @Test
+    public void unsupportedClassAnnotation() throws Exception {
+        assertThat(compile("test.Car", "package test; @" + JsonEntity.class.getName()
+                + " @org.codehaus.jackson.annotate.JsonIgnoreProperties({\"brand\"}) public class Car { "
+                + "public String getBrand() { return null; } }")).hasSize(1);
+    }
+
+    @Test
+    public void unsupportedAccessorAnnotation() throws Exception {
+        assertThat(compile("test.Car", "package test; @" + JsonEntity.class.getName() + " public class Car { "
+                + "@org.codehaus.jackson.map.annotate.JsonSerialize(include = "
+                + "org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion.NON_NULL) "
+                + "public String getBrand() { return null; } }")).hasSize(1);
+    }
+
+    @Test
+    public void annotatedField() throws Exception {
+        assertThat(compile("test.Car", "package test; @" + JsonEntity.class.getName() + " public class Car { "
+                + "@org.codehaus.jackson.annotate.JsonIgnore private String brand; "
+                + "public String getBrand() { return brand; } }")).hasSize(1);
+    }
+
+    private List<String> compile(final String... namesAndSources) {
+        final List<JavaFileObject> sources = new ArrayList<JavaFileObject>();
+        for (int i = 0; i < namesAndSources.length; i += 2) {
+            sources.add(new Source(namesAndSources[i], namesAndSources[i + 1]));
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final CompilationTask task = compiler.getTask(null, null, diagnostics, Arrays.asList("-classpath",
+                System.getProperty("java.class.path"), "-d", output.getPath(), "-s", output.getPath()), null, sources);
+        task.setProcessors(Arrays.asList(new JsonCodecProcessor()));
+        task.call();
+        final List<String> errors = new ArrayList<String>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        private final String source;
+
+        Source(final String name, final String source) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+}
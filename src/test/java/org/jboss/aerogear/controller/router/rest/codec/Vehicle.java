@@ -0,0 +1,130 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.codec;
+
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.annotate.JsonIgnore;
+import org.codehaus.jackson.annotate.JsonProperty;
+import org.jboss.aerogear.controller.router.rest.Entity;
+
+@JsonEntity
+public class Vehicle extends Machine {
+
+    private String brand;
+    private boolean electric;
+    private Integer doors;
+    private double weight;
+    private char category;
+    private List<String> colors;
+    private Map<String, Integer> mileage;
+    private Entity owner;
+    private String secret;
+    private String vin;
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(final String brand) {
+        this.brand = brand;
+    }
+
+    public boolean isElectric() {
+        return electric;
+    }
+
+    public void setElectric(final boolean electric) {
+        this.electric = electric;
+    }
+
+    public Integer getDoors() {
+        return doors;
+    }
+
+    public void setDoors(final Integer doors) {
+        this.doors = doors;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(final double weight) {
+        this.weight = weight;
+    }
+
+    public char getCategory() {
+        return category;
+    }
+
+    public void setCategory(final char category) {
+        this.category = category;
+    }
+
+    public List<String> getColors() {
+        return colors;
+    }
+
+    public void setColors(final List<String> colors) {
+        this.colors = colors;
+    }
+
+    public Map<String, Integer> getMileage() {
+        return mileage;
+    }
+
+    public void setMileage(final Map<String, Integer> mileage) {
+        this.mileage = mileage;
+    }
+
+    public Entity getOwner() {
+        return owner;
+    }
+
+    public void setOwner(final Entity owner) {
+        this.owner = owner;
+    }
+
+    @JsonIgnore
+    public String getSecret() {
+        return secret;
+    }
+
+    @JsonIgnore
+    public void setSecret(final String secret) {
+        this.secret = secret;
+    }
+
+    @JsonProperty("VIN")
+    public String getVin() {
+        return vin;
+    }
+
+    @JsonProperty("VIN")
+    public void setVin(final String vin) {
+        this.vin = vin;
+    }
+
+    public String getDescription() {
+        return brand + " (" + category + ")";
+    }
+
+}
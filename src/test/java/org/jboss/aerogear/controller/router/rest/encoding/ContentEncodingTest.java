@@ -0,0 +1,161 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.encoding;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+public class ContentEncodingTest {
+
+    private static final String CONTENT = "{\"name\":\"Fletch\", \"age\":\"44\"}";
+
+    @Test
+    public void parseMissingHeader() {
+        assertThat(ContentEncoding.parse(null)).isEmpty();
+    }
+
+    @Test
+    public void parseIdentity() {
+        assertThat(ContentEncoding.parse("identity")).isEmpty();
+    }
+
+    @Test
+    public void parseMultiple() {
+        assertThat(ContentEncoding.parse("deflate, X-GZIP")).isEqualTo(
+                Arrays.asList(ContentEncoding.DEFLATE, ContentEncoding.GZIP));
+    }
+
+    @Test(expected = UnsupportedContentEncodingException.class)
+    public void parseUnsupported() {
+        ContentEncoding.parse("br");
+    }
+
+    @Test
+    public void decodeNoEncoding() throws Exception {
+        final InputStream in = new ByteArrayInputStream(CONTENT.getBytes());
+        assertThat(ContentEncoding.decode(null, in, 10)).isSameAs(in);
+    }
+
+    @Test
+    public void decodeGzip() throws Exception {
+        final InputStream in = ContentEncoding.decode("gzip", new ByteArrayInputStream(gzip(CONTENT.getBytes())), 1024);
+        assertThat(read(in)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void decodeDeflate() throws Exception {
+        final InputStream in = ContentEncoding.decode("deflate", new ByteArrayInputStream(deflate(CONTENT.getBytes())), 1024);
+        assertThat(read(in)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void decodeMultiple() throws Exception {
+        final byte[] encoded = deflate(gzip(CONTENT.getBytes()));
+        final InputStream in = ContentEncoding.decode("gzip, deflate", new ByteArrayInputStream(encoded), 1024);
+        assertThat(read(in)).isEqualTo(CONTENT);
+    }
+
+    @Test(expected = ZipException.class)
+    public void decodeGzipCorruptTrailer() throws Exception {
+        final byte[] gzip = gzip(CONTENT.getBytes());
+        gzip[gzip.length - 5]++;
+        read(ContentEncoding.decode("gzip", new ByteArrayInputStream(gzip), 1024));
+    }
+
+    @Test(expected = ZipException.class)
+    public void decodeNotGzip() throws Exception {
+        ContentEncoding.decode("gzip", new ByteArrayInputStream(CONTENT.getBytes()), 1024);
+    }
+
+    @Test(expected = RequestBodyTooLargeException.class)
+    public void decodeExceedsMaxSize() throws Exception {
+        final byte[] zeros = new byte[1024 * 1024];
+        final byte[] gzip = gzip(zeros);
+        assertThat(gzip.length).isLessThan(2048);
+        read(ContentEncoding.decode("gzip", new ByteArrayInputStream(gzip), 64 * 1024));
+    }
+
+    @Test
+    public void decodeExactlyMaxSize() throws Exception {
+        final InputStream in = ContentEncoding.decode("gzip", new ByteArrayInputStream(gzip(CONTENT.getBytes())),
+                CONTENT.length());
+        assertThat(read(in)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void inflaterReturnedToPool() throws Exception {
+        final InflaterPool pool = InflaterPool.NOWRAP;
+        read(ContentEncoding.decode("gzip", new ByteArrayInputStream(gzip(CONTENT.getBytes())), 1024));
+        final int idle = pool.idle();
+        assertThat(idle).isGreaterThan(0);
+        final InputStream in = ContentEncoding.decode("gzip", new ByteArrayInputStream(gzip(CONTENT.getBytes())), 1024);
+        assertThat(pool.idle()).isEqualTo(idle - 1);
+        read(in);
+        assertThat(pool.idle()).isEqualTo(idle);
+    }
+
+    @Test
+    public void poolEndsInflatersWhenFull() {
+        final InflaterPool pool = new InflaterPool(true, 1);
+        pool.release(pool.acquire());
+        pool.release(new InflaterPool(true, 1).acquire());
+        assertThat(pool.idle()).isEqualTo(1);
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[16];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray());
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(content);
+        gzip.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(final byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DeflaterOutputStream deflate = new DeflaterOutputStream(out);
+        deflate.write(content);
+        deflate.close();
+        return out.toByteArray();
+    }
+
+}
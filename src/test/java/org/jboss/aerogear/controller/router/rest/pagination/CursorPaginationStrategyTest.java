@@ -0,0 +1,78 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.jboss.aerogear.controller.Car;
+import org.junit.Test;
+
+public class CursorPaginationStrategyTest {
+
+    @Test
+    public void encodeIsUrlSafe() {
+        final String cursor = CursorPaginationStrategy.encode('a', "??>>ü~");
+        assertThat(cursor).doesNotMatch(".*[+/=].*");
+        assertThat(CursorPaginationStrategy.decode(cursor)).isEqualTo("a:??>>ü~");
+    }
+
+    @Test
+    public void decode() {
+        assertThat(CursorPaginationStrategy.decode("YTowOQ")).isEqualTo("a:09");
+        assertThat(CursorPaginationStrategy.decode("YjoxMA")).isEqualTo("b:10");
+    }
+
+    @Test(expected = PaginationRequestException.class)
+    public void decodeInvalidCharacters() {
+        CursorPaginationStrategy.decode("YTo%wOQ");
+    }
+
+    @Test(expected = PaginationRequestException.class)
+    public void decodeUnknownDirection() {
+        CursorPaginationStrategy.decode(CursorPaginationStrategy.encode('x', "09"));
+    }
+
+    @Test
+    public void keyOfBean() {
+        assertThat(CursorPaginationStrategy.keyOf(new Car("red", "BMW"), "brand")).isEqualTo("BMW");
+    }
+
+    @Test
+    public void keyOfMap() {
+        assertThat(CursorPaginationStrategy.keyOf(Collections.singletonMap("id", 42), "id")).isEqualTo("42");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void keyOfMissingProperty() {
+        CursorPaginationStrategy.keyOf(new Car("red", "BMW"), "id");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void keyOfNullBeanProperty() {
+        CursorPaginationStrategy.keyOf(new Car("red", null), "brand");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void keyOfNullMapValue() {
+        CursorPaginationStrategy.keyOf(Collections.singletonMap("id", null), "id");
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.aerogear.controller.router.decorators.deadline.Deadline;
+import org.jboss.aerogear.controller.router.decorators.deadline.DeadlineContext;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class PrefetchCacheTest {
+
+    private static final List<Object> KEY = Arrays.<Object> asList("/cars", 10, 10, "blue");
+
+    @Test
+    public void takePrefetchedPage() throws Exception {
+        final PrefetchCache cache = new PrefetchCache(MoreExecutors.sameThreadExecutor());
+        cache.prefetch(KEY, page("page-2"), 10);
+        assertThat(cache.take(Arrays.<Object> asList("/cars", 10, 10, "blue")).get()).isEqualTo("page-2");
+    }
+
+    @Test
+    public void pageIsTakenOnlyOnce() throws Exception {
+        final PrefetchCache cache = new PrefetchCache(MoreExecutors.sameThreadExecutor());
+        cache.prefetch(KEY, page("page-2"), 10);
+        cache.take(KEY);
+        assertThat(cache.take(KEY).isPresent()).isFalse();
+    }
+
+    @Test
+    public void prefetchOnlyOncePerKey() throws Exception {
+        final PrefetchCache cache = new PrefetchCache(MoreExecutors.sameThreadExecutor());
+        final AtomicInteger invocations = new AtomicInteger();
+        final Callable<Object> loader = new Callable<Object>() {
+            @Override
+            public Object call() {
+                return invocations.incrementAndGet();
+            }
+        };
+        cache.prefetch(KEY, loader, 10);
+        cache.prefetch(KEY, loader, 10);
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void expiredPage() throws Exception {
+        final PrefetchCache cache = new PrefetchCache(MoreExecutors.sameThreadExecutor());
+        cache.prefetch(KEY, page("page-2"), 0);
+        assertThat(cache.take(KEY).isPresent()).isFalse();
+    }
+
+    @Test
+    public void failedPrefetch() throws Exception {
+        final PrefetchCache cache = new PrefetchCache(MoreExecutors.sameThreadExecutor());
+        cache.prefetch(KEY, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                throw new IllegalStateException("database down");
+            }
+        }, 10);
+        assertThat(cache.take(KEY).isPresent()).isFalse();
+    }
+
+    @Test
+    public void rejectedPrefetch() throws Exception {
+        final PrefetchCache cache = new PrefetchCache(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        cache.prefetch(KEY, page("page-2"), 10);
+        assertThat(cache.take(KEY).isPresent()).isFalse();
+    }
+
+    @Test
+    public void queuedPrefetchCancelled() throws Exception {
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        final PrefetchCache cache = new PrefetchCache(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                queued.add(command);
+            }
+        });
+        cache.prefetch(KEY, page("page-2"), 10);
+        assertThat(cache.take(KEY).isPresent()).isFalse();
+        assertThat(((Future<?>) queued.get(0)).isCancelled()).isTrue();
+    }
+
+    @Test
+    public void slowPrefetchBoundedByDeadline() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final PrefetchCache cache = new PrefetchCache(executor);
+        cache.prefetch(KEY, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                started.countDown();
+                release.await();
+                return "page-2";
+            }
+        }, 10);
+        started.await();
+        final Deadline previous = DeadlineContext.attach(Deadline.after(20, TimeUnit.MILLISECONDS));
+        try {
+            final long start = System.nanoTime();
+            assertThat(cache.take(KEY).isPresent()).isFalse();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(PrefetchCache.MAX_WAIT_MILLIS);
+        } finally {
+            DeadlineContext.detach(previous);
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static Callable<Object> page(final Object page) {
+        return new Callable<Object>() {
+            @Override
+            public Object call() {
+                return page;
+            }
+        };
+    }
+
+}
@@ -85,4 +85,12 @@ public class RequestPathParserTest {
         assertThat(path).isEqualTo("cars?brand=BMW&color=red&year=2013&offset=10&limit=20");
     }
 
+    @Test
+    public void replaceCursorWithoutQueryString() {
+        final PaginationInfo paginationInfo = PaginationInfo.offset(0).limit(10).build();
+        final RequestPathParser parser = new RequestPathParser(paginationInfo, "http://localhost/app/cars");
+        final String path = parser.replaceCursor("cursor", "YTowOQ", 10);
+        assertThat(path).isEqualTo("http://localhost/app/cars?cursor=YTowOQ&limit=10");
+    }
+
 }
@@ -0,0 +1,95 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.pagination;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class TotalCountsTest {
+
+    private static final Object[] ARGS = new Object[] { "blue" };
+
+    @Test
+    public void countIsCachedPerQuery() throws Exception {
+        final TotalCounts totalCounts = new TotalCounts(MoreExecutors.sameThreadExecutor(), 100);
+        final Counter counter = new Counter(42);
+        final Future<Integer> first = totalCounts.count(counter, "/cars", null, ARGS, 30);
+        assertThat(totalCounts.await(first).get()).isEqualTo(42);
+        assertThat(totalCounts.count(new Counter(42), "/cars", null, new Object[] { "blue" }, 30)).isSameAs(first);
+        assertThat(totalCounts.count(counter, "/cars", null, new Object[] { "red" }, 30)).isNotSameAs(first);
+        assertThat(totalCounts.count(counter, "/trucks", null, ARGS, 30)).isNotSameAs(first);
+        assertThat(totalCounts.count(counter, "/cars", "principal:alice", ARGS, 30)).isNotSameAs(first);
+        assertThat(counter.invocations.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void expiredCountIsRecounted() throws Exception {
+        final TotalCounts totalCounts = new TotalCounts(MoreExecutors.sameThreadExecutor(), 100);
+        final Counter counter = new Counter(42);
+        final Future<Integer> first = totalCounts.count(counter, "/cars", null, ARGS, 0);
+        assertThat(totalCounts.count(counter, "/cars", null, ARGS, 0)).isNotSameAs(first);
+        assertThat(counter.invocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void countNotCompletedInTime() throws Exception {
+        final TotalCounts totalCounts = new TotalCounts(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                // never runs the count
+            }
+        }, 1);
+        assertThat(totalCounts.await(totalCounts.count(new Counter(42), "/cars", null, ARGS, 30)).isPresent()).isFalse();
+    }
+
+    @Test
+    public void failedCount() throws Exception {
+        final TotalCounts totalCounts = new TotalCounts(MoreExecutors.sameThreadExecutor(), 100);
+        final CountProvider failing = new CountProvider() {
+            @Override
+            public int count(final Object... arguments) throws Exception {
+                throw new IllegalStateException("database down");
+            }
+        };
+        assertThat(totalCounts.await(totalCounts.count(failing, "/cars", null, ARGS, 30)).isPresent()).isFalse();
+    }
+
+    private static class Counter implements CountProvider {
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final int total;
+
+        Counter(final int total) {
+            this.total = total;
+        }
+
+        @Override
+        public int count(final Object... arguments) {
+            invocations.incrementAndGet();
+            return total;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.projection;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.jboss.aerogear.controller.router.rest.Entity;
+import org.jboss.aerogear.controller.router.rest.ObjectMappers;
+import org.jboss.aerogear.controller.router.rest.codec.Vehicle;
+import org.junit.Test;
+
+public class ProjectionFilterTest {
+
+    @Test
+    public void reflectiveBean() throws Exception {
+        assertThat(write("name,address(city)", person())).isEqualTo("{\"name\":\"Fletch\",\"address\":{\"city\":\"LA\"}}");
+    }
+
+    @Test
+    public void reflectiveCollection() throws Exception {
+        assertThat(write("addresses/street", person())).isEqualTo("{\"addresses\":[{\"street\":\"Main\"},{\"street\":\"Elm\"}]}");
+    }
+
+    @Test
+    public void rootCollection() throws Exception {
+        assertThat(write("name", Arrays.asList(person(), person()))).isEqualTo("[{\"name\":\"Fletch\"},{\"name\":\"Fletch\"}]");
+    }
+
+    @Test
+    public void generatedCodec() throws Exception {
+        final Vehicle vehicle = new Vehicle();
+        vehicle.setId(1);
+        vehicle.setBrand("BMW");
+        vehicle.setOwner(new Entity("Larry", 38));
+        assertThat(write("brand,owner(age)", vehicle)).isEqualTo("{\"brand\":\"BMW\",\"owner\":{\"age\":38}}");
+    }
+
+    @Test
+    public void unprojectedSerialization() throws Exception {
+        final ObjectMapper plain = new ObjectMapper();
+        final JsonNode expected = plain.readTree(plain.writeValueAsString(person()));
+        final JsonNode actual = plain.readTree(ObjectMappers.json().writeValueAsString(person()));
+        assertThat(actual.equals(expected)).isTrue();
+    }
+
+    @Test
+    public void excludedGetterNotInvoked() throws Exception {
+        final Person person = new Person() {
+            @Override
+            public List<Address> getAddresses() {
+                throw new IllegalStateException("should not be visited");
+            }
+        };
+        person.setName("Fletch");
+        assertThat(write("name", person)).isEqualTo("{\"name\":\"Fletch\"}");
+    }
+
+    private static String write(final String fields, final Object value) throws Exception {
+        return ObjectMappers.json().writer(new ProjectionFilter(Projection.parse(fields))).writeValueAsString(value);
+    }
+
+    private static Person person() {
+        final Person person = new Person();
+        person.setName("Fletch");
+        person.setAge(44);
+        person.setAddress(new Address("Main", "LA"));
+        person.setAddresses(Arrays.asList(new Address("Main", "LA"), new Address("Elm", "NY")));
+        return person;
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private Address address;
+        private List<Address> addresses;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(final int age) {
+            this.age = age;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(final Address address) {
+            this.address = address;
+        }
+
+        public List<Address> getAddresses() {
+            return addresses;
+        }
+
+        public void setAddresses(final List<Address> addresses) {
+            this.addresses = addresses;
+        }
+    }
+
+    public static class Address {
+        private final String street;
+        private final String city;
+
+        public Address(final String street, final String city) {
+            this.street = street;
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jboss.aerogear.controller.router.rest.projection;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ProjectionTest {
+
+    @Test
+    public void parse() {
+        final Projection projection = Projection.parse("id, name");
+        assertThat(projection.includes("id")).isTrue();
+        assertThat(projection.includes("name")).isTrue();
+        assertThat(projection.includes("age")).isFalse();
+        assertThat(projection.child("id")).isSameAs(Projection.ALL);
+    }
+
+    @Test
+    public void parseNested() {
+        final Projection projection = Projection.parse("id,owner(name,address(city))");
+        assertThat(projection.toString()).isEqualTo("id,owner(name,address(city))");
+        final Projection owner = projection.child("owner");
+        assertThat(owner.includes("name")).isTrue();
+        assertThat(owner.includes("age")).isFalse();
+        assertThat(owner.child("address").includes("city")).isTrue();
+        assertThat(owner.child("address").includes("street")).isFalse();
+    }
+
+    @Test
+    public void parseSlash() {
+        assertThat(Projection.parse("owner/address/city")).isEqualTo(Projection.parse("owner(address(city))"));
+    }
+
+    @Test
+    public void merge() {
+        assertThat(Projection.parse("owner(name),owner/age").toString()).isEqualTo("owner(name,age)");
+        assertThat(Projection.parse("owner(name),owner").child("owner")).isSameAs(Projection.ALL);
+    }
+
+    @Test
+    public void all() {
+        assertThat(Projection.ALL.includes("anything")).isTrue();
+        assertThat(Projection.ALL.child("anything")).isSameAs(Projection.ALL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseEmpty() {
+        Projection.parse(" ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseUnbalanced() {
+        Projection.parse("owner(name");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseTrailingComma() {
+        Projection.parse("id,");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseUnexpectedParenthesis() {
+        Projection.parse("id)");
+    }
+
+    @Test
+    public void parseCached() {
+        assertThat(Projections.parse("id,name")).isSameAs(Projections.parse("id,name"));
+    }
+
+    @Test(expected = InvalidProjectionException.class)
+    public void parseCachedInvalid() {
+        Projections.parse("owner(");
+    }
+
+}
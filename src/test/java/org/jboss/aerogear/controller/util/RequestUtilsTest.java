@@ -18,8 +18,10 @@
 package org.jboss.aerogear.controller.util;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.security.Principal;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,6 +30,7 @@ import java.util.Set;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 
 import org.jboss.aerogear.controller.router.MediaType;
 import org.jboss.aerogear.controller.router.RequestMethod;
@@ -69,6 +72,19 @@ public class RequestUtilsTest {
         assertThat(RequestUtils.extractPath(request)).isEqualTo("/cars/1");
     }
 
+    @Test
+    public void extractCaller() {
+        assertThat(RequestUtils.extractCaller(request)).isNull();
+        final HttpSession session = mock(HttpSession.class);
+        when(session.getId()).thenReturn("1234");
+        when(request.getSession(false)).thenReturn(session);
+        assertThat(RequestUtils.extractCaller(request)).isEqualTo("session:1234");
+        final Principal principal = mock(Principal.class);
+        when(principal.getName()).thenReturn("alice");
+        when(request.getUserPrincipal()).thenReturn(principal);
+        assertThat(RequestUtils.extractCaller(request)).isEqualTo("principal:alice");
+    }
+
     @Test
     public void extractMethod() {
         when(request.getMethod()).thenReturn("GET");
@@ -113,6 +129,13 @@ public class RequestUtilsTest {
         assertThat(RequestUtils.extractAcceptHeader(request).size()).isEqualTo(2);
     }
     
+    @Test
+    public void extractAcceptsHeaderWithSubtypeSymbols() {
+        when(request.getHeader("Accept")).thenReturn("application/x-jackson-smile, application/vnd.cars+json;q=0.5");
+        assertThat(RequestUtils.extractAcceptHeader(request)).containsOnly(MediaType.SMILE.getType(),
+                "application/vnd.cars+json");
+    }
+
     @Test
     public void extractAcceptsSubtypeAny() {
         when(request.getHeader("Accept")).thenReturn("text/*");
@@ -130,6 +153,27 @@ public class RequestUtilsTest {
         assertThat(RequestUtils.acceptsMediaType(acceptHeaders("*/*, application/json"), produces(MediaType.HTML))).isTrue();
     }
     
+    @Test
+    public void negotiateSmileForJsonRoute() {
+        when(request.getHeader("Accept")).thenReturn("application/x-jackson-smile");
+        assertThat(RequestUtils.getNegotiatedMediaType(request, produces(MediaType.JSON))).isEqualTo(MediaType.SMILE.getType());
+        assertThat(RequestUtils.acceptsMediaType(RequestUtils.extractAcceptHeader(request), produces(MediaType.JSON))).isTrue();
+    }
+
+    @Test
+    public void negotiateJsonForWildcards() {
+        when(request.getHeader("Accept")).thenReturn("application/*");
+        assertThat(RequestUtils.getNegotiatedMediaType(request, produces(MediaType.JSON))).isEqualTo(MediaType.JSON.getType());
+        when(request.getHeader("Accept")).thenReturn("*/*");
+        assertThat(RequestUtils.getNegotiatedMediaType(request, produces(MediaType.JSON))).isEqualTo(MediaType.JSON.getType());
+    }
+
+    @Test
+    public void negotiateSmileOnlyForJsonRoutes() {
+        when(request.getHeader("Accept")).thenReturn("application/x-jackson-smile");
+        assertThat(RequestUtils.getNegotiatedMediaType(request, produces(MediaType.HTML))).isNull();
+    }
+
     private Set<String> acceptHeaders(String... type) {
         when(request.getHeader("Accept")).thenReturn("text/*");
         return RequestUtils.extractAcceptHeader(request);
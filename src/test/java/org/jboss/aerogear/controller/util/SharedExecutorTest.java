@@ -0,0 +1,71 @@
+/**
+ * JBoss, Home of Professional Open Source
+ * Copyright Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.aerogear.controller.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SharedExecutorTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final SharedExecutor<ExecutorService> shared = new SharedExecutor<ExecutorService>() {
+        @Override
+        protected ExecutorService create() {
+            created.incrementAndGet();
+            return Executors.newSingleThreadExecutor();
+        }
+    };
+
+    @Test
+    public void createdLazilyOnce() {
+        assertThat(shared.isCreated()).isFalse();
+        final ExecutorService executor = shared.get();
+        assertThat(shared.get()).isSameAs(executor);
+        assertThat(created.get()).isEqualTo(1);
+        shared.shutdown();
+    }
+
+    @Test
+    public void shutdownAll() {
+        final ExecutorService executor = shared.get();
+        SharedExecutor.shutdownAll();
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(shared.isCreated()).isFalse();
+    }
+
+    @Test
+    public void createdAgainAfterShutdown() throws Exception {
+        final ExecutorService executor = shared.get();
+        shared.shutdown();
+        final ExecutorService recreated = shared.get();
+        assertThat(recreated).isNotSameAs(executor);
+        assertThat(recreated.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, "done").get()).isEqualTo("done");
+        assertThat(created.get()).isEqualTo(2);
+        shared.shutdown();
+    }
+
+}